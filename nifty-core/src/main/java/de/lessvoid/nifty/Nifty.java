@@ -22,7 +22,6 @@ import org.bushe.swing.event.EventServiceExistsException;
 import org.bushe.swing.event.EventServiceLocator;
 import org.bushe.swing.event.EventTopicSubscriber;
 import org.bushe.swing.event.ProxySubscriber;
-import org.bushe.swing.event.ThreadSafeEventService;
 import org.bushe.swing.event.annotation.ReferenceStrength;
 
 import de.lessvoid.nifty.controls.StandardControl;
@@ -31,6 +30,7 @@ import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.elements.ElementMoveAction;
 import de.lessvoid.nifty.elements.ElementRemoveAction;
 import de.lessvoid.nifty.elements.EndOfFrameElementAction;
+import de.lessvoid.nifty.elements.tools.TextBreakCache;
 import de.lessvoid.nifty.input.NiftyMouseInputEvent;
 import de.lessvoid.nifty.input.keyboard.KeyboardInputEvent;
 import de.lessvoid.nifty.input.mouse.MouseInputEventProcessor;
@@ -91,6 +91,8 @@ public class Nifty {
   private String currentLoaded;
   private boolean exit;
   private boolean resolutionChanged;
+  private boolean renderNeeded = true;
+  private Screen lastRenderedScreen;
   private TimeProvider timeProvider;
   private final Set<String> closedPopups = new HashSet<String>();
   private List < ClosePopUp > closePopupList = new ArrayList < ClosePopUp >();
@@ -117,6 +119,9 @@ public class Nifty {
   private boolean debugOptionPanelColors;
   private Clipboard clipboard = null;
   private NiftyResourceLoader resourceLoader = new NiftyResourceLoader();
+  private TextBreakCache textBreakCache = new TextBreakCache();
+  private final NiftyFrameStats frameStats = new NiftyFrameStats();
+  private NiftyFrameStatsListener frameStatsListener;
 
   /*
    * when set to true Nifty will ignore all mouse events.
@@ -128,6 +133,16 @@ public class Nifty {
    */
   private boolean ignoreKeyboardEvents;
 
+  /**
+   * When enabled consecutive mouse move events are merged into a single one.
+   */
+  private boolean coalesceMouseMoveEvents;
+
+  /**
+   * When enabled the elements reuse their mouse event instances.
+   */
+  private boolean reuseMouseEvents;
+
   /**
    * Create nifty with optional console parameter.
    * @param newRenderDevice the RenderDevice
@@ -222,7 +237,7 @@ public class Nifty {
   }
 
   private void initalizeEventBus() throws EventServiceExistsException {
-    EventServiceLocator.setEventService("NiftyEventBus", new ThreadSafeEventService());
+    EventServiceLocator.setEventService("NiftyEventBus", new NiftyEventService());
   }
 
   public EventService getEventService() {
@@ -236,6 +251,23 @@ public class Nifty {
     }
   }
 
+  /**
+   * Check if an event published for the given id would be delivered to any subscriber. This can be used to avoid
+   * creating an event that nobody listens to.
+   * @param id the id of the element
+   * @return true when there is at least one subscriber for the id and false if not
+   */
+  public boolean hasSubscribers(final String id) {
+    if (id == null) {
+      return false;
+    }
+    EventService eventService = getEventService();
+    if (eventService instanceof NiftyEventService) {
+      return ((NiftyEventService) eventService).hasSubscribers(id);
+    }
+    return !eventService.getSubscribers(id).isEmpty();
+  }
+
   public void subscribeAnnotations(final Object object) {
     NiftyEventAnnotationProcessor.process(object);
   }
@@ -285,15 +317,30 @@ public class Nifty {
    * @return true when nifty has finished processing the screen and false when rendering should continue.
    */
   public boolean update() {
+    long start = System.nanoTime();
     if (!currentScreen.isNull()) {
       mouseInputEventProcessor.begin();
       inputSystem.forwardEvents(niftyInputConsumer);
+      niftyInputConsumer.endOfEvents();
       if (mouseInputEventProcessor.hasLastMouseDownEvent()) {
         forwardMouseEventToScreen(mouseInputEventProcessor.getLastMouseDownEvent());
       }
     }
+    long inputDone = System.nanoTime();
     handleDynamicElements();
+    long dynamicElementsDone = System.nanoTime();
+    if (!currentScreen.isNull()) {
+      currentScreen.processScheduledLayout();
+    }
+    long layoutDone = System.nanoTime();
     updateSoundSystem();
+    long soundDone = System.nanoTime();
+    frameStats.setUpdateTimes(
+        inputDone - start,
+        dynamicElementsDone - inputDone,
+        layoutDone - dynamicElementsDone,
+        soundDone - layoutDone,
+        soundDone - start);
     if (log.isLoggable(Level.FINEST)) {
       log.finest(currentScreen.debugOutput());
     } else if (log.isLoggable(Level.FINER)) {
@@ -315,6 +362,11 @@ public class Nifty {
    * @param clearScreen true if nifty should clean the screen and false when you've done that already.
    */
   public void render(final boolean clearScreen) {
+    long start = System.nanoTime();
+    int recordCount = renderEngine.getRecordCount();
+    int replayCount = renderEngine.getReplayCount();
+    renderNeeded = false;
+    lastRenderedScreen = currentScreen;
     renderEngine.beginFrame();
     if (clearScreen) {
       renderEngine.clear();
@@ -329,6 +381,15 @@ public class Nifty {
     }
     renderEngine.endFrame();
 
+    frameStats.setRenderResult(
+        System.nanoTime() - start,
+        renderEngine.getOutsideClipCount(),
+        renderEngine.getRecordCount() - recordCount,
+        renderEngine.getReplayCount() - replayCount);
+    if (frameStatsListener != null) {
+      frameStatsListener.frameRendered(frameStats);
+    }
+
     // now that the frame is complete we can reset the renderdevice in case of the resolution change
     if (resolutionChanged) {
       resolutionChanged = false;
@@ -336,6 +397,43 @@ public class Nifty {
     }
   }
 
+  /**
+   * The counters and timings of the last frame. The same instance is updated each frame.
+   * @return NiftyFrameStats
+   */
+  public NiftyFrameStats getFrameStats() {
+    return frameStats;
+  }
+
+  /**
+   * Register a listener that will be called at the end of each render() with the NiftyFrameStats of that frame.
+   * @param frameStatsListener the listener or null to remove the current listener
+   */
+  public void setFrameStatsListener(final NiftyFrameStatsListener frameStatsListener) {
+    this.frameStatsListener = frameStatsListener;
+  }
+
+  /**
+   * Check if the next call to render() would produce a different frame than the last one. A host that only renders
+   * Nifty can use this to skip rendering and presenting frames as long as the GUI is unchanged. You'll still need to
+   * call update() every frame so that input events are processed and effects get started.
+   * @return true when Nifty needs to be rendered again and false if the last frame rendered is still current
+   */
+  public boolean needsRender() {
+    if (renderNeeded || resolutionChanged || currentScreen != lastRenderedScreen) {
+      return true;
+    }
+    return !currentScreen.isNull() && currentScreen.needsRender();
+  }
+
+  /**
+   * Force needsRender() to return true until the next frame has been rendered. Call this when something that Nifty
+   * can't track has changed, for instance the state of a custom ElementRenderer.
+   */
+  public void invalidateRender() {
+    renderNeeded = true;
+  }
+
   private void updateSoundSystem() {
     long current = timeProvider.getMsTime();
     int delta = (int) (current - lastTime);
@@ -763,6 +861,7 @@ public class Nifty {
 
   private void displayResolutionChanged() {
     getRenderEngine().displayResolutionChanged();
+    invalidateRender();
 
     resetMouseInputEvents();
 
@@ -1315,6 +1414,14 @@ public class Nifty {
     return niftyMouse;
   }
 
+  /**
+   * The wrapped lines of texts that use line wrapping are shared between all elements of this Nifty instance.
+   * @return the TextBreakCache
+   */
+  public TextBreakCache getTextBreakCache() {
+    return textBreakCache;
+  }
+
   /**
    * This is now an inner class to make sure no one calls it from the outside directly.
    * All InputSystem processing should go through the InputSystem.
@@ -1331,8 +1438,63 @@ public class Nifty {
     private boolean button1Down = false;
     private boolean button2Down = false;
 
+    // the last mouse move event that has not been processed yet when coalesceMouseMoveEvents is enabled
+    private boolean pendingMouseMove = false;
+    private int pendingMouseX;
+    private int pendingMouseY;
+    private int pendingButton;
+    private boolean pendingButtonDown;
+    private int coalescedMouseMoveCount;
+
     @Override
     public boolean processMouseEvent(final int mouseX, final int mouseY, final int mouseWheel, final int button, final boolean buttonDown) {
+      if (coalesceMouseMoveEvents && isMouseMove(mouseWheel, button, buttonDown)) {
+        if (pendingMouseMove) {
+          coalescedMouseMoveCount++;
+        }
+        pendingMouseMove = true;
+        pendingMouseX = mouseX;
+        pendingMouseY = mouseY;
+        pendingButton = button;
+        pendingButtonDown = buttonDown;
+        return false;
+      }
+      processPendingMouseMove();
+      return forwardMouseEvent(mouseX, mouseY, mouseWheel, button, buttonDown);
+    }
+
+    /**
+     * Called after the InputSystem has forwarded all events of the current frame.
+     */
+    void endOfEvents() {
+      processPendingMouseMove();
+      frameStats.setCoalescedMouseMoveCount(coalescedMouseMoveCount);
+      coalescedMouseMoveCount = 0;
+    }
+
+    private void processPendingMouseMove() {
+      if (pendingMouseMove) {
+        pendingMouseMove = false;
+        forwardMouseEvent(pendingMouseX, pendingMouseY, 0, pendingButton, pendingButtonDown);
+      }
+    }
+
+    /**
+     * @return true when the event neither changes the button state nor the mouse wheel
+     */
+    private boolean isMouseMove(final int mouseWheel, final int button, final boolean buttonDown) {
+      if (mouseWheel != 0) {
+        return false;
+      }
+      switch (button) {
+        case 0: return buttonDown == button0Down;
+        case 1: return buttonDown == button1Down;
+        case 2: return buttonDown == button2Down;
+      }
+      return true;
+    }
+
+    private boolean forwardMouseEvent(final int mouseX, final int mouseY, final int mouseWheel, final int button, final boolean buttonDown) {
       boolean processed = false;
       if (!isIgnoreMouseEvents()) {
         processed = processEvent(createEvent(mouseX, mouseY, mouseWheel, button, buttonDown));
@@ -1346,6 +1508,7 @@ public class Nifty {
 
     @Override
     public boolean processKeyboardEvent(final KeyboardInputEvent keyEvent) {
+      processPendingMouseMove();
       boolean processed = false;
       if (!isIgnoreKeyboardEvents()) {
         if (!currentScreen.isNull()) {
@@ -1489,7 +1652,14 @@ public class Nifty {
    * @param option enable (true) or disable (false) this feature
    */
   public void setDebugOptionPanelColors(final boolean option) {
+    if (debugOptionPanelColors == option) {
+      return;
+    }
     this.debugOptionPanelColors = option;
+    for (Element layer : currentScreen.getLayerElements()) {
+      layer.invalidateRender();
+    }
+    invalidateRender();
   }
 
   /**
@@ -1500,6 +1670,24 @@ public class Nifty {
     return debugOptionPanelColors;
   }
 
+  /**
+   * Enable (true) or disable (false) retained rendering. When enabled the RenderDevice calls of each layer are recorded
+   * and simply replayed in the next frames as long as nothing in that layer changed and no effects are active. This is
+   * disabled by default because changes of custom ElementRenderer implementations can't be detected by Nifty.
+   * @param retainedRendering enable (true) or disable (false) this feature
+   */
+  public void setRetainedRendering(final boolean retainedRendering) {
+    renderEngine.setRetainedRendering(retainedRendering);
+    invalidateRender();
+  }
+
+  /**
+   * @return true when retained rendering is enabled and false if not
+   */
+  public boolean isRetainedRendering() {
+    return renderEngine.isRetainedRendering();
+  }
+
   /**
    * A helper method to call the special values replace method ${} syntax
    * @param value the value to perform the replace on
@@ -1588,14 +1776,17 @@ public class Nifty {
    */
   public void enableAutoScaling(final int baseResolutionX, final int baseResolutionY) {
     renderEngine.enableAutoScaling(baseResolutionX, baseResolutionY);
+    invalidateRender();
   }
 
   public void enableAutoScaling(final int baseResolutionX, final int baseResolutionY, final float scaleX, final float scaleY) {
     renderEngine.enableAutoScaling(baseResolutionX, baseResolutionY, scaleX, scaleY);
+    invalidateRender();
   }
 
   public void disableAutoScaling() {
     renderEngine.disableAutoScaling();
+    invalidateRender();
   }
 
   /**
@@ -1632,6 +1823,51 @@ public class Nifty {
     return ignoreKeyboardEvents;
   }
 
+  /**
+   * Enable (true) or disable (false) mouse move coalescing. When enabled consecutive mouse events that neither change
+   * the state of a mouse button nor the mouse wheel are merged and only the last one of them is processed. It is
+   * processed right before the next event that is not merged or at the end of the input processing of the current
+   * update() call. This way a mouse with a high polling rate causes one mouse move per frame instead of several.
+   *
+   * The NiftyInputConsumer returns false for the mouse move events it delays since it can't know at that point if
+   * the event will be processed. The number of merged events is available from NiftyFrameStats. This is disabled by
+   * default.
+   *
+   * @param coalesceMouseMoveEvents enable (true) or disable (false) this feature
+   */
+  public void setCoalesceMouseMoveEvents(final boolean coalesceMouseMoveEvents) {
+    this.coalesceMouseMoveEvents = coalesceMouseMoveEvents;
+  }
+
+  /**
+   * @return true when mouse move coalescing is enabled and false if not
+   */
+  public boolean isCoalesceMouseMoveEvents() {
+    return coalesceMouseMoveEvents;
+  }
+
+  /**
+   * Enable (true) or disable (false) the reuse of mouse events. When enabled each element publishes the same
+   * NiftyMouseEvent, NiftyMouseMovedEvent, NiftyMouseWheelEvent and NiftyMouse*ClickedMovedEvent instance again
+   * and again and only updates its values. An event is therefore only valid during the onEvent() call that
+   * received it. Subscribers must copy the values they need and must not keep a reference to the event. Since
+   * existing subscribers might keep events around this is disabled by default.
+   *
+   * Independent of this setting the elements only create mouse events when there is a subscriber for their id.
+   *
+   * @param reuseMouseEvents enable (true) or disable (false) this feature
+   */
+  public void setReuseMouseEvents(final boolean reuseMouseEvents) {
+    this.reuseMouseEvents = reuseMouseEvents;
+  }
+
+  /**
+   * @return true when mouse events are reused and false if not
+   */
+  public boolean isReuseMouseEvents() {
+    return reuseMouseEvents;
+  }
+
   public NiftyInputConsumerNotify getNiftyInputConsumerNotify() {
     return niftyInputConsumerNotify;
   }
@@ -0,0 +1,610 @@
+package de.lessvoid.nifty;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import org.bushe.swing.event.EventTopicSubscriber;
+import org.bushe.swing.event.ProxySubscriber;
+import org.bushe.swing.event.ThreadSafeEventService;
+import org.bushe.swing.event.VetoTopicEventListener;
+
+/**
+ * The EventService Nifty registers as "NiftyEventBus". Topic and pattern subscriptions are handled here without any
+ * locking: the subscribers of each topic are kept in an array that is replaced when the subscriptions change and the
+ * subscribers of all matching patterns are resolved only once per topic. Publishing an event to a topic therefore
+ * doesn't allocate anything and subscribers can subscribe or unsubscribe while an event is being delivered.
+ *
+ * Like Nifty itself this is meant to be used from a single thread. Subscribing works like it does with the
+ * ThreadSafeEventService: subscribe() keeps a weak reference to the subscriber, subscribing the same (proxied)
+ * subscriber to a topic again moves it to the end of the list and exceptions thrown by subscribers are logged.
+ *
+ * Only topics take this fast path. Class based events are still handled by the ThreadSafeEventService including its
+ * locking. The same is true for topics as soon as a topic veto listener is registered or event caching is enabled:
+ * all topic subscriptions are then handed over to the ThreadSafeEventService and are handled there from then on.
+ *
+ * @author void
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class NiftyEventService extends ThreadSafeEventService {
+  private static Logger log = Logger.getLogger(NiftyEventService.class.getName());
+  private static final Object[] EMPTY = new Object[0];
+
+  /**
+   * We keep the resolved subscribers of this many topics at most.
+   */
+  private static final int MAX_CACHED_TOPICS = 4096;
+
+  // a subscriber is either an EventTopicSubscriber or a WeakReference to one
+  private final Map<String, Object[]> topicSubscribers = new HashMap<String, Object[]>();
+  private final List<PatternSubscribers> patternSubscribers = new ArrayList<PatternSubscribers>();
+
+  // the subscribers of a topic including the subscribers of all patterns that match the topic
+  private final Map<String, Object[]> resolvedSubscribers = new HashMap<String, Object[]>();
+
+  // true when topics are handled by the ThreadSafeEventService because veto listeners or event caching are in use
+  private boolean delegateTopics;
+
+  @Override
+  public void publish(final String topic, final Object data) {
+    if (delegateTopics) {
+      super.publish(topic, data);
+      return;
+    }
+    if (topic == null) {
+      throw new IllegalArgumentException("Can't publish to null topic.");
+    }
+    Object[] subscribers = getResolvedSubscribers(topic);
+    boolean stale = false;
+    for (int i=0; i<subscribers.length; i++) {
+      EventTopicSubscriber subscriber = resolveLive(subscribers[i]);
+      if (subscriber == null) {
+        stale = true;
+        continue;
+      }
+      try {
+        subscriber.onEvent(topic, data);
+      } catch (RuntimeException e) {
+        log.log(Level.WARNING, "subscriber [" + subscriber + "] failed to process event [" + data + "] on topic [" + topic + "]", e);
+      }
+    }
+    if (stale) {
+      removeStaleSubscribers();
+    }
+  }
+
+  /**
+   * @return true when an event published to the topic would be delivered to at least one subscriber
+   */
+  public boolean hasSubscribers(final String topic) {
+    if (delegateTopics) {
+      List subscribers = super.getSubscribers(topic);
+      return subscribers != null && !subscribers.isEmpty();
+    }
+    Object[] subscribers = getResolvedSubscribers(topic);
+    for (int i=0; i<subscribers.length; i++) {
+      if (resolveLive(subscribers[i]) != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean subscribe(final String topic, final EventTopicSubscriber subscriber) {
+    if (delegateTopics) {
+      return super.subscribe(topic, subscriber);
+    }
+    checkSubscribe(topic, subscriber);
+    return subscribeToTopic(topic, new WeakReference<EventTopicSubscriber>(subscriber));
+  }
+
+  @Override
+  public boolean subscribeStrongly(final String topic, final EventTopicSubscriber subscriber) {
+    if (delegateTopics) {
+      return super.subscribeStrongly(topic, subscriber);
+    }
+    checkSubscribe(topic, subscriber);
+    return subscribeToTopic(topic, subscriber);
+  }
+
+  @Override
+  public boolean subscribe(final Pattern pattern, final EventTopicSubscriber subscriber) {
+    if (delegateTopics) {
+      return super.subscribe(pattern, subscriber);
+    }
+    checkSubscribe(pattern, subscriber);
+    return subscribeToPattern(pattern, new WeakReference<EventTopicSubscriber>(subscriber));
+  }
+
+  @Override
+  public boolean subscribeStrongly(final Pattern pattern, final EventTopicSubscriber subscriber) {
+    if (delegateTopics) {
+      return super.subscribeStrongly(pattern, subscriber);
+    }
+    checkSubscribe(pattern, subscriber);
+    return subscribeToPattern(pattern, subscriber);
+  }
+
+  @Override
+  public boolean unsubscribe(final String topic, final EventTopicSubscriber subscriber) {
+    if (delegateTopics) {
+      return super.unsubscribe(topic, subscriber);
+    }
+    if (topic == null || subscriber == null) {
+      return false;
+    }
+    Object[] subscribers = topicSubscribers.get(topic);
+    int index = indexOfSubscriber(subscribers, subscriber);
+    if (index == -1) {
+      return false;
+    }
+    setTopicSubscribers(topic, remove(subscribers, index, true));
+    return true;
+  }
+
+  @Override
+  public boolean unsubscribe(final String topic, final Object subscribedByProxy) {
+    if (delegateTopics) {
+      return super.unsubscribe(topic, subscribedByProxy);
+    }
+    if (topic == null || subscribedByProxy == null) {
+      return false;
+    }
+    Object[] subscribers = topicSubscribers.get(topic);
+    int index = indexOfProxySubscriber(subscribers, subscribedByProxy);
+    if (index == -1) {
+      return false;
+    }
+    setTopicSubscribers(topic, remove(subscribers, index, true));
+    return true;
+  }
+
+  @Override
+  public boolean unsubscribe(final Pattern pattern, final EventTopicSubscriber subscriber) {
+    if (delegateTopics) {
+      return super.unsubscribe(pattern, subscriber);
+    }
+    if (pattern == null || subscriber == null) {
+      return false;
+    }
+    PatternSubscribers entry = findPattern(pattern);
+    if (entry == null) {
+      return false;
+    }
+    int index = indexOfSubscriber(entry.subscribers, subscriber);
+    if (index == -1) {
+      return false;
+    }
+    setPatternSubscribers(entry, remove(entry.subscribers, index, true));
+    return true;
+  }
+
+  @Override
+  public boolean unsubscribe(final Pattern pattern, final Object subscribedByProxy) {
+    if (delegateTopics) {
+      return super.unsubscribe(pattern, subscribedByProxy);
+    }
+    if (pattern == null || subscribedByProxy == null) {
+      return false;
+    }
+    PatternSubscribers entry = findPattern(pattern);
+    if (entry == null) {
+      return false;
+    }
+    int index = indexOfProxySubscriber(entry.subscribers, subscribedByProxy);
+    if (index == -1) {
+      return false;
+    }
+    setPatternSubscribers(entry, remove(entry.subscribers, index, true));
+    return true;
+  }
+
+  @Override
+  public List getSubscribers(final String topic) {
+    if (delegateTopics) {
+      return super.getSubscribers(topic);
+    }
+    List<EventTopicSubscriber> result = new ArrayList<EventTopicSubscriber>();
+    addResolved(result, topicSubscribers.get(topic));
+    addPatternSubscribers(result, topic);
+    return result;
+  }
+
+  @Override
+  public List getSubscribersToTopic(final String topic) {
+    if (delegateTopics) {
+      return super.getSubscribersToTopic(topic);
+    }
+    List<EventTopicSubscriber> result = new ArrayList<EventTopicSubscriber>();
+    addResolved(result, topicSubscribers.get(topic));
+    return result;
+  }
+
+  @Override
+  public List getSubscribers(final Pattern pattern) {
+    if (delegateTopics) {
+      return super.getSubscribers(pattern);
+    }
+    List<EventTopicSubscriber> result = new ArrayList<EventTopicSubscriber>();
+    PatternSubscribers entry = findPattern(pattern);
+    if (entry != null) {
+      addResolved(result, entry.subscribers);
+    }
+    return result;
+  }
+
+  @Override
+  public List getSubscribersByPattern(final String topic) {
+    if (delegateTopics) {
+      return super.getSubscribersByPattern(topic);
+    }
+    List<EventTopicSubscriber> result = new ArrayList<EventTopicSubscriber>();
+    addPatternSubscribers(result, topic);
+    return result;
+  }
+
+  @Override
+  public boolean subscribeVetoListener(final String topic, final VetoTopicEventListener vetoListener) {
+    delegateTopics();
+    return super.subscribeVetoListener(topic, vetoListener);
+  }
+
+  @Override
+  public boolean subscribeVetoListenerStrongly(final String topic, final VetoTopicEventListener vetoListener) {
+    delegateTopics();
+    return super.subscribeVetoListenerStrongly(topic, vetoListener);
+  }
+
+  @Override
+  public boolean subscribeVetoListener(final Pattern topicPattern, final VetoTopicEventListener vetoListener) {
+    delegateTopics();
+    return super.subscribeVetoListener(topicPattern, vetoListener);
+  }
+
+  @Override
+  public boolean subscribeVetoListenerStrongly(final Pattern topicPattern, final VetoTopicEventListener vetoListener) {
+    delegateTopics();
+    return super.subscribeVetoListenerStrongly(topicPattern, vetoListener);
+  }
+
+  @Override
+  public void setDefaultCacheSizePerTopic(final int defaultCacheSizePerTopic) {
+    if (defaultCacheSizePerTopic > 0) {
+      delegateTopics();
+    }
+    super.setDefaultCacheSizePerTopic(defaultCacheSizePerTopic);
+  }
+
+  @Override
+  public void setCacheSizeForTopic(final String topicName, final int cacheSize) {
+    if (cacheSize > 0) {
+      delegateTopics();
+    }
+    super.setCacheSizeForTopic(topicName, cacheSize);
+  }
+
+  @Override
+  public void setCacheSizeForTopic(final Pattern pattern, final int cacheSize) {
+    if (cacheSize > 0) {
+      delegateTopics();
+    }
+    super.setCacheSizeForTopic(pattern, cacheSize);
+  }
+
+  @Override
+  public void clearAllSubscribers() {
+    topicSubscribers.clear();
+    patternSubscribers.clear();
+    resolvedSubscribers.clear();
+    super.clearAllSubscribers();
+  }
+
+  /**
+   * Hand all topic and pattern subscriptions over to the ThreadSafeEventService. Topics are handled there from now on.
+   */
+  private void delegateTopics() {
+    if (delegateTopics) {
+      return;
+    }
+    delegateTopics = true;
+    for (Map.Entry<String, Object[]> entry : topicSubscribers.entrySet()) {
+      Object[] subscribers = entry.getValue();
+      for (int i=0; i<subscribers.length; i++) {
+        EventTopicSubscriber subscriber = resolveLive(subscribers[i]);
+        if (subscriber == null) {
+          continue;
+        }
+        if (subscribers[i] instanceof WeakReference) {
+          super.subscribe(entry.getKey(), subscriber);
+        } else {
+          super.subscribeStrongly(entry.getKey(), subscriber);
+        }
+      }
+    }
+    for (int i=0; i<patternSubscribers.size(); i++) {
+      PatternSubscribers entry = patternSubscribers.get(i);
+      for (int j=0; j<entry.subscribers.length; j++) {
+        EventTopicSubscriber subscriber = resolveLive(entry.subscribers[j]);
+        if (subscriber == null) {
+          continue;
+        }
+        if (entry.subscribers[j] instanceof WeakReference) {
+          super.subscribe(entry.pattern, subscriber);
+        } else {
+          super.subscribeStrongly(entry.pattern, subscriber);
+        }
+      }
+    }
+    topicSubscribers.clear();
+    patternSubscribers.clear();
+    resolvedSubscribers.clear();
+    log.fine("topic veto listeners or event caching in use, topics are handled by the ThreadSafeEventService now");
+  }
+
+  private Object[] getResolvedSubscribers(final String topic) {
+    Object[] result = resolvedSubscribers.get(topic);
+    if (result != null) {
+      return result;
+    }
+    result = topicSubscribers.get(topic);
+    if (result == null) {
+      result = EMPTY;
+    }
+    for (int i=0; i<patternSubscribers.size(); i++) {
+      PatternSubscribers entry = patternSubscribers.get(i);
+      if (entry.pattern.matcher(topic).matches()) {
+        result = concat(result, entry.subscribers);
+      }
+    }
+    if (resolvedSubscribers.size() >= MAX_CACHED_TOPICS) {
+      resolvedSubscribers.clear();
+    }
+    resolvedSubscribers.put(topic, result);
+    return result;
+  }
+
+  private boolean subscribeToTopic(final String topic, final Object subscriber) {
+    Object[] subscribers = topicSubscribers.get(topic);
+    int index = indexOfRealSubscriber(subscribers, getRealSubscriber(subscriber));
+    if (index != -1) {
+      subscribers = remove(subscribers, index, false);
+    }
+    setTopicSubscribers(topic, append(subscribers, subscriber));
+    return index == -1;
+  }
+
+  private boolean subscribeToPattern(final Pattern pattern, final Object subscriber) {
+    PatternSubscribers entry = findPattern(pattern);
+    if (entry == null) {
+      entry = new PatternSubscribers(pattern);
+      patternSubscribers.add(entry);
+    }
+    int index = indexOfRealSubscriber(entry.subscribers, getRealSubscriber(subscriber));
+    Object[] subscribers = entry.subscribers;
+    if (index != -1) {
+      subscribers = remove(subscribers, index, false);
+    }
+    setPatternSubscribers(entry, append(subscribers, subscriber));
+    return index == -1;
+  }
+
+  private void setTopicSubscribers(final String topic, final Object[] subscribers) {
+    if (subscribers.length == 0) {
+      topicSubscribers.remove(topic);
+    } else {
+      topicSubscribers.put(topic, subscribers);
+    }
+    resolvedSubscribers.remove(topic);
+  }
+
+  private void setPatternSubscribers(final PatternSubscribers entry, final Object[] subscribers) {
+    entry.subscribers = subscribers;
+    if (subscribers.length == 0) {
+      patternSubscribers.remove(entry);
+    }
+    resolvedSubscribers.clear();
+  }
+
+  private PatternSubscribers findPattern(final Pattern pattern) {
+    for (int i=0; i<patternSubscribers.size(); i++) {
+      PatternSubscribers entry = patternSubscribers.get(i);
+      if (entry.pattern.pattern().equals(pattern.pattern())) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private void removeStaleSubscribers() {
+    for (String topic : new ArrayList<String>(topicSubscribers.keySet())) {
+      setTopicSubscribers(topic, removeStale(topicSubscribers.get(topic)));
+    }
+    for (int i=patternSubscribers.size() - 1; i>=0; i--) {
+      PatternSubscribers entry = patternSubscribers.get(i);
+      setPatternSubscribers(entry, removeStale(entry.subscribers));
+    }
+    resolvedSubscribers.clear();
+  }
+
+  private void addPatternSubscribers(final List<EventTopicSubscriber> result, final String topic) {
+    for (int i=0; i<patternSubscribers.size(); i++) {
+      PatternSubscribers entry = patternSubscribers.get(i);
+      if (entry.pattern.matcher(topic).matches()) {
+        addResolved(result, entry.subscribers);
+      }
+    }
+  }
+
+  private static void addResolved(final List<EventTopicSubscriber> result, final Object[] subscribers) {
+    if (subscribers == null) {
+      return;
+    }
+    for (int i=0; i<subscribers.length; i++) {
+      EventTopicSubscriber subscriber = resolveLive(subscribers[i]);
+      if (subscriber != null) {
+        result.add(subscriber);
+      }
+    }
+  }
+
+  private static EventTopicSubscriber resolve(final Object subscriber) {
+    if (subscriber instanceof WeakReference) {
+      return (EventTopicSubscriber) ((WeakReference<?>) subscriber).get();
+    }
+    return (EventTopicSubscriber) subscriber;
+  }
+
+  /**
+   * Like resolve() but a ProxySubscriber that lost the (weakly referenced) subscriber it proxies is treated as stale.
+   */
+  private static EventTopicSubscriber resolveLive(final Object subscriber) {
+    EventTopicSubscriber result = resolve(subscriber);
+    if (result instanceof ProxySubscriber && ((ProxySubscriber) result).getProxiedSubscriber() == null) {
+      return null;
+    }
+    return result;
+  }
+
+  /**
+   * The object a subscription is compared with when the same subscriber is subscribed again.
+   */
+  private static Object getRealSubscriber(final Object subscriber) {
+    Object result = resolve(subscriber);
+    if (result instanceof ProxySubscriber) {
+      return ((ProxySubscriber) result).getProxiedSubscriber();
+    }
+    return result;
+  }
+
+  private static int indexOfRealSubscriber(final Object[] subscribers, final Object realSubscriber) {
+    if (subscribers == null || realSubscriber == null) {
+      return -1;
+    }
+    for (int i=0; i<subscribers.length; i++) {
+      if (realSubscriber.equals(getRealSubscriber(subscribers[i]))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Find the subscriber itself. When it isn't found we look for a ProxySubscriber or WeakReference of it.
+   */
+  private static int indexOfSubscriber(final Object[] subscribers, final Object subscriber) {
+    if (subscribers == null) {
+      return -1;
+    }
+    for (int i=0; i<subscribers.length; i++) {
+      if (subscriber.equals(subscribers[i])) {
+        return i;
+      }
+    }
+    for (int i=0; i<subscribers.length; i++) {
+      Object existing = resolve(subscribers[i]);
+      if (existing == subscriber) {
+        return i;
+      }
+      if (existing instanceof ProxySubscriber && ((ProxySubscriber) existing).getProxiedSubscriber() == subscriber) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int indexOfProxySubscriber(final Object[] subscribers, final Object subscribedByProxy) {
+    if (subscribers == null) {
+      return -1;
+    }
+    for (int i=0; i<subscribers.length; i++) {
+      Object existing = resolve(subscribers[i]);
+      if (existing instanceof ProxySubscriber && ((ProxySubscriber) existing).getProxiedSubscriber() == subscribedByProxy) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return a copy of the array without the element at the given index
+   */
+  private static Object[] remove(final Object[] subscribers, final int index, final boolean notifyProxy) {
+    Object removed = resolve(subscribers[index]);
+    Object[] result = new Object[subscribers.length - 1];
+    System.arraycopy(subscribers, 0, result, 0, index);
+    System.arraycopy(subscribers, index + 1, result, index, subscribers.length - index - 1);
+    if (notifyProxy && removed instanceof ProxySubscriber) {
+      ((ProxySubscriber) removed).proxyUnsubscribed();
+    }
+    return result;
+  }
+
+  private static Object[] removeStale(final Object[] subscribers) {
+    int count = 0;
+    for (int i=0; i<subscribers.length; i++) {
+      if (resolveLive(subscribers[i]) != null) {
+        count++;
+      }
+    }
+    if (count == subscribers.length) {
+      return subscribers;
+    }
+    Object[] result = new Object[count];
+    count = 0;
+    for (int i=0; i<subscribers.length; i++) {
+      if (resolveLive(subscribers[i]) != null) {
+        result[count++] = subscribers[i];
+      } else {
+        Object stale = resolve(subscribers[i]);
+        if (stale instanceof ProxySubscriber) {
+          ((ProxySubscriber) stale).proxyUnsubscribed();
+        }
+      }
+    }
+    return result;
+  }
+
+  private static Object[] append(final Object[] subscribers, final Object subscriber) {
+    if (subscribers == null) {
+      return new Object[] { subscriber };
+    }
+    Object[] result = new Object[subscribers.length + 1];
+    System.arraycopy(subscribers, 0, result, 0, subscribers.length);
+    result[subscribers.length] = subscriber;
+    return result;
+  }
+
+  private static Object[] concat(final Object[] a, final Object[] b) {
+    if (a.length == 0) {
+      return b;
+    }
+    Object[] result = new Object[a.length + b.length];
+    System.arraycopy(a, 0, result, 0, a.length);
+    System.arraycopy(b, 0, result, a.length, b.length);
+    return result;
+  }
+
+  private static void checkSubscribe(final Object topicOrPattern, final EventTopicSubscriber subscriber) {
+    if (topicOrPattern == null) {
+      throw new IllegalArgumentException("Topic or pattern must not be null.");
+    }
+    if (subscriber == null) {
+      throw new IllegalArgumentException("Subscriber must not be null.");
+    }
+  }
+
+  private static class PatternSubscribers {
+    private final Pattern pattern;
+    private Object[] subscribers = EMPTY;
+
+    private PatternSubscribers(final Pattern pattern) {
+      this.pattern = pattern;
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package de.lessvoid.nifty;
+
+/**
+ * Counters and timings of the last frame. Nifty fills the timings of update() and render() as well as the counters of
+ * the NiftyRenderEngine. RenderDevice implementations can fill the device counters with setRenderDeviceCounts() when
+ * you hand them the instance returned by Nifty.getFrameStats() (see BatchRenderDevice.setFrameStats()).
+ *
+ * The instance is reused every frame. Copy the values you'd like to keep.
+ *
+ * @author void
+ */
+public class NiftyFrameStats {
+  private long frame;
+
+  private long inputNanos;
+  private int coalescedMouseMoveCount;
+  private long dynamicElementsNanos;
+  private long layoutNanos;
+  private long soundNanos;
+  private long updateNanos;
+  private long renderNanos;
+
+  private int outsideClipCount;
+  private int recordCount;
+  private int replayCount;
+
+  private int quadCount;
+  private int glyphCount;
+  private int batchCount;
+  private int clippedQuadCount;
+  private int savedBatchCount;
+
+  /**
+   * @return the number of frames rendered so far
+   */
+  public long getFrame() {
+    return frame;
+  }
+
+  /**
+   * @return the time spent to process the input events during Nifty.update() in nanoseconds
+   */
+  public long getInputNanos() {
+    return inputNanos;
+  }
+
+  /**
+   * @return the number of mouse move events that have been merged with a later mouse move event during Nifty.update()
+   * (see Nifty.setCoalesceMouseMoveEvents())
+   */
+  public int getCoalescedMouseMoveCount() {
+    return coalescedMouseMoveCount;
+  }
+
+  /**
+   * @return the time spent to add, remove and move elements and to close popups during Nifty.update() in nanoseconds
+   */
+  public long getDynamicElementsNanos() {
+    return dynamicElementsNanos;
+  }
+
+  /**
+   * @return the time spent to layout the current screen during Nifty.update() in nanoseconds
+   */
+  public long getLayoutNanos() {
+    return layoutNanos;
+  }
+
+  /**
+   * @return the time spent to update the SoundSystem during Nifty.update() in nanoseconds
+   */
+  public long getSoundNanos() {
+    return soundNanos;
+  }
+
+  /**
+   * @return the total time of Nifty.update() in nanoseconds
+   */
+  public long getUpdateNanos() {
+    return updateNanos;
+  }
+
+  /**
+   * @return the total time of Nifty.render() in nanoseconds (including RenderDevice.endFrame())
+   */
+  public long getRenderNanos() {
+    return renderNanos;
+  }
+
+  /**
+   * @return the number of element subtrees that have not been rendered because they've been outside of the clip area
+   */
+  public int getOutsideClipCount() {
+    return outsideClipCount;
+  }
+
+  /**
+   * @return the number of elements that have been recorded while retained rendering is enabled
+   */
+  public int getRecordCount() {
+    return recordCount;
+  }
+
+  /**
+   * @return the number of elements that have been replayed while retained rendering is enabled
+   */
+  public int getReplayCount() {
+    return replayCount;
+  }
+
+  /**
+   * @return the number of quads the RenderDevice has rendered or 0 if the RenderDevice doesn't provide this value
+   */
+  public int getQuadCount() {
+    return quadCount;
+  }
+
+  /**
+   * @return the number of quads rendered for text or 0 if the RenderDevice doesn't provide this value
+   */
+  public int getGlyphCount() {
+    return glyphCount;
+  }
+
+  /**
+   * @return the number of batches (draw calls) or 0 if the RenderDevice doesn't provide this value
+   */
+  public int getBatchCount() {
+    return batchCount;
+  }
+
+  /**
+   * @return the number of quads that have been dropped because they have been completely clipped or 0 if the
+   * RenderDevice doesn't provide this value
+   */
+  public int getClippedQuadCount() {
+    return clippedQuadCount;
+  }
+
+  /**
+   * @return the number of batches the RenderDevice could avoid by reordering or 0 if the RenderDevice doesn't provide
+   * this value
+   */
+  public int getSavedBatchCount() {
+    return savedBatchCount;
+  }
+
+  /**
+   * Set the counters of the RenderDevice for the current frame. This should be called from RenderDevice.endFrame().
+   */
+  public void setRenderDeviceCounts(
+      final int quadCount,
+      final int glyphCount,
+      final int batchCount,
+      final int clippedQuadCount) {
+    this.quadCount = quadCount;
+    this.glyphCount = glyphCount;
+    this.batchCount = batchCount;
+    this.clippedQuadCount = clippedQuadCount;
+  }
+
+  public void setSavedBatchCount(final int savedBatchCount) {
+    this.savedBatchCount = savedBatchCount;
+  }
+
+  void setCoalescedMouseMoveCount(final int coalescedMouseMoveCount) {
+    this.coalescedMouseMoveCount = coalescedMouseMoveCount;
+  }
+
+  void setUpdateTimes(
+      final long inputNanos,
+      final long dynamicElementsNanos,
+      final long layoutNanos,
+      final long soundNanos,
+      final long updateNanos) {
+    this.inputNanos = inputNanos;
+    this.dynamicElementsNanos = dynamicElementsNanos;
+    this.layoutNanos = layoutNanos;
+    this.soundNanos = soundNanos;
+    this.updateNanos = updateNanos;
+  }
+
+  void setRenderResult(
+      final long renderNanos,
+      final int outsideClipCount,
+      final int recordCount,
+      final int replayCount) {
+    this.frame++;
+    this.renderNanos = renderNanos;
+    this.outsideClipCount = outsideClipCount;
+    this.recordCount = recordCount;
+    this.replayCount = replayCount;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder();
+    result.append("frame: ").append(frame);
+    result.append(", update: ").append(updateNanos / 1000).append("us");
+    result.append(" (input: ").append(inputNanos / 1000).append("us");
+    result.append(", coalesced mouse moves: ").append(coalescedMouseMoveCount);
+    result.append(", dynamic elements: ").append(dynamicElementsNanos / 1000).append("us");
+    result.append(", layout: ").append(layoutNanos / 1000).append("us");
+    result.append(", sound: ").append(soundNanos / 1000).append("us)");
+    result.append(", render: ").append(renderNanos / 1000).append("us");
+    result.append(", outside clip: ").append(outsideClipCount);
+    result.append(", recorded: ").append(recordCount);
+    result.append(", replayed: ").append(replayCount);
+    result.append(", quads: ").append(quadCount);
+    result.append(" (text: ").append(glyphCount).append(")");
+    result.append(", batches: ").append(batchCount);
+    result.append(" (saved: ").append(savedBatchCount).append(")");
+    result.append(", clipped quads: ").append(clippedQuadCount);
+    return result.toString();
+  }
+}
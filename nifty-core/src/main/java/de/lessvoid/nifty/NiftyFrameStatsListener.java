@@ -0,0 +1,11 @@
+package de.lessvoid.nifty;
+
+/**
+ * You can register an instance of this interface with Nifty and Nifty will call it at the end of each render() with
+ * the NiftyFrameStats of the frame that has just been rendered.
+ *
+ * @author void
+ */
+public interface NiftyFrameStatsListener {
+  void frameRendered(NiftyFrameStats frameStats);
+}
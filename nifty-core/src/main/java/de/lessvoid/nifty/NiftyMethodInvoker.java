@@ -1,9 +1,11 @@
 package de.lessvoid.nifty;
 
 import java.lang.reflect.Method;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import de.lessvoid.xml.tools.MethodResolver;
+import de.lessvoid.xml.tools.MethodResolver.ResolvedMethod;
 
 /**
  * A object and a method for the object.
@@ -39,9 +41,11 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
       this.target = new Object[targetParam.length];
       System.arraycopy(targetParam, 0, target, 0, targetParam.length);
 
-      log.fine("target objects for [" + methodWithName + "]");
-      for (Object o : target) {
-        log.fine(o.toString());
+      if (log.isLoggable(Level.FINE)) {
+        log.fine("target objects for [" + methodWithName + "]");
+        for (Object o : target) {
+          log.fine(String.valueOf(o));
+        }
       }
     }
   }
@@ -69,8 +73,10 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
     // process all methods (first one wins)
     for (Object object : target) {
       if (object != null) {
-        Method method = MethodResolver.findMethod(object.getClass(), methodWithName);
-        if (method != null) {
+        // the method and the parameters encoded in methodWithName are resolved only once per class
+        ResolvedMethod resolved = MethodResolver.resolveMethod(object.getClass(), methodWithName);
+        if (resolved != null) {
+          Method method = resolved.getMethod();
           // we've found a method with the given name. now we need to match the parameters.
           //
           // 1) if the method we want to call (the string from the xml that is!) has parameters
@@ -82,29 +88,39 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
           //        if this is not possible we fall back to 2b)
           //    2b) just call the method without any parameters
           Object methodResult = null;
-          Object[] invokeParameters = MethodResolver.extractParameters(methodWithName);
+          Object[] invokeParameters = resolved.getParameters();
           if (invokeParameters.length > 0) {
             // does the method supports the parameters?
             // TODO: not only check for the count but check the type too
-            if (getMethodParameterCount(method) == invokeParameters.length) {
-              log.fine("invoking method '" + methodWithName + "' with (" + debugParaString(invokeParameters) + ")");
+            if (resolved.getMethodParameterCount() == invokeParameters.length) {
+              if (log.isLoggable(Level.FINE)) {
+                log.fine("invoking method '" + methodWithName + "' with (" + debugParaString(invokeParameters) + ")");
+              }
               methodResult = callMethod(object, method, invokeParameters);
             } else {
-              log.fine("invoking method '" + methodWithName + "' (note: given invokeParameters have been ignored)");
-              methodResult = callMethod(object, method, new Object[0]);
+              if (log.isLoggable(Level.FINE)) {
+                log.fine("invoking method '" + methodWithName + "' (note: given invokeParameters have been ignored)");
+              }
+              methodResult = callMethod(object, method, null);
             }
           } else {
             // no invokeParameters encoded. this means we can call the method as is or with the invokeParametersParam
             if (invokeParametersParam.length > 0) {
-              if (getMethodParameterCount(method) == invokeParametersParam.length) {
-                log.fine("invoking method '" + methodWithName + "' with the actual parameters (" + debugParaString(invokeParametersParam) + ")");
+              if (resolved.getMethodParameterCount() == invokeParametersParam.length) {
+                if (log.isLoggable(Level.FINE)) {
+                  log.fine("invoking method '" + methodWithName + "' with the actual parameters (" + debugParaString(invokeParametersParam) + ")");
+                }
                 methodResult = callMethod(object, method, invokeParametersParam);
               } else {
-                log.fine("invoking method '" + methodWithName + "' without parameters (invokeParametersParam mismatch)");
+                if (log.isLoggable(Level.FINE)) {
+                  log.fine("invoking method '" + methodWithName + "' without parameters (invokeParametersParam mismatch)");
+                }
                 methodResult = callMethod(object, method, null);
               }
             } else {
-              log.fine("invoking method '" + methodWithName + "' without parameters");
+              if (log.isLoggable(Level.FINE)) {
+                log.fine("invoking method '" + methodWithName + "' without parameters");
+              }
               methodResult = callMethod(object, method, null);
             }
           }
@@ -116,7 +132,9 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
             
           }
         } else {
-          log.fine("method [" + methodWithName + "] not found at object class [" + object.getClass() + "]");
+          if (log.isLoggable(Level.FINE)) {
+            log.fine("method [" + methodWithName + "] not found at object class [" + object.getClass() + "]");
+          }
         }
       } else {
         log.warning("target object is null");
@@ -133,13 +151,15 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
    */
   private Object callMethod(final Object targetObject, final Method method, final Object[] invokeParameters) {
     try {
-      log.fine("method: " + method + "on targetObject: " + targetObject + ", parameters: " + invokeParameters);
-      if (method != null) {
-        log.fine(method.getName());
-      }
-      if (invokeParameters != null) {
-        for (Object o : invokeParameters) {
-          log.fine("parameter: " + o);
+      if (log.isLoggable(Level.FINE)) {
+        log.fine("method: " + method + "on targetObject: " + targetObject + ", parameters: " + invokeParameters);
+        if (method != null) {
+          log.fine(method.getName());
+        }
+        if (invokeParameters != null) {
+          for (Object o : invokeParameters) {
+            log.fine("parameter: " + o);
+          }
         }
       }
       return method.invoke(targetObject, invokeParameters);
@@ -169,16 +189,6 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
     }
   }
 
-  /**
-   * return count of actual method parameters.
-   * @param method method
-   * @return count of parameters the method needs
-   */
-  private int getMethodParameterCount(final Method method) {
-    Class < ? > [] parameterTypes = method.getParameterTypes();
-    return parameterTypes.length;
-  }
-
   /**
    * helper method to convert the given parameter object array into a string for debugging.
    * @param invokeParameters parameter array
@@ -2,22 +2,38 @@ package de.lessvoid.nifty.batch;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
 import org.jglfont.BitmapFontFactory;
 import org.jglfont.spi.BitmapFontRenderer;
 
-import de.lessvoid.nifty.batch.TextureAtlasGenerator.Result;
+import de.lessvoid.nifty.NiftyFrameStats;
+import de.lessvoid.nifty.batch.GlyphRunCache.GlyphRun;
+import de.lessvoid.nifty.batch.TextureAtlasGenerator.Relocation;
 import de.lessvoid.nifty.batch.spi.BatchRenderBackend;
 import de.lessvoid.nifty.batch.spi.BatchRenderBackend.Image;
 import de.lessvoid.nifty.render.BlendMode;
 import de.lessvoid.nifty.spi.render.MouseCursor;
-import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.render.PackedColorRenderDevice;
 import de.lessvoid.nifty.spi.render.RenderFont;
 import de.lessvoid.nifty.spi.render.RenderImage;
 import de.lessvoid.nifty.tools.Color;
@@ -28,10 +44,22 @@ import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
  * BatchRenderDevice will try to reduce state changes by storing all of the textures into a single texture atlas and
  * will try to render the whole GUI in very few - at best in a single - draw call.
  *
+ * When the texture atlas is full additional atlas textures (pages) are created. Quads are batched per page so a new
+ * batch is only necessary when the page changes.
+ *
  * @author void
  */
-public class BatchRenderDevice implements RenderDevice {
+public class BatchRenderDevice implements PackedColorRenderDevice {
   private static Logger log = Logger.getLogger(BatchRenderDevice.class.getName());
+  private static final int MAX_STAGED_QUADS = 1024;
+  private static final int DEFAULT_GLYPH_RUN_CACHE_SIZE = 512;
+  private static final long DEFAULT_IMAGE_UPLOAD_BUDGET_NANOS = 2000000;
+  private static final TextureAtlasPackerFactory DEFAULT_PACKER_FACTORY = new TextureAtlasPackerFactory() {
+    @Override
+    public TextureAtlasPacker create(final int width, final int height) {
+      return new MaxRectsTextureAtlasPacker(width, height);
+    }
+  };
   private NiftyResourceLoader resourceLoader;
   private int viewportWidth = -1;
   private int viewportHeight = -1;
@@ -43,6 +71,7 @@ public class BatchRenderDevice implements RenderDevice {
   private boolean displayFPS = false;
   private boolean logFPS = false;
   private RenderFont fpsFont;
+  private NiftyFrameStats frameStats;
 
   private BlendMode currentBlendMode = null;
   private boolean currentClipping = false;
@@ -52,42 +81,130 @@ public class BatchRenderDevice implements RenderDevice {
   private int currentClippingY1 = 0;
 
   private StringBuilder buffer = new StringBuilder();
+  private String fpsText = "";
   private int completeClippedCounter;
 
   private final BitmapFontFactory factory;
   private final BatchRenderBackend renderBackend;
-  private TextureAtlasGenerator generator;
+  private final List<TextureAtlasPage> atlasPages = new ArrayList<TextureAtlasPage>();
+  private TextureAtlasPage currentAtlasPage;
   private Color fontColor = new Color("#f00");
   private boolean activeBatch;
-  private BatchRenderImage thePlainImage;
+  private Image plainImageData;
   private final int atlasWidth;
   private final int atlasHeight;
+  private final int maxAtlasPages;
+  private final TextureAtlasPackerFactory packerFactory;
   private final Set<BatchRenderFont> fontCache = new HashSet<BatchRenderFont>();
   private final FontRenderer fontRenderer;
 
+  // quads are collected here and handed over to the BatchRenderBackend in bulk
+  private final float[] stagedQuads = new float[MAX_STAGED_QUADS * BatchRenderBackend.QUAD_SIZE];
+  private int stagedQuadCount;
+
+  // the glyph quads of the texts rendered recently. a GlyphRun is recorded while a text is rendered by the BitmapFont.
+  private final GlyphRunCache glyphRunCache = new GlyphRunCache(DEFAULT_GLYPH_RUN_CACHE_SIZE);
+  private final Color glyphColor = new Color(0.f, 0.f, 0.f, 0.f);
+
+  // packed colors are unpacked into these instances
+  private final Color unpacked0 = new Color(0.f, 0.f, 0.f, 0.f);
+  private final Color unpacked1 = new Color(0.f, 0.f, 0.f, 0.f);
+  private final Color unpacked2 = new Color(0.f, 0.f, 0.f, 0.f);
+  private final Color unpacked3 = new Color(0.f, 0.f, 0.f, 0.f);
+  private GlyphRun recordingGlyphRun;
+
+  // images are loaded in the background when an imageLoadExecutor is set. the upload into the texture atlas happens
+  // on the render thread and is limited to imageUploadBudgetNanos each frame. images that could not be uploaded yet are
+  // kept in pendingUploads.
+  private Executor imageLoadExecutor;
+  private long imageUploadBudgetNanos = DEFAULT_IMAGE_UPLOAD_BUDGET_NANOS;
+  private long imageUploadNanos;
+  private int imageUploadCount;
+  private boolean ignoreImageUploadBudget;
+  private final Set<BatchRenderImage> pendingUploads = new LinkedHashSet<BatchRenderImage>();
+
+  // moving images in the texture atlas would invalidate the texture coordinates of all quads of the current frame. so
+  // between beginFrame() and endFrame() the texture atlas is never defragmented. an image that does not fit is kept
+  // in pendingUploads instead and the texture atlas is defragmented with the next beginFrame().
+  private boolean frameActive;
+  private boolean defragmentPending;
+
+  // when batch reordering is enabled all batches of a frame are collected in the batchReorderBuffer and are only
+  // handed to the renderBackend at the end of the frame
+  private boolean batchReordering;
+  private BatchReorderBuffer batchReorderBuffer;
+  private int savedBatchCount;
+  private int recordingGlyphRunX;
+  private int recordingGlyphRunY;
+  private boolean recordingGlyphRunIncomplete;
+
   /**
    * The standard constructor. You'll use this in production code. Using this
-   * constructor will configure the RenderDevice to not log FPS on System.out.
+   * constructor will configure the RenderDevice to not log FPS.
    * @param atlasWidth 
    * @param atlasHeight 
    */
   public BatchRenderDevice(final BatchRenderBackend renderBackend, final int atlasWidth, final int atlasHeight) {
+    this(renderBackend, atlasWidth, atlasHeight, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Create a BatchRenderDevice that will use at most maxAtlasPages atlas textures.
+   * @param atlasWidth width of each atlas texture
+   * @param atlasHeight height of each atlas texture
+   * @param maxAtlasPages the maximum number of atlas textures to create
+   */
+  public BatchRenderDevice(
+      final BatchRenderBackend renderBackend,
+      final int atlasWidth,
+      final int atlasHeight,
+      final int maxAtlasPages) {
+    this(renderBackend, atlasWidth, atlasHeight, maxAtlasPages, DEFAULT_PACKER_FACTORY);
+  }
+
+  /**
+   * Create a BatchRenderDevice that will use at most maxAtlasPages atlas textures and the TextureAtlasPackers created
+   * by the given factory to place the images in them. The other constructors use the MaxRectsTextureAtlasPacker.
+   * @param atlasWidth width of each atlas texture
+   * @param atlasHeight height of each atlas texture
+   * @param maxAtlasPages the maximum number of atlas textures to create
+   * @param packerFactory creates the TextureAtlasPacker of each atlas texture
+   */
+  public BatchRenderDevice(
+      final BatchRenderBackend renderBackend,
+      final int atlasWidth,
+      final int atlasHeight,
+      final int maxAtlasPages,
+      final TextureAtlasPackerFactory packerFactory) {
     this.renderBackend = renderBackend;
     this.atlasWidth = atlasWidth;
     this.atlasHeight = atlasHeight;
+    this.maxAtlasPages = Math.max(1, maxAtlasPages);
+    this.packerFactory = packerFactory;
 
     time = System.currentTimeMillis();
     frames = 0;
-    generator = new TextureAtlasGenerator(atlasWidth, atlasHeight);
     fontRenderer = new FontRenderer(this);
     factory = new BitmapFontFactory(fontRenderer);
-    renderBackend.createAtlasTexture(atlasWidth, atlasHeight);
+    currentAtlasPage = addAtlasPage();
   }
 
+  /**
+   * Log the FPS once per second with log level INFO.
+   */
   public void enableLogFPS() {
     logFPS = true;
   }
 
+  /**
+   * The quad, glyph, batch and clipped quad counts of each frame will be written to the given NiftyFrameStats at
+   * the end of the frame. You'll usually pass Nifty.getFrameStats() in here.
+   * @param frameStats the NiftyFrameStats to update or null to disable this
+   */
+  public void setFrameStats(final NiftyFrameStats frameStats) {
+    this.frameStats = frameStats;
+  }
+
   @Override
   public void setResourceLoader(final NiftyResourceLoader resourceLoader) {
     this.resourceLoader = resourceLoader;
@@ -142,51 +259,60 @@ public class BatchRenderDevice implements RenderDevice {
     completeClippedCounter = 0;
 
     renderBackend.beginFrame();
+    if (batchReordering) {
+      if (batchReorderBuffer == null) {
+        batchReorderBuffer = new BatchReorderBuffer();
+      }
+      batchReorderBuffer.beginFrame();
+    } else {
+      batchReorderBuffer = null;
+    }
     activeBatch = false;
+    stagedQuadCount = 0;
+    currentAtlasPage = atlasPages.get(0);
     quadCount = 0;
     glyphCount = 0;
+
+    if (defragmentPending) {
+      defragmentPending = false;
+      defragmentTextureAtlas();
+    }
+    processPendingUploads();
+    frameActive = true;
   }
 
   @Override
   public void endFrame() {
     log.finest("endFrame");
-    log.fine("completely clipped elements: " + completeClippedCounter);
+    if (log.isLoggable(Level.FINE)) {
+      log.fine("completely clipped elements: " + completeClippedCounter);
+    }
 
     if (displayFPS) {
-      renderFont(fpsFont, buffer.toString(), 10, getHeight() - fpsFont.getHeight() - 10, fontColor , 1.0f, 1.0f);
+      renderFont(fpsFont, fpsText, 10, getHeight() - fpsFont.getHeight() - 10, fontColor , 1.0f, 1.0f);
     }
 
+    flushQuads();
+    savedBatchCount = 0;
+    if (batchReorderBuffer != null) {
+      batchReorderBuffer.flush(renderBackend);
+      savedBatchCount = batchReorderBuffer.getSavedBatchCount();
+    }
     int batches = renderBackend.render();
+    if (frameStats != null) {
+      frameStats.setRenderDeviceCounts(quadCount, glyphCount, batches, completeClippedCounter);
+      frameStats.setSavedBatchCount(savedBatchCount);
+    }
 
     frames++;
     long diff = System.currentTimeMillis() - time;
     if (diff >= 1000) {
       time += diff;
       lastFrames = frames;
-
-      buffer.setLength(0);
-      buffer.append("FPS: ");
-      buffer.append(lastFrames);
-      buffer.append(" (");
-      buffer.append(String.format("%f", 1000.f / lastFrames));
-      buffer.append(" ms)");
-      buffer.append(", Total Tri: ");
-      buffer.append(quadCount*2);
-      buffer.append(" (Text: ");
-      buffer.append(glyphCount*2);
-      buffer.append(")");
-      buffer.append(", Total Vert: ");
-      buffer.append(quadCount*4);
-      buffer.append(" (Text: ");
-      buffer.append(glyphCount*4);
-      buffer.append("), Batches: ");
-      buffer.append(batches);
-
-      if (logFPS) {
-        System.out.println(buffer.toString());
-      }
-
       frames = 0;
+      if (displayFPS || logFPS) {
+        updateFPSText(batches);
+      }
     }
 
     // currently the RenderDevice interface does not support a way to be notified when the resolution is changed
@@ -194,6 +320,33 @@ public class BatchRenderDevice implements RenderDevice {
     // not each time someone calls getWidth() or getHeight().
     viewportWidth = -1;
     viewportHeight = -1;
+    frameActive = false;
+  }
+
+  private void updateFPSText(final int batches) {
+    buffer.setLength(0);
+    buffer.append("FPS: ");
+    buffer.append(lastFrames);
+    buffer.append(" (");
+    buffer.append(1000.f / lastFrames);
+    buffer.append(" ms)");
+    buffer.append(", Total Tri: ");
+    buffer.append(quadCount*2);
+    buffer.append(" (Text: ");
+    buffer.append(glyphCount*2);
+    buffer.append(")");
+    buffer.append(", Total Vert: ");
+    buffer.append(quadCount*4);
+    buffer.append(" (Text: ");
+    buffer.append(glyphCount*4);
+    buffer.append("), Batches: ");
+    buffer.append(batches);
+
+    // the text only changes once per second so we keep it instead of creating a new String for each frame
+    fpsText = buffer.toString();
+    if (logFPS) {
+      log.info(fpsText);
+    }
   }
 
   @Override
@@ -204,8 +357,166 @@ public class BatchRenderDevice implements RenderDevice {
 
   @Override
   public RenderImage createImage(final String filename, final boolean filterLinear) {
-    Image image = renderBackend.loadImage(filename);
-    return new BatchRenderImage(image, generator, filename, renderBackend);
+    // the layout needs the size of the image right away. images we can't read the size of from the image header are
+    // therefore loaded synchronously even when an imageLoadExecutor is set.
+    int[] size = null;
+    if (imageLoadExecutor != null) {
+      size = readImageSize(filename);
+    }
+    if (size == null) {
+      Image image = renderBackend.loadImage(filename);
+      return new BatchRenderImage(image, this, filename, renderBackend);
+    }
+    FutureTask<Image> task = new FutureTask<Image>(new Callable<Image>() {
+      @Override
+      public Image call() throws Exception {
+        return renderBackend.loadImage(filename);
+      }
+    });
+    imageLoadExecutor.execute(task);
+    return new BatchRenderImage(task, size[0], size[1], this, filename, renderBackend);
+  }
+
+  /**
+   * Read the width and height of an image from the image header without decoding the image data.
+   * @return width and height of the image or null when the size could not be read
+   */
+  private int[] readImageSize(final String filename) {
+    if (resourceLoader == null) {
+      return null;
+    }
+    InputStream in = resourceLoader.getResourceAsStream(filename);
+    if (in == null) {
+      return null;
+    }
+    ImageInputStream imageIn = null;
+    try {
+      imageIn = ImageIO.createImageInputStream(in);
+      if (imageIn == null) {
+        return null;
+      }
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+      if (!readers.hasNext()) {
+        return null;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(imageIn, true, true);
+        return new int[] { reader.getWidth(0), reader.getHeight(0) };
+      } finally {
+        reader.dispose();
+      }
+    } catch (IOException e) {
+      log.log(Level.FINE, "could not read the size of image [" + filename + "]", e);
+      return null;
+    } finally {
+      try {
+        if (imageIn != null) {
+          imageIn.close();
+        }
+        in.close();
+      } catch (IOException e) {
+        log.log(Level.FINE, e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * Load images in the background. createImage() will then only read the size of the image from the image header and
+   * return immediately. The BatchRenderBackend.loadImage() calls are executed by the given Executor. Images in a format
+   * javax.imageio can't read the size of are still loaded synchronously. The images are uploaded into the texture atlas on the render thread
+   * once they've been loaded, limited by the image upload budget of each frame. Until then they are not rendered.
+   *
+   * Note that the BatchRenderBackend.loadImage() implementation must be able to run on any thread for this to work.
+   *
+   * @param imageLoadExecutor the Executor to load the images with or null to load images synchronously (default)
+   */
+  public void setImageLoadExecutor(final Executor imageLoadExecutor) {
+    this.imageLoadExecutor = imageLoadExecutor;
+  }
+
+  /**
+   * Change the time each frame may spend to upload images that have been loaded in the background into the texture
+   * atlas. At least one image is uploaded each frame regardless of the budget.
+   * @param nanos the time in nanoseconds
+   */
+  public void setImageUploadBudget(final long nanos) {
+    this.imageUploadBudgetNanos = nanos;
+  }
+
+  /**
+   * @return true when there are images that should be in the texture atlas but are not uploaded yet
+   */
+  public boolean hasPendingImageUploads() {
+    return !pendingUploads.isEmpty();
+  }
+
+  /**
+   * Wait until all images that should be in the texture atlas have been loaded and upload them regardless of the
+   * image upload budget. Call this right after a screen has been started when you'd rather wait than have the images
+   * of the screen appear over the next frames.
+   * @param timeout the maximum time to wait
+   * @param unit the unit of the timeout
+   * @return true when all images have been uploaded and false when the timeout elapsed before
+   */
+  public boolean awaitPendingImageUploads(final long timeout, final TimeUnit unit) {
+    long end = System.nanoTime() + unit.toNanos(timeout);
+    ignoreImageUploadBudget = true;
+    try {
+      for (BatchRenderImage image : pendingUploads.toArray(new BatchRenderImage[pendingUploads.size()])) {
+        image.awaitLoaded(Math.max(0, end - System.nanoTime()));
+        image.upload();
+      }
+    } catch (TimeoutException e) {
+      return false;
+    } finally {
+      ignoreImageUploadBudget = false;
+    }
+    return pendingUploads.isEmpty();
+  }
+
+  /**
+   * Check if the upload of an image loaded in the background needs to be deferred because the image data is not
+   * available yet or the image upload budget of this frame has been used up. The image is then remembered and uploaded
+   * in one of the next frames.
+   * @return true when the upload has been deferred
+   */
+  boolean deferUpload(final BatchRenderImage image) {
+    if (!image.isLoadedInBackground()) {
+      return false;
+    }
+    if (image.isLoaded() && (ignoreImageUploadBudget || isImageUploadBudgetLeft())) {
+      pendingUploads.remove(image);
+      return false;
+    }
+    pendingUploads.add(image);
+    return true;
+  }
+
+  void cancelUpload(final BatchRenderImage image) {
+    pendingUploads.remove(image);
+  }
+
+  /**
+   * @return true when the upload of the image will be retried with the next beginFrame()
+   */
+  boolean isUploadPending(final BatchRenderImage image) {
+    return pendingUploads.contains(image);
+  }
+
+  private boolean isImageUploadBudgetLeft() {
+    return imageUploadCount == 0 || imageUploadNanos < imageUploadBudgetNanos;
+  }
+
+  private void processPendingUploads() {
+    imageUploadNanos = 0;
+    imageUploadCount = 0;
+    if (pendingUploads.isEmpty()) {
+      return;
+    }
+    for (BatchRenderImage image : pendingUploads.toArray(new BatchRenderImage[pendingUploads.size()])) {
+      image.upload();
+    }
   }
 
   @Override
@@ -221,20 +532,67 @@ public class BatchRenderDevice implements RenderDevice {
 
   public void disposeFont(final BatchRenderFont batchRenderFont) {
     fontCache.remove(batchRenderFont);
+    glyphRunCache.remove(batchRenderFont);
+  }
+
+  /**
+   * Collect all quads of a frame and reorder them at the end of the frame so that quads with the same BlendMode and
+   * atlas texture end up in the same batch whenever this doesn't change the result on screen. This helps when the
+   * BlendMode changes a lot during a frame, for instance when some elements use BlendMode.MULIPLY effects. The change
+   * takes effect with the next beginFrame().
+   * @param batchReordering true to enable batch reordering and false to disable it (default)
+   */
+  public void setBatchReordering(final boolean batchReordering) {
+    this.batchReordering = batchReordering;
+  }
+
+  /**
+   * @return the number of batches batch reordering did save in the last frame
+   */
+  public int getSavedBatchCount() {
+    return savedBatchCount;
+  }
+
+  /**
+   * Change the number of texts the glyph run cache keeps. Setting this to 0 disables the cache.
+   * @param size the maximum number of cached texts
+   */
+  public void setGlyphRunCacheSize(final int size) {
+    glyphRunCache.setMaxSize(size);
+  }
+
+  /**
+   * @return the number of renderFont() calls that could be served from the glyph run cache
+   */
+  public long getGlyphRunCacheHitCount() {
+    return glyphRunCache.getHitCount();
+  }
+
+  /**
+   * @return the number of renderFont() calls that required the text to be laid out again
+   */
+  public long getGlyphRunCacheMissCount() {
+    return glyphRunCache.getMissCount();
   }
 
   @Override
   public void renderQuad(final int x, final int y, final int width, final int height, final Color color) {
     log.finest("renderQuad()");
     BatchRenderImage plainImage = getPlainImage();
-    addQuad(x, y, width, height, color, color, color, color, plainImage.getX(), plainImage.getY(), plainImage.getWidth(), plainImage.getHeight());
+    if (!plainImage.isUploaded()) {
+      return;
+    }
+    addQuad(x, y, width, height, color, color, color, color, plainImage.getX(), plainImage.getY(), plainImage.getWidth(), plainImage.getHeight(), plainImage.getPage());
   }
 
   @Override
   public void renderQuad(final int x, final int y, final int width, final int height, final Color topLeft, final Color topRight, final Color bottomRight, final Color bottomLeft) {
     log.finest("renderQuad2()");
     BatchRenderImage plainImage = getPlainImage();
-    addQuad(x, y, width, height, topLeft, topRight, bottomLeft, bottomRight, plainImage.getX(), plainImage.getY(), plainImage.getWidth(), plainImage.getHeight());
+    if (!plainImage.isUploaded()) {
+      return;
+    }
+    addQuad(x, y, width, height, topLeft, topRight, bottomLeft, bottomRight, plainImage.getX(), plainImage.getY(), plainImage.getWidth(), plainImage.getHeight(), plainImage.getPage());
   }
 
   @Override
@@ -253,6 +611,9 @@ public class BatchRenderDevice implements RenderDevice {
     BatchRenderImage img = (BatchRenderImage) image;
     if (!img.isUploaded()) {
       img.upload();
+      if (!img.isUploaded()) {
+        return;
+      }
     }
     float centerX = x + width / 2.f;
     float centerY = y + height / 2.f;
@@ -260,7 +621,7 @@ public class BatchRenderDevice implements RenderDevice {
     int iy = Math.round(centerY - (height * scale) / 2.f);
     int iw = Math.round(width * scale);
     int ih = Math.round(height * scale);
-    addQuad(ix, iy, iw, ih, c, c, c, c, img.getX(), img.getY(), img.getWidth(), img.getHeight());
+    addQuad(ix, iy, iw, ih, c, c, c, c, img.getX(), img.getY(), img.getWidth(), img.getHeight(), img.getPage());
   }
 
   @Override
@@ -297,8 +658,11 @@ public class BatchRenderDevice implements RenderDevice {
     BatchRenderImage img = (BatchRenderImage) image;
     if (!img.isUploaded()) {
       img.upload();
+      if (!img.isUploaded()) {
+        return;
+      }
     }
-    addQuad(ix, iy, iw, ih, c, c, c, c, img.getX() + srcX, img.getY() + srcY, srcW, srcH);
+    addQuad(ix, iy, iw, ih, c, c, c, c, img.getX() + srcX, img.getY() + srcY, srcW, srcH, img.getPage());
   }
 
   @Override
@@ -306,7 +670,72 @@ public class BatchRenderDevice implements RenderDevice {
     log.finest("renderFont()");
 
     BatchRenderFont renderFont = (BatchRenderFont) font;
+
+    // the BitmapFont truncates the glyph positions so they are only relative to the origin for positive positions
+    if (!glyphRunCache.isEnabled() || x < 0) {
+      renderFont.getBitmapFont().renderText(x, y, text, sizeX, sizeY, color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
+      return;
+    }
+
+    GlyphRun glyphRun = glyphRunCache.get(renderFont, text, sizeX, sizeY, color);
+    if (glyphRun != null && renderGlyphRun(glyphRun, x, y)) {
+      return;
+    }
+
+    recordingGlyphRun = new GlyphRun();
+    recordingGlyphRunX = x;
+    recordingGlyphRunY = y;
+    recordingGlyphRunIncomplete = false;
     renderFont.getBitmapFont().renderText(x, y, text, sizeX, sizeY, color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
+    if (!recordingGlyphRunIncomplete) {
+      glyphRunCache.put(renderFont, text, sizeX, sizeY, color, recordingGlyphRun);
+    }
+    recordingGlyphRun = null;
+  }
+
+  @Override
+  public void renderQuad(final int x, final int y, final int width, final int height, final int color) {
+    renderQuad(x, y, width, height, unpack(unpacked0, color));
+  }
+
+  @Override
+  public void renderQuad(final int x, final int y, final int width, final int height, final int topLeft, final int topRight, final int bottomRight, final int bottomLeft) {
+    renderQuad(
+        x, y, width, height,
+        unpack(unpacked0, topLeft), unpack(unpacked1, topRight), unpack(unpacked2, bottomRight), unpack(unpacked3, bottomLeft));
+  }
+
+  @Override
+  public void renderImage(final RenderImage image, final int x, final int y, final int width, final int height, final int color, final float scale) {
+    renderImage(image, x, y, width, height, unpack(unpacked0, color), scale);
+  }
+
+  @Override
+  public void renderImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int w,
+      final int h,
+      final int srcX,
+      final int srcY,
+      final int srcW,
+      final int srcH,
+      final int color,
+      final float scale,
+      final int centerX,
+      final int centerY) {
+    renderImage(image, x, y, w, h, srcX, srcY, srcW, srcH, unpack(unpacked0, color), scale, centerX, centerY);
+  }
+
+  @Override
+  public void renderFont(final RenderFont font, final String text, final int x, final int y, final int color, final float sizeX, final float sizeY) {
+    renderFont(font, text, x, y, unpack(unpacked0, color), sizeX, sizeY);
+  }
+
+  private Color unpack(final Color target, final int rgba) {
+    target.fromRGBA8888(rgba);
+    return target;
   }
 
   @Override
@@ -365,26 +794,225 @@ public class BatchRenderDevice implements RenderDevice {
   }
 
   public void resetTextureAtlas() {
-    thePlainImage.unload();
-    generator.reset();
-    renderBackend.clearAtlasTexture(atlasWidth, atlasHeight);
+    for (int i=0; i<atlasPages.size(); i++) {
+      TextureAtlasPage page = atlasPages.get(i);
+      if (page.getPlainImage() != null) {
+        page.getPlainImage().markAsUnloaded();
+      }
+      page.reset();
+      renderBackend.clearAtlasTexture(page.getAtlasTextureId(), atlasWidth, atlasHeight);
+      if (page.getPlainImage() != null) {
+        page.getPlainImage().tryUpload(page);
+      }
+    }
     fontRenderer.unload();
+    glyphRunCache.clear();
+    pendingUploads.clear();
+  }
+
+  /**
+   * Move the images in all texture atlas pages together so that the free space is merged into larger areas again.
+   * This happens automatically when an image does not fit into the texture atlas anymore.
+   *
+   * When this is called between beginFrame() and endFrame() the texture atlas is only defragmented with the next
+   * beginFrame() because the quads of the current frame still use the current positions of the images.
+   *
+   * @return the number of images that have been moved
+   */
+  public int defragmentTextureAtlas() {
+    if (frameActive) {
+      defragmentPending = true;
+      return 0;
+    }
+    int result = 0;
+    for (int i=0; i<atlasPages.size(); i++) {
+      result += defragment(atlasPages.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * @return the number of atlas textures currently in use
+   */
+  public int getAtlasPageCount() {
+    return atlasPages.size();
+  }
+
+  /**
+   * Upload the image into the first atlas page that has enough space left for it. When none of the existing pages
+   * can take the image the pages are defragmented first and a new page is created as the last resort.
+   *
+   * During a frame the pages are not defragmented. The upload is then retried with the next beginFrame() after the
+   * pages have been defragmented and the image is not rendered in the current frame.
+   *
+   * @param image the image to upload
+   * @return true when the image has been uploaded and false if it did not fit (yet)
+   */
+  boolean uploadImage(final BatchRenderImage image) {
+    if (image.isUploaded()) {
+      return true;
+    }
+    pendingUploads.remove(image);
+    long start = System.nanoTime();
+    try {
+      return uploadImageToAtlas(image);
+    } finally {
+      imageUploadNanos += System.nanoTime() - start;
+      imageUploadCount++;
+    }
+  }
+
+  private boolean uploadImageToAtlas(final BatchRenderImage image) {
+    for (int i=0; i<atlasPages.size(); i++) {
+      if (image.tryUpload(atlasPages.get(i))) {
+        return true;
+      }
+    }
+    if (frameActive) {
+      defragmentPending = true;
+      pendingUploads.add(image);
+      return false;
+    }
+    for (int i=0; i<atlasPages.size(); i++) {
+      TextureAtlasPage page = atlasPages.get(i);
+      if (defragment(page) > 0 && image.tryUpload(page)) {
+        return true;
+      }
+    }
+    if (atlasPages.size() < maxAtlasPages) {
+      return image.tryUpload(addAtlasPage());
+    }
+    return false;
   }
 
   // Internal implementations
 
+  private TextureAtlasPage addAtlasPage() {
+    int atlasTextureId = renderBackend.createAtlasTexture(atlasWidth, atlasHeight);
+    TextureAtlasPage page = new TextureAtlasPage(
+        atlasTextureId,
+        new TextureAtlasGenerator(packerFactory.create(atlasWidth, atlasHeight)));
+    atlasPages.add(page);
+    if (plainImageData != null) {
+      // reserve the space for the plain image right away while the page is still empty
+      getPlainImage(page).tryUpload(page);
+    }
+    log.fine("texture atlas page [" + atlasTextureId + "] created (" + atlasPages.size() + " pages)");
+    return page;
+  }
+
+  private int defragment(final TextureAtlasPage page) {
+    TextureAtlasGenerator generator = page.getGenerator();
+    List<Relocation> relocations = generator.defragment();
+    for (int i=0; i<relocations.size(); i++) {
+      Relocation relocation = relocations.get(i);
+      BatchRenderImage image = page.getImage(relocation.getName());
+      if (image != null) {
+        renderBackend.removeFromTexture(
+            page.getAtlasTextureId(),
+            image.getImage(),
+            relocation.getFrom().getX(),
+            relocation.getFrom().getY(),
+            relocation.getFrom().getOriginalImageWidth(),
+            relocation.getFrom().getOriginalImageHeight());
+      }
+    }
+    for (int i=0; i<relocations.size(); i++) {
+      Relocation relocation = relocations.get(i);
+      BatchRenderImage image = page.getImage(relocation.getName());
+      if (image != null) {
+        image.relocate(relocation.getTo().getX(), relocation.getTo().getY());
+      }
+    }
+    log.fine(
+        "texture atlas page [" + page.getAtlasTextureId() + "] defragmented: " + relocations.size() +
+        " images moved, occupancy " + generator.getOccupancy() + ", fragmentation " + generator.getFragmentation());
+    return relocations.size();
+  }
+
+  /**
+   * Untextured quads use the plain image of the page of the current batch so that they don't break the batch. Only
+   * when that page has no space left for it the plain image of another page is used.
+   */
   private BatchRenderImage getPlainImage() {
-    if (thePlainImage == null) {
-      thePlainImage = (BatchRenderImage) createImage("de/lessvoid/nifty/batch/nifty.png", true);
+    BatchRenderImage plainImage = getPlainImage(currentAtlasPage);
+    if (plainImage.isUploaded() || plainImage.tryUpload(currentAtlasPage)) {
+      return plainImage;
     }
-    if (!thePlainImage.isUploaded()) {
-      thePlainImage.upload();
+    for (int i=0; i<atlasPages.size(); i++) {
+      TextureAtlasPage page = atlasPages.get(i);
+      plainImage = getPlainImage(page);
+      if (plainImage.isUploaded() || plainImage.tryUpload(page)) {
+        return plainImage;
+      }
     }
-    return thePlainImage;
+    plainImage = getPlainImage(atlasPages.get(0));
+    plainImage.upload();
+    return plainImage;
+  }
+
+  private BatchRenderImage getPlainImage(final TextureAtlasPage page) {
+    if (page.getPlainImage() == null) {
+      if (plainImageData == null) {
+        plainImageData = renderBackend.loadImage("de/lessvoid/nifty/batch/nifty.png");
+      }
+      page.setPlainImage(new BatchRenderImage(plainImageData, this, "de/lessvoid/nifty/batch/nifty.png", renderBackend));
+    }
+    return page.getPlainImage();
+  }
+
+  /**
+   * Render the glyphs of a cached text.
+   * @return false when the font bitmaps are not available in the texture atlas anymore
+   */
+  private boolean renderGlyphRun(final GlyphRun glyphRun, final int x, final int y) {
+    for (int i=0; i<glyphRun.size(); i++) {
+      if (!glyphRun.getImage(i).isUploaded()) {
+        return false;
+      }
+    }
+    for (int i=0; i<glyphRun.size(); i++) {
+      BatchRenderImage image = glyphRun.getImage(i);
+      glyphRun.getColor(i, glyphColor);
+      glyphCount++;
+      addQuad(
+          x + glyphRun.getX(i),
+          y + glyphRun.getY(i),
+          glyphRun.getWidth(i),
+          glyphRun.getHeight(i),
+          glyphColor,
+          glyphColor,
+          glyphColor,
+          glyphColor,
+          image.getX() + glyphRun.getTextureX(i),
+          image.getY() + glyphRun.getTextureY(i),
+          glyphRun.getTextureWidth(i),
+          glyphRun.getTextureHeight(i),
+          image.getPage());
+    }
+    return true;
   }
 
   private void addNewBatch() {
-    renderBackend.beginBatch(currentBlendMode);
+    flushQuads();
+    if (batchReorderBuffer != null) {
+      batchReorderBuffer.beginBatch(currentBlendMode, currentAtlasPage.getAtlasTextureId());
+    } else {
+      renderBackend.beginBatch(currentBlendMode, currentAtlasPage.getAtlasTextureId());
+    }
+    activeBatch = true;
+  }
+
+  private void flushQuads() {
+    if (stagedQuadCount == 0) {
+      return;
+    }
+    if (batchReorderBuffer != null) {
+      batchReorderBuffer.addQuads(stagedQuads, 0, stagedQuadCount);
+    } else {
+      renderBackend.addQuads(stagedQuads, 0, stagedQuadCount);
+    }
+    stagedQuadCount = 0;
   }
 
   private void addQuad(
@@ -399,7 +1027,8 @@ public class BatchRenderDevice implements RenderDevice {
       final int textureX,
       final int textureY,
       final int textureWidth,
-      final int textureHeight) {
+      final int textureHeight,
+      final TextureAtlasPage page) {
     // if this quad is completely outside the clipping area we don't need to render it at all
     if (isOutsideClippingRectangle(x, y, width, height)) {
       completeClippedCounter++;
@@ -408,7 +1037,7 @@ public class BatchRenderDevice implements RenderDevice {
 
     // if this quad is completely inside the clipping area we can simply render the quad
     if (isInsideClippingRectangle(x, y, width, height)) {
-      addQuadInternal(x, y, width, height, color1, color2, color3, color4, textureX, textureY, textureWidth, textureHeight);
+      addQuadInternal(x, y, width, height, color1, color2, color3, color4, textureX, textureY, textureWidth, textureHeight, page);
       return;
     }
 
@@ -454,7 +1083,7 @@ public class BatchRenderDevice implements RenderDevice {
       newTextureHeight = (int) (newHeight / height * textureHeight);
     }
 
-    addQuadInternal(newX, newY, newWidth, newHeight, color1, color2, color3, color4, newTextureX, newTextureY, newTextureWidth, newTextureHeight);
+    addQuadInternal(newX, newY, newWidth, newHeight, color1, color2, color3, color4, newTextureX, newTextureY, newTextureWidth, newTextureHeight, page);
   }
 
   private void addQuadInternal(
@@ -469,26 +1098,39 @@ public class BatchRenderDevice implements RenderDevice {
       final int textureX,
       final int textureY,
       final int textureWidth,
-      final int textureHeight) {
-    if (!activeBatch) {
-      renderBackend.beginBatch(currentBlendMode);
-      activeBatch = true;
-    }
-    renderBackend.addQuad(
-        x, y,
-        width,
-        height,
-        color1,
-        color2,
-        color3,
-        color4,
-        calcU(textureX, atlasWidth),
-        calcU(textureY, atlasHeight),
-        calcU(textureWidth - 1, atlasWidth),
-        calcU(textureHeight - 1, atlasHeight));
+      final int textureHeight,
+      final TextureAtlasPage page) {
+    if (!activeBatch || page != currentAtlasPage) {
+      currentAtlasPage = page;
+      addNewBatch();
+    } else if (stagedQuadCount == MAX_STAGED_QUADS) {
+      flushQuads();
+    }
+    int index = stagedQuadCount * BatchRenderBackend.QUAD_SIZE;
+    stagedQuads[index++] = x;
+    stagedQuads[index++] = y;
+    stagedQuads[index++] = width;
+    stagedQuads[index++] = height;
+    stagedQuads[index++] = calcU(textureX, atlasWidth);
+    stagedQuads[index++] = calcU(textureY, atlasHeight);
+    stagedQuads[index++] = calcU(textureWidth - 1, atlasWidth);
+    stagedQuads[index++] = calcU(textureHeight - 1, atlasHeight);
+    index = stageColor(index, color1);
+    index = stageColor(index, color2);
+    index = stageColor(index, color3);
+    stageColor(index, color4);
+    stagedQuadCount++;
     quadCount++;
   }
 
+  private int stageColor(final int index, final Color color) {
+    stagedQuads[index] = color.getRed();
+    stagedQuads[index + 1] = color.getGreen();
+    stagedQuads[index + 2] = color.getBlue();
+    stagedQuads[index + 3] = color.getAlpha();
+    return index + 4;
+  }
+
   private float calcU(final int value, final int max) {
     return (0.5f / (float) max) + (value / (float) max);
   }
@@ -527,7 +1169,7 @@ public class BatchRenderDevice implements RenderDevice {
     private final Map<String, BitmapInfo> textureInfos = new HashMap<String, BitmapInfo>();
     private final ColorValueParser colorValueParser = new ColorValueParser();
     private BatchRenderDevice batchRenderDevice;
-    private final Color textColor = Color.BLACK;
+    private final Color textColor = new Color(0.f, 0.f, 0.f, 1.f);
     private boolean hasColor;
 
     public FontRenderer(final BatchRenderDevice batchRenderDevice) {
@@ -610,7 +1252,9 @@ public class BatchRenderDevice implements RenderDevice {
         textColor.setBlue(b);
         textColor.setAlpha(a);
       }
-      textureInfos.get(bitmapId).renderCharacter(c, x, y, sx, sy, textColor);
+      if (!textureInfos.get(bitmapId).renderCharacter(c, x, y, sx, sy, textColor) && recordingGlyphRun != null) {
+        recordingGlyphRunIncomplete = true;
+      }
     }
 
     @Override
@@ -650,51 +1294,63 @@ public class BatchRenderDevice implements RenderDevice {
         final int atlasX0,
         final int atlasY0,
         final int atlasImageW,
-        final int atlasImageH) {
+        final int atlasImageH,
+        final BatchRenderImage image) {
       glyphCount++;
+      float glyphX = x + (float) Math.floor(xoff * sx);
+      float glyphY = y + (float) Math.floor(yoff * sy);
+      int textureX = (int) (u0 * atlasImageW);
+      int textureY = (int) (v0 * atlasImageH);
+      if (recordingGlyphRun != null) {
+        recordingGlyphRun.add(
+            image, glyphX - recordingGlyphRunX, glyphY - recordingGlyphRunY, w * sx, h * sy, textColor, textureX, textureY, w, h);
+      }
       addQuad(
-          x + (float) Math.floor(xoff * sx),
-          y + (float) Math.floor(yoff * sy),
+          glyphX,
+          glyphY,
           (w * sx),
           (h * sy),
           textColor,
           textColor,
           textColor,
           textColor,
-          (int) (atlasX0 + u0 * atlasImageW),
-          (int) (atlasY0 + v0 * atlasImageH),
+          atlasX0 + textureX,
+          atlasY0 + textureY,
           w,
-          h);
+          h,
+          image.getPage());
     }
   }
 
   private static class BitmapInfo {
     private final BatchRenderImage image;
     private final Map<Character, CharRenderInfo> characterIndices = new Hashtable<Character, CharRenderInfo>();
-    private Result result;
 
     public BitmapInfo(final BatchRenderImage image) {
       this.image = image;
     }
 
     private void upload() {
-      if (image.isUploaded()) {
-        return;
-      }
       image.upload();
-      result = new Result(image.getX(), image.getY(), image.getWidth(), image.getHeight());
     }
 
     private void unload() {
       image.markAsUnloaded();
     }
 
-    public void renderCharacter(char c, int x, int y, float sx, float sy, Color textColor) {
-      int atlasX0 = result.getX();
-      int atlasY0 = result.getY();
-      int atlasImageW = result.getOriginalImageWidth();
-      int atlasImageH = result.getOriginalImageHeight();
-      characterIndices.get(c).renderQuad(x, y, sx, sy, textColor, atlasX0, atlasY0, atlasImageW, atlasImageH);
+    /**
+     * @return false when the character could not be rendered because the bitmap is not in the texture atlas
+     */
+    public boolean renderCharacter(char c, int x, int y, float sx, float sy, Color textColor) {
+      if (!image.isUploaded()) {
+        return false;
+      }
+      int atlasX0 = image.getX();
+      int atlasY0 = image.getY();
+      int atlasImageW = image.getWidth();
+      int atlasImageH = image.getHeight();
+      characterIndices.get(c).renderQuad(x, y, sx, sy, textColor, atlasX0, atlasY0, atlasImageW, atlasImageH, image);
+      return true;
     }
 
     public void addCharRenderInfo(final Character c, final CharRenderInfo renderInfo) {
@@ -1,5 +1,10 @@
 package de.lessvoid.nifty.batch;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 import de.lessvoid.nifty.batch.TextureAtlasGenerator.Result;
@@ -9,28 +14,45 @@ import de.lessvoid.nifty.spi.render.RenderImage;
 
 /**
  * This only really carries the x and y position of the image in the texture atlas as well as the width and height of
- * the image.
+ * the image and the atlas page the image has been uploaded to.
+ *
+ * When the image is loaded in the background the image data is not available until the Future is done. Such an image
+ * won't be uploaded (and therefore not rendered) until then. The width and height of such an image are known upfront
+ * so getWidth() and getHeight() never wait for the image data.
  * @author void
  */
 public class BatchRenderImage implements RenderImage {
   private static final Logger log = Logger.getLogger(BatchRenderImage.class.getName());
+  private static final AtomicInteger nextAtlasId = new AtomicInteger();
 
-  private final TextureAtlasGenerator generator;
+  private final BatchRenderDevice renderDevice;
   private final String filename;
+
+  // the same file can be loaded more than once (f.i. with and without linear filtering) so the filename can't be used
+  // to identify the image in the texture atlas
+  private final String atlasName;
   private final BatchRenderBackend renderBackend;
-  private final Image image;
+  private final Future<Image> pendingImage;
+  private final int width;
+  private final int height;
+  private Image image;
+  private TextureAtlasPage page;
   private int x;
   private int y;
   private boolean uploaded;
 
   public BatchRenderImage(
       final Image image,
-      final TextureAtlasGenerator generator,
+      final BatchRenderDevice renderDevice,
       final String filename,
       final BatchRenderBackend renderBackend) {
     this.image = image;
-    this.generator = generator;
+    this.pendingImage = null;
+    this.width = image.getWidth();
+    this.height = image.getHeight();
+    this.renderDevice = renderDevice;
     this.filename = filename;
+    this.atlasName = filename + "#" + nextAtlasId.incrementAndGet();
     this.renderBackend = renderBackend;
 
     // the real x and y will be calculated in the upload() method
@@ -39,12 +61,71 @@ public class BatchRenderImage implements RenderImage {
     this.uploaded = false;
   }
 
+  /**
+   * Create a BatchRenderImage for an image that is currently loaded in the background.
+   * @param pendingImage the Future that will provide the image data
+   * @param width the width of the image
+   * @param height the height of the image
+   */
+  public BatchRenderImage(
+      final Future<Image> pendingImage,
+      final int width,
+      final int height,
+      final BatchRenderDevice renderDevice,
+      final String filename,
+      final BatchRenderBackend renderBackend) {
+    this.image = null;
+    this.pendingImage = pendingImage;
+    this.width = width;
+    this.height = height;
+    this.renderDevice = renderDevice;
+    this.filename = filename;
+    this.atlasName = filename + "#" + nextAtlasId.incrementAndGet();
+    this.renderBackend = renderBackend;
+    this.x = 0;
+    this.y = 0;
+    this.uploaded = false;
+  }
+
   public int getWidth() {
-    return image.getWidth();
+    return width;
   }
 
   public int getHeight() {
-    return image.getHeight();
+    return height;
+  }
+
+  /**
+   * @return true when the image data is available and false while it is still loaded in the background
+   */
+  public boolean isLoaded() {
+    return image != null || pendingImage.isDone();
+  }
+
+  /**
+   * @return true when this image has been created to be loaded in the background
+   */
+  public boolean isLoadedInBackground() {
+    return pendingImage != null;
+  }
+
+  /**
+   * Wait until the image data is available.
+   * @param nanos the maximum time to wait in nanoseconds
+   * @throws TimeoutException when the image data is still not available after the given time
+   */
+  void awaitLoaded(final long nanos) throws TimeoutException {
+    if (image != null) {
+      return;
+    }
+    try {
+      image = pendingImage.get(nanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("interrupted while waiting for image [" + filename + "]", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("loading image [" + filename + "] failed", e.getCause());
+    }
   }
 
   public void dispose() {
@@ -58,28 +139,95 @@ public class BatchRenderImage implements RenderImage {
     return y;
   }
 
+  /**
+   * @return the atlas page this image has been uploaded to or null if the image is currently not uploaded
+   */
+  TextureAtlasPage getPage() {
+    return page;
+  }
+
   public void upload() {
     if (uploaded) {
       return;
     }
+    if (renderDevice.deferUpload(this)) {
+      return;
+    }
+    if (!renderDevice.uploadImage(this) && !renderDevice.isUploadPending(this)) {
+      log.severe("Image [" + filename + "] did not fit into the texture atlas and will be missing in your screen");
+    }
+  }
+
+  /**
+   * Try to upload this image into the given atlas page.
+   * @param newPage the atlas page to upload to
+   * @return false when there was no space left in the atlas page and true otherwise
+   */
+  boolean tryUpload(final TextureAtlasPage newPage) {
+    if (uploaded) {
+      return true;
+    }
     try {
-      Result result = generator.addImage(image.getWidth(), image.getHeight(), filename, 5);
-      renderBackend.addImageToTexture(image, result.getX(), result.getY());
+      Image imageData = getImage();
+      Result result = newPage.getGenerator().addImage(imageData.getWidth(), imageData.getHeight(), atlasName, 5);
+      renderBackend.addImageToTexture(newPage.getAtlasTextureId(), imageData, result.getX(), result.getY());
       x = result.getX();
       y = result.getY();
+      page = newPage;
+      page.imageAdded(atlasName, this);
       uploaded = true;
-      log.finer("image [" + filename + "] uploaded (texture atlas)");
+      log.finer("image [" + filename + "] uploaded (texture atlas " + page.getAtlasTextureId() + ")");
+      return true;
     } catch (TextureAtlasGeneratorException e) {
-      log.severe("Image [" + filename + "] did not fit into the texture atlas and will be missing in your screen");
-   }
+      return false;
+    }
+  }
+
+  /**
+   * The TextureAtlasGenerator has moved this image to a new position in the texture atlas. Put the image data there.
+   * @param newX the new x position in the texture atlas
+   * @param newY the new y position in the texture atlas
+   */
+  void relocate(final int newX, final int newY) {
+    if (!uploaded) {
+      return;
+    }
+    renderBackend.addImageToTexture(page.getAtlasTextureId(), getImage(), newX, newY);
+    x = newX;
+    y = newY;
+    log.finer("image [" + filename + "] moved to [" + newX + ", " + newY + "] (texture atlas)");
+  }
+
+  /**
+   * Get the image data. This waits for the image data when the image is still loaded in the background.
+   * @return the image data
+   */
+  Image getImage() {
+    if (image == null) {
+      try {
+        image = pendingImage.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("interrupted while waiting for image [" + filename + "]", e);
+      } catch (ExecutionException e) {
+        throw new RuntimeException("loading image [" + filename + "] failed", e.getCause());
+      }
+    }
+    return image;
   }
 
   public void unload() {
+    renderDevice.cancelUpload(this);
     if (!uploaded) {
       return;
     }
-    Result result = generator.removeImage(filename);
-    renderBackend.removeFromTexture(image, result.getX(), result.getY(), result.getOriginalImageWidth(), result.getOriginalImageHeight());
+    Result result = page.getGenerator().removeImage(atlasName);
+    page.imageRemoved(atlasName);
+    if (result != null) {
+      renderBackend.removeFromTexture(
+          page.getAtlasTextureId(), getImage(), result.getX(), result.getY(), result.getOriginalImageWidth(), result.getOriginalImageHeight());
+    }
+    page = null;
     uploaded = false;
     log.finer("image [" + filename + "] unloaded (texture atlas)");
   }
@@ -89,6 +237,7 @@ public class BatchRenderImage implements RenderImage {
   }
 
   public void markAsUnloaded() {
+    page = null;
     uploaded = false;
     log.finer("image [" + filename + "] marked as unloaded (texture atlas)");
   }
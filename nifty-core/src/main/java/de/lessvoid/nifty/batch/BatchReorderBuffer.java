@@ -0,0 +1,216 @@
+package de.lessvoid.nifty.batch;
+
+import de.lessvoid.nifty.batch.spi.BatchRenderBackend;
+import de.lessvoid.nifty.render.BlendMode;
+
+/**
+ * Collects the batches of a whole frame and hands them to the BatchRenderBackend with as few batch changes as
+ * possible. A batch is moved in front of the batches rendered before it and merged with an earlier batch of the same
+ * BlendMode and atlas texture when it does not overlap any of the batches it is moved across. Quads that don't
+ * overlap can be rendered in any order so the result on screen stays the same.
+ *
+ * The overlap is checked with the bounding rectangle of all quads of a batch.
+ *
+ * @author void
+ */
+class BatchReorderBuffer {
+  private static final int BOUNDS_SIZE = 4;
+
+  // the quads of the frame in the format of BatchRenderBackend.addQuads()
+  private float[] quads = new float[1024 * BatchRenderBackend.QUAD_SIZE];
+  private int quadCount;
+
+  // the batches in the order they've been started
+  private BlendMode[] batchBlendModes = new BlendMode[64];
+  private int[] batchAtlasTextureIds = new int[64];
+  private int[] batchQuadStart = new int[64];
+  private int[] batchQuadCount = new int[64];
+  private float[] batchBounds = new float[64 * BOUNDS_SIZE];
+  private int[] batchNext = new int[64];
+  private int batchCount;
+
+  // the merged batches. each group is a linked list of batches (via batchNext) with the same state.
+  private int[] groupFirst = new int[64];
+  private int[] groupLast = new int[64];
+  private float[] groupBounds = new float[64 * BOUNDS_SIZE];
+  private int groupCount;
+
+  private int savedBatchCount;
+
+  public void beginFrame() {
+    quadCount = 0;
+    batchCount = 0;
+  }
+
+  public void beginBatch(final BlendMode blendMode, final int atlasTextureId) {
+    if (batchCount == batchBlendModes.length) {
+      growBatches();
+    }
+    batchBlendModes[batchCount] = blendMode;
+    batchAtlasTextureIds[batchCount] = atlasTextureId;
+    batchQuadStart[batchCount] = quadCount;
+    batchQuadCount[batchCount] = 0;
+    int b = batchCount * BOUNDS_SIZE;
+    batchBounds[b] = Float.MAX_VALUE;
+    batchBounds[b + 1] = Float.MAX_VALUE;
+    batchBounds[b + 2] = -Float.MAX_VALUE;
+    batchBounds[b + 3] = -Float.MAX_VALUE;
+    batchCount++;
+  }
+
+  /**
+   * Add quads to the batch started last.
+   */
+  public void addQuads(final float[] newQuads, final int offset, final int count) {
+    int required = (quadCount + count) * BatchRenderBackend.QUAD_SIZE;
+    if (required > quads.length) {
+      float[] newArray = new float[Math.max(required, quads.length * 2)];
+      System.arraycopy(quads, 0, newArray, 0, quadCount * BatchRenderBackend.QUAD_SIZE);
+      quads = newArray;
+    }
+    System.arraycopy(
+        newQuads, offset, quads, quadCount * BatchRenderBackend.QUAD_SIZE, count * BatchRenderBackend.QUAD_SIZE);
+
+    int batch = batchCount - 1;
+    int b = batch * BOUNDS_SIZE;
+    for (int i=0; i<count; i++) {
+      int q = offset + i * BatchRenderBackend.QUAD_SIZE;
+      float x0 = newQuads[q];
+      float y0 = newQuads[q + 1];
+      float x1 = x0 + newQuads[q + 2];
+      float y1 = y0 + newQuads[q + 3];
+      batchBounds[b] = Math.min(batchBounds[b], x0);
+      batchBounds[b + 1] = Math.min(batchBounds[b + 1], y0);
+      batchBounds[b + 2] = Math.max(batchBounds[b + 2], x1);
+      batchBounds[b + 3] = Math.max(batchBounds[b + 3], y1);
+    }
+    batchQuadCount[batch] += count;
+    quadCount += count;
+  }
+
+  /**
+   * Reorder the batches of this frame and hand them to the given BatchRenderBackend.
+   */
+  public void flush(final BatchRenderBackend renderBackend) {
+    groupCount = 0;
+    int nonEmptyBatches = 0;
+    for (int batch=0; batch<batchCount; batch++) {
+      if (batchQuadCount[batch] == 0) {
+        continue;
+      }
+      nonEmptyBatches++;
+      addToGroup(batch, findGroup(batch));
+    }
+    savedBatchCount = nonEmptyBatches - groupCount;
+
+    for (int group=0; group<groupCount; group++) {
+      int batch = groupFirst[group];
+      renderBackend.beginBatch(batchBlendModes[batch], batchAtlasTextureIds[batch]);
+      while (batch != -1) {
+        renderBackend.addQuads(
+            quads, batchQuadStart[batch] * BatchRenderBackend.QUAD_SIZE, batchQuadCount[batch]);
+        batch = batchNext[batch];
+      }
+    }
+    beginFrame();
+  }
+
+  /**
+   * @return the number of batches the last flush() did save
+   */
+  public int getSavedBatchCount() {
+    return savedBatchCount;
+  }
+
+  /**
+   * Find the latest group the batch can be merged with. We go back from the last group and return the first one with
+   * the same state. A group the batch overlaps with ends the search since the batch must be rendered after it, so an
+   * earlier group with the same state behind an overlapping group is never used.
+   * @return the index of the group or -1 if a new group needs to be started
+   */
+  private int findGroup(final int batch) {
+    for (int group=groupCount - 1; group>=0; group--) {
+      int first = groupFirst[group];
+      if (batchBlendModes[first] == batchBlendModes[batch] &&
+          batchAtlasTextureIds[first] == batchAtlasTextureIds[batch]) {
+        return group;
+      }
+      if (overlapsGroup(batch, group)) {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  private boolean overlapsGroup(final int batch, final int group) {
+    if (!overlaps(batchBounds, batch * BOUNDS_SIZE, groupBounds, group * BOUNDS_SIZE)) {
+      return false;
+    }
+    for (int other=groupFirst[group]; other != -1; other=batchNext[other]) {
+      if (overlaps(batchBounds, batch * BOUNDS_SIZE, batchBounds, other * BOUNDS_SIZE)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean overlaps(final float[] a, final int aIndex, final float[] b, final int bIndex) {
+    return
+        a[aIndex] < b[bIndex + 2] &&
+        b[bIndex] < a[aIndex + 2] &&
+        a[aIndex + 1] < b[bIndex + 3] &&
+        b[bIndex + 1] < a[aIndex + 3];
+  }
+
+  private void addToGroup(final int batch, final int existingGroup) {
+    batchNext[batch] = -1;
+    int b = batch * BOUNDS_SIZE;
+    int group = existingGroup;
+    if (group == -1) {
+      if (groupCount == groupFirst.length) {
+        growGroups();
+      }
+      group = groupCount++;
+      groupFirst[group] = batch;
+      groupLast[group] = batch;
+      System.arraycopy(batchBounds, b, groupBounds, group * BOUNDS_SIZE, BOUNDS_SIZE);
+      return;
+    }
+    batchNext[groupLast[group]] = batch;
+    groupLast[group] = batch;
+    int g = group * BOUNDS_SIZE;
+    groupBounds[g] = Math.min(groupBounds[g], batchBounds[b]);
+    groupBounds[g + 1] = Math.min(groupBounds[g + 1], batchBounds[b + 1]);
+    groupBounds[g + 2] = Math.max(groupBounds[g + 2], batchBounds[b + 2]);
+    groupBounds[g + 3] = Math.max(groupBounds[g + 3], batchBounds[b + 3]);
+  }
+
+  private void growBatches() {
+    int newSize = batchCount * 2;
+    BlendMode[] newBlendModes = new BlendMode[newSize];
+    System.arraycopy(batchBlendModes, 0, newBlendModes, 0, batchCount);
+    batchBlendModes = newBlendModes;
+    batchAtlasTextureIds = grow(batchAtlasTextureIds, newSize);
+    batchQuadStart = grow(batchQuadStart, newSize);
+    batchQuadCount = grow(batchQuadCount, newSize);
+    batchNext = grow(batchNext, newSize);
+    float[] newBounds = new float[newSize * BOUNDS_SIZE];
+    System.arraycopy(batchBounds, 0, newBounds, 0, batchBounds.length);
+    batchBounds = newBounds;
+  }
+
+  private void growGroups() {
+    int newSize = groupCount * 2;
+    groupFirst = grow(groupFirst, newSize);
+    groupLast = grow(groupLast, newSize);
+    float[] newBounds = new float[newSize * BOUNDS_SIZE];
+    System.arraycopy(groupBounds, 0, newBounds, 0, groupBounds.length);
+    groupBounds = newBounds;
+  }
+
+  private int[] grow(final int[] array, final int newSize) {
+    int[] result = new int[newSize];
+    System.arraycopy(array, 0, result, 0, array.length);
+    return result;
+  }
+}
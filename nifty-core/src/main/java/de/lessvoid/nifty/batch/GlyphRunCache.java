@@ -0,0 +1,271 @@
+package de.lessvoid.nifty.batch;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.lessvoid.nifty.tools.Color;
+
+/**
+ * A least recently used cache of the glyph quads of rendered texts. Most texts don't change from frame to frame so
+ * there is no need to let the BitmapFont lay them out again and again.
+ *
+ * The glyphs are stored relative to the text origin and relative to the position of the font bitmap in the texture
+ * atlas. So the same GlyphRun can be rendered at any position and remains valid when the texture atlas is
+ * defragmented.
+ *
+ * @author void
+ */
+class GlyphRunCache {
+  private final Key lookupKey = new Key();
+  private final Map<Key, GlyphRun> runs = new LinkedHashMap<Key, GlyphRun>(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<Key, GlyphRun> eldest) {
+      return size() > maxSize;
+    }
+  };
+  private int maxSize;
+  private long hitCount;
+  private long missCount;
+
+  public GlyphRunCache(final int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  public boolean isEnabled() {
+    return maxSize > 0;
+  }
+
+  public void setMaxSize(final int maxSize) {
+    this.maxSize = maxSize;
+    Iterator<Key> it = runs.keySet().iterator();
+    while (runs.size() > maxSize && it.hasNext()) {
+      it.next();
+      it.remove();
+    }
+  }
+
+  /**
+   * @return the cached GlyphRun or null when the text has not been cached yet
+   */
+  public GlyphRun get(final BatchRenderFont font, final String text, final float sizeX, final float sizeY, final Color color) {
+    lookupKey.init(font, text, sizeX, sizeY, color);
+    GlyphRun run = runs.get(lookupKey);
+    if (run == null) {
+      missCount++;
+    } else {
+      hitCount++;
+    }
+    return run;
+  }
+
+  public void put(
+      final BatchRenderFont font,
+      final String text,
+      final float sizeX,
+      final float sizeY,
+      final Color color,
+      final GlyphRun run) {
+    Key key = new Key();
+    key.init(font, text, sizeX, sizeY, color);
+    runs.put(key, run);
+  }
+
+  /**
+   * Remove all cached texts of the given font.
+   */
+  public void remove(final BatchRenderFont font) {
+    Iterator<Key> it = runs.keySet().iterator();
+    while (it.hasNext()) {
+      if (it.next().font == font) {
+        it.remove();
+      }
+    }
+  }
+
+  public void clear() {
+    runs.clear();
+  }
+
+  public int size() {
+    return runs.size();
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * The glyph quads of a single text.
+   *
+   * @author void
+   */
+  static class GlyphRun {
+    // x, y, width, height, r, g, b, a for each glyph
+    private static final int GLYPH_SIZE = 8;
+    // texture x, y, width and height for each glyph
+    private static final int TEXTURE_SIZE = 4;
+
+    private BatchRenderImage[] images = new BatchRenderImage[8];
+    private float[] quads = new float[8 * GLYPH_SIZE];
+    private int[] textures = new int[8 * TEXTURE_SIZE];
+    private int count;
+
+    /**
+     * @param image the font bitmap
+     * @param x x relative to the text origin
+     * @param y y relative to the text origin
+     * @param textureX x relative to the position of the font bitmap in the texture atlas
+     * @param textureY y relative to the position of the font bitmap in the texture atlas
+     */
+    public void add(
+        final BatchRenderImage image,
+        final float x,
+        final float y,
+        final float width,
+        final float height,
+        final Color color,
+        final int textureX,
+        final int textureY,
+        final int textureWidth,
+        final int textureHeight) {
+      if (count == images.length) {
+        int newSize = count * 2;
+        BatchRenderImage[] newImages = new BatchRenderImage[newSize];
+        System.arraycopy(images, 0, newImages, 0, count);
+        images = newImages;
+        float[] newQuads = new float[newSize * GLYPH_SIZE];
+        System.arraycopy(quads, 0, newQuads, 0, count * GLYPH_SIZE);
+        quads = newQuads;
+        int[] newTextures = new int[newSize * TEXTURE_SIZE];
+        System.arraycopy(textures, 0, newTextures, 0, count * TEXTURE_SIZE);
+        textures = newTextures;
+      }
+      images[count] = image;
+      int q = count * GLYPH_SIZE;
+      quads[q++] = x;
+      quads[q++] = y;
+      quads[q++] = width;
+      quads[q++] = height;
+      quads[q++] = color.getRed();
+      quads[q++] = color.getGreen();
+      quads[q++] = color.getBlue();
+      quads[q] = color.getAlpha();
+      int t = count * TEXTURE_SIZE;
+      textures[t++] = textureX;
+      textures[t++] = textureY;
+      textures[t++] = textureWidth;
+      textures[t] = textureHeight;
+      count++;
+    }
+
+    public int size() {
+      return count;
+    }
+
+    public BatchRenderImage getImage(final int index) {
+      return images[index];
+    }
+
+    public float getX(final int index) {
+      return quads[index * GLYPH_SIZE];
+    }
+
+    public float getY(final int index) {
+      return quads[index * GLYPH_SIZE + 1];
+    }
+
+    public float getWidth(final int index) {
+      return quads[index * GLYPH_SIZE + 2];
+    }
+
+    public float getHeight(final int index) {
+      return quads[index * GLYPH_SIZE + 3];
+    }
+
+    public void getColor(final int index, final Color color) {
+      int q = index * GLYPH_SIZE + 4;
+      color.setRed(quads[q]);
+      color.setGreen(quads[q + 1]);
+      color.setBlue(quads[q + 2]);
+      color.setAlpha(quads[q + 3]);
+    }
+
+    public int getTextureX(final int index) {
+      return textures[index * TEXTURE_SIZE];
+    }
+
+    public int getTextureY(final int index) {
+      return textures[index * TEXTURE_SIZE + 1];
+    }
+
+    public int getTextureWidth(final int index) {
+      return textures[index * TEXTURE_SIZE + 2];
+    }
+
+    public int getTextureHeight(final int index) {
+      return textures[index * TEXTURE_SIZE + 3];
+    }
+  }
+
+  private static class Key {
+    private BatchRenderFont font;
+    private String text;
+    private float sizeX;
+    private float sizeY;
+    private float r;
+    private float g;
+    private float b;
+    private float a;
+    private int hashCode;
+
+    public void init(final BatchRenderFont font, final String text, final float sizeX, final float sizeY, final Color color) {
+      this.font = font;
+      this.text = text;
+      this.sizeX = sizeX;
+      this.sizeY = sizeY;
+      this.r = color.getRed();
+      this.g = color.getGreen();
+      this.b = color.getBlue();
+      this.a = color.getAlpha();
+
+      int result = System.identityHashCode(font);
+      result = 31 * result + text.hashCode();
+      result = 31 * result + Float.floatToIntBits(sizeX);
+      result = 31 * result + Float.floatToIntBits(sizeY);
+      result = 31 * result + Float.floatToIntBits(r);
+      result = 31 * result + Float.floatToIntBits(g);
+      result = 31 * result + Float.floatToIntBits(b);
+      result = 31 * result + Float.floatToIntBits(a);
+      hashCode = result;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return
+          font == other.font &&
+          sizeX == other.sizeX &&
+          sizeY == other.sizeY &&
+          r == other.r &&
+          g == other.g &&
+          b == other.b &&
+          a == other.a &&
+          text.equals(other.text);
+    }
+  }
+}
@@ -0,0 +1,276 @@
+package de.lessvoid.nifty.batch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.lessvoid.nifty.batch.TextureAtlasGenerator.Relocation;
+import de.lessvoid.nifty.batch.TextureAtlasGenerator.Result;
+
+/**
+ * A TextureAtlasPacker that splits the free space into a binary tree of rectangles.
+ *
+ * This work is based on https://github.com/lukaszpaczkowski/texture-atlas-generator by lukaszpaczkowski which is based
+ * on the popular packing algorithm http://www.blackpawn.com/texts/lightmaps/ by jimscott@blackpawn.com.
+ *
+ * When an image is removed free sibling nodes are merged back into their parent node.
+ *
+ * @author void
+ */
+public class GuillotineTextureAtlasPacker implements TextureAtlasPacker {
+  private int width;
+  private int height;
+  private Node root;
+
+  // for easy access we keep each node in a map with the passed name as the key so we can look up a Node directly
+  private Map<String, Entry> rectangleMap = new TreeMap<String, Entry>();
+
+  public GuillotineTextureAtlasPacker(final int width, final int height) {
+    reset(width, height);
+  }
+
+  @Override
+  public Result add(final String name, final int imageWidth, final int imageHeight, final int padding) {
+    if (rectangleMap.containsKey(name)) {
+      throw new IllegalArgumentException("image [" + name + "] is already part of the texture atlas");
+    }
+    Node node = root.insert(imageWidth, imageHeight, padding);
+    if (node == null) {
+      return null;
+    }
+    rectangleMap.put(name, new Entry(node, imageWidth, imageHeight, padding));
+    return new Result(node.rect.x, node.rect.y, imageWidth, imageHeight);
+  }
+
+  @Override
+  public Result remove(final String name) {
+    Entry entry = rectangleMap.remove(name);
+    if (entry == null) {
+      return null;
+    }
+    Node node = entry.node;
+    node.occupied = false;
+    node.child[0] = null;
+    node.child[1] = null;
+    node.mergeParents();
+    return new Result(node.rect.x, node.rect.y, node.rect.width, node.rect.height);
+  }
+
+  @Override
+  public Result get(final String name) {
+    Entry entry = rectangleMap.get(name);
+    if (entry == null) {
+      return null;
+    }
+    return entry.getResult();
+  }
+
+  @Override
+  public Collection<String> getNames() {
+    return Collections.unmodifiableSet(rectangleMap.keySet());
+  }
+
+  @Override
+  public List<Relocation> defragment() {
+    List<Map.Entry<String, Entry>> entries = new ArrayList<Map.Entry<String, Entry>>(rectangleMap.entrySet());
+    Collections.sort(entries, new LargestFirst());
+
+    Node newRoot = new Node(null, 0, 0, width, height);
+    List<Node> newNodes = new ArrayList<Node>(entries.size());
+    for (Map.Entry<String, Entry> e : entries) {
+      Entry entry = e.getValue();
+      Node node = newRoot.insert(entry.imageWidth, entry.imageHeight, entry.padding);
+      if (node == null) {
+        return Collections.emptyList();
+      }
+      newNodes.add(node);
+    }
+
+    List<Relocation> relocations = new ArrayList<Relocation>();
+    for (int i=0; i<entries.size(); i++) {
+      String name = entries.get(i).getKey();
+      Entry entry = entries.get(i).getValue();
+      Result from = entry.getResult();
+      entry.node = newNodes.get(i);
+      Result to = entry.getResult();
+      if (from.getX() != to.getX() || from.getY() != to.getY()) {
+        relocations.add(new Relocation(name, from, to));
+      }
+    }
+    root = newRoot;
+    return relocations;
+  }
+
+  @Override
+  public void reset(final int width, final int height) {
+    this.width = width;
+    this.height = height;
+    this.root = new Node(null, 0, 0, width, height);
+    this.rectangleMap = new TreeMap<String, Entry>();
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getUsedArea() {
+    int result = 0;
+    for (Entry entry : rectangleMap.values()) {
+      result += entry.imageWidth * entry.imageHeight;
+    }
+    return result;
+  }
+
+  @Override
+  public int getFreeArea() {
+    return root.getFreeArea();
+  }
+
+  @Override
+  public int getLargestFreeArea() {
+    return root.getLargestFreeArea();
+  }
+
+  private static class Entry {
+    private Node node;
+    private final int imageWidth;
+    private final int imageHeight;
+    private final int padding;
+
+    public Entry(final Node node, final int imageWidth, final int imageHeight, final int padding) {
+      this.node = node;
+      this.imageWidth = imageWidth;
+      this.imageHeight = imageHeight;
+      this.padding = padding;
+    }
+
+    public Result getResult() {
+      return new Result(node.rect.x, node.rect.y, imageWidth, imageHeight);
+    }
+  }
+
+  private static class LargestFirst implements Comparator<Map.Entry<String, Entry>> {
+    @Override
+    public int compare(final Map.Entry<String, Entry> o1, final Map.Entry<String, Entry> o2) {
+      Entry e1 = o1.getValue();
+      Entry e2 = o2.getValue();
+      int side1 = Math.max(e1.imageWidth, e1.imageHeight);
+      int side2 = Math.max(e2.imageWidth, e2.imageHeight);
+      if (side1 != side2) {
+        return side2 - side1;
+      }
+      return e2.imageWidth * e2.imageHeight - e1.imageWidth * e1.imageHeight;
+    }
+  }
+
+  private static class Rectangle {
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+
+    public Rectangle(final int x, final int y, final int width, final int height) {
+      this.x = x;
+      this.y = y;
+      this.width = width;
+      this.height = height;
+    }
+  }
+
+  private static class Node {
+    public Node parent;
+    public Rectangle rect;
+    public Node child[];
+    public boolean occupied;
+
+    public Node(final Node parent, final int x, final int y, final int width, final int height) {
+      this.parent = parent;
+      rect = new Rectangle(x, y, width, height);
+      child = new Node[2];
+      child[0] = null;
+      child[1] = null;
+      occupied = false;
+    }
+
+    public boolean isLeaf() {
+      return child[0] == null && child[1] == null;
+    }
+
+    public boolean isFree() {
+      return isLeaf() && !occupied;
+    }
+
+    // Algorithm from http://www.blackpawn.com/texts/lightmaps/
+    public Node insert(final int imageWidth, final int imageHeight, final int padding) {
+      if (!isLeaf()) {
+        Node newNode = child[0].insert(imageWidth, imageHeight, padding);
+        if (newNode != null) {
+          return newNode;
+        }
+        return child[1].insert(imageWidth, imageHeight, padding);
+      }
+
+      if (this.occupied) {
+        return null; // occupied
+      }
+
+      if (imageWidth > rect.width || imageHeight > rect.height) {
+        return null; // does not fit
+      }
+
+      if (imageWidth == rect.width && imageHeight == rect.height) {
+        this.occupied = true; // perfect fit
+        return this;
+      }
+
+      int dw = rect.width - imageWidth;
+      int dh = rect.height - imageHeight;
+
+      if (dw > dh) {
+        child[0] = new Node(this, rect.x, rect.y, imageWidth, rect.height);
+        child[1] = new Node(this, padding + rect.x + imageWidth, rect.y, rect.width - imageWidth - padding, rect.height);
+      } else {
+        child[0] = new Node(this, rect.x, rect.y, rect.width, imageHeight);
+        child[1] = new Node(this, rect.x, padding + rect.y + imageHeight, rect.width, rect.height - imageHeight - padding);
+      }
+      return child[0].insert(imageWidth, imageHeight, padding);
+    }
+
+    /**
+     * Collapse all parents of this node that only have free leaves as children into free leaves themselves.
+     */
+    public void mergeParents() {
+      Node node = parent;
+      while (node != null && node.child[0].isFree() && node.child[1].isFree()) {
+        node.child[0] = null;
+        node.child[1] = null;
+        node = node.parent;
+      }
+    }
+
+    public int getFreeArea() {
+      if (isLeaf()) {
+        return occupied ? 0 : Math.max(0, rect.width) * Math.max(0, rect.height);
+      }
+      return child[0].getFreeArea() + child[1].getFreeArea();
+    }
+
+    public int getLargestFreeArea() {
+      if (isLeaf()) {
+        return occupied ? 0 : Math.max(0, rect.width) * Math.max(0, rect.height);
+      }
+      return Math.max(child[0].getLargestFreeArea(), child[1].getLargestFreeArea());
+    }
+  }
+}
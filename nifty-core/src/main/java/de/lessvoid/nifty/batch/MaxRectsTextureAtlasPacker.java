@@ -0,0 +1,322 @@
+package de.lessvoid.nifty.batch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.lessvoid.nifty.batch.TextureAtlasGenerator.Relocation;
+import de.lessvoid.nifty.batch.TextureAtlasGenerator.Result;
+
+/**
+ * A TextureAtlasPacker that keeps track of all maximal free rectangles of the atlas. Images are put into the free
+ * rectangle that leaves the shortest side over ("best short side fit").
+ *
+ * Based on "A Thousand Ways to Pack the Bin - A Practical Approach to Two-Dimensional Rectangle Bin Packing" by
+ * Jukka Jylanki.
+ *
+ * Other than a tree based packer the free rectangles are calculated again from all of the images still in the atlas
+ * after images have been removed. This way the free space of removed images is always merged with the free space
+ * around it. This only happens once the free rectangles are needed again, so removing a lot of images at once (f.i.
+ * when a screen is unloaded) costs a single recalculation.
+ *
+ * @author void
+ */
+public class MaxRectsTextureAtlasPacker implements TextureAtlasPacker {
+  private int width;
+  private int height;
+  private int usedArea;
+  private Map<String, Entry> entries = new TreeMap<String, Entry>();
+  private List<Rectangle> freeRectangles = new ArrayList<Rectangle>();
+  private boolean freeRectanglesInvalid;
+
+  public MaxRectsTextureAtlasPacker(final int width, final int height) {
+    reset(width, height);
+  }
+
+  @Override
+  public Result add(final String name, final int imageWidth, final int imageHeight, final int padding) {
+    if (entries.containsKey(name)) {
+      throw new IllegalArgumentException("image [" + name + "] is already part of the texture atlas");
+    }
+    validateFreeRectangles();
+    Rectangle rect = findPosition(freeRectangles, imageWidth, imageHeight, padding);
+    if (rect == null) {
+      return null;
+    }
+    place(freeRectangles, rect);
+    entries.put(name, new Entry(rect, imageWidth, imageHeight, padding));
+    usedArea += rect.width * rect.height;
+    return new Result(rect.x, rect.y, imageWidth, imageHeight);
+  }
+
+  @Override
+  public Result remove(final String name) {
+    Entry entry = entries.remove(name);
+    if (entry == null) {
+      return null;
+    }
+    usedArea -= entry.rect.width * entry.rect.height;
+    freeRectanglesInvalid = true;
+    return entry.getResult();
+  }
+
+  @Override
+  public Result get(final String name) {
+    Entry entry = entries.get(name);
+    if (entry == null) {
+      return null;
+    }
+    return entry.getResult();
+  }
+
+  @Override
+  public Collection<String> getNames() {
+    return Collections.unmodifiableSet(entries.keySet());
+  }
+
+  @Override
+  public List<Relocation> defragment() {
+    List<Map.Entry<String, Entry>> sorted = new ArrayList<Map.Entry<String, Entry>>(entries.entrySet());
+    Collections.sort(sorted, new LargestFirst());
+
+    List<Rectangle> newFreeRectangles = new ArrayList<Rectangle>();
+    newFreeRectangles.add(new Rectangle(0, 0, width, height));
+    List<Rectangle> newRectangles = new ArrayList<Rectangle>(sorted.size());
+    for (Map.Entry<String, Entry> e : sorted) {
+      Entry entry = e.getValue();
+      Rectangle rect = findPosition(newFreeRectangles, entry.imageWidth, entry.imageHeight, entry.padding);
+      if (rect == null) {
+        return Collections.emptyList();
+      }
+      place(newFreeRectangles, rect);
+      newRectangles.add(rect);
+    }
+
+    List<Relocation> relocations = new ArrayList<Relocation>();
+    usedArea = 0;
+    for (int i=0; i<sorted.size(); i++) {
+      Entry entry = sorted.get(i).getValue();
+      Result from = entry.getResult();
+      entry.rect = newRectangles.get(i);
+      usedArea += entry.rect.width * entry.rect.height;
+      if (from.getX() != entry.rect.x || from.getY() != entry.rect.y) {
+        relocations.add(new Relocation(sorted.get(i).getKey(), from, entry.getResult()));
+      }
+    }
+    freeRectangles = newFreeRectangles;
+    freeRectanglesInvalid = false;
+    return relocations;
+  }
+
+  @Override
+  public void reset(final int width, final int height) {
+    this.width = width;
+    this.height = height;
+    this.usedArea = 0;
+    this.entries = new TreeMap<String, Entry>();
+    this.freeRectangles = new ArrayList<Rectangle>();
+    this.freeRectangles.add(new Rectangle(0, 0, width, height));
+    this.freeRectanglesInvalid = false;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getUsedArea() {
+    return usedArea;
+  }
+
+  @Override
+  public int getFreeArea() {
+    return width * height - usedArea;
+  }
+
+  @Override
+  public int getLargestFreeArea() {
+    validateFreeRectangles();
+    int result = 0;
+    for (int i=0; i<freeRectangles.size(); i++) {
+      Rectangle rect = freeRectangles.get(i);
+      result = Math.max(result, rect.width * rect.height);
+    }
+    return result;
+  }
+
+  /**
+   * Find the free rectangle with the best short side fit for the image. The rectangle returned contains the padding
+   * unless the image is located at the right or bottom border of the atlas.
+   */
+  private Rectangle findPosition(
+      final List<Rectangle> free,
+      final int imageWidth,
+      final int imageHeight,
+      final int padding) {
+    Rectangle best = null;
+    int bestShortSide = Integer.MAX_VALUE;
+    int bestLongSide = Integer.MAX_VALUE;
+    for (int i=0; i<free.size(); i++) {
+      Rectangle freeRect = free.get(i);
+      int w = paddedSize(imageWidth, padding, freeRect.x, freeRect.width, width);
+      if (w < 0) {
+        continue;
+      }
+      int h = paddedSize(imageHeight, padding, freeRect.y, freeRect.height, height);
+      if (h < 0) {
+        continue;
+      }
+      int leftoverX = freeRect.width - w;
+      int leftoverY = freeRect.height - h;
+      int shortSide = Math.min(leftoverX, leftoverY);
+      int longSide = Math.max(leftoverX, leftoverY);
+      if (shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide)) {
+        best = new Rectangle(freeRect.x, freeRect.y, w, h);
+        bestShortSide = shortSide;
+        bestLongSide = longSide;
+      }
+    }
+    return best;
+  }
+
+  private int paddedSize(final int size, final int padding, final int pos, final int freeSize, final int atlasSize) {
+    int padded = Math.min(size + padding, atlasSize - pos);
+    if (size > freeSize || padded > freeSize) {
+      return -1;
+    }
+    return padded;
+  }
+
+  /**
+   * Split all free rectangles that intersect the given used rectangle and remove the free rectangles that are
+   * completely contained in other free rectangles.
+   */
+  private void place(final List<Rectangle> free, final Rectangle used) {
+    int count = free.size();
+    for (int i=0; i<count; i++) {
+      Rectangle freeRect = free.get(i);
+      if (freeRect.intersects(used)) {
+        split(free, freeRect, used);
+        free.remove(i);
+        i--;
+        count--;
+      }
+    }
+    prune(free);
+  }
+
+  private void split(final List<Rectangle> free, final Rectangle freeRect, final Rectangle used) {
+    if (used.x > freeRect.x) {
+      free.add(new Rectangle(freeRect.x, freeRect.y, used.x - freeRect.x, freeRect.height));
+    }
+    if (used.getRight() < freeRect.getRight()) {
+      free.add(new Rectangle(used.getRight(), freeRect.y, freeRect.getRight() - used.getRight(), freeRect.height));
+    }
+    if (used.y > freeRect.y) {
+      free.add(new Rectangle(freeRect.x, freeRect.y, freeRect.width, used.y - freeRect.y));
+    }
+    if (used.getBottom() < freeRect.getBottom()) {
+      free.add(new Rectangle(freeRect.x, used.getBottom(), freeRect.width, freeRect.getBottom() - used.getBottom()));
+    }
+  }
+
+  private void prune(final List<Rectangle> free) {
+    for (int i=0; i<free.size(); i++) {
+      for (int j=i+1; j<free.size(); j++) {
+        if (free.get(j).contains(free.get(i))) {
+          free.remove(i);
+          i--;
+          break;
+        }
+        if (free.get(i).contains(free.get(j))) {
+          free.remove(j);
+          j--;
+        }
+      }
+    }
+  }
+
+  private void validateFreeRectangles() {
+    if (!freeRectanglesInvalid) {
+      return;
+    }
+    freeRectanglesInvalid = false;
+    freeRectangles.clear();
+    freeRectangles.add(new Rectangle(0, 0, width, height));
+    for (Entry entry : entries.values()) {
+      place(freeRectangles, entry.rect);
+    }
+  }
+
+  private static class Entry {
+    private Rectangle rect;
+    private final int imageWidth;
+    private final int imageHeight;
+    private final int padding;
+
+    public Entry(final Rectangle rect, final int imageWidth, final int imageHeight, final int padding) {
+      this.rect = rect;
+      this.imageWidth = imageWidth;
+      this.imageHeight = imageHeight;
+      this.padding = padding;
+    }
+
+    public Result getResult() {
+      return new Result(rect.x, rect.y, imageWidth, imageHeight);
+    }
+  }
+
+  private static class LargestFirst implements Comparator<Map.Entry<String, Entry>> {
+    @Override
+    public int compare(final Map.Entry<String, Entry> o1, final Map.Entry<String, Entry> o2) {
+      Entry e1 = o1.getValue();
+      Entry e2 = o2.getValue();
+      int side1 = Math.max(e1.imageWidth, e1.imageHeight);
+      int side2 = Math.max(e2.imageWidth, e2.imageHeight);
+      if (side1 != side2) {
+        return side2 - side1;
+      }
+      return e2.imageWidth * e2.imageHeight - e1.imageWidth * e1.imageHeight;
+    }
+  }
+
+  private static class Rectangle {
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+
+    public Rectangle(final int x, final int y, final int width, final int height) {
+      this.x = x;
+      this.y = y;
+      this.width = width;
+      this.height = height;
+    }
+
+    public int getRight() {
+      return x + width;
+    }
+
+    public int getBottom() {
+      return y + height;
+    }
+
+    public boolean intersects(final Rectangle other) {
+      return x < other.getRight() && other.x < getRight() && y < other.getBottom() && other.y < getBottom();
+    }
+
+    public boolean contains(final Rectangle other) {
+      return other.x >= x && other.y >= y && other.getRight() <= getRight() && other.getBottom() <= getBottom();
+    }
+  }
+}
@@ -2,14 +2,14 @@ package de.lessvoid.nifty.batch;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 /**
  * This class tries to fit TextureSource data into a single TextureDestination.
  *
- * This work is based on https://github.com/lukaszpaczkowski/texture-atlas-generator by lukaszpaczkowski which is based
- * on the popular packing algorithm http://www.blackpawn.com/texts/lightmaps/ by jimscott@blackpawn.com.
+ * The actual packing algorithm is provided by a TextureAtlasPacker. The default is the GuillotineTextureAtlasPacker
+ * that is based on https://github.com/lukaszpaczkowski/texture-atlas-generator by lukaszpaczkowski which is based
+ * on the popular packing algorithm http://www.blackpawn.com/texts/lightmaps/ by jimscott@blackpawn.com. For atlases
+ * that change a lot at runtime the MaxRectsTextureAtlasPacker will usually waste less space.
  *
  * This class tries to separate the actual algorithm from the image manipulating code so that this can be used with
  * different rendering/image frameworks.
@@ -19,10 +19,7 @@ import java.util.TreeMap;
 public class TextureAtlasGenerator {
   private final int width;
   private final int height;
-  private Node root;
-
-  // for easy access we keep each node in a map with the passed name as the key so we can look up a Node directly
-  private Map<String, Node> rectangleMap;
+  private final TextureAtlasPacker packer;
 
   /**
    * You'll get an instance of this class back when you add an image. This class will show you where you'll need to
@@ -60,16 +57,51 @@ public class TextureAtlasGenerator {
 }
 
   /**
-   * Create a new TextureAtlasGenerator 
-   * @param destination
-   * @param width
-   * @param height
+   * You'll get a list of these when you defragment the texture atlas. The image data of the image with the given name
+   * needs to be moved from the old position to the new position.
+   * @author void
+   */
+  public static class Relocation {
+    private final String name;
+    private final Result from;
+    private final Result to;
+
+    public Relocation(final String name, final Result from, final Result to) {
+      this.name = name;
+      this.from = from;
+      this.to = to;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Result getFrom() {
+      return from;
+    }
+
+    public Result getTo() {
+      return to;
+    }
+  }
+
+  /**
+   * Create a new TextureAtlasGenerator using the GuillotineTextureAtlasPacker.
+   * @param width width of the texture atlas
+   * @param height height of the texture atlas
    */
   public TextureAtlasGenerator(final int width, final int height) {
-    this.width = width;
-    this.height = height;
-    this.root = new Node(0, 0, width, height);
-    this.rectangleMap = new TreeMap<String, Node>();
+    this(new GuillotineTextureAtlasPacker(width, height));
+  }
+
+  /**
+   * Create a new TextureAtlasGenerator using the given TextureAtlasPacker.
+   * @param packer the TextureAtlasPacker to use
+   */
+  public TextureAtlasGenerator(final TextureAtlasPacker packer) {
+    this.width = packer.getWidth();
+    this.height = packer.getHeight();
+    this.packer = packer;
   }
 
   /**
@@ -82,110 +114,67 @@ public class TextureAtlasGenerator {
    * @param padding padding to apply
    * @return the position of the image in the bigger texture taking all other previously added images into account
    * @throws TextureAtlasGeneratorException when the image could not be added
+   * @throws IllegalArgumentException when an image with the same name has already been added
    */
   public Result addImage(final int imageWidth, final int imageHeight, final String name, final int padding)
       throws TextureAtlasGeneratorException {
-      Node node = root.insert(imageWidth, imageHeight, padding);
-      if (node == null) {
+      Result result = packer.add(name, imageWidth, imageHeight, padding);
+      if (result == null) {
         throw new TextureAtlasGeneratorException(imageWidth, imageHeight, name);
       }
-
-      rectangleMap.put(name, node);
-      return new Result(node.rect.x, node.rect.y, imageWidth, imageHeight);
+      return result;
   }
 
   public Result removeImage(final String name) {
-    Node node = rectangleMap.remove(name);
-    if (node == null) {
-      return null;
-    }
-    
-    node.occupied = false;
-    node.child[0] = null;
-    node.child[1] = null;
-    return new Result(node.rect.x, node.rect.y, node.rect.width, node.rect.height);
+    return packer.remove(name);
   }
 
   public List<Result> rebuild(final int width, final int height, final int padding) throws TextureAtlasGeneratorException {
+    List<String> names = new ArrayList<String>(packer.getNames());
+    List<Result> images = new ArrayList<Result>(names.size());
+    for (String name : names) {
+      images.add(packer.get(name));
+    }
+
     List<Result> results = new ArrayList<Result>();
-    root = new Node(0, 0, width, height);
-    for (Map.Entry<String, Node> entry : rectangleMap.entrySet()) {
-      Rectangle rect = entry.getValue().rect;
-      results.add(addImage(rect.width, rect.height, entry.getKey(), padding));
+    packer.reset(width, height);
+    for (int i=0; i<names.size(); i++) {
+      Result image = images.get(i);
+      results.add(addImage(image.getOriginalImageWidth(), image.getOriginalImageHeight(), names.get(i), padding));
     }
     return results;
   }
 
-  private static class Rectangle {
-    private int x;
-    private int y;
-    private int width;
-    private int height;
-
-    public Rectangle(final int x, final int y, final int width, final int height) {
-      this.x = x;
-      this.y = y;
-      this.width = width;
-      this.height = height;
-    }
+  /**
+   * Move the images in the atlas together so that the free space is merged into larger areas again. Nothing will be
+   * changed if the TextureAtlasPacker can't find a better place for all of the images.
+   *
+   * @return the images that have been moved, it is up to you to move the image data as well
+   */
+  public List<Relocation> defragment() {
+    return packer.defragment();
   }
 
-  private static class Node {
-    public Rectangle rect;
-    public Node child[];
-    public boolean occupied;
-
-    public Node(final int x, final int y, final int width, final int height) {
-      rect = new Rectangle(x, y, width, height);
-      child = new Node[2];
-      child[0] = null;
-      child[1] = null;
-      occupied = false;
-    }
-
-    public boolean isLeaf() {
-      return child[0] == null && child[1] == null;
-    }
-
-    // Algorithm from http://www.blackpawn.com/texts/lightmaps/
-    public Node insert(final int imageWidth, final int imageHeight, final int padding) {
-      if (!isLeaf()) {
-        Node newNode = child[0].insert(imageWidth, imageHeight, padding);
-        if (newNode != null) {
-          return newNode;
-        }
-        return child[1].insert(imageWidth, imageHeight, padding);
-      }
+  /**
+   * @return the part of the atlas in use by images in the range 0 (empty) to 1 (full)
+   */
+  public float getOccupancy() {
+    return packer.getUsedArea() / (float) (packer.getWidth() * packer.getHeight());
+  }
 
-      if (this.occupied) {
-        return null; // occupied
-      }
-      
-      if (imageWidth > rect.width || imageHeight > rect.height) {
-        return null; // does not fit
-      }
-      
-      if (imageWidth == rect.width && imageHeight == rect.height) {
-        this.occupied = true; // perfect fit
-        return this;
-      }
-      
-      int dw = rect.width - imageWidth;
-      int dh = rect.height - imageHeight;
-      
-      if (dw > dh) {
-        child[0] = new Node(rect.x, rect.y, imageWidth, rect.height);
-        child[1] = new Node(padding + rect.x + imageWidth, rect.y, rect.width - imageWidth - padding, rect.height);
-      } else {
-        child[0] = new Node(rect.x, rect.y, rect.width, imageHeight);
-        child[1] = new Node(rect.x, padding + rect.y + imageHeight, rect.width, rect.height - imageHeight - padding);
-      }
-      return child[0].insert(imageWidth, imageHeight, padding);
+  /**
+   * @return how much the free space of the atlas has been split up in the range 0 (all of the free space is available
+   * as a single rectangle) to nearly 1 (the free space consists of lots of small rectangles)
+   */
+  public float getFragmentation() {
+    int freeArea = packer.getFreeArea();
+    if (freeArea <= 0) {
+      return 0.f;
     }
+    return 1.f - packer.getLargestFreeArea() / (float) freeArea;
   }
 
   public void reset() {
-    this.root = new Node(0, 0, width, height);
-    this.rectangleMap = new TreeMap<String, Node>();
+    packer.reset(width, height);
   }
 }
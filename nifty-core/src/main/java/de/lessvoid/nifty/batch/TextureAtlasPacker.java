@@ -0,0 +1,84 @@
+package de.lessvoid.nifty.batch;
+
+import java.util.Collection;
+import java.util.List;
+
+import de.lessvoid.nifty.batch.TextureAtlasGenerator.Relocation;
+import de.lessvoid.nifty.batch.TextureAtlasGenerator.Result;
+
+/**
+ * The actual algorithm the TextureAtlasGenerator uses to decide where an image is put into the texture atlas.
+ *
+ * A TextureAtlasPacker only keeps track of rectangles. It does not know anything about the actual image data.
+ *
+ * @author void
+ */
+public interface TextureAtlasPacker {
+
+  /**
+   * Find a place for an image of the given size.
+   *
+   * @param name the name that identifies the image
+   * @param imageWidth image width
+   * @param imageHeight image height
+   * @param padding the space to keep free to the right and to the bottom of the image
+   * @return the position of the image or null if the image does not fit
+   * @throws IllegalArgumentException when there already is an image with the given name
+   */
+  Result add(String name, int imageWidth, int imageHeight, int padding);
+
+  /**
+   * Remove the image with the given name and make its space available again.
+   *
+   * @param name the name of the image
+   * @return the position and size of the removed image or null if there is no image with that name
+   */
+  Result remove(String name);
+
+  /**
+   * @param name the name of the image
+   * @return the position and size of the image or null if there is no image with that name
+   */
+  Result get(String name);
+
+  /**
+   * @return the names of all images currently in the atlas
+   */
+  Collection<String> getNames();
+
+  /**
+   * Place all images again in the most compact way this packer knows of. This will only change anything when all of
+   * the images fit into the atlas using their new positions.
+   *
+   * @return the images that have been moved (the image data of these images needs to be put into the new place) or
+   * an empty list if nothing has been moved
+   */
+  List<Relocation> defragment();
+
+  /**
+   * Remove all images and change the size of the atlas.
+   *
+   * @param width the new width of the atlas
+   * @param height the new height of the atlas
+   */
+  void reset(int width, int height);
+
+  int getWidth();
+
+  int getHeight();
+
+  /**
+   * @return the area occupied by images (including padding where the packer keeps track of it)
+   */
+  int getUsedArea();
+
+  /**
+   * @return the free area that is still available for images
+   */
+  int getFreeArea();
+
+  /**
+   * @return the area of the largest free rectangle
+   */
+  int getLargestFreeArea();
+}
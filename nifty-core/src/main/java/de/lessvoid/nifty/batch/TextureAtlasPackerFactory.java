@@ -0,0 +1,16 @@
+package de.lessvoid.nifty.batch;
+
+/**
+ * Creates the TextureAtlasPacker of each texture atlas page of the BatchRenderDevice.
+ *
+ * @author void
+ */
+public interface TextureAtlasPackerFactory {
+
+  /**
+   * @param width the width of the atlas texture
+   * @param height the height of the atlas texture
+   * @return a new TextureAtlasPacker for an empty atlas of the given size
+   */
+  TextureAtlasPacker create(int width, int height);
+}
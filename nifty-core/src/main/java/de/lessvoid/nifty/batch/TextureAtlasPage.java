@@ -0,0 +1,65 @@
+package de.lessvoid.nifty.batch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A single atlas texture of the BatchRenderDevice together with the TextureAtlasGenerator that keeps track of the
+ * free space of this texture and the images currently uploaded into it.
+ *
+ * @author void
+ */
+class TextureAtlasPage {
+  private final int atlasTextureId;
+  private final TextureAtlasGenerator generator;
+  private final Map<String, BatchRenderImage> images = new HashMap<String, BatchRenderImage>();
+  private BatchRenderImage plainImage;
+
+  public TextureAtlasPage(final int atlasTextureId, final TextureAtlasGenerator generator) {
+    this.atlasTextureId = atlasTextureId;
+    this.generator = generator;
+  }
+
+  /**
+   * @return the id of the atlas texture as returned by BatchRenderBackend.createAtlasTexture()
+   */
+  public int getAtlasTextureId() {
+    return atlasTextureId;
+  }
+
+  public TextureAtlasGenerator getGenerator() {
+    return generator;
+  }
+
+  /**
+   * Each page carries its own plain white image so that untextured quads don't need to switch the atlas texture.
+   * @return the plain image of this page or null if it has not been created yet
+   */
+  public BatchRenderImage getPlainImage() {
+    return plainImage;
+  }
+
+  public void setPlainImage(final BatchRenderImage plainImage) {
+    this.plainImage = plainImage;
+  }
+
+  public void imageAdded(final String name, final BatchRenderImage image) {
+    images.put(name, image);
+  }
+
+  public void imageRemoved(final String name) {
+    images.remove(name);
+  }
+
+  public BatchRenderImage getImage(final String name) {
+    return images.get(name);
+  }
+
+  /**
+   * Forget about all images and make the whole page available again.
+   */
+  public void reset() {
+    generator.reset();
+    images.clear();
+  }
+}
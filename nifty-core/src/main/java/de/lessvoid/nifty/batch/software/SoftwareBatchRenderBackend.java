@@ -0,0 +1,474 @@
+package de.lessvoid.nifty.batch.software;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.imageio.ImageIO;
+
+import de.lessvoid.nifty.batch.spi.BatchRenderBackend;
+import de.lessvoid.nifty.render.BlendMode;
+import de.lessvoid.nifty.spi.render.MouseCursor;
+import de.lessvoid.nifty.tools.ObjectPool;
+import de.lessvoid.nifty.tools.ObjectPool.Factory;
+import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
+
+/**
+ * A BatchRenderBackend that does not need OpenGL at all. The quads are rasterized by the CPU into an int[] ARGB
+ * framebuffer and the texture atlas is kept in int[] ARGB arrays as well.
+ *
+ * This is not meant to be fast. It's meant to run the BatchRenderDevice on machines without a GPU (unit tests,
+ * benchmarks, headless servers) and it keeps exact statistics about the last frame: the number of quads and batches
+ * rendered and the number of pixels that have been written (fill rate).
+ *
+ * The rasterizer samples the pixel centers, uses nearest texture filtering and modulates the texel color with the
+ * interpolated vertex color just like the OpenGL backends do. Images are loaded with ImageIO which means that only
+ * the image formats ImageIO supports can be used (TGA is not supported out of the box). Mouse cursors are accepted
+ * but never drawn.
+ *
+ * @author void
+ */
+public class SoftwareBatchRenderBackend implements BatchRenderBackend {
+  private static Logger log = Logger.getLogger(SoftwareBatchRenderBackend.class.getName());
+
+  // this is the same limit the LwjglBatchRenderBackend uses (64k floats with 32 floats per quad)
+  private static final int DEFAULT_MAX_QUADS_PER_BATCH = 2047;
+
+  private final int width;
+  private final int height;
+  private final int[] framebuffer;
+  private final int maxQuadsPerBatch;
+  private final List<AtlasTexture> atlasTextures = new ArrayList<AtlasTexture>();
+  private final ObjectPool<Batch> batchPool;
+  private final List<Batch> batches = new ArrayList<Batch>();
+  private Batch currentBatch;
+  private NiftyResourceLoader resourceLoader;
+  private MouseCursor mouseCursor;
+
+  private int quadCount;
+  private int batchCount;
+  private long pixelCount;
+
+  /**
+   * Create a SoftwareBatchRenderBackend with a framebuffer of the given size.
+   * @param width width of the framebuffer
+   * @param height height of the framebuffer
+   */
+  public SoftwareBatchRenderBackend(final int width, final int height) {
+    this(width, height, DEFAULT_MAX_QUADS_PER_BATCH);
+  }
+
+  /**
+   * Create a SoftwareBatchRenderBackend with a framebuffer of the given size that will start a new batch after the
+   * given number of quads.
+   * @param width width of the framebuffer
+   * @param height height of the framebuffer
+   * @param maxQuadsPerBatch the maximum number of quads a single batch can take
+   */
+  public SoftwareBatchRenderBackend(final int width, final int height, final int maxQuadsPerBatch) {
+    this.width = width;
+    this.height = height;
+    this.framebuffer = new int[width * height];
+    this.maxQuadsPerBatch = Math.max(1, maxQuadsPerBatch);
+    batchPool = new ObjectPool<Batch>(2, new Factory<Batch>() {
+      @Override
+      public Batch createNew() {
+        return new Batch();
+      }
+    });
+  }
+
+  @Override
+  public void setResourceLoader(final NiftyResourceLoader resourceLoader) {
+    this.resourceLoader = resourceLoader;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public void beginFrame() {
+    log.fine("beginFrame()");
+
+    for (int i=0; i<batches.size(); i++) {
+      batchPool.free(batches.get(i));
+    }
+    batches.clear();
+    currentBatch = null;
+    quadCount = 0;
+    batchCount = 0;
+    pixelCount = 0;
+  }
+
+  @Override
+  public void endFrame() {
+    log.fine("endFrame");
+  }
+
+  @Override
+  public void clear() {
+    log.fine("clear()");
+    Arrays.fill(framebuffer, 0);
+  }
+
+  @Override
+  public MouseCursor createMouseCursor(final String filename, final int hotspotX, final int hotspotY) throws IOException {
+    return new SoftwareMouseCursor();
+  }
+
+  @Override
+  public void enableMouseCursor(final MouseCursor mouseCursor) {
+    this.mouseCursor = mouseCursor;
+  }
+
+  @Override
+  public void disableMouseCursor() {
+    this.mouseCursor = null;
+  }
+
+  @Override
+  public int createAtlasTexture(final int width, final int height) {
+    atlasTextures.add(new AtlasTexture(width, height));
+    return atlasTextures.size() - 1;
+  }
+
+  @Override
+  public void clearAtlasTexture(final int atlasTextureId, final int width, final int height) {
+    Arrays.fill(atlasTextures.get(atlasTextureId).data, 0);
+  }
+
+  @Override
+  public Image loadImage(final String filename) {
+    InputStream in = null;
+    try {
+      in = resourceLoader.getResourceAsStream(filename);
+      BufferedImage image = ImageIO.read(in);
+      if (image == null) {
+        log.warning("unsupported image format [" + filename + "]");
+        return new ImageImpl(0, 0, null);
+      }
+      int w = image.getWidth();
+      int h = image.getHeight();
+      return new ImageImpl(w, h, image.getRGB(0, 0, w, h, null, 0, w));
+    } catch (Exception e) {
+      log.log(Level.WARNING, "problems loading image [" + filename + "]", e);
+      return new ImageImpl(0, 0, null);
+    } finally {
+      if (in != null) {
+        try {
+          in.close();
+        } catch (IOException e) {
+          log.log(Level.FINE, e.getMessage(), e);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void addImageToTexture(final int atlasTextureId, final Image image, final int x, final int y) {
+    ImageImpl imageImpl = (ImageImpl) image;
+    if (imageImpl.getWidth() == 0 ||
+        imageImpl.getHeight() == 0) {
+      return;
+    }
+    AtlasTexture texture = atlasTextures.get(atlasTextureId);
+    int w = Math.min(imageImpl.getWidth(), texture.width - x);
+    for (int row=0; row<imageImpl.getHeight() && y + row < texture.height; row++) {
+      System.arraycopy(imageImpl.data, row * imageImpl.getWidth(), texture.data, (y + row) * texture.width + x, w);
+    }
+  }
+
+  @Override
+  public void beginBatch(final BlendMode blendMode, final int atlasTextureId) {
+    batches.add(batchPool.allocate());
+    currentBatch = batches.get(batches.size() - 1);
+    currentBatch.begin(blendMode, atlasTextureId);
+  }
+
+  @Override
+  public void addQuads(final float[] quads, final int offset, final int count) {
+    int index = offset;
+    int remaining = count;
+    while (remaining > 0) {
+      if (!currentBatch.canAddQuad()) {
+        beginBatch(currentBatch.blendMode, currentBatch.atlasTextureId);
+      }
+      int added = currentBatch.addQuads(quads, index, remaining);
+      index += added * QUAD_SIZE;
+      remaining -= added;
+    }
+    quadCount += count;
+  }
+
+  @Override
+  public int render() {
+    for (int i=0; i<batches.size(); i++) {
+      Batch batch = batches.get(i);
+      AtlasTexture texture = atlasTextures.get(batch.atlasTextureId);
+      boolean multiply = BlendMode.MULIPLY.equals(batch.blendMode);
+      for (int q=0; q<batch.quadCount; q++) {
+        renderQuad(batch.data, q * QUAD_SIZE, texture, multiply);
+      }
+    }
+    batchCount = batches.size();
+    return batchCount;
+  }
+
+  @Override
+  public void removeFromTexture(final int atlasTextureId, final Image image, final int x, final int y, final int w, final int h) {
+    AtlasTexture texture = atlasTextures.get(atlasTextureId);
+    int x1 = Math.min(x + w, texture.width);
+    int y1 = Math.min(y + h, texture.height);
+    for (int row=Math.max(0, y); row<y1; row++) {
+      Arrays.fill(texture.data, row * texture.width + Math.max(0, x), row * texture.width + x1, 0);
+    }
+  }
+
+  /**
+   * Direct access to the framebuffer. The pixel at x, y is at index y * getWidth() + x and is stored as ARGB.
+   * @return the framebuffer
+   */
+  public int[] getFramebuffer() {
+    return framebuffer;
+  }
+
+  /**
+   * @return the ARGB color of the pixel at the given position
+   */
+  public int getPixel(final int x, final int y) {
+    return framebuffer[y * width + x];
+  }
+
+  /**
+   * @return the ARGB content of the given atlas texture
+   */
+  public int[] getAtlasTexture(final int atlasTextureId) {
+    return atlasTextures.get(atlasTextureId).data;
+  }
+
+  /**
+   * @return the mouse cursor currently enabled or null
+   */
+  public MouseCursor getMouseCursor() {
+    return mouseCursor;
+  }
+
+  /**
+   * @return the number of quads added in the current (or the last) frame
+   */
+  public int getQuadCount() {
+    return quadCount;
+  }
+
+  /**
+   * @return the number of batches rendered in the last frame
+   */
+  public int getBatchCount() {
+    return batchCount;
+  }
+
+  /**
+   * The fill rate of the last frame. Every pixel counts, even if it is covered by other quads later.
+   * @return the number of pixels written in the last frame
+   */
+  public long getPixelCount() {
+    return pixelCount;
+  }
+
+  // internal implementations
+
+  private void renderQuad(final float[] q, final int i, final AtlasTexture texture, final boolean multiply) {
+    float x = q[i];
+    float y = q[i + 1];
+    float w = q[i + 2];
+    float h = q[i + 3];
+    if (w <= 0 || h <= 0) {
+      return;
+    }
+
+    // a pixel is covered when its center is inside the quad
+    int x0 = Math.max(0, (int) Math.ceil(x - 0.5f));
+    int y0 = Math.max(0, (int) Math.ceil(y - 0.5f));
+    int x1 = Math.min(width, (int) Math.ceil(x + w - 0.5f));
+    int y1 = Math.min(height, (int) Math.ceil(y + h - 0.5f));
+    if (x0 >= x1 || y0 >= y1) {
+      return;
+    }
+
+    float u = q[i + 4] * texture.width;
+    float v = q[i + 5] * texture.height;
+    float du = q[i + 6] * texture.width;
+    float dv = q[i + 7] * texture.height;
+
+    // colors are stored top left, top right, bottom left, bottom right with four components each
+    int c = i + 8;
+    for (int py=y0; py<y1; py++) {
+      float t = (py + 0.5f - y) / h;
+      float lr = lerp(q[c], q[c + 8], t);
+      float lg = lerp(q[c + 1], q[c + 9], t);
+      float lb = lerp(q[c + 2], q[c + 10], t);
+      float la = lerp(q[c + 3], q[c + 11], t);
+      float rr = lerp(q[c + 4], q[c + 12], t);
+      float rg = lerp(q[c + 5], q[c + 13], t);
+      float rb = lerp(q[c + 6], q[c + 14], t);
+      float ra = lerp(q[c + 7], q[c + 15], t);
+      int textureRow = clamp((int) (v + dv * t), texture.height) * texture.width;
+      int framebufferRow = py * width;
+
+      for (int px=x0; px<x1; px++) {
+        float s = (px + 0.5f - x) / w;
+        int texel = texture.data[textureRow + clamp((int) (u + du * s), texture.width)];
+        float r = lerp(lr, rr, s) * ((texel >>> 16) & 0xff) / 255.f;
+        float g = lerp(lg, rg, s) * ((texel >>> 8) & 0xff) / 255.f;
+        float b = lerp(lb, rb, s) * (texel & 0xff) / 255.f;
+        float a = lerp(la, ra, s) * (texel >>> 24) / 255.f;
+
+        int index = framebufferRow + px;
+        int dst = framebuffer[index];
+        if (multiply) {
+          framebuffer[index] = multiply(dst, r, g, b, a);
+        } else {
+          framebuffer[index] = blend(dst, r, g, b, a);
+        }
+      }
+    }
+    pixelCount += (x1 - x0) * (y1 - y0);
+  }
+
+  // glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA)
+  private static int blend(final int dst, final float r, final float g, final float b, final float a) {
+    float inv = 1.f - a;
+    return
+        toByte(a * a + inv * (dst >>> 24) / 255.f) << 24 |
+        toByte(r * a + inv * ((dst >>> 16) & 0xff) / 255.f) << 16 |
+        toByte(g * a + inv * ((dst >>> 8) & 0xff) / 255.f) << 8 |
+        toByte(b * a + inv * (dst & 0xff) / 255.f);
+  }
+
+  // glBlendFunc(GL_DST_COLOR, GL_ZERO)
+  private static int multiply(final int dst, final float r, final float g, final float b, final float a) {
+    return
+        toByte(a * (dst >>> 24) / 255.f) << 24 |
+        toByte(r * ((dst >>> 16) & 0xff) / 255.f) << 16 |
+        toByte(g * ((dst >>> 8) & 0xff) / 255.f) << 8 |
+        toByte(b * (dst & 0xff) / 255.f);
+  }
+
+  private static int toByte(final float value) {
+    if (value <= 0.f) {
+      return 0;
+    }
+    if (value >= 1.f) {
+      return 0xff;
+    }
+    return (int) (value * 255.f + 0.5f);
+  }
+
+  private static float lerp(final float a, final float b, final float t) {
+    return a + (b - a) * t;
+  }
+
+  private static int clamp(final int value, final int max) {
+    if (value < 0) {
+      return 0;
+    }
+    if (value >= max) {
+      return max - 1;
+    }
+    return value;
+  }
+
+  private static class AtlasTexture {
+    private final int width;
+    private final int height;
+    private final int[] data;
+
+    public AtlasTexture(final int width, final int height) {
+      this.width = width;
+      this.height = height;
+      this.data = new int[width * height];
+    }
+  }
+
+  /**
+   * The BatchRenderBackend.Image implementation that carries the ARGB data from loadImage() to addImageToTexture().
+   *
+   * @author void
+   */
+  private static class ImageImpl implements BatchRenderBackend.Image {
+    private final int width;
+    private final int height;
+    private final int[] data;
+
+    public ImageImpl(final int width, final int height, final int[] data) {
+      this.width = width;
+      this.height = height;
+      this.data = data;
+    }
+
+    @Override
+    public int getWidth() {
+      return width;
+    }
+
+    @Override
+    public int getHeight() {
+      return height;
+    }
+  }
+
+  private static class SoftwareMouseCursor implements MouseCursor {
+    @Override
+    public void dispose() {
+    }
+  }
+
+  /**
+   * The quads of a batch are kept until render() is called. Batch instances are pooled and reused every frame.
+   *
+   * @author void
+   */
+  private class Batch {
+    private float[] data = new float[QUAD_SIZE * 64];
+    private int quadCount;
+    private BlendMode blendMode = BlendMode.BLEND;
+    private int atlasTextureId;
+
+    public void begin(final BlendMode blendMode, final int atlasTextureId) {
+      this.blendMode = blendMode;
+      this.atlasTextureId = atlasTextureId;
+      quadCount = 0;
+    }
+
+    public boolean canAddQuad() {
+      return quadCount < maxQuadsPerBatch;
+    }
+
+    /**
+     * Copy as many of the given quads into this batch as possible.
+     * @return the number of quads actually added
+     */
+    public int addQuads(final float[] quads, final int offset, final int count) {
+      int added = Math.min(count, maxQuadsPerBatch - quadCount);
+      int size = (quadCount + added) * QUAD_SIZE;
+      if (size > data.length) {
+        data = Arrays.copyOf(data, Math.max(size, data.length * 2));
+      }
+      System.arraycopy(quads, offset, data, quadCount * QUAD_SIZE, added * QUAD_SIZE);
+      quadCount += added;
+      return added;
+    }
+  }
+}
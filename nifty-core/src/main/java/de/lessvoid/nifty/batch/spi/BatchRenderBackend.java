@@ -4,7 +4,6 @@ import java.io.IOException;
 
 import de.lessvoid.nifty.render.BlendMode;
 import de.lessvoid.nifty.spi.render.MouseCursor;
-import de.lessvoid.nifty.tools.Color;
 import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
 
 /**
@@ -16,23 +15,30 @@ import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
  *
  * 1) A texture atlas is used to store all textures in a single large texture. The actual texture size is provided
  *    by the user but will usually be around 2048x2048 pixel. A BatchRenderBackend has to provide mechanism to create
- *    that texture and a way to load an image and put it at a given position into that big texture.
+ *    that texture and a way to load an image and put it at a given position into that big texture. When the texture
+ *    atlas is full Nifty will create additional atlas textures (pages) of the same size.
  *
  * 2) The only actual render data that Nifty will call this BatchRenderBackend with are textured quads with individual
  *    vertex colors. Nifty will provide the texture coordinates which will always be relative to the texture atlas
- *    created before. A BatchRenderBackend implementation should cache or send these quads to the GPU to be later
- *    rendered in a single draw call when Nifty calls the render() method of a BatchRenderBackend implementation.
+ *    created before. The quads are handed over in bulk as packed float arrays (see addQuads()). A BatchRenderBackend
+ *    implementation should cache or send these quads to the GPU to be later rendered in a single draw call when Nifty
+ *    calls the render() method of a BatchRenderBackend implementation.
  *
  * 3) The batch size, e.g. how many quads will fit into a single batch is decided by the BatchRenderBackend
  *    implementation. If a quad does not fit into the current batch the BatchRenderBackend implementation might create
  *    a new batch automatically.
  *
- * 4) Nifty will only start a new batch when the BlendMode changes.
+ * 4) Nifty will only start a new batch when the BlendMode or the atlas texture changes.
  *
  * @author void
  */
 public interface BatchRenderBackend {
 
+  /**
+   * The number of floats a single quad occupies in the array passed to addQuads().
+   */
+  int QUAD_SIZE = 24;
+
   /**
    * Gives this RenderDevice access to the NiftyResourceLoader so that the same paths can be used for resolving
    * resources as Nifty would do.
@@ -90,32 +96,38 @@ public interface BatchRenderBackend {
   // batch related new stuff
 
   /**
-   * Create a texture that will later be used as the texture atlas.
+   * Create a texture that will later be used as a texture atlas. This is called once when the BatchRenderDevice is
+   * created and again every time the existing atlas textures are full.
    * 
    * @param width width of the texture atlas
    * @param height height of the texture atlas
+   * @return the id of the new atlas texture that Nifty will pass to the other methods to identify this texture
    */
-  void createAtlasTexture(int width, int height);
+  int createAtlasTexture(int width, int height);
 
   /**
    * Clear the atlas texture.
+   * @param atlasTextureId the id of the atlas texture as returned by createAtlasTexture()
    */
-  void clearAtlasTexture(int width, int height);
+  void clearAtlasTexture(int atlasTextureId, int width, int height);
 
   /**
    * Load the given image and provide width and height of the image using the Image interface defined at the bottom.
+   * When BatchRenderDevice.setImageLoadExecutor() is used this method is called from the threads of that Executor
+   * and must therefore not rely on being called from the render thread.
    * @param filename the filename to load
    * @param ImageDimension instance (could carry additional data like the actual image data if necessary)
    */
   Image loadImage(String filename);
 
   /**
-   * Adds the given image to the main texture atlas at the given position.
+   * Adds the given image to the given texture atlas at the given position.
+   * @param atlasTextureId the id of the atlas texture as returned by createAtlasTexture()
    * @param image the Image data loaded by loadImage()
    * @param x the x position where to put the image
    * @param y the y position where to put the image
    */
-  void addImageToTexture(Image image, int x, int y);
+  void addImageToTexture(int atlasTextureId, Image image, int x, int y);
 
   /**
    * Begin a new batch with the given BlendMode. Starting a new batch with beginBatch() should store the current batch
@@ -123,39 +135,31 @@ public interface BatchRenderBackend {
    *
    * @param blendMode the blendMode this batch should use. This will be BlendMode.BLEND in most cases and very rare will
    * it be MULTIPLY.
+   * @param atlasTextureId the id of the atlas texture all quads of this batch will use
    */
-  void beginBatch(BlendMode blendMode);
+  void beginBatch(BlendMode blendMode, int atlasTextureId);
 
   /**
-   * Add a quad with the given coordinates to the current batch. There will always be a beginBatch() call before any
-   * addQuad() call. There will be lots of addQuad() calls after a beginBatch() call.
+   * Add quads to the current batch. There will always be a beginBatch() call before any addQuads() call and there
+   * might be several addQuads() calls after a beginBatch() call. The quads are packed into the given array with
+   * QUAD_SIZE floats for each quad:
    *
-   * @param x the x position in screen coordinates where to render this quad (0,0 is the left, upper corner)
-   * @param y the y position in screen coordinates where to render this quad (0,0 is the left, upper corner)
-   * @param width the width of the quad to render
-   * @param height the height of the quad to render
-   * @param color1 color of the left upper quad vertex
-   * @param color2 color of the right upper quad vertex
-   * @param color3 color of the right bottom quad vertex
-   * @param color4 color of the left bottom quad vertex
-   * @param textureX texture coordinate x of the left side (already normalized in the range 0 to 1)
-   * @param textureY texture coordinate y of the upper line (already normalized in the range 0 to 1)
-   * @param textureWidth texture width (already normalized in the range 0 to 1)
-   * @param textureHeight texture height (already normalized in the range 0 to 1)
-   */
-  void addQuad(
-      float x,
-      float y,
-      float width,
-      float height,
-      Color color1,
-      Color color2,
-      Color color3,
-      Color color4,
-      float textureX,
-      float textureY,
-      float textureWidth,
-      float textureHeight);
+   * - x, y: the position in screen coordinates where to render this quad (0,0 is the left, upper corner)
+   * - width, height: the size of the quad to render
+   * - textureX, textureY: texture coordinate of the left, upper corner (already normalized in the range 0 to 1)
+   * - textureWidth, textureHeight: texture size (already normalized in the range 0 to 1)
+   * - red, green, blue, alpha of the left upper vertex
+   * - red, green, blue, alpha of the right upper vertex
+   * - red, green, blue, alpha of the left bottom vertex
+   * - red, green, blue, alpha of the right bottom vertex
+   *
+   * The array is reused by Nifty. So the data needs to be copied if it is required after this method returns.
+   *
+   * @param quads the packed quad data
+   * @param offset the index of the first float of the first quad in the quads array
+   * @param count the number of quads to add
+   */
+  void addQuads(float[] quads, int offset, int count);
 
   /**
    * Render all batches and return the number of batches rendered for statistics.
@@ -167,13 +171,14 @@ public interface BatchRenderBackend {
    * nothing that this method needs to do. After a call to this method Nifty might reuse the place in the texture
    * with other calls to addImageToTexture().
    *
+   * @param atlasTextureId the id of the atlas texture as returned by createAtlasTexture()
    * @param image image to remove
    * @param x x position in texture atlas
    * @param y y position in texture atlas
    * @param w width in texture atlas
    * @param h height in texture atlas
    */
-  void removeFromTexture(Image image, int x, int y, int w, int h);
+  void removeFromTexture(int atlasTextureId, Image image, int x, int y, int w, int h);
 
   /**
    * Helper interface to allow the provideImageDimensions() method to return the image dimension and if necessary
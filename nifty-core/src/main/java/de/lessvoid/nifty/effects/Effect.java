@@ -157,6 +157,19 @@ public class Effect {
     return active;
   }
 
+  /**
+   * Check if the output of this effect changes with the next frame. Effects are only considered static when the
+   * EffectImpl is a RetainableEffectImpl that is not used as a hover effect and when the effect time doesn't change
+   * anymore (or the effect has ended and is only still rendered because of neverStopRendering).
+   * @return true when the effect animates and false if it renders the same output again
+   */
+  public boolean isAnimated() {
+    if (hoverEffect || !(effectImpl instanceof RetainableEffectImpl)) {
+      return true;
+    }
+    return active && !timeInterpolator.isConstant();
+  }
+
   public void deactivate() {
     setActiveInternal(false, true);
   }
@@ -216,6 +229,13 @@ public class Effect {
     }
   }
 
+  /**
+   * @return true when this effect uses a falloff area instead of the element to decide if the mouse is inside
+   */
+  public boolean hasFalloffArea() {
+    return falloff != null && falloff.getFalloffConstraint() != HoverFalloffConstraint.none;
+  }
+
   public boolean isInsideFalloff(final int x, final int y) {
     if (falloff != null && falloff.getFalloffConstraint() != HoverFalloffConstraint.none) {
       return falloff.isInside(element, x, y);
@@ -132,6 +132,8 @@ public class EffectManager {
   public void begin(final NiftyRenderEngine renderDevice, final Element element) {
     savedRenderStates.addAll();
     for (int i=0; i<effectProcessorList.size(); i++) {
+      // inactive processors don't touch the proxy so we need to reset it here
+      renderDeviceProxy.reset();
       effectProcessorList.get(i).getRenderStatesToSave(renderDeviceProxy);
       savedRenderStates.removeAll(renderDeviceProxy.getStates());
     }
@@ -186,6 +188,30 @@ public class EffectManager {
     getEffectProcessor(EffectEventId.onHover).processHoverDeactivate(x, y);
   }
 
+  /**
+   * @return true when any hover effect uses a falloff area. such an effect can react to the mouse even if the mouse
+   * is outside of the element.
+   */
+  public boolean hasHoverFalloffArea() {
+    return
+        hasFalloffArea(EffectEventId.onHover) ||
+        hasFalloffArea(EffectEventId.onStartHover) ||
+        hasFalloffArea(EffectEventId.onEndHover);
+  }
+
+  private boolean hasFalloffArea(final EffectEventId effectEventId) {
+    List<Effect> effects = getEffectProcessor(effectEventId).getEffects(EffectImpl.class);
+    if (effects == null) {
+      return false;
+    }
+    for (int i=0; i<effects.size(); i++) {
+      if (effects.get(i).hasFalloffArea()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * checks if a certain effect is active.
    * @param effectEventId the effectEventId to check
@@ -288,6 +314,34 @@ public class EffectManager {
     return isEmpty;
   }
 
+  /**
+   * Returns true when at least one effect is active. The output of an element with active effects usually changes
+   * with every frame.
+   * @return true when there are active effects and false if not
+   */
+  public boolean hasActiveEffects() {
+    for (int i=0; i<effectProcessorList.size(); i++) {
+      if (effectProcessorList.get(i).hasActiveEffects()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns true when at least one effect changes its output with the next frame. Active effects that render the same
+   * output again, like permanent onActive effects, are not included.
+   * @return true when there are animated effects and false if not
+   */
+  public boolean hasAnimatedEffects() {
+    for (int i=0; i<effectProcessorList.size(); i++) {
+      if (effectProcessorList.get(i).hasAnimatedEffects()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public <T extends EffectImpl> List<Effect> getEffects(final EffectEventId effectEventId, final Class<T> requestedClass) {
     return getEffectProcessor(effectEventId).getEffects(requestedClass);
   }
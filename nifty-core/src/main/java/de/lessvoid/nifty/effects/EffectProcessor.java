@@ -12,6 +12,16 @@ public interface EffectProcessor {
   void renderPost(final NiftyRenderEngine renderDevice);
   void renderOverlay(final NiftyRenderEngine renderDevice);
   boolean isActive();
+
+  /**
+   * @return true when this processor is active or still has effects that are rendered
+   */
+  boolean hasActiveEffects();
+
+  /**
+   * @return true when at least one of the effects rendered by this processor changes its output with the next frame
+   */
+  boolean hasAnimatedEffects();
   void saveActiveNeverStopRenderingEffects();
   void restoreNeverStopRenderingEffects();
   void reset();
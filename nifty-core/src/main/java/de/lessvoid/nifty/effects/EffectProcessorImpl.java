@@ -77,6 +77,25 @@ public class EffectProcessorImpl implements EffectProcessor {
     return active;
   }
 
+  @Override
+  public boolean hasActiveEffects() {
+    return active || !activeEffects.isEmpty();
+  }
+
+  @Override
+  public boolean hasAnimatedEffects() {
+    if (isInactive()) {
+      return false;
+    }
+    for (int i=0; i<activeEffects.getActive().size(); i++) {
+      Effect e = activeEffects.getActive().get(i);
+      if (isActive(e) && e.isAnimated()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public void saveActiveNeverStopRenderingEffects() {
     pushedEffects.clear();
@@ -31,6 +31,16 @@ public class EffectProcessorNull implements EffectProcessor {
     return false;
   }
 
+  @Override
+  public boolean hasActiveEffects() {
+    return false;
+  }
+
+  @Override
+  public boolean hasAnimatedEffects() {
+    return false;
+  }
+
   @Override
   public void saveActiveNeverStopRenderingEffects() {
   }
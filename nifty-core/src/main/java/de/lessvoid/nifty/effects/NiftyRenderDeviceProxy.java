@@ -55,6 +55,16 @@ public class NiftyRenderDeviceProxy implements NiftyRenderEngine {
     renderStates.addClip();
   }
 
+  @Override
+  public boolean isOutsideClip(final int x0, final int y0, final int x1, final int y1) {
+    return false;
+  }
+
+  @Override
+  public int getOutsideClipCount() {
+    return 0;
+  }
+
   @Override
   public int getHeight() {
     return 0;
@@ -81,6 +91,12 @@ public class NiftyRenderDeviceProxy implements NiftyRenderEngine {
     renderStates.addAlpha();
   }
 
+  @Override
+  public void setColor(final int rgba) {
+    renderStates.addColor();
+    renderStates.addAlpha();
+  }
+
   @Override
   public void setColorAlpha(final float newColorAlpha) {
     renderStates.addAlpha();
@@ -118,6 +134,10 @@ public class NiftyRenderDeviceProxy implements NiftyRenderEngine {
   public void renderQuad(final int x, final int y, final int width, final int height, final Color topLeft, final Color topRight, final Color bottomRight, final Color bottomLeft) {
   }
 
+  @Override
+  public void renderQuad(final int x, final int y, final int width, final int height, final int topLeft, final int topRight, final int bottomRight, final int bottomLeft) {
+  }
+
   @Override
   public void renderText(
       final String text,
@@ -264,4 +284,44 @@ public class NiftyRenderDeviceProxy implements NiftyRenderEngine {
   @Override
   public void screenRemoved(final Screen screen) {
   }
+
+  @Override
+  public void setRetainedRendering(final boolean enabled) {
+  }
+
+  @Override
+  public boolean isRetainedRendering() {
+    return false;
+  }
+
+  @Override
+  public void beginRecording(final Object key) {
+  }
+
+  @Override
+  public void markRecordingNotReplayable() {
+  }
+
+  @Override
+  public void endRecording() {
+  }
+
+  @Override
+  public boolean replay(final Object key) {
+    return false;
+  }
+
+  @Override
+  public int getReplayCount() {
+    return 0;
+  }
+
+  @Override
+  public int getRecordCount() {
+    return 0;
+  }
+
+  @Override
+  public void resetRetainedStatistics() {
+  }
 }
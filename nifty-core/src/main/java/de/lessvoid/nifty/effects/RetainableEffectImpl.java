@@ -0,0 +1,11 @@
+package de.lessvoid.nifty.effects;
+
+/**
+ * An EffectImpl which output only depends on the effect time (and the falloff of hover effects) and the element it is
+ * applied to. Once the effect time doesn't change anymore, for instance for permanent onActive effects, the output
+ * of the element is retained instead of rendering the element again with every frame. Effects that animate on their
+ * own (like the pulsate effects) must not implement this.
+ * @author void
+ */
+public interface RetainableEffectImpl extends EffectImpl {
+}
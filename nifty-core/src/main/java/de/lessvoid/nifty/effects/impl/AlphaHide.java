@@ -2,14 +2,14 @@ package de.lessvoid.nifty.effects.impl;
 
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.tools.Color;
 
-public class AlphaHide implements EffectImpl {
+public class AlphaHide implements RetainableEffectImpl {
 
   public void activate(final Nifty nifty, final Element element, final EffectProperties parameter) {
   }
@@ -2,13 +2,13 @@ package de.lessvoid.nifty.effects.impl;
 
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 
-public class AutoScroll implements EffectImpl {
+public class AutoScroll implements RetainableEffectImpl {
   private float distance = 100;
   private float start = 0;
 
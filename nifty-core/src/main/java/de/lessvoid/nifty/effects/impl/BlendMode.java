@@ -2,14 +2,14 @@ package de.lessvoid.nifty.effects.impl;
 
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 
 
-public class BlendMode implements EffectImpl {
+public class BlendMode implements RetainableEffectImpl {
   de.lessvoid.nifty.render.BlendMode blendMode = null;
 
   public void activate(final Nifty nifty, final Element element, final EffectProperties parameter) {
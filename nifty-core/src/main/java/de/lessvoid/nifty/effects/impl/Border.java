@@ -4,9 +4,9 @@ package de.lessvoid.nifty.effects.impl;
 import java.util.logging.Logger;
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.loaderv2.types.helper.PaddingAttributeParser;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
@@ -17,7 +17,7 @@ import de.lessvoid.nifty.tools.SizeValue;
  * Border - border overlay.
  * @author void
  */
-public class Border implements EffectImpl {
+public class Border implements RetainableEffectImpl {
   private static Logger log = Logger.getLogger(Border.class.getName());
   private Color colorLeft = Color.WHITE;
   private Color colorRight = Color.WHITE;
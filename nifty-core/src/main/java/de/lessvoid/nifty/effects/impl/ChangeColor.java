@@ -2,9 +2,9 @@ package de.lessvoid.nifty.effects.impl;
 
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.tools.Color;
@@ -13,7 +13,7 @@ import de.lessvoid.nifty.tools.Color;
  * ChangeColor Effect - changes the current color including alpha.
  * @author void
  */
-public class ChangeColor implements EffectImpl {
+public class ChangeColor implements RetainableEffectImpl {
   private Color color;
 
   public void activate(final Nifty nifty, final Element element, final EffectProperties parameter) {
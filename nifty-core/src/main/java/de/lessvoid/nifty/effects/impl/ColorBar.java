@@ -4,9 +4,9 @@ package de.lessvoid.nifty.effects.impl;
 import java.util.logging.Logger;
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.loaderv2.types.helper.PaddingAttributeParser;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
@@ -17,7 +17,7 @@ import de.lessvoid.nifty.tools.SizeValue;
  * Color - color overlay.
  * @author void
  */
-public class ColorBar implements EffectImpl {
+public class ColorBar implements RetainableEffectImpl {
   private static Logger log = Logger.getLogger(ColorBar.class.getName());
   private Color color;
   private Color tempColor = new Color("#000f");
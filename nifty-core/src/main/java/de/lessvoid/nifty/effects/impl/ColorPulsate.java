@@ -15,14 +15,13 @@ import de.lessvoid.nifty.tools.pulsate.Pulsator;
  * @author void
  */
 public class ColorPulsate implements EffectImpl {
-  private Color startColor;
-  private Color endColor;
+  private int startColor;
+  private int endColor;
   private Pulsator pulsator;
-  private Color currentColor = new Color("#000f");
 
   public void activate(final Nifty nifty, final Element element, final EffectProperties parameter) {
-    startColor = new Color(parameter.getProperty("startColor", "#00000000"));
-    endColor = new Color(parameter.getProperty("endColor", "#ffffffff"));
+    startColor = new Color(parameter.getProperty("startColor", "#00000000")).toRGBA8888();
+    endColor = new Color(parameter.getProperty("endColor", "#ffffffff")).toRGBA8888();
     pulsator = new Pulsator(parameter, nifty.getTimeProvider());
   }
 
@@ -32,8 +31,7 @@ public class ColorPulsate implements EffectImpl {
       final Falloff falloff,
       final NiftyRenderEngine r) {
     float value = pulsator.update();
-    currentColor.linear(startColor, endColor, value);
-    r.setColor(currentColor);
+    r.setColor(Color.linear(startColor, endColor, value));
   }
 
   public void deactivate() {
@@ -2,9 +2,9 @@ package de.lessvoid.nifty.effects.impl;
 
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.tools.Alpha;
@@ -15,7 +15,7 @@ import de.lessvoid.nifty.tools.LinearInterpolator;
  * Fade effect - blend stuff in or out.
  * @author void
  */
-public class Fade implements EffectImpl {
+public class Fade implements RetainableEffectImpl {
   private Alpha start = Alpha.ZERO;
   private Alpha end = Alpha.FULL;
   private LinearInterpolator interpolator;
@@ -5,9 +5,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.tools.Color;
@@ -18,7 +18,7 @@ import de.lessvoid.xml.xpp3.Attributes;
  * Color - color overlay.
  * @author void
  */
-public class Gradient implements EffectImpl {
+public class Gradient implements RetainableEffectImpl {
   private List < Entry > entries = new ArrayList < Entry > ();
   private boolean horizontal = false;
 
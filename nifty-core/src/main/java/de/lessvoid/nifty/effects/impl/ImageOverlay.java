@@ -2,9 +2,9 @@ package de.lessvoid.nifty.effects.impl;
 
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.render.NiftyImage;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
@@ -13,7 +13,7 @@ import de.lessvoid.nifty.render.image.ImageModeHelper;
 import de.lessvoid.nifty.tools.Alpha;
 import de.lessvoid.nifty.tools.SizeValue;
 
-public class ImageOverlay implements EffectImpl {
+public class ImageOverlay implements RetainableEffectImpl {
   private NiftyImage image;
   private Alpha alpha;
   private SizeValue inset;
@@ -2,9 +2,9 @@ package de.lessvoid.nifty.effects.impl;
 
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.tools.LinearInterpolator;
@@ -14,7 +14,7 @@ import de.lessvoid.nifty.tools.SizeValue;
  * ImageSize effect.
  * @author void
  */
-public class ImageSize implements EffectImpl {
+public class ImageSize implements RetainableEffectImpl {
 
   private float startSize;
   private float endSize;
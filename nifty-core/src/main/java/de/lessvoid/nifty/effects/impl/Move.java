@@ -3,9 +3,9 @@ package de.lessvoid.nifty.effects.impl;
 import java.util.logging.Logger;
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.tools.TargetElementResolver;
@@ -14,7 +14,7 @@ import de.lessvoid.nifty.tools.TargetElementResolver;
  * Move - move stuff around.
  * @author void
  */
-public class Move implements EffectImpl {
+public class Move implements RetainableEffectImpl {
 
   private static Logger log = Logger.getLogger(Move.class.getName());
 
@@ -2,9 +2,9 @@ package de.lessvoid.nifty.effects.impl;
 
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 
@@ -12,7 +12,7 @@ import de.lessvoid.nifty.render.NiftyRenderEngine;
  * Nop effect - does nothing.
  * @author void
  */
-public class Nop implements EffectImpl {
+public class Nop implements RetainableEffectImpl {
 
   public void activate(
       final Nifty nifty,
@@ -2,9 +2,9 @@ package de.lessvoid.nifty.effects.impl;
 
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.tools.Color;
@@ -15,7 +15,7 @@ import de.lessvoid.nifty.tools.SizeValue;
  * over the lifetime of the effect.
  * @author void
  */
-public class RenderQuad implements EffectImpl {
+public class RenderQuad implements RetainableEffectImpl {
   private Color currentColor = new Color("#000f");
   private Color tempColor = new Color("#000f");
   private Color startColor;
@@ -2,9 +2,9 @@ package de.lessvoid.nifty.effects.impl;
 
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.tools.Color;
@@ -13,7 +13,7 @@ import de.lessvoid.nifty.tools.Color;
  * TextColor Effect.
  * @author void
  */
-public class TextColorAnimated implements EffectImpl {
+public class TextColorAnimated implements RetainableEffectImpl {
   private Color currentColor = new Color("#000f");
   private Color tempColor = new Color("#000f");
   private Color startColor;
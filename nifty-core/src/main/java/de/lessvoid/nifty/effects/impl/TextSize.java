@@ -2,9 +2,9 @@ package de.lessvoid.nifty.effects.impl;
 
 
 import de.lessvoid.nifty.Nifty;
-import de.lessvoid.nifty.effects.EffectImpl;
 import de.lessvoid.nifty.effects.EffectProperties;
 import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.elements.render.TextRenderer;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
@@ -15,7 +15,7 @@ import de.lessvoid.nifty.tools.SizeValue;
  * TextSize effect.
  * @author void
  */
-public class TextSize implements EffectImpl {
+public class TextSize implements RetainableEffectImpl {
 
   private float startSize;
   private float endSize;
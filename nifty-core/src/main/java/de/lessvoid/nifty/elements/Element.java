@@ -1,6 +1,7 @@
 package de.lessvoid.nifty.elements;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -8,7 +9,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.logging.Logger;
 
 import de.lessvoid.nifty.EndNotify;
@@ -32,6 +32,7 @@ import de.lessvoid.nifty.elements.events.ElementShowEvent;
 import de.lessvoid.nifty.elements.render.ElementRenderer;
 import de.lessvoid.nifty.elements.render.ImageRenderer;
 import de.lessvoid.nifty.elements.render.PanelRenderer;
+import de.lessvoid.nifty.elements.render.RetainableElementRenderer;
 import de.lessvoid.nifty.elements.render.TextRenderer;
 import de.lessvoid.nifty.elements.tools.ElementTreeTraverser;
 import de.lessvoid.nifty.input.NiftyMouseInputEvent;
@@ -90,71 +91,68 @@ public class Element implements NiftyEvent, EffectManager.Notify {
   private List < Element > elements = new ArrayList < Element >(0);
 
   /**
-   * This set defines the render order of the child elements using a Comparator.
-   */
-  private Set < Element > elementsRenderOrderSet = new TreeSet < Element >(new Comparator<Element>() {
+   * This uses the renderOrder attribute of the elements to compare them. If the renderOrder
+   * attribute is not set (is 0) then the index of the element in the elements list is used
+   * as the renderOrder value. This is done to keep the original sort order of the elements for
+   * rendering.
+   *
+   * If you change the default value of renderOrder then your value is being used. So if you set it
+   * to some high value (> 1000 to be save) this element is rendered after all the other elements.
+   * If you set it to some very low value (< -1000 to be save) then this element is rendered before
+   * all the others.
+   */
+  private static int compareRenderOrder(
+      final Element o1,
+      final int o1RenderOrder,
+      final Element o2,
+      final int o2RenderOrder) {
+    if (o1RenderOrder < o2RenderOrder) {
+      return -1;
+    } else if (o1RenderOrder > o2RenderOrder) {
+      return 1;
+    }
+    // this means the renderOrder values are equal. we simply compare the
+    // String representation of the elements so that we keep a fixed sort order.
+    String o1Id = o1.id;
+    String o2Id = o2.id;
+    if (o1Id == null && o2Id != null){
+      return -1;
+    } else if (o1Id != null && o2Id == null) {
+      return 1;
+    } else if (o1Id != null && o2Id != null) {
+      int idCompareResult = o1Id.compareTo(o2Id);
+      if (idCompareResult != 0) {
+        return idCompareResult;
+      }
+    }
 
-    /**
-     * This uses the renderOrder attribute of the elements to compare them. If the renderOrder
-     * attribute is not set (is 0) then the index of the element in the elements list is used
-     * as the renderOrder value. This is done to keep the original sort order of the elements for
-     * rendering. The value is not cached and is directly recalculated using the element index in
-     * the list. The child count for an element is usually low (< 10) and the comparator is only
-     * executed when the child elements change. So this lookup shouldn't hurt performance too much.
-     *
-     * If you change the default value of renderOrder then your value is being used. So if you set it
-     * to some high value (> 1000 to be save) this element is rendered after all the other elements.
-     * If you set it to some very low value (< -1000 to be save) then this element is rendered before
-     * all the others.
-     */
+    // ids equal or both null use super.toString()
+    // hashCode() should return a value thats different for both elements since
+    // adding the same element twice to the same parent element is not supported.
+    String ref1 = Integer.toHexString(o1.hashCode());
+    String ref2 = Integer.toHexString(o2.hashCode());
+    return ref1.compareTo(ref2);
+  }
+
+  private static final Comparator < Element > explicitRenderOrderComparator = new Comparator < Element >() {
     @Override
     public int compare(final Element o1, final Element o2) {
-      int o1RenderOrder = getRenderOrder(o1);
-      int o2RenderOrder = getRenderOrder(o2);
-
-      if (o1RenderOrder < o2RenderOrder) {
-        return -1;
-      } else if (o1RenderOrder > o2RenderOrder) {
-        return 1;
-      }
-      // this means the renderOrder values are equal. since this is a set
-      // we can't return 0 because this would mean (for the set) that the
-      // elements are equal and one of the values will be removed. so here
-      // we simply compare the String representation of the elements so that
-      // we keep a fixed sort order.
-      String o1Id = o1.id;
-      String o2Id = o2.id;
-      if (o1Id == null && o2Id != null){
-        return -1;
-      } else if (o1Id != null && o2Id == null) {
-        return 1;
-      } else if (o1Id != null && o2Id != null) {
-        int idCompareResult = o1Id.compareTo(o2Id);
-        if (idCompareResult != 0) {
-          return idCompareResult;
-        }
-      }
-
-      // ids equal or both null use super.toString()
-      // hashCode() should return a value thats different for both elements since
-      // adding the same element twice to the same parent element is not supported.
-      String ref1 = Integer.toHexString(o1.hashCode());
-      String ref2 = Integer.toHexString(o2.hashCode());
-      return ref1.compareTo(ref2);
+      return compareRenderOrder(o1, o1.renderOrder, o2, o2.renderOrder);
     }
+  };
 
-    private int getRenderOrder(final Element element) {
-      if (element.renderOrder != 0) {
-        return element.renderOrder;
-      }
-      return elements.indexOf(element);
-    }
-  });
+  /**
+   * The child elements with a renderOrder other than 0 sorted with the explicitRenderOrderComparator. Most
+   * elements don't have any of these so this list is only created when the first one is added.
+   */
+  private List < Element > elementsWithRenderOrder;
 
   /**
-   * We keep a copy of the elementsRenderOrderSet in a simple array for being more GC friendly while rendering.
+   * The child elements in render order. We keep this in a simple array for being more GC friendly while rendering.
+   * This is rebuilt in getElementsRenderOrder() when elementsRenderOrderDirty is set.
    */
   private Element[] elementsRenderOrder = new Element[0];
+  private boolean elementsRenderOrderDirty;
 
   /**
    * The LayoutManager we should use for all child elements.
@@ -271,6 +269,13 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   private Screen screen;
 
+  /**
+   * The id index of the element tree this element is part of or null when it has not been needed yet.
+   */
+  private ElementIdIndex idIndex;
+  private int idIndexOrder;
+  private int idIndexSubtreeEnd;
+
   /**
    * TimeProvider.
    */
@@ -285,6 +290,45 @@ public class Element implements NiftyEvent, EffectManager.Notify {
   private int parentClipWidth;
   private int parentClipHeight;
 
+  /*
+   * when set to true the children of this element need to be layouted again.
+   */
+  private boolean layoutDirty = true;
+
+  /*
+   * when set to true this element or at least one of its descendants need to be layouted again.
+   */
+  private boolean subtreeLayoutDirty = true;
+
+  /*
+   * The box that contains this element and all of its descendants. This is used to skip rendering of whole subtrees
+   * that are outside of the current clipping area. The render bounds are only valid when they are known to contain
+   * everything this subtree renders. This is not the case before the first layout and while effects are active.
+   */
+  private boolean renderBoundsValid = false;
+  private int renderBoundsX0;
+  private int renderBoundsY0;
+  private int renderBoundsX1;
+  private int renderBoundsY1;
+
+  /*
+   * when set to true this element or at least one of its descendants has been changed since the last time the
+   * render output of this element has been recorded.
+   */
+  private boolean renderDirty = true;
+
+  /*
+   * this is set to true when all ElementRenderers of this element are known to invalidate the element when they are
+   * changed. only then the render output of this element can be retained.
+   */
+  private boolean retainableRenderers;
+
+  /*
+   * this is set to true when none of the ElementRenderers of this element leaves a render state changed (which is
+   * true for PanelRenderer and ImageRenderer). without effects we don't need to save and restore the render state.
+   */
+  private boolean stateNeutralRenderers;
+
   /*
    * when set to true this Element will ignore all mouse events.
    */
@@ -421,7 +465,14 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     layoutPart.getBoxConstraints().setMarginBottom(convert.paddingSizeValue(attributes.get("marginBottom"), marginBottom));
 
     this.clipChildren = attributes.getAsBoolean("childClip", Convert.DEFAULT_CHILD_CLIP);
-    this.renderOrder = attributes.getAsInteger("renderOrder", Convert.DEFAULT_RENDER_ORDER);
+    int newRenderOrder = attributes.getAsInteger("renderOrder", Convert.DEFAULT_RENDER_ORDER);
+    if (newRenderOrder != renderOrder) {
+      // we're usually already added to our parent at this point
+      renderOrder = newRenderOrder;
+      if (parent != null) {
+        parent.renderOrderChanged(this);
+      }
+    }
     boolean visible = attributes.getAsBoolean("visible", Convert.DEFAULT_VISIBLE);
     if (visible) {
       this.visible = true;
@@ -436,6 +487,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
       ApplyRenderer rendererApply = rendererApplier.get(renderer.getClass());
       rendererApply.apply(targetScreen, this, attributes, renderEngine);
     }
+    invalidateLayout();
   }
 
   public void initializeFromPostAttributes(final Attributes attributes) {
@@ -447,6 +499,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   private void hideWithChildren() {
     visible = false;
+    mouseOverIndexChanged();
     for (int i=0; i<elements.size(); i++) {
       Element element = elements.get(i);
       element.hideWithChildren();
@@ -484,6 +537,18 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     } else {
       this.elementRenderer = newElementRenderer;
     }
+    this.retainableRenderers = true;
+    this.stateNeutralRenderers = true;
+    for (int i=0; i<elementRenderer.length; i++) {
+      Class<?> rendererClass = elementRenderer[i].getClass();
+      if (rendererClass != TextRenderer.class && rendererClass != ImageRenderer.class && rendererClass != PanelRenderer.class &&
+          !(elementRenderer[i] instanceof RetainableElementRenderer)) {
+        this.retainableRenderers = false;
+      }
+      if (rendererClass != ImageRenderer.class && rendererClass != PanelRenderer.class) {
+        this.stateNeutralRenderers = false;
+      }
+    }
     this.effectManager = new EffectManager(this);
     this.effectManager.setAlternateKey(nifty.getAlternateKey());
     this.layoutPart = newLayoutPart;
@@ -516,6 +581,8 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void setParent(final Element element) {
     parent = element;
+    mouseOverIndexChanged();
+    invalidateLayout();
 
     // this element has a new parent. check the parentClipArea and update this element accordingly.
     if (parentHasClipArea()) {
@@ -586,7 +653,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     }
     StringBuffer renderOrder = new StringBuffer();
     renderOrder.append(" render order: ");
-    for (Element e : elementsRenderOrderSet) {
+    for (Element e : getElementsRenderOrder()) {
       renderOrder.append("[" + e.getId() + " (" + ((e.renderOrder == 0) ? elements.indexOf(e) : e.renderOrder) + ")]");
     }
     elementDebugOut.add(renderOrder.toString());
@@ -678,6 +745,8 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   public void setHeight(int height) {
     layoutPart.getBox().setHeight(height);
+    mouseOverIndexChanged();
+    invalidateChildLayout();
   }
 
   /**
@@ -686,6 +755,8 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   public void setWidth(int width) {
     layoutPart.getBox().setWidth(width);
+    mouseOverIndexChanged();
+    invalidateChildLayout();
   }
 
   /**
@@ -717,9 +788,28 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
    public void add(final Element widget, final int index) {
 	    elements.add(index, widget);
-	    elementsRenderOrderSet.add(widget);
-	    elementsRenderOrder = elementsRenderOrderSet.toArray(new Element[0]);
+	    addRenderOrder(widget);
+	    addChildToIdIndex(widget);
+	    mouseOverIndexChanged();
+	    invalidateChildLayout();
    }
+  /**
+   * add all the given child elements at once. This is faster than adding them one by one
+   * when you add lots of elements.
+   * @param widgets the children to add
+   */
+  public void addAll(final Collection < Element > widgets) {
+    if (widgets.isEmpty()) {
+      return;
+    }
+    elements.addAll(widgets);
+    for (Element widget : widgets) {
+      addRenderOrder(widget);
+      addChildToIdIndex(widget);
+    }
+    mouseOverIndexChanged();
+    invalidateChildLayout();
+  }
    /**
     * Set the index of this element in the list of its parent
     * @param index
@@ -729,6 +819,12 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 	  if(curInd>=0 && index !=curInd){
 		  this.parent.elements.remove(curInd);
 		  this.parent.elements.add(index, this);
+		  this.parent.elementsRenderOrderDirty = true;
+		  if (idIndex != null) {
+		    idIndex.orderChanged();
+		  }
+		  mouseOverIndexChanged();
+		  this.parent.invalidateChildLayout();
 		  this.parent.layoutElements();
 	  }
    }
@@ -738,12 +834,30 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   public void render(final NiftyRenderEngine r) {
     if (visible) {
+      // nothing of this subtree would be visible when it's completely outside of the current clipping area
+      if (renderBoundsValid && r.isOutsideClip(renderBoundsX0, renderBoundsY0, renderBoundsX1, renderBoundsY1)) {
+        return;
+      }
+      if (!retainableRenderers) {
+        r.markRecordingNotReplayable();
+        invalidateRender();
+      }
       if (effectManager.isEmpty()) {
-        r.saveState(null);
-        renderElement(r);
-        renderChildren(r);
-        r.restoreState();
+        if (stateNeutralRenderers) {
+          renderElement(r);
+          renderChildren(r);
+        } else {
+          r.saveState(null);
+          renderElement(r);
+          renderChildren(r);
+          r.restoreState();
+        }
       } else {
+        // animated effects will change the output of the next frame again
+        if (effectManager.hasAnimatedEffects()) {
+          r.markRecordingNotReplayable();
+          invalidateRender();
+        }
         r.saveState(null);
         effectManager.begin(r, this);
         effectManager.renderPre(r, this);
@@ -756,6 +870,9 @@ public class Element implements NiftyEvent, EffectManager.Notify {
         effectManager.renderOverlay(r, this);
         r.restoreState();
       }
+      if (!renderBoundsValid) {
+        updateRenderBounds();
+      }
     }
   }
 
@@ -777,23 +894,93 @@ public class Element implements NiftyEvent, EffectManager.Notify {
   }
 
   private void renderInternalChildElements(final NiftyRenderEngine r) {
-    for (int i=0; i<elementsRenderOrder.length; i++) {
-      Element p = elementsRenderOrder[i];
+    Element[] renderOrder = getElementsRenderOrder();
+    for (int i=0; i<renderOrder.length; i++) {
+      Element p = renderOrder[i];
       p.render(r);
     }
   }
 
+  private void addRenderOrder(final Element element) {
+    elementsRenderOrderDirty = true;
+    if (element.renderOrder == 0) {
+      return;
+    }
+    if (elementsWithRenderOrder == null) {
+      elementsWithRenderOrder = new ArrayList < Element >(2);
+    }
+    int index = Collections.binarySearch(elementsWithRenderOrder, element, explicitRenderOrderComparator);
+    elementsWithRenderOrder.add(index < 0 ? -index - 1 : index, element);
+  }
+
+  private void removeRenderOrder(final Element element) {
+    elementsRenderOrderDirty = true;
+    if (elementsWithRenderOrder == null) {
+      return;
+    }
+    // the element might have been sorted in with an older renderOrder value so we can't search for it
+    for (int i=0; i<elementsWithRenderOrder.size(); i++) {
+      if (elementsWithRenderOrder.get(i) == element) {
+        elementsWithRenderOrder.remove(i);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Get the child elements in render order. Children without a renderOrder keep the order of the elements list and
+   * the few children with a renderOrder are merged in from the elementsWithRenderOrder list. So this doesn't need
+   * any sorting.
+   */
+  private Element[] getElementsRenderOrder() {
+    if (!elementsRenderOrderDirty) {
+      return elementsRenderOrder;
+    }
+    elementsRenderOrderDirty = false;
+    if (elementsRenderOrder.length != elements.size()) {
+      elementsRenderOrder = new Element[elements.size()];
+    }
+    if (elementsWithRenderOrder == null || elementsWithRenderOrder.isEmpty()) {
+      elements.toArray(elementsRenderOrder);
+      return elementsRenderOrder;
+    }
+    int next = 0;
+    int explicitIndex = 0;
+    int explicitCount = elementsWithRenderOrder.size();
+    for (int i=0; i<elements.size(); i++) {
+      Element child = elements.get(i);
+      if (child.renderOrder != 0) {
+        continue;
+      }
+      while (explicitIndex < explicitCount) {
+        Element explicit = elementsWithRenderOrder.get(explicitIndex);
+        if (compareRenderOrder(explicit, explicit.renderOrder, child, i) >= 0) {
+          break;
+        }
+        elementsRenderOrder[next++] = explicit;
+        explicitIndex++;
+      }
+      elementsRenderOrder[next++] = child;
+    }
+    while (explicitIndex < explicitCount) {
+      elementsRenderOrder[next++] = elementsWithRenderOrder.get(explicitIndex++);
+    }
+    return elementsRenderOrder;
+  }
+
   /**
    * Set a new LayoutManager.
    * @param newLayout the new LayoutManager to use.
    */
   public void setLayoutManager(final LayoutManager newLayout) {
     this.layoutManager = newLayout;
+    invalidateChildLayout();
   }
 
   public void resetLayout() {
     isCalcWidthConstraint = false;
     isCalcHeightConstraint = false;
+    invalidateChildLayout();
 
     TextRenderer textRenderer = getRenderer(TextRenderer.class);
     if (textRenderer != null) {
@@ -809,10 +996,14 @@ public class Element implements NiftyEvent, EffectManager.Notify {
   private void preProcessConstraintWidth() {
     for (int i=0; i<elements.size(); i++) {
       Element e = elements.get(i);
-      e.preProcessConstraintWidth();
+      if (e.subtreeLayoutDirty) {
+        e.preProcessConstraintWidth();
+      }
     }
 
-    preProcessConstraintWidthThisLevel();
+    if (layoutDirty) {
+      preProcessConstraintWidthThisLevel();
+    }
   }
 
   private void preProcessConstraintWidthThisLevel() {
@@ -868,10 +1059,14 @@ public class Element implements NiftyEvent, EffectManager.Notify {
   private void preProcessConstraintHeight() {
     for (int i=0; i<elements.size(); i++) {
       Element e = elements.get(i);
-      e.preProcessConstraintHeight();
+      if (e.subtreeLayoutDirty) {
+        e.preProcessConstraintHeight();
+      }
     }
 
-    preProcessConstraintHeightThisLevel();
+    if (layoutDirty) {
+      preProcessConstraintHeightThisLevel();
+    }
   }
 
   private void preProcessConstraintHeightThisLevel() {
@@ -934,18 +1129,27 @@ public class Element implements NiftyEvent, EffectManager.Notify {
   }
 
   private void processLayout() {
-    processLayoutInternal();
+    // the children only need to be layouted again when something has changed that they depend on. this is either
+    // something that invalidated our layout (constraints of a child, the list of children, the layoutManager) or
+    // our own box has been changed by the layout of our parent.
+    boolean layoutChildren = layoutDirty || layoutPart.isDirty();
+    if (layoutChildren) {
+      processLayoutInternal();
+    }
 
     if (layoutManager != null) {
-      // we need a list of LayoutPart and not of Element, so we'll build one on the fly here
-      List < LayoutPart > layoutPartChild = new ArrayList < LayoutPart >();
-      for (int i=0; i<elements.size(); i++) {
-        Element w = elements.get(i);
-        layoutPartChild.add(w.layoutPart);
-      }
+      if (layoutChildren) {
+        // we need a list of LayoutPart and not of Element, so we'll build one on the fly here
+        List < LayoutPart > layoutPartChild = new ArrayList < LayoutPart >();
+        for (int i=0; i<elements.size(); i++) {
+          Element w = elements.get(i);
+          layoutPartChild.add(w.layoutPart);
+        }
 
-      // use out layoutManager to layout our children
-      layoutManager.layoutElements(layoutPart, layoutPartChild);
+        // use out layoutManager to layout our children
+        layoutManager.layoutElements(layoutPart, layoutPartChild);
+        updateChildClipArea();
+      }
 
       if (attachedInputControl != null) {
         NiftyControl niftyControl = attachedInputControl.getNiftyControl(NiftyControl.class);
@@ -956,27 +1160,142 @@ public class Element implements NiftyEvent, EffectManager.Notify {
         }
       }
 
-      // repeat this step for all child elements
+      // repeat this step for all child elements that have been changed
       for (int i=0; i<elements.size(); i++) {
         Element w = elements.get(i);
-        w.processLayout();
+        if (w.subtreeLayoutDirty || w.layoutPart.isDirty()) {
+          w.processLayout();
+        }
       }
+    } else if (layoutChildren) {
+      updateChildClipArea();
     }
+    updateRenderBounds();
+  }
 
-    if (clipChildren) {
-      for (int i=0; i<elements.size(); i++) {
-        Element w = elements.get(i);
-        w.setParentClipArea(getX(), getY(), getWidth(), getHeight());
+  private void updateRenderBounds() {
+    int x0 = getX();
+    int y0 = getY();
+    int x1 = x0 + getWidth();
+    int y1 = y0 + getHeight();
+    boolean valid = !effectManager.hasActiveEffects();
+    // text is not clipped to the element and might be rendered outside of it
+    for (int i=0; i<elementRenderer.length; i++) {
+      if (elementRenderer[i] instanceof TextRenderer) {
+        TextRenderer textRenderer = (TextRenderer) elementRenderer[i];
+        int textX = getX() + textRenderer.getRenderedTextX(getWidth());
+        int textY = getY() + textRenderer.getRenderedTextY(getHeight());
+        x0 = Math.min(x0, textX);
+        y0 = Math.min(y0, textY);
+        x1 = Math.max(x1, textX + textRenderer.getTextWidth());
+        y1 = Math.max(y1, textY + textRenderer.getRenderedTextHeight());
       }
     }
+    for (int i=0; i<elements.size() && valid; i++) {
+      Element w = elements.get(i);
+      valid = w.renderBoundsValid;
+      x0 = Math.min(x0, w.renderBoundsX0);
+      y0 = Math.min(y0, w.renderBoundsY0);
+      x1 = Math.max(x1, w.renderBoundsX1);
+      y1 = Math.max(y1, w.renderBoundsY1);
+    }
+    renderBoundsValid = valid;
+    renderBoundsX0 = x0;
+    renderBoundsY0 = y0;
+    renderBoundsX1 = x1;
+    renderBoundsY1 = y1;
   }
 
+  /**
+   * Effects or a changed text might render outside of the render bounds of an element. So this element and all of its
+   * parents can't be skipped anymore until their render bounds have been calculated again.
+   */
+  public void invalidateRenderBounds() {
+    Element element = this;
+    while (element != null && element.renderBoundsValid) {
+      element.renderBoundsValid = false;
+      element = element.parent;
+    }
+  }
+
+  /**
+   * Layout all child elements of this element. Only the parts of the element tree that have been changed since the
+   * last layout will actually be processed. So this is cheap when only a few elements have been changed.
+   */
   public void layoutElements() {
     prepareLayout();
     processLayout();
 
     prepareLayout();
     processLayout();
+
+    resetLayoutDirty();
+    invalidateRender();
+  }
+
+  /**
+   * Mark the layout of this element as changed. This will layout the children of this element as well as the
+   * children of the parent of this element again when layoutElements() is called the next time. This is necessary
+   * when something has been changed that is not automatically tracked by the element itself. The screen this
+   * element belongs to will automatically be layouted again with the next Nifty.update().
+   */
+  public void invalidateLayout() {
+    invalidateChildLayout();
+    if (parent != null) {
+      parent.invalidateChildLayout();
+    }
+  }
+
+  private void invalidateChildLayout() {
+    layoutDirty = true;
+    Element element = this;
+    while (element != null && !element.subtreeLayoutDirty) {
+      element.subtreeLayoutDirty = true;
+      element = element.parent;
+    }
+    scheduleScreenLayout();
+  }
+
+  /**
+   * Request a layout of the screen this element belongs to. Elements that have not been bound to the screen yet
+   * (because they've just been added to an element of the screen for instance) use the screen of their parents.
+   */
+  private void scheduleScreenLayout() {
+    Element element = this;
+    while (element != null) {
+      if (element.screen != null) {
+        element.screen.scheduleLayout();
+        return;
+      }
+      element = element.parent;
+    }
+  }
+
+  private void constraintsChanged() {
+    if (layoutPart.getBoxConstraints().isDirty()) {
+      invalidateLayout();
+    }
+  }
+
+  /**
+   * Reset the layout flags of this element and all of its changed descendants. This includes the children of elements
+   * without a layoutManager. They are not layouted but their constraints are still calculated in prepareLayout() and
+   * changes to them need to be propagated up to the root again. Elements whose box has been changed by the layout are
+   * moved in the MouseOverIndex of the screen.
+   */
+  private void resetLayoutDirty() {
+    if (layoutPart.getBox().isDirty() && screen != null) {
+      screen.mouseOverElementMoved(this);
+    }
+    layoutDirty = false;
+    subtreeLayoutDirty = false;
+    layoutPart.resetDirty();
+    for (int i=0; i<elements.size(); i++) {
+      Element w = elements.get(i);
+      if (w.subtreeLayoutDirty || w.layoutPart.isDirty()) {
+        w.resetLayoutDirty();
+      }
+    }
   }
 
   private void prepareLayout() {
@@ -984,6 +1303,44 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     preProcessConstraintHeight();
   }
 
+  /**
+   * Update the parent clip area of all child elements. The outermost element that clips its children wins. So when we
+   * are inside of a clip area ourself we forward that area instead of our own box.
+   */
+  private void updateChildClipArea() {
+    if (parentClipArea) {
+      for (int i=0; i<elements.size(); i++) {
+        Element w = elements.get(i);
+        w.updateParentClipArea(parentClipX, parentClipY, parentClipWidth, parentClipHeight);
+      }
+    } else if (clipChildren) {
+      for (int i=0; i<elements.size(); i++) {
+        Element w = elements.get(i);
+        w.updateParentClipArea(getX(), getY(), getWidth(), getHeight());
+      }
+    }
+  }
+
+  private void updateParentClipArea(final int x, final int y, final int width, final int height) {
+    if (parentClipArea &&
+        parentClipX == x &&
+        parentClipY == y &&
+        parentClipWidth == width &&
+        parentClipHeight == height) {
+      return;
+    }
+    parentClipArea = true;
+    parentClipX = x;
+    parentClipY = y;
+    parentClipWidth = width;
+    parentClipHeight = height;
+
+    for (int i=0; i<elements.size(); i++) {
+      Element w = elements.get(i);
+      w.updateParentClipArea(parentClipX, parentClipY, parentClipWidth, parentClipHeight);
+    }
+  }
+
   private void setParentClipArea(final int x, final int y, final int width, final int height) {
     parentClipArea = true;
     parentClipX = x;
@@ -1002,6 +1359,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   public void resetEffects() {
     effectManager.reset();
+    effectsReset();
     for (int i=0; i<elements.size(); i++) {
       Element w = elements.get(i);
       w.resetEffects();
@@ -1010,6 +1368,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void resetAllEffects() {
     effectManager.resetAll();
+    effectsReset();
     for (int i=0; i<elements.size(); i++) {
       Element w = elements.get(i);
       w.resetAllEffects();
@@ -1018,6 +1377,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void resetForHide() {
     effectManager.resetForHide();
+    effectsReset();
     for (int i=0; i<elements.size(); i++) {
       Element w = elements.get(i);
       w.resetForHide();
@@ -1026,6 +1386,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void resetSingleEffect(final EffectEventId effectEventId) {
     effectManager.resetSingleEffect(effectEventId);
+    effectsReset();
     for (int i=0; i<elements.size(); i++) {
       Element w = elements.get(i);
       w.resetSingleEffect(effectEventId);
@@ -1034,12 +1395,22 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void resetSingleEffect(final EffectEventId effectEventId, final String customKey) {
     effectManager.resetSingleEffect(effectEventId, customKey);
+    effectsReset();
     for (int i=0; i<elements.size(); i++) {
       Element w = elements.get(i);
       w.resetSingleEffect(effectEventId, customKey);
     }
   }
 
+  /**
+   * Static effects don't invalidate the element with every frame so removing them must invalidate it.
+   */
+  private void effectsReset() {
+    if (!effectManager.isEmpty()) {
+      invalidateRender();
+    }
+  }
+
   public void resetMouseDown() {
     interaction.resetMouseDown();
     for (int i=0; i<elements.size(); i++) {
@@ -1054,6 +1425,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   public void setConstraintX(final SizeValue newX) {
     layoutPart.getBoxConstraints().setX(newX);
+    constraintsChanged();
     notifyListeners();
   }
 
@@ -1063,6 +1435,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   public void setConstraintY(final SizeValue newY) {
     layoutPart.getBoxConstraints().setY(newY);
+    constraintsChanged();
     notifyListeners();
   }
 
@@ -1072,6 +1445,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   public void setConstraintWidth(final SizeValue newWidth) {
     layoutPart.getBoxConstraints().setWidth(newWidth);
+    constraintsChanged();
     notifyListeners();
   }
 
@@ -1081,6 +1455,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   public void setConstraintHeight(final SizeValue newHeight) {
     layoutPart.getBoxConstraints().setHeight(newHeight);
+    constraintsChanged();
     notifyListeners();
   }
 
@@ -1114,6 +1489,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   public void setConstraintHorizontalAlign(final HorizontalAlign newHorizontalAlign) {
     layoutPart.getBoxConstraints().setHorizontalAlign(newHorizontalAlign);
+    constraintsChanged();
   }
 
   /**
@@ -1122,6 +1498,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   public void setConstraintVerticalAlign(final VerticalAlign newVerticalAlign) {
     layoutPart.getBoxConstraints().setVerticalAlign(newVerticalAlign);
+    constraintsChanged();
   }
 
   /**
@@ -1421,6 +1798,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   private void internalShow() {
     visible = true;
+    mouseOverIndexChanged();
     effectManager.restoreForShow();
 
     for (int i=0; i<elements.size(); i++) {
@@ -1490,6 +1868,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   private void internalHide() {
     visible = false;
+    mouseOverIndexChanged();
     disableFocus();
 
     for (int i=0; i<elements.size(); i++) {
@@ -1601,7 +1980,22 @@ public class Element implements NiftyEvent, EffectManager.Notify {
       final NiftyMouseInputEvent mouseEvent,
       final long eventTime,
       final MouseOverHandler mouseOverHandler) {
-    boolean isInside = isInside(mouseEvent);
+    addToMouseOverHandler(isInside(mouseEvent), mouseOverHandler);
+    if (visible) {
+      for (int i=0; i<elements.size(); i++) {
+        Element w = elements.get(i);
+        w.buildMouseOverElements(mouseEvent, eventTime, mouseOverHandler);
+      }
+    }
+  }
+
+  /**
+   * Add only this element (and not the child elements) to the MouseOverHandler - if it is currently able to
+   * handle mouse events at all.
+   * @param isInside true when the mouse is inside this element
+   * @param mouseOverHandler the MouseOverHandler to add this element to
+   */
+  public void addToMouseOverHandler(final boolean isInside, final MouseOverHandler mouseOverHandler) {
     if (canHandleMouseEvents()) {
       if (isInside) {
         mouseOverHandler.addMouseOverElement(this);
@@ -1613,12 +2007,21 @@ public class Element implements NiftyEvent, EffectManager.Notify {
         mouseOverHandler.canTheoreticallyHandleMouse(this);
       }
     }
-    if (visible) {
-      for (int i=0; i<elements.size(); i++) {
-        Element w = elements.get(i);
-        w.buildMouseOverElements(mouseEvent, eventTime, mouseOverHandler);
-      }
-    }
+  }
+
+  /**
+   * @return true when a mouse button has been pressed on this element and is still down. Such an element needs to
+   * process mouse events even when the mouse is not inside of it anymore.
+   */
+  public boolean hasActiveMouseInteraction() {
+    return interaction.isMouseDown();
+  }
+
+  /**
+   * @return true when a hover effect of this element might react to the mouse outside of this element
+   */
+  public boolean hasHoverFalloffArea() {
+    return effectManager.hasHoverFalloffArea();
   }
 
   public void mouseEventHoverPreprocess(final NiftyMouseInputEvent mouseEvent, final long eventTime) {
@@ -1729,32 +2132,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
       return null;
     }
 
-    if (id != null && id.equals(findId)) {
-      return this;
-    }
-
-    if (childIdMatch(findId, id)) {
-      return this;
-    }
-
-    for (int i=0; i<elements.size(); i++) {
-      Element e = elements.get(i);
-      Element found = e.findElementById(findId);
-      if (found != null) {
-        return found;
-      }
-    }
-
-    return null;
-  }
-
-  private boolean childIdMatch(final String name, final String id) {
-    if (name.startsWith("#")) {
-      if (id != null && id.endsWith(name)) {
-        return true;
-      }
-    }
-    return false;
+    return getIdIndex().find(this, findId);
   }
 
   /**
@@ -1797,6 +2175,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
   private void bindToScreen(final Screen newScreen) {
     screen = newScreen;
     screen.registerElementId(id);
+    screen.invalidateMouseOverIndex();
   }
 
   private void bindToFocusHandler(final boolean isPopup) {
@@ -1878,6 +2257,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   public void setVisibleToMouseEvents(final boolean newVisibleToMouseEvents) {
     this.visibleToMouseEvents = newVisibleToMouseEvents;
+    mouseOverIndexChanged();
   }
 
   /**
@@ -1897,6 +2277,8 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    */
   public void setClipChildren(final boolean clipChildrenParam) {
     this.clipChildren = clipChildrenParam;
+    invalidateChildLayout();
+    invalidateRender();
   }
 
   /**
@@ -1909,13 +2291,14 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void setRenderOrder(final int renderOrder) {
     this.renderOrder = renderOrder;
-    parent.renderOrderChanged(this);
+    if (parent != null) {
+      parent.renderOrderChanged(this);
+    }
   }
 
   private void renderOrderChanged(final Element element) {
-    elementsRenderOrderSet.remove(element);
-    elementsRenderOrderSet.add(element);
-    elementsRenderOrder = elementsRenderOrderSet.toArray(new Element[0]);
+    removeRenderOrder(element);
+    addRenderOrder(element);
   }
 
   public int getRenderOrder() {
@@ -2013,6 +2396,10 @@ public class Element implements NiftyEvent, EffectManager.Notify {
    * @param newId new id
    */
   public void setId(final String newId) {
+    if (idIndex != null) {
+      idIndex.remove(this, id);
+      idIndex.add(this, newId);
+    }
     this.id = newId;
   }
 
@@ -2104,6 +2491,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     elementType.applyInteract(nifty, screen, this);
 
     log.fine("after setStyle [" + newStyle + "]\n" + elementType.output(0));
+    invalidateRender();
     notifyListeners();
   }
 
@@ -2306,41 +2694,49 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void setPaddingLeft(final SizeValue paddingValue) {
     layoutPart.getBoxConstraints().setPaddingLeft(paddingValue);
+    constraintsChanged();
     notifyListeners();
   }
 
   public void setPaddingRight(final SizeValue paddingValue) {
     layoutPart.getBoxConstraints().setPaddingRight(paddingValue);
+    constraintsChanged();
     notifyListeners();
   }
 
   public void setPaddingTop(final SizeValue paddingValue) {
     layoutPart.getBoxConstraints().setPaddingTop(paddingValue);
+    constraintsChanged();
     notifyListeners();
   }
 
   public void setPaddingBottom(final SizeValue paddingValue) {
     layoutPart.getBoxConstraints().setPaddingBottom(paddingValue);
+    constraintsChanged();
     notifyListeners();
   }
 
   public void setMarginLeft(final SizeValue value) {
     layoutPart.getBoxConstraints().setMarginLeft(value);
+    constraintsChanged();
     notifyListeners();
   }
 
   public void setMarginRight(final SizeValue value) {
     layoutPart.getBoxConstraints().setMarginRight(value);
+    constraintsChanged();
     notifyListeners();
   }
 
   public void setMarginTop(final SizeValue value) {
     layoutPart.getBoxConstraints().setMarginTop(value);
+    constraintsChanged();
     notifyListeners();
   }
 
   public void setMarginBottom(final SizeValue value) {
     layoutPart.getBoxConstraints().setMarginBottom(value);
+    constraintsChanged();
     notifyListeners();
   }
 
@@ -2379,6 +2775,52 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     nifty.publishEvent(id, this);
   }
 
+  /**
+   * The layout, the visibility or the structure of this element has changed. So the MouseOverIndex of the screen needs
+   * to be updated before the next mouse event is processed.
+   */
+  private void mouseOverIndexChanged() {
+    if (screen != null) {
+      screen.invalidateMouseOverIndex();
+    }
+    invalidateRender();
+  }
+
+  /**
+   * Mark the render output of this element as changed. A retained recording of the layer this element belongs to
+   * will not be replayed anymore but this layer will be rendered (and recorded) again with the next frame. This will
+   * also let Nifty.needsRender() return true until the next frame has been rendered.
+   */
+  public void invalidateRender() {
+    Element element = this;
+    while (element != null && !element.renderDirty) {
+      element.renderDirty = true;
+      element = element.parent;
+    }
+  }
+
+  /**
+   * @return true when this element or any of its descendants has been changed since the last call to
+   * resetRenderDirty()
+   */
+  public boolean isRenderDirty() {
+    return renderDirty;
+  }
+
+  /**
+   * Reset the render dirty flag of this element and all of its descendants. This is called right before the render
+   * output of this element will be recorded.
+   */
+  public void resetRenderDirty() {
+    renderDirty = false;
+    for (int i=0; i<elements.size(); i++) {
+      Element w = elements.get(i);
+      if (w.renderDirty) {
+        w.resetRenderDirty();
+      }
+    }
+  }
+
   public Nifty getNifty() {
     return nifty;
   }
@@ -2428,6 +2870,9 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   @Override
   public void effectStateChanged(final EffectEventId eventId, final boolean active) {
+    invalidateRender();
+    invalidateRenderBounds();
+
     // Get the oldState first.
     boolean oldState = effectStateCache.get(eventId);
 
@@ -2457,22 +2902,82 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     return effectManager.isActive(eventId);
   }
 
+  /**
+   * The index of the ids of the tree this element is part of. It is created with the first findElementById() call
+   * and is kept up to date when elements are added, removed, moved or change their id.
+   */
+  private ElementIdIndex getIdIndex() {
+    if (idIndex == null) {
+      Element root = this;
+      while (root.parent != null) {
+        root = root.parent;
+      }
+      if (root.idIndex == null) {
+        root.createIdIndex();
+      }
+      if (idIndex == null) {
+        // this element has a parent but has not been added to it (yet)
+        createIdIndex();
+      }
+    }
+    return idIndex;
+  }
+
+  private void createIdIndex() {
+    removeFromIdIndex();
+    addToIdIndex(new ElementIdIndex(this));
+  }
+
+  /**
+   * The position of this element in a depth first traversal of its tree and the position of the last element of its
+   * subtree. These are maintained by the ElementIdIndex.
+   */
+  void setIdIndexOrder(final int order, final int subtreeEnd) {
+    idIndexOrder = order;
+    idIndexSubtreeEnd = subtreeEnd;
+  }
+
+  int getIdIndexOrder() {
+    return idIndexOrder;
+  }
+
+  int getIdIndexSubtreeEnd() {
+    return idIndexSubtreeEnd;
+  }
+
+  private void addChildToIdIndex(final Element child) {
+    child.removeFromIdIndex();
+    if (idIndex != null) {
+      child.addToIdIndex(idIndex);
+    }
+  }
+
+  private void addToIdIndex(final ElementIdIndex index) {
+    idIndex = index;
+    index.add(this, id);
+    for (int i=0; i<elements.size(); i++) {
+      elements.get(i).addToIdIndex(index);
+    }
+  }
+
+  private void removeFromIdIndex() {
+    if (idIndex == null) {
+      return;
+    }
+    idIndex.remove(this, id);
+    idIndex = null;
+    for (int i=0; i<elements.size(); i++) {
+      elements.get(i).removeFromIdIndex();
+    }
+  }
+
   // package private to prevent public access
   void internalRemoveElement(final Element element) {
-    // so now that's odd: we need to remove the element first from the
-    // elementsRenderOrder and THEN from the elements list. this is because
-    // the elementsRenderOrder comparator uses the index of the element in
-    // the elements list >_<
-    //
-    // the main issue here is of course the splitted data structure. something
-    // we need to adress in 1.4 or 2.0.
-    elementsRenderOrderSet.remove(element);
-
-    // now that the element has been removed from the elementsRenderOrder set
-    // we can remove it from the elements list as well.
+    removeRenderOrder(element);
+    element.removeFromIdIndex();
     elements.remove(element);
-
-    elementsRenderOrder = elementsRenderOrderSet.toArray(new Element[0]);
+    mouseOverIndexChanged();
+    invalidateChildLayout();
   }
 
   // package private to prevent public access
@@ -2481,11 +2986,16 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     while (elementIt.hasNext()) {
       Element el = elementIt.next();
       el.internalRemoveElementWithChilds();
+      el.removeFromIdIndex();
     }
 
-    elementsRenderOrderSet.clear();
+    if (elementsWithRenderOrder != null) {
+      elementsWithRenderOrder.clear();
+    }
     elements.clear();
-    elementsRenderOrder = elementsRenderOrderSet.toArray(new Element[0]);
+    elementsRenderOrderDirty = true;
+    mouseOverIndexChanged();
+    invalidateChildLayout();
   }
 
   /**
@@ -0,0 +1,143 @@
+package de.lessvoid.nifty.elements;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the ids of all elements of an element tree to the elements. Besides the complete id every part of an id that
+ * starts with a "#" is mapped as well. An id like "window#content#scrollbar" can this way be found with "#scrollbar"
+ * and "#content#scrollbar" too, just like Element.findElementById() matches them.
+ *
+ * Each element knows its position in a depth first traversal of the tree and the position of the last element of its
+ * subtree. Whether a candidate is part of the subtree that is searched and which candidate a depth first search would
+ * find first is therefore decided by comparing these positions. They are calculated again with the next find() after
+ * elements have been added or moved.
+ *
+ * The Element methods that change the element tree or the id of an element keep the index up to date.
+ *
+ * @author void
+ */
+class ElementIdIndex {
+  private final Element root;
+  private final Map<String, List<Element>> elements = new HashMap<String, List<Element>>();
+  private boolean orderValid;
+
+  public ElementIdIndex(final Element root) {
+    this.root = root;
+  }
+
+  public void add(final Element element, final String id) {
+    orderValid = false;
+    if (id == null) {
+      return;
+    }
+    addKey(id, element);
+    for (int i=id.indexOf('#', 1); i != -1; i=id.indexOf('#', i + 1)) {
+      addKey(id.substring(i), element);
+    }
+  }
+
+  /**
+   * Removing elements keeps the order of the remaining elements intact so the positions don't need to be updated.
+   */
+  public void remove(final Element element, final String id) {
+    if (id == null) {
+      return;
+    }
+    removeKey(id, element);
+    for (int i=id.indexOf('#', 1); i != -1; i=id.indexOf('#', i + 1)) {
+      removeKey(id.substring(i), element);
+    }
+  }
+
+  /**
+   * An element of the tree has been moved to another position within its parent.
+   */
+  public void orderChanged() {
+    orderValid = false;
+  }
+
+  /**
+   * Find the element with the given id in the subtree of searchRoot. When there is more than one element with this
+   * id we return the one a depth first search starting at searchRoot would find first.
+   *
+   * When findId starts with a "#" the id of searchRoot followed by findId is looked up first (that's the id a control
+   * gives its own child elements) and only when there is no such element all ids ending with findId are checked.
+   *
+   * @param searchRoot the root of the subtree to search
+   * @param findId the id to find. when it starts with a "#" all ids ending with findId match.
+   * @return the element or null
+   */
+  public Element find(final Element searchRoot, final String findId) {
+    if (!orderValid) {
+      updateOrder(root, 0);
+      orderValid = true;
+    }
+    if (findId.startsWith("#") && searchRoot.getId() != null) {
+      Element result = findFirst(searchRoot, elements.get(searchRoot.getId() + findId));
+      if (result != null) {
+        return result;
+      }
+    }
+    return findFirst(searchRoot, elements.get(findId));
+  }
+
+  private Element findFirst(final Element searchRoot, final List<Element> candidates) {
+    if (candidates == null) {
+      return null;
+    }
+    int first = searchRoot.getIdIndexOrder();
+    int last = searchRoot.getIdIndexSubtreeEnd();
+    Element result = null;
+    int resultOrder = Integer.MAX_VALUE;
+    for (int i=0; i<candidates.size(); i++) {
+      Element candidate = candidates.get(i);
+      int order = candidate.getIdIndexOrder();
+      if (order >= first && order <= last && order < resultOrder) {
+        result = candidate;
+        resultOrder = order;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the position of the next element after the subtree of element
+   */
+  private int updateOrder(final Element element, final int order) {
+    int next = order + 1;
+    List<Element> children = element.getElements();
+    for (int i=0; i<children.size(); i++) {
+      next = updateOrder(children.get(i), next);
+    }
+    element.setIdIndexOrder(order, next - 1);
+    return next;
+  }
+
+  private void addKey(final String key, final Element element) {
+    List<Element> list = elements.get(key);
+    if (list == null) {
+      list = new ArrayList<Element>(1);
+      elements.put(key, list);
+    }
+    list.add(element);
+  }
+
+  private void removeKey(final String key, final Element element) {
+    List<Element> list = elements.get(key);
+    if (list == null) {
+      return;
+    }
+    for (int i=0; i<list.size(); i++) {
+      if (list.get(i) == element) {
+        list.remove(i);
+        break;
+      }
+    }
+    if (list.isEmpty()) {
+      elements.remove(key);
+    }
+  }
+}
@@ -31,6 +31,13 @@ public class ElementInteraction {
     tertiary.resetMouseDown();
   }
 
+  /**
+   * @return true while any mouse button that has been pressed on the element has not been released yet
+   */
+  public boolean isMouseDown() {
+    return primary.isMouseDown() || secondary.isMouseDown() || tertiary.isMouseDown();
+  }
+
   public ElementInteractionClickHandler getPrimary() {
     return primary;
   }
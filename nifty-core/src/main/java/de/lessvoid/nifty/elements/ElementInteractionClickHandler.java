@@ -29,6 +29,13 @@ public class ElementInteractionClickHandler {
     return mouseMethods;
   }
 
+  /**
+   * @return true while the mouse button has been pressed on the element and has not been released yet
+   */
+  public boolean isMouseDown() {
+    return isMouseDown;
+  }
+
   public void setOnClickRepeatEnabled(final boolean onClickRepeatEnabled) {
     this.onClickRepeatEnabled = onClickRepeatEnabled;
   }
@@ -15,6 +15,11 @@ public class ElementInteractionMoveHandler {
   private boolean lastButton1Down;
   private boolean lastButton2Down;
 
+  // the events we reuse when Nifty.isReuseMouseEvents() is enabled
+  private NiftyMouseMovedEvent movedEvent;
+  private NiftyMouseWheelEvent wheelEvent;
+  private NiftyMouseEvent mouseEvent;
+
   public ElementInteractionMoveHandler(final Nifty nifty, final Element element) {
     this.nifty = nifty;
     this.element = element;
@@ -61,7 +66,9 @@ public class ElementInteractionMoveHandler {
     if ((mouseEvent.getMouseX() != lastMouseX) || (mouseEvent.getMouseY() != lastMouseY)) {
       lastMouseX = mouseEvent.getMouseX();
       lastMouseY = mouseEvent.getMouseY();
-      nifty.publishEvent(element.getId(), new NiftyMouseMovedEvent(element, mouseEvent));
+      if (nifty.hasSubscribers(element.getId())) {
+        nifty.publishEvent(element.getId(), getMovedEvent(mouseEvent));
+      }
       return true;
     }
     return false;
@@ -69,13 +76,53 @@ public class ElementInteractionMoveHandler {
 
   private boolean handleWheelEvent(final NiftyMouseInputEvent mouseEvent) {
     if (mouseEvent.getMouseWheel() != 0) {
-      nifty.publishEvent(element.getId(), new NiftyMouseWheelEvent(element, mouseEvent));
+      if (nifty.hasSubscribers(element.getId())) {
+        nifty.publishEvent(element.getId(), getWheelEvent(mouseEvent));
+      }
       return true;
     }
     return false;
   }
 
   private void handleGeneralEvent(final NiftyMouseInputEvent mouseEvent) {
-    nifty.publishEvent(element.getId(), new NiftyMouseEvent(element, mouseEvent));
+    if (nifty.hasSubscribers(element.getId())) {
+      nifty.publishEvent(element.getId(), getMouseEvent(mouseEvent));
+    }
+  }
+
+  private NiftyMouseMovedEvent getMovedEvent(final NiftyMouseInputEvent source) {
+    if (!nifty.isReuseMouseEvents()) {
+      return new NiftyMouseMovedEvent(element, source);
+    }
+    if (movedEvent == null) {
+      movedEvent = new NiftyMouseMovedEvent(element, source);
+    } else {
+      movedEvent.initialize(element, source);
+    }
+    return movedEvent;
+  }
+
+  private NiftyMouseWheelEvent getWheelEvent(final NiftyMouseInputEvent source) {
+    if (!nifty.isReuseMouseEvents()) {
+      return new NiftyMouseWheelEvent(element, source);
+    }
+    if (wheelEvent == null) {
+      wheelEvent = new NiftyMouseWheelEvent(element, source);
+    } else {
+      wheelEvent.initialize(element, source);
+    }
+    return wheelEvent;
+  }
+
+  private NiftyMouseEvent getMouseEvent(final NiftyMouseInputEvent source) {
+    if (!nifty.isReuseMouseEvents()) {
+      return new NiftyMouseEvent(element, source);
+    }
+    if (mouseEvent == null) {
+      mouseEvent = new NiftyMouseEvent(element, source);
+    } else {
+      mouseEvent.initialize(element, source);
+    }
+    return mouseEvent;
   }
 }
@@ -29,6 +29,13 @@ public abstract class MouseClickMethods {
   public void onInitialClick() {
   }
 
+  /**
+   * @return true when there is at least one subscriber for the events of our element
+   */
+  protected boolean hasSubscribers(final Nifty nifty) {
+    return nifty.hasSubscribers(element.getId());
+  }
+
   public boolean onClick(final Nifty nifty, final String onClickAlternateKey, final NiftyMouseInputEvent inputEvent) {
     if (onClickMethod != null) {
       if (nifty != null) {
@@ -9,6 +9,8 @@ import de.lessvoid.nifty.elements.events.NiftyMousePrimaryReleaseEvent;
 import de.lessvoid.nifty.input.NiftyMouseInputEvent;
 
 public class PrimaryClickMouseMethods extends MouseClickMethods {
+  private NiftyMousePrimaryClickedMovedEvent clickedMovedEvent;
+
   public PrimaryClickMouseMethods(final Element element) {
     super(element);
   }
@@ -23,26 +25,34 @@ public class PrimaryClickMouseMethods extends MouseClickMethods {
 
   @Override
   public boolean onClick(final Nifty nifty, final String onClickAlternateKey, final NiftyMouseInputEvent inputEvent) {
-    publishEvent(nifty, new NiftyMousePrimaryClickedEvent(element, inputEvent));
+    if (hasSubscribers(nifty)) {
+      publishEvent(nifty, new NiftyMousePrimaryClickedEvent(element, inputEvent));
+    }
     element.startEffectWithoutChildren(EffectEventId.onClick);
     return super.onClick(nifty, onClickAlternateKey, inputEvent);
   }
 
   @Override
   public boolean onClickMouseMove(final Nifty nifty, final NiftyMouseInputEvent inputEvent) {
-    publishEvent(nifty, new NiftyMousePrimaryClickedMovedEvent(element, inputEvent));
+    if (hasSubscribers(nifty)) {
+      publishEvent(nifty, getClickedMovedEvent(nifty, inputEvent));
+    }
     return super.onClickMouseMove(nifty, inputEvent);
   }
 
   @Override
   public void onActivate(final Nifty nifty) {
-    publishEvent(nifty, new NiftyMousePrimaryClickedEvent(element));
+    if (hasSubscribers(nifty)) {
+      publishEvent(nifty, new NiftyMousePrimaryClickedEvent(element));
+    }
     super.onActivate(nifty);
   }
 
   @Override
   public boolean onMouseRelease(final Nifty nifty, final NiftyMouseInputEvent mouseEvent) {
-    publishEvent(nifty, new NiftyMousePrimaryReleaseEvent(element, mouseEvent));
+    if (hasSubscribers(nifty)) {
+      publishEvent(nifty, new NiftyMousePrimaryReleaseEvent(element, mouseEvent));
+    }
     boolean result = super.onMouseRelease(nifty, mouseEvent);
     element.stopEffectWithoutChildren(EffectEventId.onClick);
     element.getFocusHandler().lostMouseFocus(element);
@@ -52,4 +62,16 @@ public class PrimaryClickMouseMethods extends MouseClickMethods {
   private void publishEvent(final Nifty nifty, final NiftyEvent event) {
     nifty.publishEvent(element.getId(), event);
   }
+
+  private NiftyMousePrimaryClickedMovedEvent getClickedMovedEvent(final Nifty nifty, final NiftyMouseInputEvent inputEvent) {
+    if (!nifty.isReuseMouseEvents()) {
+      return new NiftyMousePrimaryClickedMovedEvent(element, inputEvent);
+    }
+    if (clickedMovedEvent == null) {
+      clickedMovedEvent = new NiftyMousePrimaryClickedMovedEvent(element, inputEvent);
+    } else {
+      clickedMovedEvent.initialize(element, inputEvent);
+    }
+    return clickedMovedEvent;
+  }
 }
@@ -8,35 +8,57 @@ import de.lessvoid.nifty.elements.events.NiftyMouseTertiaryReleaseEvent;
 import de.lessvoid.nifty.input.NiftyMouseInputEvent;
 
 public class TertiaryClickMouseMethods extends MouseClickMethods {
+  private NiftyMouseTertiaryClickedMovedEvent clickedMovedEvent;
+
   public TertiaryClickMouseMethods(final Element element) {
     super(element);
   }
 
   @Override
   public boolean onClick(final Nifty nifty, final String onClickAlternateKey, final NiftyMouseInputEvent inputEvent) {
-    publishEvent(nifty, new NiftyMouseTertiaryClickedEvent(element, inputEvent));
+    if (hasSubscribers(nifty)) {
+      publishEvent(nifty, new NiftyMouseTertiaryClickedEvent(element, inputEvent));
+    }
     return super.onClick(nifty, onClickAlternateKey, inputEvent);
   }
 
   @Override
   public boolean onClickMouseMove(final Nifty nifty, final NiftyMouseInputEvent inputEvent) {
-    publishEvent(nifty, new NiftyMouseTertiaryClickedMovedEvent(element, inputEvent));
+    if (hasSubscribers(nifty)) {
+      publishEvent(nifty, getClickedMovedEvent(nifty, inputEvent));
+    }
     return super.onClickMouseMove(nifty, inputEvent);
   }
 
   @Override
   public void onActivate(final Nifty nifty) {
-    publishEvent(nifty, new NiftyMouseTertiaryClickedEvent(element));
+    if (hasSubscribers(nifty)) {
+      publishEvent(nifty, new NiftyMouseTertiaryClickedEvent(element));
+    }
     super.onActivate(nifty);
   }
 
   @Override
   public boolean onMouseRelease(final Nifty nifty, final NiftyMouseInputEvent mouseEvent) {
-    publishEvent(nifty, new NiftyMouseTertiaryReleaseEvent(element, mouseEvent));
+    if (hasSubscribers(nifty)) {
+      publishEvent(nifty, new NiftyMouseTertiaryReleaseEvent(element, mouseEvent));
+    }
     return super.onMouseRelease(nifty, mouseEvent);
   }
 
   private void publishEvent(final Nifty nifty, final NiftyEvent event) {
     nifty.publishEvent(element.getId(), event);
   }
+
+  private NiftyMouseTertiaryClickedMovedEvent getClickedMovedEvent(final Nifty nifty, final NiftyMouseInputEvent inputEvent) {
+    if (!nifty.isReuseMouseEvents()) {
+      return new NiftyMouseTertiaryClickedMovedEvent(element, inputEvent);
+    }
+    if (clickedMovedEvent == null) {
+      clickedMovedEvent = new NiftyMouseTertiaryClickedMovedEvent(element, inputEvent);
+    } else {
+      clickedMovedEvent.initialize(element, inputEvent);
+    }
+    return clickedMovedEvent;
+  }
 }
@@ -18,6 +18,14 @@ public class NiftyMouseBaseEvent implements NiftyEvent {
   }
 
   public NiftyMouseBaseEvent(final Element element, final NiftyMouseInputEvent source) {
+    initialize(element, source);
+  }
+
+  /**
+   * Initialize this event again. This is used by Nifty to reuse the event instance when
+   * Nifty.isReuseMouseEvents() is enabled.
+   */
+  public void initialize(final Element element, final NiftyMouseInputEvent source) {
     this.element = element;
     this.mouseX = source.getMouseX();
     this.mouseY = source.getMouseY();
@@ -20,6 +20,14 @@ public class NiftyMouseEvent implements NiftyEvent {
   private boolean button2Release;
 
   public NiftyMouseEvent(final Element element, final NiftyMouseInputEvent source) {
+    initialize(element, source);
+  }
+
+  /**
+   * Initialize this event again. This is used by Nifty to reuse the event instance when
+   * Nifty.isReuseMouseEvents() is enabled.
+   */
+  public void initialize(final Element element, final NiftyMouseInputEvent source) {
     this.element = element;
     this.mouseX = source.getMouseX();
     this.mouseY = source.getMouseY();
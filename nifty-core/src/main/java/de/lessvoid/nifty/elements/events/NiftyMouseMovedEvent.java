@@ -10,6 +10,14 @@ public class NiftyMouseMovedEvent implements NiftyEvent {
   private int mouseY;
 
   public NiftyMouseMovedEvent(final Element element, final NiftyMouseInputEvent source) {
+    initialize(element, source);
+  }
+
+  /**
+   * Initialize this event again. This is used by Nifty to reuse the event instance when
+   * Nifty.isReuseMouseEvents() is enabled.
+   */
+  public void initialize(final Element element, final NiftyMouseInputEvent source) {
     this.element = element;
     this.mouseX = source.getMouseX();
     this.mouseY = source.getMouseY();
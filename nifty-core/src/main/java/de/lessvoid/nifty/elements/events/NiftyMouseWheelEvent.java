@@ -9,6 +9,14 @@ public class NiftyMouseWheelEvent implements NiftyEvent {
   private int mouseWheel;
 
   public NiftyMouseWheelEvent(final Element element, final NiftyMouseInputEvent source) {
+    initialize(element, source);
+  }
+
+  /**
+   * Initialize this event again. This is used by Nifty to reuse the event instance when
+   * Nifty.isReuseMouseEvents() is enabled.
+   */
+  public void initialize(final Element element, final NiftyMouseInputEvent source) {
     this.element = element;
     this.mouseWheel = source.getMouseWheel();
   }
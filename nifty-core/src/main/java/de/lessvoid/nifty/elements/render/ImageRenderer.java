@@ -12,12 +12,18 @@ public class ImageRenderer implements ElementRenderer {
   private NiftyImage image = null;
   private int inset = 0;
 
+  /**
+   * the element we've been rendered for. it will be invalidated when the image changes.
+   */
+  private Element element;
+
   /**
    * Set Insert.
    * @param insetParam
    */
   public void setInset(final int insetParam) {
     inset = insetParam;
+    invalidateRender();
   }
 
   /**
@@ -26,6 +32,7 @@ public class ImageRenderer implements ElementRenderer {
    * @param r the RenderDevice
    */
   public final void render(final Element element, final NiftyRenderEngine r) {
+    this.element = element;
     if (this.image != null) {
       r.renderImage(
           image,
@@ -50,5 +57,12 @@ public class ImageRenderer implements ElementRenderer {
    */
   public void setImage(final NiftyImage newImage) {
     image = newImage;
+    invalidateRender();
+  }
+
+  private void invalidateRender() {
+    if (element != null) {
+      element.invalidateRender();
+    }
   }
 }
@@ -19,6 +19,11 @@ public class PanelRenderer implements ElementRenderer {
 
   private Color debugColor;
 
+  /**
+   * the element this renderer has been rendered with the last time.
+   */
+  private Element element;
+
   /**
    * Default constructor.
    */
@@ -34,6 +39,7 @@ public class PanelRenderer implements ElementRenderer {
    *            the renderDevice we should use
    */
   public void render(final Element element, final NiftyRenderEngine r) {
+    this.element = element;
     if (element.getNifty().isDebugOptionPanelColors()) {
       r.saveState(null);
       r.setColor(getDebugColor());
@@ -70,5 +76,8 @@ public class PanelRenderer implements ElementRenderer {
    */
   public void setBackgroundColor(final Color newBackgroundColor) {
     this.backgroundColor = newBackgroundColor;
+    if (element != null) {
+      element.invalidateRender();
+    }
   }
 }
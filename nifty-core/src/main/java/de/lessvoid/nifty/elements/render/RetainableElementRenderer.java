@@ -0,0 +1,11 @@
+package de.lessvoid.nifty.elements.render;
+
+/**
+ * An ElementRenderer that renders the same output with every frame until the element is invalidated with
+ * Element.invalidateRender(). The output of elements with only such renderers is retained and replayed instead of
+ * rendering the element again with every frame. The stock TextRenderer, ImageRenderer and PanelRenderer are handled
+ * like this already.
+ * @author void
+ */
+public interface RetainableElementRenderer extends ElementRenderer {
+}
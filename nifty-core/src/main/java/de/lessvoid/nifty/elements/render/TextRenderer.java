@@ -6,7 +6,6 @@ import java.util.List;
 import de.lessvoid.nifty.Nifty;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.elements.tools.FontHelper;
-import de.lessvoid.nifty.elements.tools.TextBreak;
 import de.lessvoid.nifty.layout.align.HorizontalAlign;
 import de.lessvoid.nifty.layout.align.VerticalAlign;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
@@ -107,6 +106,25 @@ public class TextRenderer implements ElementRenderer {
    */
   private Element hasBeenLayoutedElement;
 
+  /**
+   * The element this TextRenderer has been rendered for. Any change to the text or its attributes will invalidate
+   * the render output of this element.
+   */
+  private Element renderedElement;
+
+  /**
+   * The pixel widths of the textLines measured with lineWidthsFont or null when the text lines have changed.
+   */
+  private int[] lineWidths;
+  private RenderFont lineWidthsFont;
+
+  /**
+   * The horizontal aligned x offsets of the textLines for an element of lineOffsetsElementWidth pixel width or null
+   * when they need to be calculated again.
+   */
+  private int[] lineOffsets;
+  private int lineOffsetsElementWidth;
+
   /**
    * default constructor.
    */
@@ -156,18 +174,56 @@ public class TextRenderer implements ElementRenderer {
     }
 
     this.originalText = newText;
-    this.textLines = newText.split("\n", -1);
+    setTextLines(newText.split("\n", -1));
     if (changeExistingText && hasBeenLayoutedElement != null) {
-      hasBeenLayoutedElement.getParent().layoutElements();
+      // the new text will be wrapped with the next layout of the screen
+      hasBeenLayoutedElement.invalidateLayout();
     }
 
     maxWidth = 0;
-    for (String line : textLines) {
-      int lineWidth = font.getWidth(line);
+    for (int lineWidth : getLineWidths(font)) {
       if (lineWidth > maxWidth) {
         maxWidth = lineWidth;
       }
     }
+    invalidateRender();
+  }
+
+  private void setTextLines(final String[] newTextLines) {
+    textLines = newTextLines;
+    lineWidths = null;
+    lineOffsets = null;
+  }
+
+  /**
+   * The widths of the textLines are only measured again when the text lines or the font have changed.
+   */
+  private int[] getLineWidths(final RenderFont font) {
+    if (lineWidths == null || lineWidthsFont != font) {
+      if (lineWidths == null || lineWidths.length != textLines.length) {
+        lineWidths = new int[textLines.length];
+      }
+      for (int i=0; i<textLines.length; i++) {
+        lineWidths[i] = font.getWidth(textLines[i]);
+      }
+      lineWidthsFont = font;
+      lineOffsets = null;
+    }
+    return lineWidths;
+  }
+
+  private int[] getLineOffsets(final RenderFont font, final int elementWidth) {
+    int[] widths = getLineWidths(font);
+    if (lineOffsets == null || lineOffsetsElementWidth != elementWidth) {
+      if (lineOffsets == null || lineOffsets.length != widths.length) {
+        lineOffsets = new int[widths.length];
+      }
+      for (int i=0; i<widths.length; i++) {
+        lineOffsets[i] = getStartXWithHorizontalAlign(widths[i], elementWidth, textHAlign);
+      }
+      lineOffsetsElementWidth = elementWidth;
+    }
+    return lineOffsets;
   }
 
   /**
@@ -176,19 +232,22 @@ public class TextRenderer implements ElementRenderer {
    * @param r the renderDevice we should use
    */
   public void render(final Element w, final NiftyRenderEngine r) {
+    renderedElement = w;
     if (textLines.length == 0 || (textLines.length == 1 && textLines[0].length() == 0)) {
       return;
     }
-    renderLines(w, r, textLines);
+    renderLines(w, r);
   }
 
-  private void renderLines(final Element w, final NiftyRenderEngine r, String[] lines) {
+  private void renderLines(final Element w, final NiftyRenderEngine r) {
     RenderFont font = ensureFont(r);
 
     boolean stateSaved = prepareRenderEngine(r, font);
 
-    int y = getStartYWithVerticalAlign(lines.length * font.getHeight(), w.getHeight(), textVAlign);
-    for (String line : lines) {
+    int[] offsets = null;
+    int y = getStartYWithVerticalAlign(textLines.length * font.getHeight(), w.getHeight(), textVAlign);
+    for (int i=0; i<textLines.length; i++) {
+      String line = textLines[i];
       int yy = w.getY() + y;
       if (Math.abs(xoffsetHack) > 0) {
         int fittingOffset = FontHelper.getVisibleCharactersFromStart(font, line, Math.abs(xoffsetHack), 1.0f);
@@ -197,7 +256,10 @@ public class TextRenderer implements ElementRenderer {
         int xx = w.getX() + xoffsetHack + font.getWidth(cut);
         renderLine(xx, yy, substring, r, selectionStart - fittingOffset, selectionEnd - fittingOffset);
       } else {
-        int xx = w.getX() + getStartXWithHorizontalAlign(font.getWidth(line), w.getWidth(), textHAlign);
+        if (offsets == null) {
+          offsets = getLineOffsets(font, w.getWidth());
+        }
+        int xx = w.getX() + offsets[i];
         renderLine(xx, yy, line, r, selectionStart, selectionEnd);
       }
       y += font.getHeight();
@@ -316,6 +378,38 @@ public class TextRenderer implements ElementRenderer {
     return maxWidth;
   }
 
+  /**
+   * The x position the text is rendered at relative to the element. This is negative when the text is wider than the
+   * element and not aligned to the left or when the text has been moved with setXoffsetHack().
+   * @param elementWidth the width of the element
+   * @return x offset of the rendered text
+   */
+  public int getRenderedTextX(final int elementWidth) {
+    if (xoffsetHack != 0) {
+      return xoffsetHack;
+    }
+    return getStartXWithHorizontalAlign(maxWidth, elementWidth, textHAlign);
+  }
+
+  /**
+   * The y position the text is rendered at relative to the element.
+   * @param elementHeight the height of the element
+   * @return y offset of the rendered text
+   */
+  public int getRenderedTextY(final int elementHeight) {
+    return getStartYWithVerticalAlign(getRenderedTextHeight(), elementHeight, textVAlign);
+  }
+
+  /**
+   * @return the height of all text lines as they are rendered
+   */
+  public int getRenderedTextHeight() {
+    if (font == null) {
+      return 0;
+    }
+    return font.getHeight() * textLines.length;
+  }
+
   /**
    * Helper method to get height of text.
    * @return the height in pixel of the current set text.
@@ -339,6 +433,7 @@ public class TextRenderer implements ElementRenderer {
    */
   public void setXoffsetHack(final int newXoffsetHack) {
     this.xoffsetHack = newXoffsetHack;
+    invalidateRender();
   }
 
   /**
@@ -357,6 +452,7 @@ public class TextRenderer implements ElementRenderer {
   public void setSelection(final int selectionStartParam, final int selectionEndParam) {
     this.selectionStart = selectionStartParam;
     this.selectionEnd = selectionEndParam;
+    invalidateRender();
   }
 
   /**
@@ -368,6 +464,7 @@ public class TextRenderer implements ElementRenderer {
       return;
     }
     this.font = fontParam;
+    invalidateRender();
   }
 
   /**
@@ -376,6 +473,7 @@ public class TextRenderer implements ElementRenderer {
    */
   public void setTextSelectionColor(final Color textSelectionColorParam) {
     this.textSelectionColor = textSelectionColorParam;
+    invalidateRender();
   }
 
   /**
@@ -384,6 +482,7 @@ public class TextRenderer implements ElementRenderer {
    */
   public void setTextVAlign(final VerticalAlign newTextVAlign) {
     this.textVAlign = newTextVAlign;
+    invalidateRender();
   }
 
   /**
@@ -392,6 +491,8 @@ public class TextRenderer implements ElementRenderer {
    */
   public void setTextHAlign(final HorizontalAlign newTextHAlign) {
     this.textHAlign = newTextHAlign;
+    lineOffsets = null;
+    invalidateRender();
   }
 
   /**
@@ -401,6 +502,7 @@ public class TextRenderer implements ElementRenderer {
   public void setColor(final Color newColor) {
     if (newColor != null) {
       this.color = newColor;
+      invalidateRender();
     }
   }
 
@@ -425,10 +527,12 @@ public class TextRenderer implements ElementRenderer {
 
   public void setTextLineHeight(final SizeValue textLineHeight) {
     this.textLineHeight = textLineHeight;
+    invalidateRender();
   }
 
   public void setTextMinHeight(final SizeValue textMinHeight) {
     this.textMinHeight = textMinHeight;
+    invalidateRender();
   }
 
   /**
@@ -460,7 +564,7 @@ public class TextRenderer implements ElementRenderer {
     for (String line : textLines) {
       int lineLengthInPixel = font.getWidth(line);
       if (lineLengthInPixel > width) {
-        lines.addAll(new TextBreak(line, width, font).split());
+        lines.addAll(nifty.getTextBreakCache().split(line, width, font));
       } else {
         lines.add(line);
       }
@@ -483,7 +587,8 @@ public class TextRenderer implements ElementRenderer {
     // remember some values so that we can correctly do auto word wrapping when someone changes the text
     this.hasBeenLayoutedElement = element;
 
-    this.textLines = wrapText(valueAsInt, renderEngine, originalText.split("\n", -1));
+    setTextLines(wrapText(valueAsInt, renderEngine, originalText.split("\n", -1)));
+    invalidateRender();
     maxWidth = valueAsInt;
     if (maxWidth == 0) {
       for (String line : textLines) {
@@ -506,6 +611,13 @@ public class TextRenderer implements ElementRenderer {
     element.setConstraintHeight(new SizeValue(getTextHeight() + "px"));
   }
 
+  private void invalidateRender() {
+    if (renderedElement != null) {
+      renderedElement.invalidateRender();
+      renderedElement.invalidateRenderBounds();
+    }
+  }
+
   public void setLineWrapping(final boolean lineWrapping) {
     this.lineWrapping = lineWrapping; 
   }
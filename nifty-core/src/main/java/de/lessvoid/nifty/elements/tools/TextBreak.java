@@ -4,109 +4,105 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.tools.ColorValueParser;
 
+/**
+ * Breaks a single line of text into several lines that are each less than width pixel wide. Lines are broken at
+ * spaces. Words that don't fit into a line on their own are broken between characters.
+ *
+ * The advance of every character is requested from the RenderFont exactly once, so breaking a line takes linear time
+ * regardless of how long the words are. Color markup (\#ff0000#) has no width and each wrapped line starts with the
+ * color that was active at the position where the line has been broken.
+ *
+ * @author void
+ */
 public class TextBreak {
-  private String[] words;
-  private int width;
-  private RenderFont font;
+  private final String line;
+  private final int width;
+  private final RenderFont font;
 
   public TextBreak(final String line, final int width, final RenderFont font) {
-    this.words = line.split(" ", -1);
+    this.line = line;
     this.width = width;
     this.font = font;
   }
 
   public List < String > split() {
-    if (isSingleLine()) {
-      return singleResult();
+    int length = line.length();
+
+    // x[i] is the pixel position of character i. characters of color markup don't advance x.
+    // colorStart[i] is the start index of the last color markup in front of character i or -1.
+    int[] x = new int[length + 1];
+    int[] colorStart = new int[length + 1];
+    ColorValueParser colorValueParser = new ColorValueParser();
+    int currentColorStart = -1;
+    int i = 0;
+    while (i < length) {
+      if (colorValueParser.isColor(line, i)) {
+        int markupStart = i;
+        int markupEnd = colorValueParser.getNextIndex();
+        for (; i < markupEnd; i++) {
+          x[i + 1] = x[i];
+          colorStart[i] = currentColorStart;
+        }
+        currentColorStart = markupStart;
+        continue;
+      }
+      int advance = font.getCharacterAdvance(line.charAt(i), FontHelper.getNextCharacter(line, i), 1.f);
+      x[i + 1] = x[i] + Math.max(advance, 0);
+      colorStart[i] = currentColorStart;
+      i++;
     }
-    return processWords();
-  }
+    colorStart[length] = currentColorStart;
 
-  private List < String > singleResult() {
     List < String > result = new ArrayList < String > ();
-    result.add(words[0]);
-    return result;
-  }
+    if (isBelowLimit(x[length])) {
+      result.add(line);
+      return result;
+    }
 
-  private List < String > processWords() {
-    List < String > result = new ArrayList < String > ();
-    int i = 0, length;
-    String currentWord = "";
-    String lastColorValue = null;
-    StringBuffer currentLine = new StringBuffer();
-    while (isValidIndex(i)) {
-    	//Empty StringBuffer
-      currentLine.setLength(0);
-      length = 0;
-      while (isBelowLimit(length) && isValidIndex(i)) {
-        currentWord = getWord(i, length == 0);
-        String colorValue = extractColorValue(currentWord);
-        if (colorValue != null) {
-          lastColorValue = colorValue;
-        }
-        length += font.getWidth(currentWord);
-        if (isBelowLimit(length)) {
-          currentLine.append(currentWord);
-          i++;
-        }
+    int lineStart = 0;
+    int lastSpace = -1;
+    for (i = 0; i < length; i++) {
+      if (line.charAt(i) == ' ') {
+        lastSpace = i;
       }
-      if(currentLine.length() > 0) {
-        addResult(result, lastColorValue, currentLine.toString());
-      } else { //If we get here the word itself is longer than the wrapping width
-    	  //We break it up
-    	  String wordPart = currentWord;
-    	  int p;
-    	  do {
-    		  p = 0;
-	    	  while(!isBelowLimit(font.getWidth(wordPart)) && wordPart.length() > 0) {
-	    		  //Remove one character from the end and see if the new word fits
-	    		  wordPart = wordPart.substring(0, wordPart.length()-1);
-	    		  p++;
-	    	  }
-	    	  addResult(result, lastColorValue, wordPart);
-	    	  //Set the new word part to the rest of the word
-	    	  wordPart = currentWord.substring(currentWord.length()-p);
-	        String colorValue = extractColorValue(wordPart);
-	        if (colorValue != null) {
-	          lastColorValue = colorValue;
-	        }
-    	  } while(p > 0);
-    	  i++;
+      while (lineStart <= i && !isBelowLimit(x[i + 1] - x[lineStart])) {
+        if (lastSpace >= lineStart) {
+          // break at the last space and drop it
+          addResult(result, colorStart, lineStart, lastSpace);
+          lineStart = lastSpace + 1;
+        } else if (i > lineStart) {
+          // the word is wider than the line. break it in front of the current character.
+          addResult(result, colorStart, lineStart, i);
+          lineStart = i;
+        } else {
+          // a single character that is wider than the line still needs to go somewhere
+          addResult(result, colorStart, lineStart, i + 1);
+          lineStart = i + 1;
+        }
       }
     }
+    if (lineStart < length || lineStart == lastSpace + 1) {
+      addResult(result, colorStart, lineStart, length);
+    }
     return result;
   }
 
-  private void addResult(final List<String> result, final String lastColorValue, final String currentLine) {
-    if (lastColorValue != null) {
-      result.add(lastColorValue + currentLine);
+  private void addResult(final List<String> result, final int[] colorStart, final int start, final int end) {
+    String text = line.substring(start, end);
+    int color = colorStart[start];
+    if (!result.isEmpty() && color != -1 && !line.startsWith("\\#", start)) {
+      result.add(line.substring(color, line.indexOf('#', color + 2) + 1) + text);
     } else {
-      result.add(currentLine);
+      result.add(text);
     }
   }
 
-  private boolean isValidIndex(final int i) {
-    return i < words.length;
-  }
-
   private boolean isBelowLimit(final int currentLineLength) {
     return currentLineLength < width;
   }
 
-  private String getWord(final int i, final boolean newLine) {
-    String currentWord = words[i];
-    if (i > 0 && !newLine) {
-      currentWord = " " + currentWord;
-    }
-    return currentWord;
-  }
-
-  private boolean isSingleLine() {
-	//Check if there is only one word and it fits in one line
-    return (words.length == 1 && isBelowLimit(font.getWidth(words[0])));
-  }
-
   String extractColorValue(final String text) {
     if (text == null) {
       return null;
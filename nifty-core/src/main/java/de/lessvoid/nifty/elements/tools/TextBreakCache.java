@@ -0,0 +1,102 @@
+package de.lessvoid.nifty.elements.tools;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.lessvoid.nifty.spi.render.RenderFont;
+
+/**
+ * Remembers the result of the last TextBreak.split() calls for a combination of text, font and width. Layouting a
+ * screen again (for instance when a chat window or a tooltip is resized) wraps the same texts at the same widths over
+ * and over again.
+ *
+ * @author void
+ */
+public class TextBreakCache {
+  private static final int DEFAULT_MAX_SIZE = 256;
+
+  private final Key lookupKey = new Key();
+  private final Map<Key, List<String>> cache = new LinkedHashMap<Key, List<String>>(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<Key, List<String>> eldest) {
+      return size() > maxSize;
+    }
+  };
+  private int maxSize;
+
+  public TextBreakCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  public TextBreakCache(final int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Split the given line so that each resulting line is less than width pixel wide.
+   * @param line the line to split
+   * @param width the width in pixel
+   * @param font the font to measure the text with
+   * @return the lines (the returned list can't be modified)
+   */
+  public List<String> split(final String line, final int width, final RenderFont font) {
+    lookupKey.init(line, width, font);
+    List<String> result = cache.get(lookupKey);
+    if (result == null) {
+      result = Collections.unmodifiableList(new TextBreak(line, width, font).split());
+      if (maxSize > 0) {
+        Key key = new Key();
+        key.init(line, width, font);
+        cache.put(key, result);
+      }
+    }
+    return result;
+  }
+
+  public void setMaxSize(final int maxSize) {
+    this.maxSize = maxSize;
+    if (cache.size() > maxSize) {
+      cache.clear();
+    }
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  private static class Key {
+    private String line;
+    private int width;
+    private RenderFont font;
+    private int hashCode;
+
+    public void init(final String line, final int width, final RenderFont font) {
+      this.line = line;
+      this.width = width;
+      this.font = font;
+      hashCode = 31 * (31 * line.hashCode() + width) + System.identityHashCode(font);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return font == other.font && width == other.width && line.equals(other.line);
+    }
+  }
+}
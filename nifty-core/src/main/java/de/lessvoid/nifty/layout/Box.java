@@ -29,6 +29,11 @@ public class Box {
 	 */
 	private int height;
 
+	/**
+	 * This is set to true when the position or size of the box has been changed.
+	 */
+	private boolean dirty = true;
+
 	/**
 	 * Create a new Box with some default coordinates (x,y) set to (0,0) and
 	 * with width and height set to 0.
@@ -78,7 +83,10 @@ public class Box {
 	 * @param newX the vertical position of the box
 	 */
 	public final void setX(final int newX) {
-		this.x = newX;
+		if (this.x != newX) {
+			this.x = newX;
+			dirty = true;
+		}
 	}
 
 	/**
@@ -94,7 +102,10 @@ public class Box {
 	 * @param newY the vertical position of the box
 	 */
 	public final void setY(final int newY) {
-		this.y = newY;
+		if (this.y != newY) {
+			this.y = newY;
+			dirty = true;
+		}
 	}
 
 	/**
@@ -110,7 +121,10 @@ public class Box {
 	 * @param newHeight the new height for the box.
 	 */
 	public final void setHeight(final int newHeight) {
-		this.height = newHeight;
+		if (this.height != newHeight) {
+			this.height = newHeight;
+			dirty = true;
+		}
 	}
 
 	/**
@@ -126,7 +140,25 @@ public class Box {
 	 * @param newWidth the new width
 	 */
 	public final void setWidth(final int newWidth) {
-		this.width = newWidth;
+		if (this.width != newWidth) {
+			this.width = newWidth;
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Returns true when the position or size of the box has been changed since the last call to resetDirty().
+	 * @return true when the box has been changed and false if not
+	 */
+	public final boolean isDirty() {
+		return dirty;
+	}
+
+	/**
+	 * Reset the dirty flag.
+	 */
+	public final void resetDirty() {
+		dirty = false;
 	}
 
 	@Override
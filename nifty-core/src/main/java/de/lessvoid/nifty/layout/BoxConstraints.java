@@ -52,6 +52,11 @@ public class BoxConstraints {
   private SizeValue marginTop;
   private SizeValue marginBottom;
 
+  /**
+   * This is set to true when any of the constraints has been changed.
+   */
+  private boolean dirty = true;
+
   /**
    * default constructor.
    */
@@ -123,7 +128,7 @@ public class BoxConstraints {
    * @param newX the horizontal position of the box
    */
   public void setX(final SizeValue newX) {
-    this.x = newX;
+    this.x = update(x, newX);
   }
 
   /**
@@ -139,7 +144,7 @@ public class BoxConstraints {
    * @param newY the vertical position of the box
    */
   public void setY(final SizeValue newY) {
-    this.y = newY;
+    this.y = update(y, newY);
   }
 
   /**
@@ -155,7 +160,7 @@ public class BoxConstraints {
    * @param newHeight the new height for the box.
    */
   public void setHeight(final SizeValue newHeight) {
-    this.height = newHeight;
+    this.height = update(height, newHeight);
   }
 
   /**
@@ -171,7 +176,7 @@ public class BoxConstraints {
    * @param newWidth the new width
    */
   public void setWidth(final SizeValue newWidth) {
-    this.width = newWidth;
+    this.width = update(width, newWidth);
   }
 
   /**
@@ -187,7 +192,7 @@ public class BoxConstraints {
    * @param newHorizontalAlign the new horizontal align
    */
   public void setHorizontalAlign(final HorizontalAlign newHorizontalAlign) {
-    this.horizontalAlign = newHorizontalAlign;
+    this.horizontalAlign = update(horizontalAlign, newHorizontalAlign);
   }
 
   /**
@@ -203,7 +208,7 @@ public class BoxConstraints {
    * @param newVerticalAlign the new vertical align
    */
   public void setVerticalAlign(final VerticalAlign newVerticalAlign) {
-    this.verticalAlign = newVerticalAlign;
+    this.verticalAlign = update(verticalAlign, newVerticalAlign);
   }
 
   public SizeValue getPaddingLeft() {
@@ -223,33 +228,33 @@ public class BoxConstraints {
   }
 
   public void setPaddingLeft(final SizeValue paddingLeftParam) {
-    paddingLeft = paddingLeftParam;
+    paddingLeft = update(paddingLeft, paddingLeftParam);
   }
 
   public void setPaddingRight(final SizeValue paddingRightParam) {
-    paddingRight = paddingRightParam;
+    paddingRight = update(paddingRight, paddingRightParam);
   }
 
   public void setPaddingTop(final SizeValue paddingTopParam) {
-    paddingTop = paddingTopParam;
+    paddingTop = update(paddingTop, paddingTopParam);
   }
 
   public void setPaddingBottom(final SizeValue paddingBottomParam) {
-    paddingBottom = paddingBottomParam;
+    paddingBottom = update(paddingBottom, paddingBottomParam);
   }
 
   public void setPadding(final SizeValue topBottomParam, final SizeValue leftRightParam) {
-    paddingLeft = leftRightParam;
-    paddingRight = leftRightParam;
-    paddingTop = topBottomParam;
-    paddingBottom = topBottomParam;
+    paddingLeft = update(paddingLeft, leftRightParam);
+    paddingRight = update(paddingRight, leftRightParam);
+    paddingTop = update(paddingTop, topBottomParam);
+    paddingBottom = update(paddingBottom, topBottomParam);
   }
 
   public void setPadding(final SizeValue topParam, final SizeValue leftRightParam, final SizeValue bottomParam) {
-    paddingLeft = leftRightParam;
-    paddingRight = leftRightParam;
-    paddingTop = topParam;
-    paddingBottom = bottomParam;
+    paddingLeft = update(paddingLeft, leftRightParam);
+    paddingRight = update(paddingRight, leftRightParam);
+    paddingTop = update(paddingTop, topParam);
+    paddingBottom = update(paddingBottom, bottomParam);
   }
 
   public void setPadding(
@@ -257,17 +262,17 @@ public class BoxConstraints {
       final SizeValue rightParam,
       final SizeValue bottomParam,
       final SizeValue leftParam) {
-    paddingLeft = leftParam;
-    paddingRight = rightParam;
-    paddingTop = topParam;
-    paddingBottom = bottomParam;
+    paddingLeft = update(paddingLeft, leftParam);
+    paddingRight = update(paddingRight, rightParam);
+    paddingTop = update(paddingTop, topParam);
+    paddingBottom = update(paddingBottom, bottomParam);
   }
 
   public void setPadding(final SizeValue padding) {
-    paddingLeft = padding;
-    paddingRight = padding;
-    paddingTop = padding;
-    paddingBottom = padding;
+    paddingLeft = update(paddingLeft, padding);
+    paddingRight = update(paddingRight, padding);
+    paddingTop = update(paddingTop, padding);
+    paddingBottom = update(paddingBottom, padding);
   }
 
   public SizeValue getMarginLeft() {
@@ -287,33 +292,33 @@ public class BoxConstraints {
   }
 
   public void setMarginLeft(final SizeValue marginLeftParam) {
-    marginLeft = marginLeftParam;
+    marginLeft = update(marginLeft, marginLeftParam);
   }
 
   public void setMarginRight(final SizeValue marginRightParam) {
-    marginRight = marginRightParam;
+    marginRight = update(marginRight, marginRightParam);
   }
 
   public void setMarginTop(final SizeValue marginTopParam) {
-    marginTop = marginTopParam;
+    marginTop = update(marginTop, marginTopParam);
   }
 
   public void setMarginBottom(final SizeValue marginBottomParam) {
-    marginBottom = marginBottomParam;
+    marginBottom = update(marginBottom, marginBottomParam);
   }
 
   public void setMargin(final SizeValue topBottomParam, final SizeValue leftRightParam) {
-    marginLeft = leftRightParam;
-    marginRight = leftRightParam;
-    marginTop = topBottomParam;
-    marginBottom = topBottomParam;
+    marginLeft = update(marginLeft, leftRightParam);
+    marginRight = update(marginRight, leftRightParam);
+    marginTop = update(marginTop, topBottomParam);
+    marginBottom = update(marginBottom, topBottomParam);
   }
 
   public void setMargin(final SizeValue topParam, final SizeValue leftRightParam, final SizeValue bottomParam) {
-    marginLeft = leftRightParam;
-    marginRight = leftRightParam;
-    marginTop = topParam;
-    marginBottom = bottomParam;
+    marginLeft = update(marginLeft, leftRightParam);
+    marginRight = update(marginRight, leftRightParam);
+    marginTop = update(marginTop, topParam);
+    marginBottom = update(marginBottom, bottomParam);
   }
 
   public void setMargin(
@@ -321,16 +326,38 @@ public class BoxConstraints {
       final SizeValue rightParam,
       final SizeValue bottomParam,
       final SizeValue leftParam) {
-    marginLeft = leftParam;
-    marginRight = rightParam;
-    marginTop = topParam;
-    marginBottom = bottomParam;
+    marginLeft = update(marginLeft, leftParam);
+    marginRight = update(marginRight, rightParam);
+    marginTop = update(marginTop, topParam);
+    marginBottom = update(marginBottom, bottomParam);
   }
 
   public void setMargin(final SizeValue margin) {
-    marginLeft = margin;
-    marginRight = margin;
-    marginTop = margin;
-    marginBottom = margin;
+    marginLeft = update(marginLeft, margin);
+    marginRight = update(marginRight, margin);
+    marginTop = update(marginTop, margin);
+    marginBottom = update(marginBottom, margin);
+  }
+
+  /**
+   * Returns true when any of the constraints has been changed since the last call to resetDirty().
+   * @return true when the constraints have been changed and false if not
+   */
+  public boolean isDirty() {
+    return dirty;
+  }
+
+  /**
+   * Reset the dirty flag.
+   */
+  public void resetDirty() {
+    dirty = false;
+  }
+
+  private <T> T update(final T oldValue, final T newValue) {
+    if (oldValue == null ? newValue != null : !oldValue.equals(newValue)) {
+      dirty = true;
+    }
+    return newValue;
   }
 }
@@ -63,6 +63,22 @@ public class LayoutPart {
     return boxConstraints;
   }
 
+  /**
+   * Returns true when either the box or the box constraints have been changed since the last call to resetDirty().
+   * @return true when this LayoutPart has been changed and false if not
+   */
+  public boolean isDirty() {
+    return box.isDirty() || boxConstraints.isDirty();
+  }
+
+  /**
+   * Reset the dirty flag of the box and the box constraints.
+   */
+  public void resetDirty() {
+    box.resetDirty();
+    boxConstraints.resetDirty();
+  }
+
   public String toString() {
     StringBuilder result = new StringBuilder();
     result.append("box [" + box.getX() + ", " + box.getY() + ", " + box.getWidth() + ", " + box.getHeight() + "] with constraints [" + boxConstraints.getX() + ", " + boxConstraints.getY() + ", " + boxConstraints.getWidth() + ", " + boxConstraints.getHeight() + "]");
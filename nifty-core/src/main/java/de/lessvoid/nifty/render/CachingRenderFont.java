@@ -0,0 +1,165 @@
+package de.lessvoid.nifty.render;
+
+import java.util.Arrays;
+
+import de.lessvoid.nifty.spi.render.RenderFont;
+
+/**
+ * A RenderFont decorator that remembers the results of getWidth() and getCharacterAdvance(). The same texts are
+ * measured several times each frame (text alignment, line wrapping, textfield cursor positions) and most RenderFont
+ * implementations walk their glyph and kerning tables for each call.
+ *
+ * The caches are direct mapped: every text or character pair has exactly one slot and a colliding entry simply
+ * replaces the previous one. This keeps the lookups free of allocations and the memory used bounded.
+ *
+ * NiftyRenderEngineImpl wraps every font it creates. RenderDevice implementations still get the original font they've
+ * created because the NiftyRenderEngineImpl calls unwrap() before handing a font to the RenderDevice.
+ *
+ * @author void
+ */
+public class CachingRenderFont implements RenderFont {
+  private static final int DEFAULT_CACHE_SIZE = 1024;
+  private static final long NO_KEY = -1L;
+
+  private final RenderFont font;
+  private final int shift;
+
+  private final String[] widthTexts;
+  private final int[] widths;
+  private final String[] sizedWidthTexts;
+  private final float[] sizedWidthSizes;
+  private final int[] sizedWidths;
+  private final long[] advanceKeys;
+  private final int[] advances;
+
+  private long hitCount;
+  private long missCount;
+
+  public CachingRenderFont(final RenderFont font) {
+    this(font, DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * @param font the RenderFont to decorate
+   * @param cacheSize the number of slots of each cache (will be rounded up to the next power of two)
+   */
+  public CachingRenderFont(final RenderFont font, final int cacheSize) {
+    this.font = font;
+    int size = Integer.highestOneBit(Math.max(2, cacheSize));
+    if (size < cacheSize) {
+      size <<= 1;
+    }
+    shift = 32 - Integer.numberOfTrailingZeros(size);
+    widthTexts = new String[size];
+    widths = new int[size];
+    sizedWidthTexts = new String[size];
+    sizedWidthSizes = new float[size];
+    sizedWidths = new int[size];
+    advanceKeys = new long[size];
+    advances = new int[size];
+    Arrays.fill(advanceKeys, NO_KEY);
+  }
+
+  /**
+   * @return the decorated font when the given font is a CachingRenderFont or the given font itself otherwise
+   */
+  public static RenderFont unwrap(final RenderFont font) {
+    if (font instanceof CachingRenderFont) {
+      return ((CachingRenderFont) font).font;
+    }
+    return font;
+  }
+
+  public RenderFont getFont() {
+    return font;
+  }
+
+  @Override
+  public int getWidth(final String text) {
+    if (text == null) {
+      return font.getWidth(text);
+    }
+    int slot = slot(text.hashCode());
+    if (text.equals(widthTexts[slot])) {
+      hitCount++;
+      return widths[slot];
+    }
+    missCount++;
+    int width = font.getWidth(text);
+    widthTexts[slot] = text;
+    widths[slot] = width;
+    return width;
+  }
+
+  @Override
+  public int getWidth(final String text, final float size) {
+    if (text == null) {
+      return font.getWidth(text, size);
+    }
+    int slot = slot(31 * text.hashCode() + Float.floatToIntBits(size));
+    if (sizedWidthSizes[slot] == size && text.equals(sizedWidthTexts[slot])) {
+      hitCount++;
+      return sizedWidths[slot];
+    }
+    missCount++;
+    int width = font.getWidth(text, size);
+    sizedWidthTexts[slot] = text;
+    sizedWidthSizes[slot] = size;
+    sizedWidths[slot] = width;
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return font.getHeight();
+  }
+
+  @Override
+  public int getCharacterAdvance(final char currentCharacter, final char nextCharacter, final float size) {
+    // floatToIntBits() never returns 0xffffffff so the key can never be NO_KEY
+    long key =
+        ((long) currentCharacter << 48) |
+        ((long) nextCharacter << 32) |
+        (Float.floatToIntBits(size) & 0xffffffffL);
+    int slot = slot((int) (key ^ (key >>> 29)));
+    if (advanceKeys[slot] == key) {
+      hitCount++;
+      return advances[slot];
+    }
+    missCount++;
+    int advance = font.getCharacterAdvance(currentCharacter, nextCharacter, size);
+    advanceKeys[slot] = key;
+    advances[slot] = advance;
+    return advance;
+  }
+
+  @Override
+  public void dispose() {
+    clear();
+    font.dispose();
+  }
+
+  /**
+   * Forget all cached values. Call this when the metrics of the decorated font have been changed.
+   */
+  public void clear() {
+    Arrays.fill(widthTexts, null);
+    Arrays.fill(sizedWidthTexts, null);
+    Arrays.fill(advanceKeys, NO_KEY);
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Fibonacci hashing: spreads similar hash codes (short strings, adjacent float values) over all slots.
+   */
+  private int slot(final int hash) {
+    return (hash * 0x9E3779B9) >>> shift;
+  }
+}
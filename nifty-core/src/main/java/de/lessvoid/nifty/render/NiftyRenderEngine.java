@@ -108,6 +108,11 @@ public interface NiftyRenderEngine {
    */
   void renderQuad(int x, int y, int width, int height, Color topLeft, Color topRight, Color bottomRight, Color bottomLeft);
 
+  /**
+   * Renders a quad with different packed colors (see Color.rgba8888()) at the quad vertices.
+   */
+  void renderQuad(int x, int y, int width, int height, int topLeft, int topRight, int bottomRight, int bottomLeft);
+
   /**
    * Render Image.
    * @param image the image to render
@@ -147,6 +152,12 @@ public interface NiftyRenderEngine {
    */
   void setColor(Color colorParam);
 
+  /**
+   * Set a new color given as a packed color (see Color.rgba8888()).
+   * @param rgba new current color to set
+   */
+  void setColor(int rgba);
+
   /**
    * set only the color alpha.
    * @param newColorAlpha new alpha value
@@ -184,7 +195,8 @@ public interface NiftyRenderEngine {
   void moveTo(float xParam, float yParam);
 
   /**
-   * Enable clipping to the given region.
+   * Enable clipping to the given region. When clipping is already enabled the given region is intersected with the
+   * current clipping region so that nested elements can't draw outside of the clipping region of their parents.
    * @param x0 x0
    * @param y0 y0
    * @param x1 x1
@@ -193,10 +205,27 @@ public interface NiftyRenderEngine {
   void enableClip(int x0, int y0, int x1, int y1);
 
   /**
-   * Disable the clipping.
+   * Disable the clipping region of the last enableClip() call. The clipping region that was active before that call
+   * will be active again.
    */
   void disableClip();
 
+  /**
+   * Check if the given region is completely outside of the current clipping region. Everything rendered inside that
+   * region would be clipped anyway.
+   * @param x0 x0
+   * @param y0 y0
+   * @param x1 x1
+   * @param y1 y1
+   * @return true when clipping is enabled and the given region is completely outside of the clipping region
+   */
+  boolean isOutsideClip(int x0, int y0, int x1, int y1);
+
+  /**
+   * @return the number of isOutsideClip() calls that returned true since the last beginFrame()
+   */
+  int getOutsideClipCount();
+
   /**
    * Set RenderTextSize.
    * @param size size
@@ -295,4 +324,57 @@ public interface NiftyRenderEngine {
    * @param screen the removed Screen
    */
   void screenRemoved(Screen screen);
+
+  /**
+   * Enable or disable retained rendering. When enabled the RenderDevice calls of each layer are recorded and the
+   * recording is replayed in the following frames for as long as the layer does not change. This is disabled by
+   * default because changes that are not made through the Nifty API (for instance modifying a Color instance that
+   * is used by an ElementRenderer) are not noticed.
+   * @param enabled true to enable retained rendering and false to disable it
+   */
+  void setRetainedRendering(boolean enabled);
+
+  /**
+   * @return true when retained rendering is enabled and false if not
+   */
+  boolean isRetainedRendering();
+
+  /**
+   * Start to record all RenderDevice calls into the command buffer with the given key. This will replace any
+   * commands recorded for that key before. This does nothing when retained rendering is disabled.
+   * @param key the key of the command buffer (usually the layer element)
+   */
+  void beginRecording(Object key);
+
+  /**
+   * The current recording can't be replayed because the output will change with the next frame anyway.
+   */
+  void markRecordingNotReplayable();
+
+  /**
+   * Stop the current recording.
+   */
+  void endRecording();
+
+  /**
+   * Replay the command buffer with the given key directly to the RenderDevice.
+   * @param key the key of the command buffer
+   * @return true when the commands have been replayed and false when there is nothing that could be replayed
+   */
+  boolean replay(Object key);
+
+  /**
+   * @return the number of command buffers that have been replayed since the last call to resetRetainedStatistics()
+   */
+  int getReplayCount();
+
+  /**
+   * @return the number of command buffers that have been recorded since the last call to resetRetainedStatistics()
+   */
+  int getRecordCount();
+
+  /**
+   * Reset replay and record counters.
+   */
+  void resetRetainedStatistics();
 }
@@ -1,10 +1,11 @@
 package de.lessvoid.nifty.render;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.logging.Logger;
 
 import de.lessvoid.nifty.NiftyStopwatch;
@@ -102,9 +103,20 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   private Map < String, RenderFont > fontCache = new Hashtable < String, RenderFont >();
 
   /**
-   * stack to save data.
+   * stack to save data. The top of the stack is the last entry. The states are saved copy-on-write: saveState() only
+   * remembers which states to restore and the current value of a state is saved when it is changed for the first
+   * time (see saveBeforeChange()). So restoreState() only needs to restore the states that have really been changed.
    */
-  private Deque<SavedRenderState> stack = new ArrayDeque<SavedRenderState>(20);
+  private List<SavedRenderState> stack = new ArrayList<SavedRenderState>(20);
+  private static final int STATE_POSITION = 1;
+  private static final int STATE_COLOR = 2;
+  private static final int STATE_ALPHA = 4;
+  private static final int STATE_TEXT_SIZE = 8;
+  private static final int STATE_IMAGE_SCALE = 16;
+  private static final int STATE_FONT = 32;
+  private static final int STATE_CLIP = 64;
+  private static final int STATE_BLEND_MODE = 128;
+  private static final int STATE_ALL = 255;
   private Color whiteColor = new Color("#ffff");
   
   /**
@@ -117,17 +129,34 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
     }
   });
 
-  private boolean clipEnabled;
-  private Clip clip = new Clip(0, 0, 0, 0);
+  /**
+   * The clip stack. Each entry has already been intersected with the entry below so the entry at clipDepth - 1 is
+   * the clipping area currently active. Clipping is disabled when clipDepth is 0. The Clip instances are reused.
+   */
+  private List<Clip> clipStack = new ArrayList<Clip>();
+  private int clipDepth;
+  private int outsideClipCount;
   private BlendMode blendMode = BlendMode.BLEND;
   private NiftyImageManager imageManager;
 
+  /**
+   * Retained rendering. All RenderDevice calls pass the recordingDevice on their way to the actual RenderDevice so
+   * that they can be recorded into one of the commandBuffers.
+   */
+  private RecordingRenderDevice recordingDevice;
+  private boolean retainedRendering = false;
+  private Map<Object, RenderCommandBuffer> commandBuffers = new WeakHashMap<Object, RenderCommandBuffer>();
+  private RenderCommandBuffer currentCommandBuffer;
+  private int replayCount;
+  private int recordCount;
+
   /**
    * create the device.
    * @param renderDeviceParam RenderDevice
    */
   public NiftyRenderEngineImpl(final RenderDevice renderDeviceParam) {
-    renderDevice = new ScalingRenderDevice(this, renderDeviceParam);
+    recordingDevice = new RecordingRenderDevice(renderDeviceParam);
+    renderDevice = new ScalingRenderDevice(this, recordingDevice);
     displayWidth = renderDevice.getWidth();
     displayHeight = renderDevice.getHeight();
     nativeDisplayWidth = renderDevice.getWidth();
@@ -154,6 +183,8 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   public void beginFrame() {
     renderDevice.beginFrame();
     colorChanged = false;
+    clipDepth = 0;
+    outsideClipCount = 0;
   }
 
   public void endFrame() {
@@ -186,6 +217,9 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
     } else {
       NiftyStopwatch.start();
       RenderFont newFont = renderDevice.createFont(filename);
+      if (newFont != null) {
+        newFont = new CachingRenderFont(newFont);
+      }
       fontCache.put(filename, newFont);
       NiftyStopwatch.stop("RenderDevice.createFont(" + filename + ")");
       return newFont;
@@ -215,11 +249,21 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
 
   public void renderQuad(final int x, final int y, final int width, final int height, final Color topLeft, final Color topRight, final Color bottomRight, final Color bottomLeft) {
     if (isColorAlphaChanged()) {
-      Color a = new Color(topLeft, color.getAlpha());
-      Color b = new Color(topRight, color.getAlpha());
-      Color c = new Color(bottomRight, color.getAlpha());
-      Color d = new Color(bottomLeft, color.getAlpha());
-      renderDevice.renderQuad(x + getX(), y + getY(), width, height, a, b, c, d);
+      renderQuad(x, y, width, height, topLeft.toRGBA8888(), topRight.toRGBA8888(), bottomRight.toRGBA8888(), bottomLeft.toRGBA8888());
+    } else {
+      renderDevice.renderQuad(x + getX(), y + getY(), width, height, topLeft, topRight, bottomRight, bottomLeft);
+    }
+  }
+
+  public void renderQuad(final int x, final int y, final int width, final int height, final int topLeft, final int topRight, final int bottomRight, final int bottomLeft) {
+    if (isColorAlphaChanged()) {
+      int alpha = Color.toByte(color.getAlpha());
+      renderDevice.renderQuad(
+          x + getX(), y + getY(), width, height,
+          Color.withAlpha(topLeft, alpha),
+          Color.withAlpha(topRight, alpha),
+          Color.withAlpha(bottomRight, alpha),
+          Color.withAlpha(bottomLeft, alpha));
     } else {
       renderDevice.renderQuad(x + getX(), y + getY(), width, height, topLeft, topRight, bottomRight, bottomLeft);
     }
@@ -270,7 +314,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
         log.warning("missing font in renderText! could it be that you're using <text> elements without a font or style attribute? in case you've replaced <label> with <text> you're probably missing style='nifty-label' :)");
         return;
       }
-      renderDevice.renderFont(font, text, x + getX(), y + getY(), color, textScale, textScale);
+      renderDevice.renderFont(CachingRenderFont.unwrap(font), text, x + getX(), y + getY(), color, textScale, textScale);
     }
   }
 
@@ -303,31 +347,32 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
     if (selectionEnd < 0) {
       selectionEnd = 0;
     }
+    RenderFont deviceFont = CachingRenderFont.unwrap(font);
 
     if (isEverythingSelected(text, selectionStart, selectionEnd)) {
-      renderDevice.renderFont(font, text, x, y, textSelectionColor, textSizeX, textSizeY);
+      renderDevice.renderFont(deviceFont, text, x, y, textSelectionColor, textSizeX, textSizeY);
     } else if (isSelectionAtBeginning(selectionStart)) {
       String selectedString = text.substring(selectionStart, selectionEnd);
       String unselectedString = text.substring(selectionEnd);
 
-      renderDevice.renderFont(font, selectedString, x, y, textSelectionColor, textSizeX, textSizeY);
-      renderDevice.renderFont(font, unselectedString, x + font.getWidth(selectedString), y, textColor, textSizeX, textSizeY);
+      renderDevice.renderFont(deviceFont, selectedString, x, y, textSelectionColor, textSizeX, textSizeY);
+      renderDevice.renderFont(deviceFont, unselectedString, x + font.getWidth(selectedString), y, textColor, textSizeX, textSizeY);
     } else if (isSelectionAtEnd(text, selectionEnd)) {
       String unselectedString = text.substring(0, selectionStart);
       String selectedString = text.substring(selectionStart, selectionEnd);
 
-      renderDevice.renderFont(font, unselectedString, x, y, textColor, textSizeX, textSizeY);
-      renderDevice.renderFont(font, selectedString, x + font.getWidth(unselectedString), y, textSelectionColor, textSizeX, textSizeY);
+      renderDevice.renderFont(deviceFont, unselectedString, x, y, textColor, textSizeX, textSizeY);
+      renderDevice.renderFont(deviceFont, selectedString, x + font.getWidth(unselectedString), y, textSelectionColor, textSizeX, textSizeY);
     } else {
       String unselectedString1 = text.substring(0, selectionStart);
       String selectedString = text.substring(selectionStart, selectionEnd);
       String unselectedString2 = text.substring(selectionEnd, text.length());
 
-      renderDevice.renderFont(font, unselectedString1, x, y, textColor, textSizeX, textSizeY);
+      renderDevice.renderFont(deviceFont, unselectedString1, x, y, textColor, textSizeX, textSizeY);
       int unselectedString1Len = font.getWidth(unselectedString1);
-      renderDevice.renderFont(font, selectedString, x + unselectedString1Len, y, textSelectionColor, textSizeX, textSizeY);
+      renderDevice.renderFont(deviceFont, selectedString, x + unselectedString1Len, y, textSelectionColor, textSizeX, textSizeY);
       int selectedStringLen = font.getWidth(selectedString);
-      renderDevice.renderFont(font, unselectedString2, x + unselectedString1Len + selectedStringLen, y, textColor, textSizeX, textSizeY);
+      renderDevice.renderFont(deviceFont, unselectedString2, x + unselectedString1Len + selectedStringLen, y, textColor, textSizeX, textSizeY);
     }
   }
 
@@ -366,6 +411,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param newFont font
    */
   public void setFont(final RenderFont newFont) {
+    saveBeforeChange(STATE_FONT);
     this.font = newFont;
   }
 
@@ -382,6 +428,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param colorParam color
    */
   public void setColor(final Color colorParam) {
+    saveBeforeChange(STATE_COLOR | STATE_ALPHA);
     color.setRed(colorParam.getRed());
     color.setGreen(colorParam.getGreen());
     color.setBlue(colorParam.getBlue());
@@ -390,11 +437,19 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
     colorAlphaChanged = true;
   }
 
+  public void setColor(final int rgba) {
+    saveBeforeChange(STATE_COLOR | STATE_ALPHA);
+    color.fromRGBA8888(rgba);
+    colorChanged = true;
+    colorAlphaChanged = true;
+  }
+
   /**
    * set only the color alpha.
    * @param newColorAlpha new alpha value
    */
   public void setColorAlpha(final float newColorAlpha) {
+    saveBeforeChange(STATE_ALPHA);
     color.setAlpha(newColorAlpha);
     colorAlphaChanged = true;
   }
@@ -404,6 +459,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param newColor color
    */
   public void setColorIgnoreAlpha(final Color newColor) {
+    saveBeforeChange(STATE_COLOR | STATE_ALPHA);
     color.setRed(newColor.getRed());
     color.setGreen(newColor.getGreen());
     color.setBlue(newColor.getBlue());
@@ -437,6 +493,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param yParam y
    */
   public void moveTo(final float xParam, final float yParam) {
+    saveBeforeChange(STATE_POSITION);
     this.currentX = xParam;
     this.currentY = yParam;
   }
@@ -449,28 +506,72 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param y1 y1
    */
   public void enableClip(final int x0, final int y0, final int x1, final int y1) {
-    // in case there already is a clipping area set we can't override it. not sure if this is correct tho but it
-    // fixes issues when some parent element has set a clipping area in which child elements should not be able to override the area.
-    if (clipEnabled) {
-      return;
+    saveBeforeChange(STATE_CLIP);
+    if (clipDepth == clipStack.size()) {
+      clipStack.add(new Clip(0, 0, 0, 0));
+    }
+    Clip clip = clipStack.get(clipDepth);
+    clip.init(x0 + getX(), y0 + getY(), x1 + getX(), y1 + getY());
+    if (clipDepth > 0) {
+      // child elements can't leave the clipping area of their parents
+      clip.intersect(clipStack.get(clipDepth - 1));
     }
-    updateClip(true, x0 + getX(), y0 + getY(), x1 + getX(), y1 + getY());
+    clipDepth++;
+    clip.apply();
   }
 
   /**
    * @see de.lessvoid.nifty.render.NiftyRenderEngine#disableClip()
    */
   public void disableClip() {
-    updateClip(false, 0, 0, 0, 0);
+    if (clipDepth == 0) {
+      return;
+    }
+    saveBeforeChange(STATE_CLIP);
+    clipDepth--;
+    applyClip();
+  }
+
+  /**
+   * @see de.lessvoid.nifty.render.NiftyRenderEngine#isOutsideClip(int, int, int, int)
+   */
+  @Override
+  public boolean isOutsideClip(final int x0, final int y0, final int x1, final int y1) {
+    if (clipDepth == 0) {
+      return false;
+    }
+    if (clipStack.get(clipDepth - 1).isOutside(x0 + getX(), y0 + getY(), x1 + getX(), y1 + getY())) {
+      outsideClipCount++;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public int getOutsideClipCount() {
+    return outsideClipCount;
+  }
+
+  void restoreClip(final int depth, final int x0, final int y0, final int x1, final int y1) {
+    boolean changed = clipDepth != depth;
+    clipDepth = depth;
+    if (clipDepth > 0) {
+      Clip clip = clipStack.get(clipDepth - 1);
+      if (!clip.isEqual(x0, y0, x1, y1)) {
+        clip.init(x0, y0, x1, y1);
+        changed = true;
+      }
+    }
+    if (changed) {
+      applyClip();
+    }
   }
 
-  void updateClip(final boolean enabled, final int x0, final int y0, final int x1, final int y1) {
-    clipEnabled = enabled;
-    clip.init(x0, y0, x1, y1);
-    if (!clipEnabled) {
+  private void applyClip() {
+    if (clipDepth == 0) {
       renderDevice.disableClip();
     } else {
-      clip.apply();
+      clipStack.get(clipDepth - 1).apply();
     }
   }
   /**
@@ -478,6 +579,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param size size
    */
   public void setRenderTextSize(final float size) {
+    saveBeforeChange(STATE_TEXT_SIZE);
     this.textScale = size;
   }
 
@@ -486,6 +588,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param scale scale
    */
   public void setImageScale(final float scale) {
+    saveBeforeChange(STATE_IMAGE_SCALE);
     this.imageScale = scale;
   }
   /**
@@ -494,12 +597,16 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param yPos y
    */
   public void setGlobalPosition(final float xPos, final float yPos) {
+    if (globalPosX != xPos || globalPosY != yPos) {
+      discardCommandBuffers();
+    }
     globalPosX = xPos;
     globalPosY = yPos;
   }
 
   @Override
   public void displayResolutionChanged() {
+    discardCommandBuffers();
     if (!autoScaling) {
       displayWidth = renderDevice.getWidth();
       displayHeight = renderDevice.getHeight();
@@ -536,17 +643,30 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
 
   public void saveState(final RenderStates statesToSave) {
     SavedRenderState savedRenderState = pool.allocate();
-    savedRenderState.save(statesToSave);
-    stack.push(savedRenderState);
+    savedRenderState.init(statesToSave);
+    stack.add(savedRenderState);
   }
 
   public void restoreState() {
-    SavedRenderState restored = stack.pop();
+    SavedRenderState restored = stack.remove(stack.size() - 1);
     restored.restore();
     pool.free(restored);
   }
 
+  /**
+   * Must be called before the given states are changed. Every entry of the stack that needs to restore one of these
+   * states and has not saved it yet saves the current value now. Since this saves the state in all the entries below
+   * as well we can stop at the first entry that has already saved it.
+   */
+  private void saveBeforeChange(final int states) {
+    int remaining = states;
+    for (int i=stack.size() - 1; i>=0 && remaining != 0; i--) {
+      remaining = stack.get(i).saveBeforeChange(remaining);
+    }
+  }
+
   public void setBlendMode(final BlendMode blendModeParam) {
+    saveBeforeChange(STATE_BLEND_MODE);
     blendMode = blendModeParam;
     renderDevice.setBlendMode(blendModeParam);
   }
@@ -556,159 +676,179 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   }
 
   public void disposeImage(final RenderImage image) {
+    discardCommandBuffers();
     imageManager.unregisterImage(image);
   }
 
   public RenderImage reload(final RenderImage image) {
+    discardCommandBuffers();
     return imageManager.reload(image);
   }
 
   private class SavedRenderState {
     private float x;
     private float y;
-    private boolean statePositionChanged;
 
     private float colorR;
     private float colorG;
     private float colorB;
     private boolean colorChanged;
-    private boolean stateColorChanged;
     
     private float colorAlpha;
     private boolean colorAlphaChanged;
-    private boolean stateAlphaChanged;
     
     private RenderFont font;
-    private boolean stateFontChanged;
     
     private float textSize;
-    private boolean stateTextSizeChanged;
     
     private float imageScale;
-    private boolean stateImageScaleChanged;
 
-    private boolean clipEnabled;
+    private int clipDepth;
     private Clip clip = new Clip(0, 0, 0, 0);
-    private boolean stateClipChanged;
     
     private BlendMode blendMode;
-    private boolean stateBlendModeChanged;
 
-    private boolean restoreAll = false;
+    // the states we need to restore
+    private int statesToRestore;
+
+    // the states we've already saved
+    private int statesSaved;
 
     public SavedRenderState() {
     }
 
-    public void save(final RenderStates statesToSave) {
-      statePositionChanged = false;
-      stateColorChanged = false;
-      stateAlphaChanged = false;
-      stateFontChanged = false;
-      stateTextSizeChanged = false;
-      stateImageScaleChanged = false;
-      stateClipChanged = false;
-      stateBlendModeChanged = false;
-      restoreAll = false;
-
+    public void init(final RenderStates statesToSave) {
+      statesSaved = 0;
       if (statesToSave == null) {
-        savePosition();
-        saveColor();
-        saveColorAlpha();
-        saveTextSize();
-        saveImageSize();
-        saveFont();
-        saveClipEnabled();
-        saveBlendMode();
-        restoreAll = true;
+        statesToRestore = STATE_ALL;
         return;
       }
+      statesToRestore = 0;
       if (statesToSave.hasPosition()) {
+        statesToRestore |= STATE_POSITION;
+      }
+      if (statesToSave.hasColor()) {
+        statesToRestore |= STATE_COLOR;
+      }
+      if (statesToSave.hasAlpha()) {
+        statesToRestore |= STATE_ALPHA;
+      }
+      if (statesToSave.hasTextSize()) {
+        statesToRestore |= STATE_TEXT_SIZE;
+      }
+      if (statesToSave.hasImageScale()) {
+        statesToRestore |= STATE_IMAGE_SCALE;
+      }
+      if (statesToSave.hasFont()) {
+        statesToRestore |= STATE_FONT;
+      }
+      if (statesToSave.hasClip()) {
+        statesToRestore |= STATE_CLIP;
+      }
+      if (statesToSave.hasBlendMode()) {
+        statesToRestore |= STATE_BLEND_MODE;
+      }
+    }
+
+    /**
+     * Save the current value of the given states if we need to restore them later and didn't save them already.
+     * @return the states the entries below us still need to check
+     */
+    public int saveBeforeChange(final int states) {
+      // when we've saved a state earlier the entries below have saved it at that time as well
+      int savedEarlier = states & statesToRestore & statesSaved;
+      int toSave = states & statesToRestore & ~statesSaved;
+      if (toSave != 0) {
+        save(toSave);
+        statesSaved |= toSave;
+      }
+      return states & ~savedEarlier;
+    }
+
+    private void save(final int states) {
+      if ((states & STATE_POSITION) != 0) {
         savePosition();
-      } else if (statesToSave.hasColor()) {
+      }
+      if ((states & STATE_COLOR) != 0) {
         saveColor();
-      } else if (statesToSave.hasAlpha()) {
+      }
+      if ((states & STATE_ALPHA) != 0) {
         saveColorAlpha();
-      } else if (statesToSave.hasTextSize()) {
+      }
+      if ((states & STATE_TEXT_SIZE) != 0) {
         saveTextSize();
-      } else if (statesToSave.hasImageScale()) {
+      }
+      if ((states & STATE_IMAGE_SCALE) != 0) {
         saveImageSize();
-      } else if (statesToSave.hasFont()) {
+      }
+      if ((states & STATE_FONT) != 0) {
         saveFont();
-      } else if (statesToSave.hasClip()) {
+      }
+      if ((states & STATE_CLIP) != 0) {
         saveClipEnabled();
-      } else if (statesToSave.hasBlendMode()) {
+      }
+      if ((states & STATE_BLEND_MODE) != 0) {
         saveBlendMode();
       }
     }
 
     public void restore() {
-      if (restoreAll) {
-        restorePosition();
-        restoreColor();
-        restoreAlpha();
-        restoreFont();
-        restoreTextSize();
-        restoreImageScale();
-        restoreClip();
-        restoreBlend();
+      if (statesSaved == 0) {
         return;
       }
-      if (statePositionChanged) {
+      if ((statesSaved & STATE_POSITION) != 0) {
         restorePosition();
       }
-      if (stateColorChanged) {
+      if ((statesSaved & STATE_COLOR) != 0) {
         restoreColor();
       }
-      if (stateAlphaChanged) {
+      if ((statesSaved & STATE_ALPHA) != 0) {
         restoreAlpha();
       }
-      if (stateFontChanged) {
+      if ((statesSaved & STATE_FONT) != 0) {
         restoreFont();
       }
-      if (stateTextSizeChanged) {
+      if ((statesSaved & STATE_TEXT_SIZE) != 0) {
         restoreTextSize();
       }
-      if (stateImageScaleChanged) {
+      if ((statesSaved & STATE_IMAGE_SCALE) != 0) {
         restoreImageScale();
       }
-      if (stateClipChanged) {
+      if ((statesSaved & STATE_CLIP) != 0) {
         restoreClip();
       }
-      if (stateBlendModeChanged) {
+      if ((statesSaved & STATE_BLEND_MODE) != 0) {
         restoreBlend();
       }
     }
 
     private void saveBlendMode() {
       blendMode = NiftyRenderEngineImpl.this.blendMode;
-      stateBlendModeChanged = true;
     }
 
     private void saveClipEnabled() {
-      clipEnabled = NiftyRenderEngineImpl.this.clipEnabled;
-      clip.init(NiftyRenderEngineImpl.this.clip.x0, NiftyRenderEngineImpl.this.clip.y0, NiftyRenderEngineImpl.this.clip.x1, NiftyRenderEngineImpl.this.clip.y1);
-      stateClipChanged = true;
+      clipDepth = NiftyRenderEngineImpl.this.clipDepth;
+      if (clipDepth > 0) {
+        Clip current = NiftyRenderEngineImpl.this.clipStack.get(clipDepth - 1);
+        clip.init(current.x0, current.y0, current.x1, current.y1);
+      }
     }
 
     private void saveFont() {
       font = NiftyRenderEngineImpl.this.font;
-      stateFontChanged = true;
     }
 
     private void saveImageSize() {
       imageScale = NiftyRenderEngineImpl.this.imageScale;
-      stateImageScaleChanged = true;
     }
 
     private void saveTextSize() {
       textSize = NiftyRenderEngineImpl.this.textScale;
-      stateTextSizeChanged = true;
     }
 
     private void saveColorAlpha() {
       colorAlpha = NiftyRenderEngineImpl.this.color.getAlpha();
       colorAlphaChanged = NiftyRenderEngineImpl.this.colorAlphaChanged;
-      stateAlphaChanged = true;
     }
 
     private void saveColor() {
@@ -716,21 +856,20 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
       colorG = NiftyRenderEngineImpl.this.color.getGreen();
       colorB = NiftyRenderEngineImpl.this.color.getBlue();
       colorChanged = NiftyRenderEngineImpl.this.colorChanged;
-      stateColorChanged = true;
     }
 
     private void savePosition() {
       x = NiftyRenderEngineImpl.this.currentX;
       y = NiftyRenderEngineImpl.this.currentY;
-      statePositionChanged = true;
     }
 
     private void restoreBlend() {
-      NiftyRenderEngineImpl.this.setBlendMode(blendMode);
+      NiftyRenderEngineImpl.this.blendMode = blendMode;
+      renderDevice.setBlendMode(blendMode);
     }
 
     private void restoreClip() {
-      NiftyRenderEngineImpl.this.updateClip(clipEnabled, clip.x0, clip.y0, clip.x1, clip.y1);
+      NiftyRenderEngineImpl.this.restoreClip(clipDepth, clip.x0, clip.y0, clip.x1, clip.y1);
     }
 
     private void restoreImageScale() {
@@ -780,6 +919,24 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
       this.y1 = y1;
     }
 
+    public void intersect(final Clip other) {
+      x0 = Math.max(x0, other.x0);
+      y0 = Math.max(y0, other.y0);
+      x1 = Math.max(x0, Math.min(x1, other.x1));
+      y1 = Math.max(y0, Math.min(y1, other.y1));
+    }
+
+    public boolean isOutside(final int otherX0, final int otherY0, final int otherX1, final int otherY1) {
+      if (x1 <= x0 || y1 <= y0) {
+        return true;
+      }
+      return otherX1 <= x0 || otherX0 >= x1 || otherY1 <= y0 || otherY0 >= y1;
+    }
+
+    public boolean isEqual(final int otherX0, final int otherY0, final int otherX1, final int otherY1) {
+      return x0 == otherX0 && y0 == otherY0 && x1 == otherX1 && y1 == otherY1;
+    }
+
     public void apply() {
       renderDevice.enableClip(x0, y0, x1, y1);
     }
@@ -851,6 +1008,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
 
   @Override
   public void enableAutoScaling(final int baseResolutionX, final int baseResolutionY) {
+    discardCommandBuffers();
     autoScaling = true;
     displayWidth = baseResolutionX;
     displayHeight = baseResolutionY;
@@ -862,6 +1020,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
 
   @Override
   public void enableAutoScaling(final int baseResolutionX, final int baseResolutionY, final float scaleX, final float scaleY) {
+    discardCommandBuffers();
     autoScaling = true;
     displayWidth = baseResolutionX;
     displayHeight = baseResolutionY;
@@ -873,6 +1032,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
 
   @Override
   public void disableAutoScaling() {
+    discardCommandBuffers();
     autoScaling = false;
     displayWidth = nativeDisplayWidth;
     displayHeight = nativeDisplayHeight;
@@ -884,16 +1044,19 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
 
   @Override
   public void screenStarted(final Screen screen) {
+    discardCommandBuffers();
     imageManager.uploadScreenImages(screen);
   }
 
   @Override
   public void screenEnded(final Screen screen) {
+    discardCommandBuffers();
     imageManager.unloadScreenImages(screen);
   }
 
   @Override
   public void screensClear(final Collection<Screen> screens) {
+    discardCommandBuffers();
     for (Screen screen : screens) {
       imageManager.unloadScreenImages(screen);
       imageManager.screenRemoved(screen);
@@ -909,4 +1072,83 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   public void screenRemoved(final Screen screen) {
     imageManager.screenRemoved(screen);
   }
+
+  @Override
+  public void setRetainedRendering(final boolean enabled) {
+    retainedRendering = enabled;
+    discardCommandBuffers();
+  }
+
+  @Override
+  public boolean isRetainedRendering() {
+    return retainedRendering;
+  }
+
+  @Override
+  public void beginRecording(final Object key) {
+    if (!retainedRendering) {
+      return;
+    }
+    RenderCommandBuffer commandBuffer = commandBuffers.get(key);
+    if (commandBuffer == null) {
+      commandBuffer = new RenderCommandBuffer();
+      commandBuffers.put(key, commandBuffer);
+    }
+    commandBuffer.reset();
+    currentCommandBuffer = commandBuffer;
+    recordingDevice.setCommandBuffer(commandBuffer);
+    recordCount++;
+  }
+
+  @Override
+  public void markRecordingNotReplayable() {
+    if (currentCommandBuffer != null) {
+      currentCommandBuffer.setReplayable(false);
+    }
+  }
+
+  @Override
+  public void endRecording() {
+    currentCommandBuffer = null;
+    recordingDevice.setCommandBuffer(null);
+  }
+
+  @Override
+  public boolean replay(final Object key) {
+    if (!retainedRendering) {
+      return false;
+    }
+    RenderCommandBuffer commandBuffer = commandBuffers.get(key);
+    if (commandBuffer == null || !commandBuffer.isReplayable()) {
+      return false;
+    }
+    commandBuffer.replay(recordingDevice.getInternal());
+    replayCount++;
+    return true;
+  }
+
+  @Override
+  public int getReplayCount() {
+    return replayCount;
+  }
+
+  @Override
+  public int getRecordCount() {
+    return recordCount;
+  }
+
+  @Override
+  public void resetRetainedStatistics() {
+    replayCount = 0;
+    recordCount = 0;
+  }
+
+  /**
+   * Forget all recorded commands. This is necessary when something changed that all recordings depend on, like the
+   * display resolution or the images that are currently loaded.
+   */
+  private void discardCommandBuffers() {
+    endRecording();
+    commandBuffers.clear();
+  }
 }
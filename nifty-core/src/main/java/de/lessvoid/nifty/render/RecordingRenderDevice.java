@@ -0,0 +1,309 @@
+package de.lessvoid.nifty.render;
+
+import java.io.IOException;
+
+import de.lessvoid.nifty.spi.render.MouseCursor;
+import de.lessvoid.nifty.spi.render.PackedColorRenderDevice;
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.tools.Color;
+import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
+
+/**
+ * A RenderDevice that forwards all calls to the actual RenderDevice. When a RenderCommandBuffer is set all render
+ * calls are additionally recorded into that buffer.
+ *
+ * @author void
+ */
+class RecordingRenderDevice implements PackedColorRenderDevice {
+  private RenderDevice internal;
+  private RenderCommandBuffer commandBuffer;
+
+  // the internal RenderDevice when it supports packed colors or null if it doesn't
+  private PackedColorRenderDevice packedInternal;
+
+  // when the internal RenderDevice doesn't support packed colors we unpack them into these instances
+  private final Color unpacked0 = new Color(0.f, 0.f, 0.f, 0.f);
+  private final Color unpacked1 = new Color(0.f, 0.f, 0.f, 0.f);
+  private final Color unpacked2 = new Color(0.f, 0.f, 0.f, 0.f);
+  private final Color unpacked3 = new Color(0.f, 0.f, 0.f, 0.f);
+
+  public RecordingRenderDevice(final RenderDevice internal) {
+    this.internal = internal;
+    if (internal instanceof PackedColorRenderDevice) {
+      this.packedInternal = (PackedColorRenderDevice) internal;
+    }
+  }
+
+  /**
+   * Set the RenderCommandBuffer to record into or null to stop recording.
+   * @param commandBuffer the buffer to record into
+   */
+  public void setCommandBuffer(final RenderCommandBuffer commandBuffer) {
+    this.commandBuffer = commandBuffer;
+  }
+
+  /**
+   * @return the actual RenderDevice
+   */
+  public RenderDevice getInternal() {
+    return internal;
+  }
+
+  @Override
+  public void setResourceLoader(final NiftyResourceLoader niftyResourceLoader) {
+    internal.setResourceLoader(niftyResourceLoader);
+  }
+
+  @Override
+  public RenderImage createImage(final String filename, final boolean filterLinear) {
+    return internal.createImage(filename, filterLinear);
+  }
+
+  @Override
+  public RenderFont createFont(final String filename) {
+    return internal.createFont(filename);
+  }
+
+  @Override
+  public int getWidth() {
+    return internal.getWidth();
+  }
+
+  @Override
+  public int getHeight() {
+    return internal.getHeight();
+  }
+
+  @Override
+  public void beginFrame() {
+    internal.beginFrame();
+  }
+
+  @Override
+  public void endFrame() {
+    internal.endFrame();
+  }
+
+  @Override
+  public void clear() {
+    internal.clear();
+  }
+
+  @Override
+  public void setBlendMode(final BlendMode renderMode) {
+    if (commandBuffer != null) {
+      commandBuffer.setBlendMode(renderMode);
+    }
+    internal.setBlendMode(renderMode);
+  }
+
+  @Override
+  public void renderQuad(final int x, final int y, final int width, final int height, final Color color) {
+    if (commandBuffer != null) {
+      commandBuffer.renderQuad(x, y, width, height, color);
+    }
+    internal.renderQuad(x, y, width, height, color);
+  }
+
+  @Override
+  public void renderQuad(
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final Color topLeft,
+      final Color topRight,
+      final Color bottomRight,
+      final Color bottomLeft) {
+    if (commandBuffer != null) {
+      commandBuffer.renderQuad(x, y, width, height, topLeft, topRight, bottomRight, bottomLeft);
+    }
+    internal.renderQuad(x, y, width, height, topLeft, topRight, bottomRight, bottomLeft);
+  }
+
+  @Override
+  public void renderImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final Color color,
+      final float imageScale) {
+    if (commandBuffer != null) {
+      commandBuffer.renderImage(image, x, y, width, height, color, imageScale);
+    }
+    internal.renderImage(image, x, y, width, height, color, imageScale);
+  }
+
+  @Override
+  public void renderImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int w,
+      final int h,
+      final int srcX,
+      final int srcY,
+      final int srcW,
+      final int srcH,
+      final Color color,
+      final float scale,
+      final int centerX,
+      final int centerY) {
+    if (commandBuffer != null) {
+      commandBuffer.renderImage(image, x, y, w, h, srcX, srcY, srcW, srcH, color, scale, centerX, centerY);
+    }
+    internal.renderImage(image, x, y, w, h, srcX, srcY, srcW, srcH, color, scale, centerX, centerY);
+  }
+
+  @Override
+  public void renderFont(
+      final RenderFont font,
+      final String text,
+      final int x,
+      final int y,
+      final Color fontColor,
+      final float sizeX,
+      final float sizeY) {
+    if (commandBuffer != null) {
+      commandBuffer.renderFont(font, text, x, y, fontColor, sizeX, sizeY);
+    }
+    internal.renderFont(font, text, x, y, fontColor, sizeX, sizeY);
+  }
+
+  @Override
+  public void renderQuad(final int x, final int y, final int width, final int height, final int color) {
+    if (packedInternal == null) {
+      renderQuad(x, y, width, height, unpack(unpacked0, color));
+      return;
+    }
+    if (commandBuffer != null) {
+      commandBuffer.renderQuad(x, y, width, height, color);
+    }
+    packedInternal.renderQuad(x, y, width, height, color);
+  }
+
+  @Override
+  public void renderQuad(
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final int topLeft,
+      final int topRight,
+      final int bottomRight,
+      final int bottomLeft) {
+    if (packedInternal == null) {
+      renderQuad(
+          x, y, width, height,
+          unpack(unpacked0, topLeft), unpack(unpacked1, topRight), unpack(unpacked2, bottomRight), unpack(unpacked3, bottomLeft));
+      return;
+    }
+    if (commandBuffer != null) {
+      commandBuffer.renderQuad(x, y, width, height, topLeft, topRight, bottomRight, bottomLeft);
+    }
+    packedInternal.renderQuad(x, y, width, height, topLeft, topRight, bottomRight, bottomLeft);
+  }
+
+  @Override
+  public void renderImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final int color,
+      final float imageScale) {
+    if (packedInternal == null) {
+      renderImage(image, x, y, width, height, unpack(unpacked0, color), imageScale);
+      return;
+    }
+    if (commandBuffer != null) {
+      commandBuffer.renderImage(image, x, y, width, height, color, imageScale);
+    }
+    packedInternal.renderImage(image, x, y, width, height, color, imageScale);
+  }
+
+  @Override
+  public void renderImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int w,
+      final int h,
+      final int srcX,
+      final int srcY,
+      final int srcW,
+      final int srcH,
+      final int color,
+      final float scale,
+      final int centerX,
+      final int centerY) {
+    if (packedInternal == null) {
+      renderImage(image, x, y, w, h, srcX, srcY, srcW, srcH, unpack(unpacked0, color), scale, centerX, centerY);
+      return;
+    }
+    if (commandBuffer != null) {
+      commandBuffer.renderImage(image, x, y, w, h, srcX, srcY, srcW, srcH, color, scale, centerX, centerY);
+    }
+    packedInternal.renderImage(image, x, y, w, h, srcX, srcY, srcW, srcH, color, scale, centerX, centerY);
+  }
+
+  @Override
+  public void renderFont(
+      final RenderFont font,
+      final String text,
+      final int x,
+      final int y,
+      final int fontColor,
+      final float sizeX,
+      final float sizeY) {
+    if (packedInternal == null) {
+      renderFont(font, text, x, y, unpack(unpacked0, fontColor), sizeX, sizeY);
+      return;
+    }
+    if (commandBuffer != null) {
+      commandBuffer.renderFont(font, text, x, y, fontColor, sizeX, sizeY);
+    }
+    packedInternal.renderFont(font, text, x, y, fontColor, sizeX, sizeY);
+  }
+
+  private Color unpack(final Color target, final int rgba) {
+    target.fromRGBA8888(rgba);
+    return target;
+  }
+
+  @Override
+  public void enableClip(final int x0, final int y0, final int x1, final int y1) {
+    if (commandBuffer != null) {
+      commandBuffer.enableClip(x0, y0, x1, y1);
+    }
+    internal.enableClip(x0, y0, x1, y1);
+  }
+
+  @Override
+  public void disableClip() {
+    if (commandBuffer != null) {
+      commandBuffer.disableClip();
+    }
+    internal.disableClip();
+  }
+
+  @Override
+  public MouseCursor createMouseCursor(final String filename, final int hotspotX, final int hotspotY) throws IOException {
+    return internal.createMouseCursor(filename, hotspotX, hotspotY);
+  }
+
+  @Override
+  public void enableMouseCursor(final MouseCursor mouseCursor) {
+    internal.enableMouseCursor(mouseCursor);
+  }
+
+  @Override
+  public void disableMouseCursor() {
+    internal.disableMouseCursor();
+  }
+}
@@ -0,0 +1,384 @@
+package de.lessvoid.nifty.render;
+
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.tools.Color;
+
+/**
+ * A compact buffer of already resolved RenderDevice calls. The parameters of all calls are stored in primitive arrays
+ * so that recording and replaying a frame does not create any garbage. Colors are copied when recorded because
+ * Nifty reuses its Color instances while rendering. Packed colors are recorded the same way.
+ *
+ * @author void
+ */
+class RenderCommandBuffer {
+  private static final int BLEND_MODE = 0;
+  private static final int QUAD = 1;
+  private static final int QUAD_GRADIENT = 2;
+  private static final int IMAGE = 3;
+  private static final int IMAGE_SUB = 4;
+  private static final int FONT = 5;
+  private static final int ENABLE_CLIP = 6;
+  private static final int DISABLE_CLIP = 7;
+
+  private int[] commands = new int[64];
+  private int commandCount;
+  private int[] ints = new int[256];
+  private int intCount;
+  private float[] floats = new float[256];
+  private int floatCount;
+  private Object[] objects = new Object[64];
+  private int objectCount;
+
+  /**
+   * When set to false this buffer has been recorded while the output of the recorded elements was about to change
+   * with the next frame. Such a buffer can't be replayed.
+   */
+  private boolean replayable;
+
+  private final Color color0 = new Color(0.f, 0.f, 0.f, 0.f);
+  private final Color color1 = new Color(0.f, 0.f, 0.f, 0.f);
+  private final Color color2 = new Color(0.f, 0.f, 0.f, 0.f);
+  private final Color color3 = new Color(0.f, 0.f, 0.f, 0.f);
+
+  /**
+   * Remove all commands and mark this buffer as replayable.
+   */
+  public void reset() {
+    commandCount = 0;
+    intCount = 0;
+    floatCount = 0;
+    for (int i=0; i<objectCount; i++) {
+      objects[i] = null;
+    }
+    objectCount = 0;
+    replayable = true;
+  }
+
+  public boolean isReplayable() {
+    return replayable;
+  }
+
+  public void setReplayable(final boolean replayable) {
+    this.replayable = replayable;
+  }
+
+  /**
+   * @return the number of commands recorded
+   */
+  public int size() {
+    return commandCount;
+  }
+
+  public void setBlendMode(final BlendMode blendMode) {
+    addCommand(BLEND_MODE);
+    addObject(blendMode);
+  }
+
+  public void renderQuad(final int x, final int y, final int width, final int height, final Color color) {
+    addCommand(QUAD);
+    addInts(x, y, width, height);
+    addColor(color);
+  }
+
+  public void renderQuad(
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final Color topLeft,
+      final Color topRight,
+      final Color bottomRight,
+      final Color bottomLeft) {
+    addCommand(QUAD_GRADIENT);
+    addInts(x, y, width, height);
+    addColor(topLeft);
+    addColor(topRight);
+    addColor(bottomRight);
+    addColor(bottomLeft);
+  }
+
+  public void renderImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final Color color,
+      final float imageScale) {
+    addCommand(IMAGE);
+    addObject(image);
+    addInts(x, y, width, height);
+    addColor(color);
+    addFloat(imageScale);
+  }
+
+  public void renderImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int w,
+      final int h,
+      final int srcX,
+      final int srcY,
+      final int srcW,
+      final int srcH,
+      final Color color,
+      final float scale,
+      final int centerX,
+      final int centerY) {
+    addCommand(IMAGE_SUB);
+    addObject(image);
+    addInts(x, y, w, h);
+    addInts(srcX, srcY, srcW, srcH);
+    addInt(centerX);
+    addInt(centerY);
+    addColor(color);
+    addFloat(scale);
+  }
+
+  public void renderFont(
+      final RenderFont font,
+      final String text,
+      final int x,
+      final int y,
+      final Color fontColor,
+      final float sizeX,
+      final float sizeY) {
+    addCommand(FONT);
+    addObject(font);
+    addObject(text);
+    addInt(x);
+    addInt(y);
+    addColor(fontColor);
+    addFloat(sizeX);
+    addFloat(sizeY);
+  }
+
+  public void renderQuad(final int x, final int y, final int width, final int height, final int color) {
+    addCommand(QUAD);
+    addInts(x, y, width, height);
+    addColor(color);
+  }
+
+  public void renderQuad(
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final int topLeft,
+      final int topRight,
+      final int bottomRight,
+      final int bottomLeft) {
+    addCommand(QUAD_GRADIENT);
+    addInts(x, y, width, height);
+    addColor(topLeft);
+    addColor(topRight);
+    addColor(bottomRight);
+    addColor(bottomLeft);
+  }
+
+  public void renderImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final int color,
+      final float imageScale) {
+    addCommand(IMAGE);
+    addObject(image);
+    addInts(x, y, width, height);
+    addColor(color);
+    addFloat(imageScale);
+  }
+
+  public void renderImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int w,
+      final int h,
+      final int srcX,
+      final int srcY,
+      final int srcW,
+      final int srcH,
+      final int color,
+      final float scale,
+      final int centerX,
+      final int centerY) {
+    addCommand(IMAGE_SUB);
+    addObject(image);
+    addInts(x, y, w, h);
+    addInts(srcX, srcY, srcW, srcH);
+    addInt(centerX);
+    addInt(centerY);
+    addColor(color);
+    addFloat(scale);
+  }
+
+  public void renderFont(
+      final RenderFont font,
+      final String text,
+      final int x,
+      final int y,
+      final int fontColor,
+      final float sizeX,
+      final float sizeY) {
+    addCommand(FONT);
+    addObject(font);
+    addObject(text);
+    addInt(x);
+    addInt(y);
+    addColor(fontColor);
+    addFloat(sizeX);
+    addFloat(sizeY);
+  }
+
+  public void enableClip(final int x0, final int y0, final int x1, final int y1) {
+    addCommand(ENABLE_CLIP);
+    addInts(x0, y0, x1, y1);
+  }
+
+  public void disableClip() {
+    addCommand(DISABLE_CLIP);
+  }
+
+  /**
+   * Send all recorded commands to the given RenderDevice.
+   * @param device the RenderDevice to replay the commands to
+   */
+  public void replay(final RenderDevice device) {
+    int i = 0;
+    int f = 0;
+    int o = 0;
+    for (int c=0; c<commandCount; c++) {
+      switch (commands[c]) {
+        case BLEND_MODE:
+          device.setBlendMode((BlendMode) objects[o++]);
+          break;
+        case QUAD:
+          device.renderQuad(ints[i], ints[i+1], ints[i+2], ints[i+3], color(color0, f));
+          i += 4;
+          f += 4;
+          break;
+        case QUAD_GRADIENT:
+          device.renderQuad(
+              ints[i], ints[i+1], ints[i+2], ints[i+3],
+              color(color0, f), color(color1, f+4), color(color2, f+8), color(color3, f+12));
+          i += 4;
+          f += 16;
+          break;
+        case IMAGE:
+          device.renderImage(
+              (RenderImage) objects[o++], ints[i], ints[i+1], ints[i+2], ints[i+3], color(color0, f), floats[f+4]);
+          i += 4;
+          f += 5;
+          break;
+        case IMAGE_SUB:
+          device.renderImage(
+              (RenderImage) objects[o++],
+              ints[i], ints[i+1], ints[i+2], ints[i+3],
+              ints[i+4], ints[i+5], ints[i+6], ints[i+7],
+              color(color0, f), floats[f+4],
+              ints[i+8], ints[i+9]);
+          i += 10;
+          f += 5;
+          break;
+        case FONT:
+          device.renderFont(
+              (RenderFont) objects[o], (String) objects[o+1], ints[i], ints[i+1], color(color0, f), floats[f+4], floats[f+5]);
+          o += 2;
+          i += 2;
+          f += 6;
+          break;
+        case ENABLE_CLIP:
+          device.enableClip(ints[i], ints[i+1], ints[i+2], ints[i+3]);
+          i += 4;
+          break;
+        case DISABLE_CLIP:
+          device.disableClip();
+          break;
+      }
+    }
+  }
+
+  private Color color(final Color color, final int offset) {
+    if (Float.isNaN(floats[offset])) {
+      return null;
+    }
+    color.setRed(floats[offset]);
+    color.setGreen(floats[offset+1]);
+    color.setBlue(floats[offset+2]);
+    color.setAlpha(floats[offset+3]);
+    return color;
+  }
+
+  private void addCommand(final int command) {
+    if (commandCount == commands.length) {
+      int[] newCommands = new int[commands.length * 2];
+      System.arraycopy(commands, 0, newCommands, 0, commandCount);
+      commands = newCommands;
+    }
+    commands[commandCount++] = command;
+  }
+
+  private void addInts(final int a, final int b, final int c, final int d) {
+    addInt(a);
+    addInt(b);
+    addInt(c);
+    addInt(d);
+  }
+
+  private void addInt(final int value) {
+    if (intCount == ints.length) {
+      int[] newInts = new int[ints.length * 2];
+      System.arraycopy(ints, 0, newInts, 0, intCount);
+      ints = newInts;
+    }
+    ints[intCount++] = value;
+  }
+
+  /**
+   * A null color is stored as NaN so that it can be restored as null on replay.
+   */
+  private void addColor(final Color color) {
+    if (color == null) {
+      addFloat(Float.NaN);
+      addFloat(0.f);
+      addFloat(0.f);
+      addFloat(0.f);
+      return;
+    }
+    addFloat(color.getRed());
+    addFloat(color.getGreen());
+    addFloat(color.getBlue());
+    addFloat(color.getAlpha());
+  }
+
+  private void addColor(final int rgba) {
+    addFloat(((rgba >>> 24) & 0xFF) / 255.f);
+    addFloat(((rgba >>> 16) & 0xFF) / 255.f);
+    addFloat(((rgba >>> 8) & 0xFF) / 255.f);
+    addFloat((rgba & 0xFF) / 255.f);
+  }
+
+  private void addFloat(final float value) {
+    if (floatCount == floats.length) {
+      float[] newFloats = new float[floats.length * 2];
+      System.arraycopy(floats, 0, newFloats, 0, floatCount);
+      floats = newFloats;
+    }
+    floats[floatCount++] = value;
+  }
+
+  private void addObject(final Object value) {
+    if (objectCount == objects.length) {
+      Object[] newObjects = new Object[objects.length * 2];
+      System.arraycopy(objects, 0, newObjects, 0, objectCount);
+      objects = newObjects;
+    }
+    objects[objectCount++] = value;
+  }
+}
@@ -81,19 +81,26 @@ public class RenderStates {
   public void removeAll(final RenderStates states) {
     if (states.position) {
       position = false;
-    } else if (states.color) {
+    }
+    if (states.color) {
       color = false;
-    } else if (states.alpha) {
+    }
+    if (states.alpha) {
       alpha = false;
-    } else if (states.textSize) {
+    }
+    if (states.textSize) {
       textSize = false;
-    } else if (states.imageScale) {
+    }
+    if (states.imageScale) {
       imageScale = false;
-    } else if (states.font) {
+    }
+    if (states.font) {
       font = false;
-    } else if (states.clip) {
+    }
+    if (states.clip) {
       clip = false;
-    } else if (states.blendMode) {
+    }
+    if (states.blendMode) {
       blendMode = false;
     }
   }
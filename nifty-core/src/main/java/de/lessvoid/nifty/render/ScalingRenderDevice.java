@@ -3,19 +3,32 @@ package de.lessvoid.nifty.render;
 import java.io.IOException;
 
 import de.lessvoid.nifty.spi.render.MouseCursor;
+import de.lessvoid.nifty.spi.render.PackedColorRenderDevice;
 import de.lessvoid.nifty.spi.render.RenderDevice;
 import de.lessvoid.nifty.spi.render.RenderFont;
 import de.lessvoid.nifty.spi.render.RenderImage;
 import de.lessvoid.nifty.tools.Color;
 import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
 
-public class ScalingRenderDevice implements RenderDevice {
+public class ScalingRenderDevice implements PackedColorRenderDevice {
   private NiftyRenderEngine renderEngine;
   private RenderDevice internal;
 
+  // the internal RenderDevice when it supports packed colors or null if it doesn't
+  private PackedColorRenderDevice packedInternal;
+
+  // when the internal RenderDevice doesn't support packed colors we unpack them into these instances
+  private final Color unpacked0 = new Color(0.f, 0.f, 0.f, 0.f);
+  private final Color unpacked1 = new Color(0.f, 0.f, 0.f, 0.f);
+  private final Color unpacked2 = new Color(0.f, 0.f, 0.f, 0.f);
+  private final Color unpacked3 = new Color(0.f, 0.f, 0.f, 0.f);
+
   public ScalingRenderDevice(final NiftyRenderEngine renderEngine, final RenderDevice interal) {
     this.renderEngine = renderEngine;
     this.internal = interal;
+    if (interal instanceof PackedColorRenderDevice) {
+      this.packedInternal = (PackedColorRenderDevice) interal;
+    }
   }
 
   @Override
@@ -108,6 +121,56 @@ public class ScalingRenderDevice implements RenderDevice {
     internal.renderFont(font, text, renderEngine.convertToNativeX(x), renderEngine.convertToNativeY(y), fontColor, renderEngine.convertToNativeTextSizeX(sizeX), renderEngine.convertToNativeTextSizeY(sizeY));
   }
 
+  @Override
+  public void renderQuad(int x, int y, int width, int height, int color) {
+    if (packedInternal == null) {
+      renderQuad(x, y, width, height, unpack(unpacked0, color));
+      return;
+    }
+    packedInternal.renderQuad(renderEngine.convertToNativeX(x), renderEngine.convertToNativeY(y), renderEngine.convertToNativeWidth(width), renderEngine.convertToNativeHeight(height), color);
+  }
+
+  @Override
+  public void renderQuad(int x, int y, int width, int height, int topLeft, int topRight, int bottomRight, int bottomLeft) {
+    if (packedInternal == null) {
+      renderQuad(x, y, width, height, unpack(unpacked0, topLeft), unpack(unpacked1, topRight), unpack(unpacked2, bottomRight), unpack(unpacked3, bottomLeft));
+      return;
+    }
+    packedInternal.renderQuad(renderEngine.convertToNativeX(x), renderEngine.convertToNativeY(y), renderEngine.convertToNativeWidth(width), renderEngine.convertToNativeHeight(height), topLeft, topRight, bottomRight, bottomLeft);
+  }
+
+  @Override
+  public void renderImage(RenderImage image, int x, int y, int width, int height, int color, float imageScale) {
+    if (packedInternal == null) {
+      renderImage(image, x, y, width, height, unpack(unpacked0, color), imageScale);
+      return;
+    }
+    packedInternal.renderImage(image, renderEngine.convertToNativeX(x), renderEngine.convertToNativeY(y), renderEngine.convertToNativeWidth(width), renderEngine.convertToNativeHeight(height), color, imageScale);
+  }
+
+  @Override
+  public void renderImage(RenderImage image, int x, int y, int w, int h, int srcX, int srcY, int srcW, int srcH, int color, float scale, int centerX, int centerY) {
+    if (packedInternal == null) {
+      renderImage(image, x, y, w, h, srcX, srcY, srcW, srcH, unpack(unpacked0, color), scale, centerX, centerY);
+      return;
+    }
+    packedInternal.renderImage(image, renderEngine.convertToNativeX(x), renderEngine.convertToNativeY(y), renderEngine.convertToNativeWidth(w), renderEngine.convertToNativeHeight(h), srcX, srcY, srcW, srcH, color, scale, renderEngine.convertToNativeX(centerX), renderEngine.convertToNativeY(centerY));
+  }
+
+  @Override
+  public void renderFont(RenderFont font, String text, int x, int y, int fontColor, float sizeX, float sizeY) {
+    if (packedInternal == null) {
+      renderFont(font, text, x, y, unpack(unpacked0, fontColor), sizeX, sizeY);
+      return;
+    }
+    packedInternal.renderFont(font, text, renderEngine.convertToNativeX(x), renderEngine.convertToNativeY(y), fontColor, renderEngine.convertToNativeTextSizeX(sizeX), renderEngine.convertToNativeTextSizeY(sizeY));
+  }
+
+  private Color unpack(final Color target, final int rgba) {
+    target.fromRGBA8888(rgba);
+    return target;
+  }
+
   @Override
   public void enableClip(int x0, int y0, int x1, int y1) {
     internal.enableClip(renderEngine.convertToNativeX(x0), renderEngine.convertToNativeY(y0), renderEngine.convertToNativeX(x1), renderEngine.convertToNativeY(y1));
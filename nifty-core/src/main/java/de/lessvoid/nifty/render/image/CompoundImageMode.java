@@ -1,8 +1,11 @@
 package de.lessvoid.nifty.render.image;
 
 import de.lessvoid.nifty.Size;
+import de.lessvoid.nifty.layout.Box;
 import de.lessvoid.nifty.render.NiftyImage;
 import de.lessvoid.nifty.render.image.areaprovider.AreaProvider;
+import de.lessvoid.nifty.render.image.renderstrategy.CacheableRenderStrategy;
+import de.lessvoid.nifty.render.image.renderstrategy.ImageQuadList;
 import de.lessvoid.nifty.render.image.renderstrategy.RenderStrategy;
 import de.lessvoid.nifty.spi.render.RenderDevice;
 import de.lessvoid.nifty.spi.render.RenderImage;
@@ -12,6 +15,16 @@ public class CompoundImageMode implements ImageMode {
   private AreaProvider m_areaProvider;
   private RenderStrategy m_renderStrategy;
 
+  // the quads of a CacheableRenderStrategy for the source area and size they've been computed for
+  private final ImageQuadList m_quads = new ImageQuadList();
+  private boolean m_quadsValid;
+  private int m_quadsSrcX;
+  private int m_quadsSrcY;
+  private int m_quadsSrcW;
+  private int m_quadsSrcH;
+  private int m_quadsWidth;
+  private int m_quadsHeight;
+
   public CompoundImageMode(AreaProvider areaProvider, RenderStrategy renderStrategy) {
     m_areaProvider = areaProvider;
     m_renderStrategy = renderStrategy;
@@ -26,6 +39,7 @@ public class CompoundImageMode implements ImageMode {
 
     String renderStrategyProperty = ImageModeHelper.getRenderStrategyProperty(parameters);
     m_renderStrategy = imageModeFactory.getRenderStrategy(renderStrategyProperty);
+    m_quadsValid = false;
   }
 
   @Override
@@ -38,8 +52,42 @@ public class CompoundImageMode implements ImageMode {
       int height,
       Color color,
       float scale) {
-    m_renderStrategy.render(renderDevice, renderImage, m_areaProvider.getSourceArea(renderImage), x, y, width, height,
-        color, scale);
+    Box sourceArea = m_areaProvider.getSourceArea(renderImage);
+    if (m_renderStrategy instanceof CacheableRenderStrategy) {
+      if (!isQuadCacheValid(sourceArea, width, height)) {
+        updateQuadCache((CacheableRenderStrategy) m_renderStrategy, sourceArea, width, height);
+      }
+      m_quads.render(renderDevice, renderImage, x, y, width, height, color, scale);
+      return;
+    }
+    m_renderStrategy.render(renderDevice, renderImage, sourceArea, x, y, width, height, color, scale);
+  }
+
+  private boolean isQuadCacheValid(final Box sourceArea, final int width, final int height) {
+    return
+        m_quadsValid &&
+        m_quadsWidth == width &&
+        m_quadsHeight == height &&
+        m_quadsSrcX == sourceArea.getX() &&
+        m_quadsSrcY == sourceArea.getY() &&
+        m_quadsSrcW == sourceArea.getWidth() &&
+        m_quadsSrcH == sourceArea.getHeight();
+  }
+
+  private void updateQuadCache(
+      final CacheableRenderStrategy renderStrategy,
+      final Box sourceArea,
+      final int width,
+      final int height) {
+    m_quads.clear();
+    renderStrategy.addQuads(m_quads, sourceArea, width, height);
+    m_quadsSrcX = sourceArea.getX();
+    m_quadsSrcY = sourceArea.getY();
+    m_quadsSrcW = sourceArea.getWidth();
+    m_quadsSrcH = sourceArea.getHeight();
+    m_quadsWidth = width;
+    m_quadsHeight = height;
+    m_quadsValid = true;
   }
 
   @Override
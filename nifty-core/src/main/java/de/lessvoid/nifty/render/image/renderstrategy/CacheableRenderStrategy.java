@@ -0,0 +1,17 @@
+package de.lessvoid.nifty.render.image.renderstrategy;
+
+import de.lessvoid.nifty.layout.Box;
+
+/**
+ * A RenderStrategy that only depends on the source area and the size of the target area. The quads it renders can
+ * be computed once and reused as long as neither of them changes (see CompoundImageMode).
+ *
+ * @author void
+ */
+public interface CacheableRenderStrategy extends RenderStrategy {
+	/**
+	 * Add the quads to render the source area into a target area of the given size to the list. The target positions
+	 * are relative to the top left corner of the target area.
+	 */
+	void addQuads(ImageQuadList quads, Box sourceArea, int width, int height);
+}
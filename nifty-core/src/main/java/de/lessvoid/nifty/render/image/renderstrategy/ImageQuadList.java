@@ -0,0 +1,58 @@
+package de.lessvoid.nifty.render.image.renderstrategy;
+
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.tools.Color;
+
+/**
+ * The sub image quads an image is rendered with. The target position of each quad is stored relative to the
+ * top left corner of the target area. This way the list stays valid when the image is only moved.
+ *
+ * @author void
+ */
+public class ImageQuadList {
+	private static final int QUAD_SIZE = 8;
+
+	private int[] m_quads = new int[9 * QUAD_SIZE];
+	private int m_quadCount;
+
+	public void clear() {
+		m_quadCount = 0;
+	}
+
+	public void add(final int x, final int y, final int width, final int height, final int srcX, final int srcY,
+			final int srcW, final int srcH) {
+		if ((m_quadCount + 1) * QUAD_SIZE > m_quads.length) {
+			int[] newQuads = new int[m_quads.length * 2];
+			System.arraycopy(m_quads, 0, newQuads, 0, m_quadCount * QUAD_SIZE);
+			m_quads = newQuads;
+		}
+		int q = m_quadCount * QUAD_SIZE;
+		m_quads[q] = x;
+		m_quads[q + 1] = y;
+		m_quads[q + 2] = width;
+		m_quads[q + 3] = height;
+		m_quads[q + 4] = srcX;
+		m_quads[q + 5] = srcY;
+		m_quads[q + 6] = srcW;
+		m_quads[q + 7] = srcH;
+		m_quadCount++;
+	}
+
+	public int size() {
+		return m_quadCount;
+	}
+
+	/**
+	 * Render all quads with the top left corner of the target area at x, y.
+	 */
+	public void render(final RenderDevice renderDevice, final RenderImage image, final int x, final int y,
+			final int width, final int height, final Color color, final float scale) {
+		final int centerX = x + width / 2;
+		final int centerY = y + height / 2;
+		for (int q = 0; q < m_quadCount * QUAD_SIZE; q += QUAD_SIZE) {
+			renderDevice.renderImage(image, x + m_quads[q], y + m_quads[q + 1], m_quads[q + 2], m_quads[q + 3],
+					m_quads[q + 4], m_quads[q + 5], m_quads[q + 6], m_quads[q + 7], color, scale, centerX, centerY);
+		}
+	}
+}
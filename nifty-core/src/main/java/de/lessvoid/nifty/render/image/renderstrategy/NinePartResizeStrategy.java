@@ -7,7 +7,7 @@ import de.lessvoid.nifty.spi.render.RenderDevice;
 import de.lessvoid.nifty.spi.render.RenderImage;
 import de.lessvoid.nifty.tools.Color;
 
-public class NinePartResizeStrategy implements RenderStrategy {
+public class NinePartResizeStrategy implements CacheableRenderStrategy {
 	private static Logger log = Logger.getLogger(NinePartResizeStrategy.class.getName());
 
 	private static final int NINE_PART_RESIZE_ARGS_COUNT = 12;
@@ -15,7 +15,7 @@ public class NinePartResizeStrategy implements RenderStrategy {
 	private NinePartResizeRow m_row0;
 	private NinePartResizeRow m_row1;
 	private NinePartResizeRow m_row2;
-	private Box box = new Box();
+	private final ImageQuadList m_quads = new ImageQuadList();
 
 	@Override
 	public void setParameters(String parameters) {
@@ -44,9 +44,13 @@ public class NinePartResizeStrategy implements RenderStrategy {
 	@Override
 	public void render(RenderDevice device, RenderImage image, Box sourceArea, int x, int y, int width, int height,
 			Color color, float scale) {
-		final int cX = x + width / 2;
-		final int cY = y + height / 2;
+		m_quads.clear();
+		addQuads(m_quads, sourceArea, width, height);
+		m_quads.render(device, image, x, y, width, height, color, scale);
+	}
 
+	@Override
+	public void addQuads(ImageQuadList quads, Box sourceArea, int width, int height) {
 		final int srcX = sourceArea.getX();
 		final int srcW = sourceArea.getWidth();
 
@@ -64,52 +68,34 @@ public class NinePartResizeStrategy implements RenderStrategy {
 
 		final int midlH = height - srcH0 - srcH2;
 
-		final int y0 = y;
+		final int y0 = 0;
 		final int y1 = y0 + srcH0;
 		final int y2 = y1 + midlH;
 
-		box.setX(srcX);
-    box.setY(srcY0);
-    box.setWidth(srcW);
-    box.setHeight(srcH0);
-		renderRow(device, image, m_row0, box, x, y0, width, srcH0, color, scale, cX, cY);
-
-    box.setX(srcX);
-    box.setY(srcY1);
-    box.setWidth(srcW);
-    box.setHeight(srcH1);
-		renderRow(device, image, m_row1, box, x, y1, width, midlH, color, scale, cX, cY);
-
-    box.setX(srcX);
-    box.setY(srcY2);
-    box.setWidth(srcW);
-    box.setHeight(srcH2);
-		renderRow(device, image, m_row2, box, x, y2, width, srcH2, color, scale, cX, cY);
+		addRow(quads, m_row0, srcX, srcY0, srcH0, y0, width, srcH0);
+		addRow(quads, m_row1, srcX, srcY1, srcH1, y1, width, midlH);
+		addRow(quads, m_row2, srcX, srcY2, srcH2, y2, width, srcH2);
 	}
 
-	private void renderRow(final RenderDevice renderDevice, final RenderImage image, final NinePartResizeRow row,
-			final Box sourceArea, final int x, final int y, final int width, final int height, final Color color,
-			final float scale, final int centerX, final int centerY) {
-		final int srcY = sourceArea.getY();
-		final int srcH = sourceArea.getHeight();
-
+	private void addRow(final ImageQuadList quads, final NinePartResizeRow row, final int srcX, final int srcY,
+			final int srcH, final int y, final int width, final int height) {
 		final int srcW0 = row.getLeftWidth();
 		final int srcW1 = row.getMiddleWidth();
 		final int srcW2 = row.getRightWidth();
 
-		final int srcX0 = sourceArea.getX();
+		final int srcX0 = srcX;
 		final int srcX1 = srcX0 + srcW0;
 		final int srcX2 = srcX1 + srcW1;
 
 		final int midlW = width - srcW0 - srcW2;
 
-		final int x0 = x;
+		final int x0 = 0;
 		final int x1 = x0 + srcW0;
 		final int x2 = x1 + midlW;
 
-		renderDevice.renderImage(image, x0, y, srcW0, height, srcX0, srcY, srcW0, srcH, color, scale, centerX, centerY);
-		renderDevice.renderImage(image, x1, y, midlW, height, srcX1, srcY, srcW1, srcH, color, scale, centerX, centerY);
-		renderDevice.renderImage(image, x2, y, srcW2, height, srcX2, srcY, srcW2, srcH, color, scale, centerX, centerY);
+		quads.add(x0, y, srcW0, height, srcX0, srcY, srcW0, srcH);
+		quads.add(x1, y, midlW, height, srcX1, srcY, srcW1, srcH);
+		quads.add(x2, y, srcW2, height, srcX2, srcY, srcW2, srcH);
 	}
 
 	private static class NinePartResizeRow {
@@ -5,7 +5,8 @@ import de.lessvoid.nifty.spi.render.RenderDevice;
 import de.lessvoid.nifty.spi.render.RenderImage;
 import de.lessvoid.nifty.tools.Color;
 
-public class RepeatStrategy implements RenderStrategy {
+public class RepeatStrategy implements CacheableRenderStrategy {
+	private final ImageQuadList m_quads = new ImageQuadList();
 
 	@Override
 	public void setParameters(String parameters) {
@@ -18,22 +19,23 @@ public class RepeatStrategy implements RenderStrategy {
 	@Override
 	public void render(RenderDevice renderDevice, RenderImage image, Box sourceArea, int x, int y, int width,
 			int height, Color color, float scale) {
-		int centerX = x + width / 2;
-		int centerY = y + height / 2;
-
-		int endX = x + width;
-		int endY = y + height;
+		m_quads.clear();
+		addQuads(m_quads, sourceArea, width, height);
+		m_quads.render(renderDevice, image, x, y, width, height, color, scale);
+	}
 
-		int tileY = y;
-		while (tileY < endY) {
-			int tileHeight = Math.min(sourceArea.getHeight(), endY - tileY);
+	@Override
+	public void addQuads(ImageQuadList quads, Box sourceArea, int width, int height) {
+		int tileY = 0;
+		while (tileY < height) {
+			int tileHeight = Math.min(sourceArea.getHeight(), height - tileY);
 
-			int tileX = x;
-			while (tileX < endX) {
-				int tileWidth = Math.min(sourceArea.getWidth(), endX - tileX);
+			int tileX = 0;
+			while (tileX < width) {
+				int tileWidth = Math.min(sourceArea.getWidth(), width - tileX);
 
-				renderDevice.renderImage(image, tileX, tileY, tileWidth, tileHeight, sourceArea.getX(),
-						sourceArea.getY(), tileWidth, tileHeight, color, scale, centerX, centerY);
+				quads.add(tileX, tileY, tileWidth, tileHeight, sourceArea.getX(), sourceArea.getY(), tileWidth,
+						tileHeight);
 
 				tileX += tileWidth;
 			}
@@ -1,6 +1,7 @@
 package de.lessvoid.nifty.screen;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.input.NiftyMouseInputEvent;
@@ -29,6 +30,15 @@ public class MouseOverHandler {
    */
   private boolean interactElementInTransitAvailable = false;
 
+  /**
+   * Elements that need to see the next mouse event even if the mouse is not inside of them anymore. These are the
+   * elements the mouse has been inside of with the last event (to deactivate their hover effects) and the elements
+   * a mouse button has been pressed on (to receive the mouse move and release events). This is kept across reset().
+   */
+  private ArrayList < Element > trackedElements = new ArrayList < Element >();
+  private boolean[] trackedInside = new boolean[16];
+  private int[] trackedIndices = new int[16];
+
   /**
    * Reset mouse over elements.
    */
@@ -50,6 +60,76 @@ public class MouseOverHandler {
     mouseElements.add(element);
   }
 
+  /**
+   * Add the elements of the given MouseOverIndex that are affected by the mouse event. These are the elements of the
+   * grid cell below the mouse and the elements that have been tracked with the last mouse event. The elements are
+   * added in the same order Element.buildMouseOverElements() would add them. All other elements are not touched at
+   * all because the mouse event would not change anything for them.
+   * @param index the MouseOverIndex of the layers
+   * @param mouseEvent the current mouse event
+   */
+  void addElements(final MouseOverIndex index, final NiftyMouseInputEvent mouseEvent) {
+    int mouseX = mouseEvent.getMouseX();
+    int mouseY = mouseEvent.getMouseY();
+    int hitCount = index.query(mouseX, mouseY);
+    int trackedCount = getTrackedIndices(index);
+    trackedElements.clear();
+
+    int nextHit = 0;
+    int nextTracked = 0;
+    while (nextHit < hitCount || nextTracked < trackedCount) {
+      int hit = nextHit < hitCount ? index.getHit(nextHit) : Integer.MAX_VALUE;
+      int tracked = nextTracked < trackedCount ? trackedIndices[nextTracked] : Integer.MAX_VALUE;
+      int i = Math.min(hit, tracked);
+      if (hit == i) {
+        nextHit++;
+      }
+      if (tracked == i) {
+        nextTracked++;
+      }
+      Element element = index.getElement(i);
+      boolean isInside = hit == i && element.isMouseInsideElement(mouseX, mouseY);
+      element.addToMouseOverHandler(isInside, this);
+      if (isInside || element.hasActiveMouseInteraction()) {
+        addTrackedElement(element, isInside);
+      }
+    }
+  }
+
+  private void addTrackedElement(final Element element, final boolean isInside) {
+    if (trackedInside.length <= trackedElements.size()) {
+      boolean[] copy = new boolean[trackedInside.length * 2];
+      System.arraycopy(trackedInside, 0, copy, 0, trackedInside.length);
+      trackedInside = copy;
+    }
+    trackedInside[trackedElements.size()] = isInside;
+    trackedElements.add(element);
+  }
+
+  /**
+   * Collect the indices of the tracked elements that are still part of the index in ascending order. An element the
+   * mouse has not been inside of is only still tracked when the mouse button has not been released meanwhile.
+   * @return the number of indices in trackedIndices
+   */
+  private int getTrackedIndices(final MouseOverIndex index) {
+    if (trackedIndices.length < trackedElements.size()) {
+      trackedIndices = new int[trackedElements.size() * 2];
+    }
+    int count = 0;
+    for (int i=0; i<trackedElements.size(); i++) {
+      Element element = trackedElements.get(i);
+      if (!trackedInside[i] && !element.hasActiveMouseInteraction()) {
+        continue;
+      }
+      int elementIndex = index.indexOf(element);
+      if (elementIndex != -1) {
+        trackedIndices[count++] = elementIndex;
+      }
+    }
+    Arrays.sort(trackedIndices, 0, count);
+    return count;
+  }
+
   /**
    * Get current state as a String supposed for debug output.
    * @return info
@@ -0,0 +1,382 @@
+package de.lessvoid.nifty.screen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.lessvoid.nifty.elements.Element;
+
+/**
+ * A spatial index of all elements of a list of layers that could possibly process mouse events. The elements are kept
+ * in the same order Element.buildMouseOverElements() would visit them and their layout boxes are additionally sorted
+ * into a uniform grid. This way the elements below the mouse are found with a single grid cell lookup instead of
+ * walking the whole element tree for each and every mouse event.
+ *
+ * The index only caches layout and visibility. Everything else that decides if an element can handle mouse events
+ * (enabled, active effects, focus) is still checked by the MouseOverHandler for the elements a query returns. This
+ * means the index only needs to be invalidated when the visibility or the structure of the element tree has changed.
+ * Elements that are only moved by a layout keep their place in the element order, so only their grid cells are
+ * updated with the next call to update().
+ *
+ * Elements with hover effects that use a falloff area can react to the mouse outside of their layout box. They are
+ * returned by every query just like the elements that are too large for the grid.
+ *
+ * @author void
+ */
+class MouseOverIndex {
+  /**
+   * Size of a single grid cell in pixel.
+   */
+  private static final int CELL_SIZE = 64;
+
+  /**
+   * Elements that would cover more cells than this are not sorted into the grid but are checked for every query.
+   * This keeps the grid small for all the big background panels and layers.
+   */
+  private static final int MAX_CELLS_PER_ELEMENT = 64;
+
+  /**
+   * Marks the elements in elementCells that are kept in the list of large elements.
+   */
+  private static final int LARGE = Integer.MIN_VALUE;
+
+  private final ArrayList<Element> elements = new ArrayList<Element>();
+  private final Map<Element, Integer> elementIndices = new IdentityHashMap<Element, Integer>();
+  private int[][] cells = new int[0][];
+  private int[] cellCount = new int[0];
+  private int[] large = new int[16];
+  private int largeCount;
+  private int[] elementCells = new int[64];
+  private final ArrayList<Element> movedElements = new ArrayList<Element>();
+  private int originX;
+  private int originY;
+  private int columns;
+  private int rows;
+  private int[] hits = new int[16];
+  private int hitCount;
+  private boolean valid;
+
+  /**
+   * Mark this index as outdated. The next call to isValid() will return false.
+   */
+  public void invalidate() {
+    valid = false;
+  }
+
+  /**
+   * @return true when the index is still in sync with the element tree and false if it needs to be rebuild
+   */
+  public boolean isValid() {
+    return valid;
+  }
+
+  /**
+   * The layout box of the given element has been changed. The element is moved to the grid cells of its new box with
+   * the next call to update(). Elements that are not part of this index are ignored.
+   * @param element the element
+   */
+  public void elementMoved(final Element element) {
+    if (!valid) {
+      return;
+    }
+    // when about everything has moved a rebuild is cheaper
+    if (movedElements.size() >= elements.size()) {
+      valid = false;
+      return;
+    }
+    movedElements.add(element);
+  }
+
+  /**
+   * Bring the index up to date with the given layers. This moves the elements that have been moved since the last
+   * update or rebuilds the whole index when it has been invalidated.
+   * @param layers the layers to index
+   */
+  public void update(final List<Element> layers) {
+    if (valid) {
+      for (int i=0; i<movedElements.size() && valid; i++) {
+        Element element = movedElements.get(i);
+        int index = indexOf(element);
+        if (index != -1) {
+          move(index, element);
+        }
+      }
+      movedElements.clear();
+    }
+    if (!valid) {
+      rebuild(layers);
+    }
+  }
+
+  /**
+   * Rebuild the index from the current layout of the given layers.
+   * @param layers the layers to index
+   */
+  public void rebuild(final List<Element> layers) {
+    movedElements.clear();
+    elements.clear();
+    elementIndices.clear();
+    for (int i=0; i<layers.size(); i++) {
+      collect(layers.get(i));
+    }
+    for (int i=0; i<elements.size(); i++) {
+      elementIndices.put(elements.get(i), i);
+    }
+
+    int minX = Integer.MAX_VALUE;
+    int minY = Integer.MAX_VALUE;
+    int maxX = Integer.MIN_VALUE;
+    int maxY = Integer.MIN_VALUE;
+    for (int i=0; i<elements.size(); i++) {
+      Element element = elements.get(i);
+      minX = Math.min(minX, element.getX());
+      minY = Math.min(minY, element.getY());
+      maxX = Math.max(maxX, element.getX() + element.getWidth());
+      maxY = Math.max(maxY, element.getY() + element.getHeight());
+    }
+    if (elements.isEmpty()) {
+      minX = minY = maxX = maxY = 0;
+    }
+
+    originX = minX;
+    originY = minY;
+    columns = cellX(maxX) + 1;
+    rows = cellY(maxY) + 1;
+    if (cells.length < columns * rows) {
+      cells = new int[columns * rows][];
+      cellCount = new int[columns * rows];
+    } else {
+      for (int i=0; i<cellCount.length; i++) {
+        cellCount[i] = 0;
+      }
+    }
+    largeCount = 0;
+    elementCells = ensureCapacity(elementCells, elements.size() * 4);
+
+    for (int i=0; i<elements.size(); i++) {
+      insert(i, elements.get(i));
+    }
+    valid = true;
+  }
+
+  /**
+   * @return the number of elements in this index
+   */
+  public int size() {
+    return elements.size();
+  }
+
+  /**
+   * Get an indexed element. The elements are ordered the same way Element.buildMouseOverElements() would visit them.
+   * @param index the index of the element
+   * @return the element
+   */
+  public Element getElement(final int index) {
+    return elements.get(index);
+  }
+
+  /**
+   * Get the index of an element.
+   * @param element the element
+   * @return the index to be used with getElement() or -1 when the element is not part of this index
+   */
+  public int indexOf(final Element element) {
+    Integer index = elementIndices.get(element);
+    if (index == null) {
+      return -1;
+    }
+    return index;
+  }
+
+  /**
+   * Find all elements whose layout box contains the given position. The result is kept as a sorted list of element
+   * indices that can be accessed with getHit(). Note that this only tests the layout box. If an element really is
+   * under the mouse still needs to be checked with Element.isMouseInsideElement() (that takes the parent clip area
+   * into account as well).
+   *
+   * @param x x position
+   * @param y y position
+   * @return the number of candidates found
+   */
+  public int query(final int x, final int y) {
+    hitCount = 0;
+    int cellX = cellX(x);
+    int cellY = cellY(y);
+    if (cellX < 0 || cellY < 0 || cellX >= columns || cellY >= rows) {
+      // still need to check the large elements
+      mergeHits(null, 0);
+      return hitCount;
+    }
+    int cell = cellY * columns + cellX;
+    mergeHits(cells[cell], cellCount[cell]);
+    return hitCount;
+  }
+
+  /**
+   * Get the element index of the query result with the given index.
+   * @param index index into the query result (0 to query() - 1)
+   * @return element index to be used with getElement()
+   */
+  public int getHit(final int index) {
+    return hits[index];
+  }
+
+  private void collect(final Element element) {
+    if (!element.isVisible()) {
+      return;
+    }
+    if (element.isVisibleToMouseEvents()) {
+      elements.add(element);
+    }
+    List<Element> children = element.getElements();
+    for (int i=0; i<children.size(); i++) {
+      collect(children.get(i));
+    }
+  }
+
+  private void insert(final int index, final Element element) {
+    int x0 = cellX(element.getX());
+    int y0 = cellY(element.getY());
+    int x1 = cellX(element.getX() + element.getWidth());
+    int y1 = cellY(element.getY() + element.getHeight());
+    int offset = index * 4;
+    if (isLarge(element, x0, y0, x1, y1)) {
+      elementCells[offset] = LARGE;
+      large = insertSorted(large, largeCount++, index);
+      return;
+    }
+    elementCells[offset] = x0;
+    elementCells[offset + 1] = y0;
+    elementCells[offset + 2] = x1;
+    elementCells[offset + 3] = y1;
+    for (int y=y0; y<=y1; y++) {
+      for (int x=x0; x<=x1; x++) {
+        int cell = y * columns + x;
+        if (cells[cell] == null) {
+          cells[cell] = new int[4];
+        }
+        cells[cell] = insertSorted(cells[cell], cellCount[cell]++, index);
+      }
+    }
+  }
+
+  /**
+   * Move an element to the cells of its current layout box. An element that has been moved out of the grid
+   * invalidates the whole index instead.
+   */
+  private void move(final int index, final Element element) {
+    int x0 = cellX(element.getX());
+    int y0 = cellY(element.getY());
+    int x1 = cellX(element.getX() + element.getWidth());
+    int y1 = cellY(element.getY() + element.getHeight());
+    int offset = index * 4;
+    if (isLarge(element, x0, y0, x1, y1)) {
+      if (elementCells[offset] == LARGE) {
+        return;
+      }
+    } else {
+      if (elementCells[offset] == x0 &&
+          elementCells[offset + 1] == y0 &&
+          elementCells[offset + 2] == x1 &&
+          elementCells[offset + 3] == y1) {
+        return;
+      }
+      if (x0 < 0 || y0 < 0 || x1 >= columns || y1 >= rows) {
+        valid = false;
+        return;
+      }
+    }
+    remove(index);
+    insert(index, element);
+  }
+
+  private boolean isLarge(final Element element, final int x0, final int y0, final int x1, final int y1) {
+    return (x1 - x0 + 1) * (y1 - y0 + 1) > MAX_CELLS_PER_ELEMENT || element.hasHoverFalloffArea();
+  }
+
+  private void remove(final int index) {
+    int offset = index * 4;
+    if (elementCells[offset] == LARGE) {
+      largeCount = removeSorted(large, largeCount, index);
+      return;
+    }
+    for (int y=elementCells[offset + 1]; y<=elementCells[offset + 3]; y++) {
+      for (int x=elementCells[offset]; x<=elementCells[offset + 2]; x++) {
+        int cell = y * columns + x;
+        cellCount[cell] = removeSorted(cells[cell], cellCount[cell], index);
+      }
+    }
+  }
+
+  /**
+   * Both the cell lists and the list of large elements are kept sorted by element index. So we only need to merge them
+   * to keep the front to back order of the result.
+   */
+  private void mergeHits(final int[] cell, final int count) {
+    hits = ensureCapacity(hits, count + largeCount);
+    int c = 0;
+    int l = 0;
+    while (c < count || l < largeCount) {
+      if (l >= largeCount || (c < count && cell[c] < large[l])) {
+        hits[hitCount++] = cell[c++];
+      } else {
+        hits[hitCount++] = large[l++];
+      }
+    }
+  }
+
+  private int cellX(final int x) {
+    return floorDiv(x - originX, CELL_SIZE);
+  }
+
+  private int cellY(final int y) {
+    return floorDiv(y - originY, CELL_SIZE);
+  }
+
+  private static int floorDiv(final int value, final int divisor) {
+    if (value >= 0) {
+      return value / divisor;
+    }
+    return -((-value + divisor - 1) / divisor);
+  }
+
+  /**
+   * Insert the value into the sorted array with count values. Since the elements are inserted in order when the index
+   * is rebuild the value is usually just appended.
+   * @return the array or a larger copy if the array was full
+   */
+  private static int[] insertSorted(final int[] array, final int count, final int value) {
+    int[] result = ensureCapacity(array, count + 1);
+    int i = count;
+    while (i > 0 && result[i - 1] > value) {
+      result[i] = result[i - 1];
+      i--;
+    }
+    result[i] = value;
+    return result;
+  }
+
+  /**
+   * Remove the value from the sorted array with count values.
+   * @return the new count
+   */
+  private static int removeSorted(final int[] array, final int count, final int value) {
+    int i = Arrays.binarySearch(array, 0, count, value);
+    if (i < 0) {
+      return count;
+    }
+    System.arraycopy(array, i + 1, array, i, count - i - 1);
+    return count - 1;
+  }
+
+  private static int[] ensureCapacity(final int[] array, final int size) {
+    if (array.length >= size) {
+      return array;
+    }
+    int[] result = new int[Math.max(size, array.length * 2)];
+    System.arraycopy(array, 0, result, 0, array.length);
+    return result;
+  }
+}
@@ -53,6 +53,13 @@ public class Screen {
   private TimeProvider timeProvider;
   private FocusHandler focusHandler;
   private MouseOverHandler mouseOverHandler;
+
+  /**
+   * Spatial indices of the elements that can handle mouse events. One for the normal layers and one for the popups.
+   * They are rebuild lazily with the next mouse event after they have been invalidated.
+   */
+  private MouseOverIndex layerMouseOverIndex = new MouseOverIndex();
+  private MouseOverIndex popupMouseOverIndex = new MouseOverIndex();
   private Nifty nifty;
   private List < InputHandlerWithMapping > postInputHandlers = new ArrayList < InputHandlerWithMapping >();
   private List < InputHandlerWithMapping > preInputHandlers = new ArrayList < InputHandlerWithMapping >();
@@ -63,6 +70,17 @@ public class Screen {
 
   private boolean bound;
 
+  /**
+   * This is set to true when elements of this screen have been changed and the screen needs to be layouted again.
+   */
+  private boolean layoutScheduled;
+
+  /**
+   * This is set to true when the set of layers changed or invalidateRender() has been called. Changes of the elements
+   * themselves are tracked by the render dirty flags of the layer elements.
+   */
+  private boolean renderNeeded = true;
+
   public Screen(
       final Nifty newNifty,
       final String newId,
@@ -92,6 +110,25 @@ public class Screen {
     registeredIds.remove(id);
   }
 
+  /**
+   * Tell the screen that the layout, the visibility or the structure of its elements has changed. The
+   * index used to find the elements below the mouse will be rebuild with the next mouse event.
+   */
+  public void invalidateMouseOverIndex() {
+    layerMouseOverIndex.invalidate();
+    popupMouseOverIndex.invalidate();
+  }
+
+  /**
+   * Tell the screen that the layout box of an element has been changed by a layout. Only the entries of this element
+   * are updated in the index used to find the elements below the mouse with the next mouse event.
+   * @param element the element
+   */
+  public void mouseOverElementMoved(final Element element) {
+    layerMouseOverIndex.elementMoved(element);
+    popupMouseOverIndex.elementMoved(element);
+  }
+
   public String getScreenId() {
     return screenId;
   }
@@ -239,9 +276,35 @@ public class Screen {
       Element w = layerElements.get(i);
       w.layoutElements();
     }
+    layoutScheduled = false;
     NiftyStopwatch.stop("Screen.layoutLayers()");
   }
 
+  /**
+   * Request a new layout of this screen. The layout does not happen right away. All requests of a frame are
+   * collected and the screen is layouted only once with the next call to processScheduledLayout().
+   */
+  public void scheduleLayout() {
+    layoutScheduled = true;
+  }
+
+  /**
+   * @return true when a layout of this screen has been requested with scheduleLayout() but did not happen yet
+   */
+  public boolean isLayoutScheduled() {
+    return layoutScheduled;
+  }
+
+  /**
+   * Layout this screen when a layout has been requested since the last layout. Nifty calls this once each frame
+   * right before rendering.
+   */
+  public void processScheduledLayout() {
+    if (layoutScheduled) {
+      layoutLayers();
+    }
+  }
+
   private void resetLayers() {
     nifty.resetMouseInputEvents();
 
@@ -311,10 +374,40 @@ public class Screen {
    * @param renderDevice the renderDevice to use
    */
   public final void renderLayers(final NiftyRenderEngine renderDevice) {
+    renderNeeded = false;
     for (int i=0; i<layerElements.size(); i++) {
       Element layer = layerElements.get(i);
+      if (!layer.isRenderDirty() && renderDevice.replay(layer)) {
+        continue;
+      }
+      layer.resetRenderDirty();
+      renderDevice.beginRecording(layer);
       layer.render(renderDevice);
+      renderDevice.endRecording();
+    }
+  }
+
+  /**
+   * Check if the next frame of this screen will look any different compared to the last frame rendered.
+   * @return true when the screen needs to be rendered again and false if the last frame is still current
+   */
+  public boolean needsRender() {
+    if (renderNeeded || layoutScheduled || hasDynamicElements()) {
+      return true;
+    }
+    for (int i=0; i<layerElements.size(); i++) {
+      if (layerElements.get(i).isRenderDirty()) {
+        return true;
+      }
     }
+    return false;
+  }
+
+  /**
+   * Force needsRender() to return true until the next frame has been rendered.
+   */
+  public void invalidateRender() {
+    renderNeeded = true;
   }
 
   public void resetLayout() {
@@ -334,19 +427,23 @@ public class Screen {
       log.fine("screen mouseEvent: " + inputEvent.toString());
     }
     if (!popupElements.isEmpty()) {
-      return forwardMouseEventToLayers(popupElements, inputEvent);
+      return forwardMouseEventToLayers(popupElements, popupMouseOverIndex, inputEvent);
     } else {
-      return forwardMouseEventToLayers(layerElements, inputEvent);
+      return forwardMouseEventToLayers(layerElements, layerMouseOverIndex, inputEvent);
     }
   }
 
   /**
    * forward mouse event to the given layer list.
    * @param layerList layer list
+   * @param mouseOverIndex the MouseOverIndex for the layer list
    * @param inputEvent TODO
    * @return TODO
    */
-  private boolean forwardMouseEventToLayers(final List < Element > layerList, final NiftyMouseInputEvent inputEvent) {
+  private boolean forwardMouseEventToLayers(
+      final List < Element > layerList,
+      final MouseOverIndex mouseOverIndex,
+      final NiftyMouseInputEvent inputEvent) {
     mouseOverHandler.reset();
 
     long eventTime = timeProvider.getMsTime();
@@ -355,10 +452,8 @@ public class Screen {
       Element e = focusHandler.getMouseFocusElement();
       mouseOverHandler.addMouseOverElement(e);
     } else {
-      for (int i=0; i<layerList.size(); i++) {
-        Element layer = layerList.get(i);
-        layer.buildMouseOverElements(inputEvent, eventTime, mouseOverHandler);
-      }
+      mouseOverIndex.update(layerList);
+      mouseOverHandler.addElements(mouseOverIndex, inputEvent);
     }
 
     if (log.isLoggable(Level.FINER)) {
@@ -611,6 +706,9 @@ public class Screen {
       ElementWithEndNotify e = popupElementsToRemove.remove(0);
       e.remove();
     }
+
+    invalidateMouseOverIndex();
+    invalidateRender();
   }
 
   public boolean hasDynamicElements() {
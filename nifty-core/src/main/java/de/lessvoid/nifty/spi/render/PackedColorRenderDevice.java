@@ -0,0 +1,42 @@
+package de.lessvoid.nifty.spi.render;
+
+/**
+ * Optional extension of the RenderDevice. A RenderDevice implementing this interface gets colors as an int with
+ * 8 bit per component in the order red, green, blue, alpha (see Color.rgba8888()) whenever Nifty already has the
+ * color in this form. This way no Color instances need to be created or modified to pass a color to the RenderDevice.
+ *
+ * The methods are the same as the ones of the RenderDevice with the Color parameters replaced by a packed color.
+ *
+ * @author void
+ */
+public interface PackedColorRenderDevice extends RenderDevice {
+
+  /**
+   * Render a quad.
+   * @param color packed color
+   */
+  void renderQuad(int x, int y, int width, int height, int color);
+
+  /**
+   * Render a quad with different packed colors at the vertices.
+   */
+  void renderQuad(int x, int y, int width, int height, int topLeft, int topRight, int bottomRight, int bottomLeft);
+
+  /**
+   * Render the image.
+   * @param color packed color
+   */
+  void renderImage(RenderImage image, int x, int y, int width, int height, int color, float imageScale);
+
+  /**
+   * Render a sub image of this image.
+   * @param color packed color
+   */
+  void renderImage(RenderImage image, int x, int y, int w, int h, int srcX, int srcY, int srcW, int srcH, int color, float scale, int centerX, int centerY);
+
+  /**
+   * Render the given text at the given position.
+   * @param fontColor packed font color
+   */
+  void renderFont(RenderFont font, String text, int x, int y, int fontColor, float sizeX, float sizeY);
+}
@@ -364,6 +364,74 @@ public class Color {
     }
   }
 
+  /**
+   * @return this color packed into an int with 8 bit per component (see rgba8888())
+   */
+  public int toRGBA8888() {
+    return rgba8888(red, green, blue, alpha);
+  }
+
+  /**
+   * Set all components of this color from an int packed with rgba8888().
+   * @param rgba the packed color
+   */
+  public void fromRGBA8888(final int rgba) {
+    red = ((rgba >>> 24) & 0xFF) / MAX_INT_VALUE;
+    green = ((rgba >>> 16) & 0xFF) / MAX_INT_VALUE;
+    blue = ((rgba >>> 8) & 0xFF) / MAX_INT_VALUE;
+    alpha = (rgba & 0xFF) / MAX_INT_VALUE;
+  }
+
+  /**
+   * Pack the given components into an int with 8 bit per component. Red is stored in the highest byte and alpha in
+   * the lowest (RGBA8888). Components outside of [0,1] are clamped.
+   * @return the packed color
+   */
+  public static int rgba8888(final float red, final float green, final float blue, final float alpha) {
+    return (toByte(red) << 24) | (toByte(green) << 16) | (toByte(blue) << 8) | toByte(alpha);
+  }
+
+  /**
+   * Replace the alpha component of a packed color.
+   * @param rgba the packed color
+   * @param alpha the new alpha value in [0,255]
+   * @return the packed color with the new alpha value
+   */
+  public static int withAlpha(final int rgba, final int alpha) {
+    return (rgba & 0xFFFFFF00) | (alpha & 0xFF);
+  }
+
+  /**
+   * Linear interpolate between two packed colors.
+   * @param start start color
+   * @param end end color
+   * @param t t in [0,1]
+   * @return the packed color
+   */
+  public static int linear(final int start, final int end, final float t) {
+    int f = toByte(t);
+    int result = 0;
+    for (int shift=0; shift<32; shift+=8) {
+      int s = (start >>> shift) & 0xFF;
+      int e = (end >>> shift) & 0xFF;
+      result |= ((s * (255 - f) + e * f + 127) / 255) << shift;
+    }
+    return result;
+  }
+
+  /**
+   * @return the given component in [0,1] scaled to [0,255]
+   */
+  public static int toByte(final float value) {
+    if (value <= 0.f) {
+      return 0;
+    }
+    if (value >= 1.f) {
+      return 0xFF;
+    }
+    return (int) (value * MAX_INT_VALUE + 0.5f);
+  }
+
   public static Color randomColor() {
     Random random = new Random();
     return new Color(random.nextFloat(), random.nextFloat(), random.nextFloat(), 1.f);
@@ -142,6 +142,15 @@ public class TimeInterpolator {
     }
   }
 
+  /**
+   * Check if the value is not going to change with the next calls to update(). This is the case for infinite effects
+   * once their start delay has passed.
+   * @return true when the value is final
+   */
+  public boolean isConstant() {
+    return interpolatorProvider instanceof NullTime && value == 1.0f;
+  }
+
   /**
    * get the current value [0.0, 1.0].
    * @return the current value
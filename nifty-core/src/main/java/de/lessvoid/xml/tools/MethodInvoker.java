@@ -4,6 +4,7 @@ import java.lang.reflect.Method;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import de.lessvoid.xml.tools.MethodResolver.ResolvedMethod;
 
 /**
  * A object and a method for the object.
@@ -84,8 +85,10 @@ public class MethodInvoker {
     // process all methods (first one wins)
     for (Object object : target) {
       if (object != null) {
-        Method method = MethodResolver.findMethod(object.getClass(), methodWithName);
-        if (method != null) {
+        // the method and the parameters encoded in methodWithName are resolved only once per class
+        ResolvedMethod resolved = MethodResolver.resolveMethod(object.getClass(), methodWithName);
+        if (resolved != null) {
+          Method method = resolved.getMethod();
           // we've found a method with the given name. now we need to match the parameters.
           //
           // 1) if the target method has parameters encoded we ignore the invokeParametersParam we've been
@@ -94,11 +97,11 @@ public class MethodInvoker {
           //    2a) invokeParametersParam are given, in this case we'll try to forward them to the method
           //        if this is not possible we fall back to 2b)
           //    2b) just call the method without any parameters
-          Object[] invokeParameters = MethodResolver.extractParameters(methodWithName);
+          Object[] invokeParameters = resolved.getParameters();
           if (invokeParameters.length > 0) {
             // does the method supports the parameters?
             // TODO: not only check for the count but check the type too
-            if (getMethodParameterCount(method) == invokeParameters.length) {
+            if (resolved.getMethodParameterCount() == invokeParameters.length) {
               if (log.isLoggable(Level.FINE)) {
                 log.fine("invoking method '" + methodWithName + "' with (" + debugParaString(invokeParameters) + ")");
               }
@@ -107,12 +110,12 @@ public class MethodInvoker {
               if (log.isLoggable(Level.FINE)) {
                 log.fine("invoking method '" + methodWithName + "' (note: given invokeParameters have been ignored)");
               }
-              return callMethod(object, method, new Object[0]);
+              return callMethod(object, method, null);
             }
           } else {
             // no invokeParameters encoded. this means we can call the method as is or with the invokeParametersParam
             if (invokeParametersParam.length > 0) {
-              if (getMethodParameterCount(method) == invokeParametersParam.length) {
+              if (resolved.getMethodParameterCount() == invokeParametersParam.length) {
                 if (log.isLoggable(Level.FINE)) {
                   log.fine("invoking method '" + methodWithName + "' with the actual parameters ("
                     + debugParaString(invokeParametersParam) + ")");
@@ -178,16 +181,6 @@ public class MethodInvoker {
     }
   }
 
-  /**
-   * return count of actual method parameters.
-   * @param method method
-   * @return count of parameters the method needs
-   */
-  private int getMethodParameterCount(final Method method) {
-    Class < ? > [] parameterTypes = method.getParameterTypes();
-    return parameterTypes.length;
-  }
-
   /**
    * helper method to convert the given parameter object array into a string for debugging.
    * @param invokeParameters parameter array
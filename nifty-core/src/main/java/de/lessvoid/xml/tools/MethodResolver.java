@@ -1,7 +1,13 @@
 package de.lessvoid.xml.tools;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
 
 /**
@@ -11,6 +17,15 @@ import java.util.logging.Logger;
 public class MethodResolver {
   private static Logger log = Logger.getLogger(MethodResolver.class.getName());
 
+  private static final ResolvedMethod notFound = new ResolvedMethod(null, new String[0]);
+
+  // the classes are only weakly referenced and the methods of a class (that reference the class again) only softly
+  // so that the cache does not keep classes and their classloaders alive. the keys of collected classes are enqueued
+  // in collectedClasses and removed when the next class is added.
+  private static final ConcurrentMap<ClassKey, SoftReference<ConcurrentMap<String, ResolvedMethod>>> resolvedMethods =
+    new ConcurrentHashMap<ClassKey, SoftReference<ConcurrentMap<String, ResolvedMethod>>>();
+  private static final ReferenceQueue<Class<?>> collectedClasses = new ReferenceQueue<Class<?>>();
+
   /**
    * you can't instantiate this class it's a helper class.
    */
@@ -41,6 +56,55 @@ public class MethodResolver {
     return findMethod(c.getSuperclass(), methodName);
   }
 
+  /**
+   * Same as findMethod() but the result is cached per class and method string together with the parameters
+   * encoded in the method string. This way the methods of the class are only searched once and the method string is
+   * only parsed once. That a method could not be found is cached as well.
+   * @param c the class to look for
+   * @param methodName the methodName with optional parameters like "method(a, b)"
+   * @return the ResolvedMethod or null when there is no such method
+   */
+  public static ResolvedMethod resolveMethod(final Class < ? > c, final String methodName) {
+    if (c == null || methodName == null) {
+      return null;
+    }
+    ConcurrentMap<String, ResolvedMethod> methods = getResolvedMethods(c);
+    ResolvedMethod resolved = methods.get(methodName);
+    if (resolved == null) {
+      Method method = findMethod(c, methodName);
+      if (method == null) {
+        resolved = notFound;
+      } else {
+        makeAccessible(method);
+        resolved = new ResolvedMethod(method, extractParameters(methodName));
+      }
+      ResolvedMethod existing = methods.putIfAbsent(methodName, resolved);
+      if (existing != null) {
+        resolved = existing;
+      }
+    }
+    if (resolved == notFound) {
+      return null;
+    }
+    return resolved;
+  }
+
+  private static ConcurrentMap<String, ResolvedMethod> getResolvedMethods(final Class<?> c) {
+    SoftReference<ConcurrentMap<String, ResolvedMethod>> ref = resolvedMethods.get(new StrongClassKey(c));
+    ConcurrentMap<String, ResolvedMethod> methods = ref == null ? null : ref.get();
+    if (methods != null) {
+      return methods;
+    }
+    Reference<? extends Class<?>> collected;
+    while ((collected = collectedClasses.poll()) != null) {
+      resolvedMethods.remove(collected);
+    }
+    methods = new ConcurrentHashMap<String, ResolvedMethod>();
+    resolvedMethods.put(
+        new WeakClassKey(c, collectedClasses), new SoftReference<ConcurrentMap<String, ResolvedMethod>>(methods));
+    return methods;
+  }
+
   public static Method findMethodWithArgs(final Class<?> c, final String methodName, final Class<?> ... parameters) {
     if (c == null) {
       return null;
@@ -99,4 +163,112 @@ public class MethodResolver {
     }
     return methodName.substring(0, methodName.indexOf('('));
   }
+
+  /**
+   * Skip the access checks when the method is invoked. This is only an optimization so when we're not allowed to do
+   * this the method is still called with the access checks.
+   * @param method the method
+   */
+  private static void makeAccessible(final Method method) {
+    try {
+      method.setAccessible(true);
+    } catch (SecurityException e) {
+      log.fine("could not make method [" + method + "] accessible: " + e.getMessage());
+    }
+  }
+
+  /**
+   * A method found by resolveMethod() together with the parameters encoded in the method string.
+   * @author void
+   */
+  public static class ResolvedMethod {
+    private final Method method;
+    private final String[] parameters;
+    private final int methodParameterCount;
+
+    private ResolvedMethod(final Method method, final String[] parameters) {
+      this.method = method;
+      this.parameters = parameters;
+      this.methodParameterCount = method == null ? 0 : method.getParameterTypes().length;
+    }
+
+    public Method getMethod() {
+      return method;
+    }
+
+    /**
+     * The parameters encoded in the method string. The array is shared and must not be modified.
+     * @return array of strings with the parameters or an empty array
+     */
+    public String[] getParameters() {
+      return parameters;
+    }
+
+    /**
+     * @return count of parameters the method needs
+     */
+    public int getMethodParameterCount() {
+      return methodParameterCount;
+    }
+  }
+  /**
+   * The key of a class in resolvedMethods. Keys are equal when they refer to the same class.
+   */
+  private interface ClassKey {
+    Class<?> getKeyClass();
+  }
+
+  private static class WeakClassKey extends WeakReference<Class<?>> implements ClassKey {
+    private final int hash;
+
+    private WeakClassKey(final Class<?> c, final ReferenceQueue<Class<?>> queue) {
+      super(c, queue);
+      this.hash = System.identityHashCode(c);
+    }
+
+    @Override
+    public Class<?> getKeyClass() {
+      return get();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      Class<?> c = get();
+      return c != null && o instanceof ClassKey && ((ClassKey) o).getKeyClass() == c;
+    }
+  }
+
+  /**
+   * Used to look up a class without creating a WeakReference each time.
+   */
+  private static class StrongClassKey implements ClassKey {
+    private final Class<?> c;
+
+    private StrongClassKey(final Class<?> c) {
+      this.c = c;
+    }
+
+    @Override
+    public Class<?> getKeyClass() {
+      return c;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(c);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof ClassKey && ((ClassKey) o).getKeyClass() == c;
+    }
+  }
 }
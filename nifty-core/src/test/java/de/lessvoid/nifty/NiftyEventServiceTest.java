@@ -0,0 +1,212 @@
+package de.lessvoid.nifty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.bushe.swing.event.EventTopicSubscriber;
+import org.bushe.swing.event.ProxySubscriber;
+import org.bushe.swing.event.VetoTopicEventListener;
+import org.bushe.swing.event.annotation.ReferenceStrength;
+import org.junit.Test;
+
+public class NiftyEventServiceTest {
+  private NiftyEventService eventService = new NiftyEventService();
+  private List<String> received = new ArrayList<String>();
+
+  @Test
+  public void testPublishToTopicAndMatchingPatterns() {
+    eventService.subscribeStrongly(Pattern.compile("a.*"), new Recorder("pattern"));
+    eventService.subscribeStrongly("abc", new Recorder("topic"));
+    eventService.subscribeStrongly(Pattern.compile("x.*"), new Recorder("other"));
+    eventService.publish("abc", "event");
+    assertReceived("topic:abc:event", "pattern:abc:event");
+  }
+
+  @Test
+  public void testSubscribeAgainMovesSubscriberToTheEnd() {
+    Recorder first = new Recorder("first");
+    assertTrue(eventService.subscribeStrongly("id", first));
+    eventService.subscribeStrongly("id", new Recorder("second"));
+    assertFalse(eventService.subscribeStrongly("id", first));
+    eventService.publish("id", "event");
+    assertReceived("second:id:event", "first:id:event");
+  }
+
+  @Test
+  public void testUnsubscribe() {
+    Recorder recorder = new Recorder("topic");
+    eventService.subscribeStrongly("id", recorder);
+    assertTrue(eventService.unsubscribe("id", recorder));
+    assertFalse(eventService.unsubscribe("id", recorder));
+    eventService.publish("id", "event");
+    assertReceived();
+  }
+
+  @Test
+  public void testUnsubscribePatternWithNewPatternInstance() {
+    Recorder recorder = new Recorder("pattern");
+    eventService.subscribeStrongly(Pattern.compile("a.*"), recorder);
+    eventService.publish("abc", "1");
+    assertTrue(eventService.unsubscribe(Pattern.compile("a.*"), recorder));
+    eventService.publish("abc", "2");
+    assertReceived("pattern:abc:1");
+  }
+
+  @Test
+  public void testUnsubscribeProxiedSubscriber() {
+    Object target = new Object();
+    Proxy proxy = new Proxy(target);
+    eventService.subscribeStrongly("id", proxy);
+    assertTrue(eventService.unsubscribe("id", target));
+    assertTrue(proxy.unsubscribed);
+    assertTrue(eventService.getSubscribers("id").isEmpty());
+  }
+
+  @Test
+  public void testUnsubscribeWhilePublishing() {
+    final Recorder second = new Recorder("second");
+    eventService.subscribeStrongly("id", new EventTopicSubscriber<String>() {
+      @Override
+      public void onEvent(final String topic, final String data) {
+        received.add("first:" + topic + ":" + data);
+        eventService.unsubscribe("id", second);
+      }
+    });
+    eventService.subscribeStrongly("id", second);
+    eventService.publish("id", "1");
+    eventService.publish("id", "2");
+    assertReceived("first:id:1", "second:id:1", "first:id:2");
+  }
+
+  @Test
+  public void testExceptionOfSubscriberDoesNotStopPublishing() {
+    eventService.subscribeStrongly("id", new EventTopicSubscriber<String>() {
+      @Override
+      public void onEvent(final String topic, final String data) {
+        throw new IllegalStateException("expected by test");
+      }
+    });
+    eventService.subscribeStrongly("id", new Recorder("second"));
+    eventService.publish("id", "event");
+    assertReceived("second:id:event");
+  }
+
+  @Test
+  public void testGetSubscribers() {
+    Recorder topic = new Recorder("topic");
+    Recorder pattern = new Recorder("pattern");
+    eventService.subscribe("abc", topic);
+    eventService.subscribeStrongly(Pattern.compile("a.*"), pattern);
+    assertEquals(Arrays.asList(topic, pattern), eventService.getSubscribers("abc"));
+    assertEquals(Arrays.asList(topic), eventService.getSubscribersToTopic("abc"));
+    assertEquals(Arrays.asList(pattern), eventService.getSubscribersByPattern("abc"));
+    eventService.clearAllSubscribers();
+    assertTrue(eventService.getSubscribers("abc").isEmpty());
+  }
+
+  @Test
+  public void testHasSubscribers() {
+    Recorder recorder = new Recorder("pattern");
+    assertFalse(eventService.hasSubscribers("abc"));
+    eventService.subscribeStrongly(Pattern.compile("a.*"), recorder);
+    assertTrue(eventService.hasSubscribers("abc"));
+    assertFalse(eventService.hasSubscribers("xyz"));
+    eventService.unsubscribe(Pattern.compile("a.*"), recorder);
+    assertFalse(eventService.hasSubscribers("abc"));
+  }
+
+  @Test
+  public void testProxySubscriberThatLostItsSubscriberIsRemoved() {
+    Proxy proxy = new Proxy(new Object());
+    eventService.subscribeStrongly("id", proxy);
+    eventService.subscribeStrongly("id", new Recorder("topic"));
+
+    // the proxied subscriber has been garbage collected
+    proxy.target = null;
+    assertTrue(eventService.hasSubscribers("id"));
+    eventService.publish("id", "event");
+    assertTrue(proxy.unsubscribed);
+    assertEquals(1, eventService.getSubscribersToTopic("id").size());
+    assertReceived("topic:id:event");
+  }
+
+  @Test
+  public void testTopicVetoListenerIsHandledByThreadSafeEventService() {
+    Recorder recorder = new Recorder("topic");
+    eventService.subscribeStrongly("id", recorder);
+    eventService.subscribeVetoListenerStrongly("id", new VetoTopicEventListener<Object>() {
+      @Override
+      public boolean shouldVeto(final String topic, final Object data) {
+        return "veto".equals(data);
+      }
+    });
+    eventService.publish("id", "veto");
+    eventService.publish("id", "event");
+    assertReceived("topic:id:event");
+    assertEquals(Arrays.asList(recorder), eventService.getSubscribersToTopic("id"));
+    assertTrue(eventService.hasSubscribers("id"));
+
+    assertTrue(eventService.unsubscribe("id", recorder));
+    assertFalse(eventService.hasSubscribers("id"));
+  }
+
+  @Test
+  public void testTopicCachingIsHandledByThreadSafeEventService() {
+    eventService.subscribeStrongly("id", new Recorder("topic"));
+    eventService.setCacheSizeForTopic("id", 1);
+    eventService.publish("id", "event");
+    assertReceived("topic:id:event");
+    assertEquals("event", eventService.getLastTopicData("id"));
+  }
+
+  private void assertReceived(final String ... expected) {
+    assertEquals(Arrays.asList(expected), received);
+  }
+
+  private class Recorder implements EventTopicSubscriber<String> {
+    private final String name;
+
+    private Recorder(final String name) {
+      this.name = name;
+    }
+
+    @Override
+    public void onEvent(final String topic, final String data) {
+      received.add(name + ":" + topic + ":" + data);
+    }
+  }
+
+  private static class Proxy implements EventTopicSubscriber<Object>, ProxySubscriber {
+    private Object target;
+    private boolean unsubscribed;
+
+    private Proxy(final Object target) {
+      this.target = target;
+    }
+
+    @Override
+    public void onEvent(final String topic, final Object data) {
+    }
+
+    @Override
+    public Object getProxiedSubscriber() {
+      return target;
+    }
+
+    @Override
+    public void proxyUnsubscribed() {
+      unsubscribed = true;
+    }
+
+    @Override
+    public ReferenceStrength getReferenceStrength() {
+      return ReferenceStrength.STRONG;
+    }
+  }
+}
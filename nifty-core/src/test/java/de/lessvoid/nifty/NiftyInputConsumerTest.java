@@ -0,0 +1,187 @@
+package de.lessvoid.nifty;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.input.NiftyMouseInputEvent;
+import de.lessvoid.nifty.input.keyboard.KeyboardInputEvent;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.screen.DefaultScreenController;
+import de.lessvoid.nifty.screen.Screen;
+import de.lessvoid.nifty.spi.input.InputSystem;
+import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
+
+public class NiftyInputConsumerTest {
+  private List<String> received = new ArrayList<String>();
+  private ScriptedInputSystem inputSystem = new ScriptedInputSystem();
+  private Nifty nifty;
+
+  @Before
+  public void before() {
+    nifty = new Nifty(new NullRenderDevice() {
+      @Override
+      public int getWidth() {
+        return 1024;
+      }
+
+      @Override
+      public int getHeight() {
+        return 768;
+      }
+    }, new NullSoundDevice(), inputSystem, new AccurateTimeProvider());
+    nifty.setCoalesceMouseMoveEvents(true);
+    nifty.addScreen("test", new RecordingScreen(nifty));
+    nifty.gotoScreen("test");
+  }
+
+  @Test
+  public void testMouseMovesAreCoalesced() {
+    inputSystem.mouse(10, 10, 0, -1, false);
+    inputSystem.mouse(20, 20, 0, -1, false);
+    inputSystem.mouse(30, 30, 0, -1, false);
+    nifty.update();
+    assertReceived("mouse 30,30");
+    assertEquals(2, nifty.getFrameStats().getCoalescedMouseMoveCount());
+  }
+
+  @Test
+  public void testMouseMovesAreNotCoalescedWhenDisabled() {
+    nifty.setCoalesceMouseMoveEvents(false);
+    inputSystem.mouse(10, 10, 0, -1, false);
+    inputSystem.mouse(20, 20, 0, -1, false);
+    nifty.update();
+    assertReceived("mouse 10,10", "mouse 20,20");
+    assertEquals(0, nifty.getFrameStats().getCoalescedMouseMoveCount());
+  }
+
+  @Test
+  public void testButtonEventProcessesPendingMouseMoveFirst() {
+    inputSystem.mouse(10, 10, 0, -1, false);
+    inputSystem.mouse(20, 20, 0, -1, false);
+    inputSystem.mouse(20, 20, 0, 0, true);
+    inputSystem.mouse(30, 30, 0, 0, true);
+    inputSystem.mouse(40, 40, 0, 0, true);
+    inputSystem.mouse(40, 40, 0, 0, false);
+    nifty.update();
+    // moving with the button held down is coalesced as well
+    assertReceived("mouse 20,20", "mouse 20,20 button0", "mouse 40,40 button0", "mouse 40,40");
+    assertEquals(2, nifty.getFrameStats().getCoalescedMouseMoveCount());
+  }
+
+  @Test
+  public void testWheelEventProcessesPendingMouseMoveFirst() {
+    inputSystem.mouse(10, 10, 0, -1, false);
+    inputSystem.mouse(20, 20, 0, -1, false);
+    inputSystem.mouse(20, 20, 1, -1, false);
+    nifty.update();
+    assertReceived("mouse 20,20", "mouse 20,20 wheel 1");
+  }
+
+  @Test
+  public void testKeyboardEventProcessesPendingMouseMoveFirst() {
+    inputSystem.mouse(10, 10, 0, -1, false);
+    inputSystem.mouse(20, 20, 0, -1, false);
+    inputSystem.key(new KeyboardInputEvent(KeyboardInputEvent.KEY_A, 'a', true, false, false));
+    inputSystem.mouse(30, 30, 0, -1, false);
+    nifty.update();
+    assertReceived("mouse 20,20", "key a", "mouse 30,30");
+  }
+
+  @Test
+  public void testEndOfEventsProcessesPendingMouseMove() {
+    inputSystem.mouse(10, 10, 0, -1, false);
+    inputSystem.mouse(20, 20, 0, -1, false);
+    nifty.update();
+    assertReceived("mouse 20,20");
+    assertEquals(1, nifty.getFrameStats().getCoalescedMouseMoveCount());
+
+    // the count is reset and nothing is left over for the next frame
+    nifty.update();
+    assertReceived();
+    assertEquals(0, nifty.getFrameStats().getCoalescedMouseMoveCount());
+  }
+
+  private void assertReceived(final String ... expected) {
+    assertEquals(Arrays.asList(expected), received);
+    received.clear();
+  }
+
+  /**
+   * Forwards the events that have been added since the last frame.
+   */
+  private static class ScriptedInputSystem implements InputSystem {
+    private List<Object[]> events = new ArrayList<Object[]>();
+
+    public void mouse(final int x, final int y, final int wheel, final int button, final boolean buttonDown) {
+      events.add(new Object[] { x, y, wheel, button, buttonDown });
+    }
+
+    public void key(final KeyboardInputEvent keyEvent) {
+      events.add(new Object[] { keyEvent });
+    }
+
+    @Override
+    public void setResourceLoader(final NiftyResourceLoader niftyResourceLoader) {
+    }
+
+    @Override
+    public void forwardEvents(final NiftyInputConsumer inputEventConsumer) {
+      for (Object[] event : events) {
+        if (event.length == 1) {
+          inputEventConsumer.processKeyboardEvent((KeyboardInputEvent) event[0]);
+        } else {
+          inputEventConsumer.processMouseEvent(
+              (Integer) event[0], (Integer) event[1], (Integer) event[2], (Integer) event[3], (Boolean) event[4]);
+        }
+      }
+      events.clear();
+    }
+
+    @Override
+    public void setMousePosition(final int x, final int y) {
+    }
+  }
+
+  /**
+   * A screen that only records the events it receives.
+   */
+  private class RecordingScreen extends Screen {
+    private RecordingScreen(final Nifty nifty) {
+      super(nifty, "test", new DefaultScreenController(), new AccurateTimeProvider());
+    }
+
+    @Override
+    public void startScreen(final EndNotify startScreenEndNotify) {
+      if (startScreenEndNotify != null) {
+        startScreenEndNotify.perform();
+      }
+    }
+
+    @Override
+    public boolean mouseEvent(final NiftyMouseInputEvent inputEvent) {
+      String event = "mouse " + inputEvent.getMouseX() + "," + inputEvent.getMouseY();
+      if (inputEvent.isButton0Down()) {
+        event += " button0";
+      }
+      if (inputEvent.getMouseWheel() != 0) {
+        event += " wheel " + inputEvent.getMouseWheel();
+      }
+      received.add(event);
+      return false;
+    }
+
+    @Override
+    public boolean keyEvent(final KeyboardInputEvent inputEvent) {
+      received.add("key " + inputEvent.getCharacter());
+      return false;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package de.lessvoid.nifty.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import de.lessvoid.nifty.batch.GlyphRunCache.GlyphRun;
+import de.lessvoid.nifty.tools.Color;
+
+public class GlyphRunCacheTest {
+  private GlyphRunCache cache = new GlyphRunCache(2);
+  private Color white = new Color(1.f, 1.f, 1.f, 1.f);
+
+  @Test
+  public void testHitAndMiss() {
+    GlyphRun run = new GlyphRun();
+    assertNull(cache.get(null, "text", 1.f, 1.f, white));
+    cache.put(null, "text", 1.f, 1.f, white, run);
+    assertSame(run, cache.get(null, "text", 1.f, 1.f, white));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void testKeyContainsScaleAndColor() {
+    cache.put(null, "text", 1.f, 1.f, white, new GlyphRun());
+    assertNull(cache.get(null, "text", 2.f, 1.f, white));
+    assertNull(cache.get(null, "text", 1.f, 2.f, white));
+    assertNull(cache.get(null, "text", 1.f, 1.f, new Color(1.f, 0.f, 1.f, 1.f)));
+    assertNull(cache.get(null, "other", 1.f, 1.f, white));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() {
+    cache.put(null, "a", 1.f, 1.f, white, new GlyphRun());
+    cache.put(null, "b", 1.f, 1.f, white, new GlyphRun());
+    cache.get(null, "a", 1.f, 1.f, white);
+    cache.put(null, "c", 1.f, 1.f, white, new GlyphRun());
+    assertEquals(2, cache.size());
+    assertNotNull(cache.get(null, "a", 1.f, 1.f, white));
+    assertNull(cache.get(null, "b", 1.f, 1.f, white));
+    assertNotNull(cache.get(null, "c", 1.f, 1.f, white));
+  }
+
+  @Test
+  public void testDisable() {
+    cache.put(null, "a", 1.f, 1.f, white, new GlyphRun());
+    cache.setMaxSize(0);
+    assertFalse(cache.isEnabled());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testGlyphRun() {
+    GlyphRun run = new GlyphRun();
+    for (int i=0; i<20; i++) {
+      run.add(null, i, 2.f, 3.f, 4.f, new Color(0.5f, 0.25f, 1.f, 1.f), i * 10, 6, 7, 8);
+    }
+    assertEquals(20, run.size());
+    assertEquals(19.f, run.getX(19), 0.f);
+    assertEquals(2.f, run.getY(19), 0.f);
+    assertEquals(3.f, run.getWidth(19), 0.f);
+    assertEquals(4.f, run.getHeight(19), 0.f);
+    assertEquals(190, run.getTextureX(19));
+    assertEquals(6, run.getTextureY(19));
+    assertEquals(7, run.getTextureWidth(19));
+    assertEquals(8, run.getTextureHeight(19));
+    Color color = new Color(0.f, 0.f, 0.f, 0.f);
+    run.getColor(19, color);
+    assertEquals(0.25f, color.getGreen(), 0.f);
+  }
+}
@@ -0,0 +1,116 @@
+package de.lessvoid.nifty.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import de.lessvoid.nifty.batch.TextureAtlasGenerator.Relocation;
+import de.lessvoid.nifty.batch.TextureAtlasGenerator.Result;
+
+public class MaxRectsTextureAtlasPackerTest {
+  private MaxRectsTextureAtlasPacker packer = new MaxRectsTextureAtlasPacker(100, 100);
+
+  @Test
+  public void testAddWithPadding() {
+    assertResult(0, 0, 20, 20, packer.add("name-1", 20, 20, 5));
+    assertEquals(25 * 25, packer.getUsedArea());
+  }
+
+  @Test
+  public void testPaddingIsIgnoredAtTheBorder() {
+    assertResult(0, 0, 100, 100, packer.add("name-1", 100, 100, 5));
+    assertEquals(0, packer.getFreeArea());
+    assertNull(packer.add("name-2", 1, 1, 0));
+  }
+
+  @Test
+  public void testDoesNotFit() {
+    assertNull(packer.add("name-1", 101, 10, 0));
+  }
+
+  @Test
+  public void testRemovedSpaceIsMerged() {
+    packer.add("name-1", 50, 100, 0);
+    packer.add("name-2", 50, 50, 0);
+    packer.add("name-3", 50, 50, 0);
+    assertEquals(0, packer.getFreeArea());
+
+    packer.remove("name-2");
+    packer.remove("name-3");
+
+    assertEquals(50 * 100, packer.getLargestFreeArea());
+    assertResult(50, 0, 50, 100, packer.add("name-4", 50, 100, 0));
+  }
+
+  @Test
+  public void testSameNameIsRejected() {
+    packer.add("name-1", 50, 50, 0);
+    try {
+      packer.add("name-1", 50, 50, 0);
+      fail();
+    } catch (IllegalArgumentException e) {
+    }
+    assertResult(0, 0, 50, 50, packer.get("name-1"));
+    assertEquals(50 * 50, packer.getUsedArea());
+
+    // the space of the first image is still in use
+    Result result = packer.add("name-2", 50, 50, 0);
+    assertTrue(result.getX() != 0 || result.getY() != 0);
+  }
+
+  @Test
+  public void testRemoveUnknown() {
+    assertNull(packer.remove("unknown"));
+  }
+
+  @Test
+  public void testDefragment() {
+    packer.add("name-1", 40, 40, 0);
+    packer.add("name-2", 40, 40, 0);
+    packer.add("name-3", 40, 40, 0);
+    packer.add("name-4", 40, 40, 0);
+    packer.remove("name-1");
+    packer.remove("name-4");
+    assertNull(packer.add("big", 100, 60, 0));
+
+    List<Relocation> relocations = packer.defragment();
+    assertTrue(relocations.size() > 0);
+    for (Relocation relocation : relocations) {
+      Result to = packer.get(relocation.getName());
+      assertEquals(to.getX(), relocation.getTo().getX());
+      assertEquals(to.getY(), relocation.getTo().getY());
+    }
+    assertNotNull(packer.add("big", 100, 60, 0));
+  }
+
+  @Test
+  public void testDefragmentWithoutChanges() {
+    packer.add("name-1", 60, 60, 0);
+    assertEquals(0, packer.defragment().size());
+    assertResult(0, 0, 60, 60, packer.get("name-1"));
+  }
+
+  @Test
+  public void testGeneratorMetrics() {
+    TextureAtlasGenerator generator = new TextureAtlasGenerator(packer);
+    assertEquals(0.f, generator.getOccupancy(), 0.001f);
+    assertEquals(0.f, generator.getFragmentation(), 0.001f);
+
+    packer.add("name-1", 50, 50, 0);
+    assertEquals(0.25f, generator.getOccupancy(), 0.001f);
+    assertEquals(1.f - 5000.f / 7500.f, generator.getFragmentation(), 0.001f);
+  }
+
+  private void assertResult(final int x, final int y, final int w, final int h, final Result result) {
+    assertEquals(x, result.getX());
+    assertEquals(y, result.getY());
+    assertEquals(w, result.getOriginalImageWidth());
+    assertEquals(h, result.getOriginalImageHeight());
+  }
+}
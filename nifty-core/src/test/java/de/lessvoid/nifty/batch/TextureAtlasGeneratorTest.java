@@ -2,8 +2,11 @@ package de.lessvoid.nifty.batch;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.List;
+
 import org.junit.Test;
 
+import de.lessvoid.nifty.batch.TextureAtlasGenerator.Relocation;
 import de.lessvoid.nifty.batch.TextureAtlasGenerator.Result;
 
 public class TextureAtlasGeneratorTest {
@@ -24,6 +27,34 @@ public class TextureAtlasGeneratorTest {
     assertResult(55, 0, 5, 5, result);
   }
 
+  @Test
+  public void testRemovedSpaceIsMerged() throws Exception {
+    generator.addImage(50, 100, "name-1", 0);
+    generator.addImage(50, 50, "name-2", 0);
+    generator.addImage(50, 50, "name-3", 0);
+    assertEquals(1.f, generator.getOccupancy(), 0.001f);
+
+    generator.removeImage("name-2");
+    generator.removeImage("name-3");
+    assertEquals(0.f, generator.getFragmentation(), 0.001f);
+
+    Result result = generator.addImage(50, 100, "name-4", 0);
+    assertResult(50, 0, 50, 100, result);
+  }
+
+  @Test
+  public void testDefragment() throws Exception {
+    generator.addImage(10, 10, "name-1", 0);
+    generator.addImage(90, 10, "name-2", 0);
+    generator.removeImage("name-1");
+
+    List<Relocation> relocations = generator.defragment();
+    assertEquals(1, relocations.size());
+    assertEquals("name-2", relocations.get(0).getName());
+    assertResult(10, 0, 90, 10, relocations.get(0).getFrom());
+    assertResult(0, 0, 90, 10, relocations.get(0).getTo());
+  }
+
   private void assertResult(final int x, final int y, final int w, final int h, final Result result) {
     assertEquals(x, result.getX());
     assertEquals(y, result.getY());
@@ -0,0 +1,405 @@
+package de.lessvoid.nifty.batch.software;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.NiftyFrameStats;
+import de.lessvoid.nifty.batch.BatchRenderDevice;
+import de.lessvoid.nifty.batch.BatchRenderImage;
+import de.lessvoid.nifty.batch.GuillotineTextureAtlasPacker;
+import de.lessvoid.nifty.batch.TextureAtlasPacker;
+import de.lessvoid.nifty.batch.TextureAtlasPackerFactory;
+import de.lessvoid.nifty.batch.spi.BatchRenderBackend;
+import de.lessvoid.nifty.render.BlendMode;
+import de.lessvoid.nifty.tools.Color;
+import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
+
+public class SoftwareBatchRenderBackendTest {
+  private static final String IMAGE = "de/lessvoid/nifty/batch/nifty.png";
+  // the same image data under different names
+  private static final String IMAGE2 = "de/lessvoid/nifty/batch/../batch/nifty.png";
+  private static final String IMAGE3 = "de/lessvoid/nifty/../nifty/batch/nifty.png";
+  private static final String IMAGE4 = "de/lessvoid/../lessvoid/nifty/batch/nifty.png";
+  private static final String IMAGE5 = "de/../de/lessvoid/nifty/batch/nifty.png";
+
+  private SoftwareBatchRenderBackend backend;
+  private BatchRenderDevice renderDevice;
+
+  @Before
+  public void before() {
+    backend = new SoftwareBatchRenderBackend(32, 32, 4);
+    renderDevice = new BatchRenderDevice(backend, 64, 64);
+    renderDevice.setResourceLoader(new NiftyResourceLoader());
+  }
+
+  @Test
+  public void testRenderQuad() {
+    renderDevice.beginFrame();
+    renderDevice.clear();
+    renderDevice.renderQuad(2, 4, 10, 5, new Color(1.f, 0.f, 0.f, 1.f));
+    renderDevice.endFrame();
+
+    assertEquals(0xffff0000, backend.getPixel(2, 4));
+    assertEquals(0xffff0000, backend.getPixel(11, 8));
+    assertEquals(0x00000000, backend.getPixel(1, 4));
+    assertEquals(0x00000000, backend.getPixel(12, 4));
+    assertEquals(0x00000000, backend.getPixel(2, 9));
+    assertEquals(1, backend.getQuadCount());
+    assertEquals(1, backend.getBatchCount());
+    assertEquals(50, backend.getPixelCount());
+  }
+
+  @Test
+  public void testVertexColors() {
+    Color black = new Color(0.f, 0.f, 0.f, 1.f);
+    Color white = new Color(1.f, 1.f, 1.f, 1.f);
+    renderDevice.beginFrame();
+    renderDevice.clear();
+    renderDevice.renderQuad(0, 0, 2, 1, black, white, white, black);
+    renderDevice.endFrame();
+
+    assertEquals(0xff404040, backend.getPixel(0, 0));
+    assertEquals(0xffbfbfbf, backend.getPixel(1, 0));
+  }
+
+  @Test
+  public void testBlend() {
+    renderDevice.beginFrame();
+    renderDevice.clear();
+    renderDevice.renderQuad(0, 0, 4, 4, new Color(0.f, 0.f, 1.f, 1.f));
+    renderDevice.renderQuad(0, 0, 4, 4, new Color(1.f, 0.f, 0.f, 0.5f));
+    renderDevice.endFrame();
+
+    assertEquals(0xbf800080, backend.getPixel(0, 0));
+    assertEquals(2, backend.getQuadCount());
+    assertEquals(1, backend.getBatchCount());
+    assertEquals(32, backend.getPixelCount());
+  }
+
+  @Test
+  public void testMultiply() {
+    renderDevice.beginFrame();
+    renderDevice.clear();
+    renderDevice.renderQuad(0, 0, 4, 4, new Color(1.f, 1.f, 1.f, 1.f));
+    renderDevice.setBlendMode(BlendMode.MULIPLY);
+    renderDevice.renderQuad(0, 0, 2, 2, new Color(0.5f, 0.f, 1.f, 1.f));
+    renderDevice.endFrame();
+
+    assertEquals(0xff8000ff, backend.getPixel(0, 0));
+    assertEquals(0xffffffff, backend.getPixel(3, 3));
+    assertEquals(2, backend.getBatchCount());
+  }
+
+  @Test
+  public void testClipping() {
+    renderDevice.beginFrame();
+    renderDevice.clear();
+    renderDevice.enableClip(4, 4, 8, 8);
+    renderDevice.renderQuad(0, 0, 16, 16, new Color(1.f, 1.f, 1.f, 1.f));
+    renderDevice.endFrame();
+
+    assertEquals(0x00000000, backend.getPixel(3, 3));
+    assertEquals(0xffffffff, backend.getPixel(4, 4));
+    assertEquals(0xffffffff, backend.getPixel(7, 7));
+    assertEquals(0x00000000, backend.getPixel(8, 8));
+    assertEquals(16, backend.getPixelCount());
+  }
+
+  @Test
+  public void testBatchIsSplitWhenFull() {
+    renderDevice.beginFrame();
+    for (int i=0; i<9; i++) {
+      renderDevice.renderQuad(i, 0, 1, 1, new Color(1.f, 1.f, 1.f, 1.f));
+    }
+    renderDevice.endFrame();
+
+    assertEquals(9, backend.getQuadCount());
+    assertEquals(3, backend.getBatchCount());
+  }
+
+  @Test
+  public void testManyQuads() {
+    backend = new SoftwareBatchRenderBackend(32, 32);
+    renderDevice = new BatchRenderDevice(backend, 64, 64);
+    renderDevice.setResourceLoader(new NiftyResourceLoader());
+    renderDevice.beginFrame();
+    for (int i=0; i<3000; i++) {
+      renderDevice.renderQuad(i % 32, 0, 1, 1, new Color(1.f, 1.f, 1.f, 1.f));
+    }
+    renderDevice.endFrame();
+
+    assertEquals(3000, backend.getQuadCount());
+    assertEquals(2, backend.getBatchCount());
+    assertEquals(3000, backend.getPixelCount());
+  }
+
+  @Test
+  public void testFrameStats() {
+    NiftyFrameStats frameStats = new NiftyFrameStats();
+    renderDevice.setFrameStats(frameStats);
+    renderDevice.beginFrame();
+    renderDevice.enableClip(0, 0, 8, 8);
+    renderDevice.renderQuad(0, 0, 4, 4, new Color(1.f, 1.f, 1.f, 1.f));
+    renderDevice.renderQuad(16, 16, 4, 4, new Color(1.f, 1.f, 1.f, 1.f));
+    renderDevice.setBlendMode(BlendMode.MULIPLY);
+    renderDevice.renderQuad(0, 0, 4, 4, new Color(1.f, 1.f, 1.f, 1.f));
+    renderDevice.endFrame();
+
+    assertEquals(2, frameStats.getQuadCount());
+    assertEquals(0, frameStats.getGlyphCount());
+    assertEquals(2, frameStats.getBatchCount());
+    assertEquals(1, frameStats.getClippedQuadCount());
+  }
+
+  @Test
+  public void testBatchReorderingMergesBatches() {
+    renderDevice.setBatchReordering(true);
+    renderDevice.beginFrame();
+    renderDevice.clear();
+    renderDevice.renderQuad(0, 0, 4, 4, new Color(1.f, 1.f, 1.f, 1.f));
+    renderDevice.setBlendMode(BlendMode.MULIPLY);
+    renderDevice.renderQuad(0, 0, 2, 2, new Color(0.5f, 0.f, 1.f, 1.f));
+    renderDevice.setBlendMode(BlendMode.BLEND);
+    renderDevice.renderQuad(8, 8, 4, 4, new Color(0.f, 1.f, 0.f, 1.f));
+    renderDevice.endFrame();
+
+    assertEquals(2, backend.getBatchCount());
+    assertEquals(1, renderDevice.getSavedBatchCount());
+    assertEquals(0xff8000ff, backend.getPixel(0, 0));
+    assertEquals(0xffffffff, backend.getPixel(3, 3));
+    assertEquals(0xff00ff00, backend.getPixel(8, 8));
+  }
+
+  @Test
+  public void testBatchReorderingKeepsOverlappingOrder() {
+    renderDevice.setBatchReordering(true);
+    renderDevice.beginFrame();
+    renderDevice.clear();
+    renderDevice.renderQuad(0, 0, 4, 4, new Color(1.f, 1.f, 1.f, 1.f));
+    renderDevice.setBlendMode(BlendMode.MULIPLY);
+    renderDevice.renderQuad(0, 0, 2, 2, new Color(0.5f, 0.f, 1.f, 1.f));
+    renderDevice.setBlendMode(BlendMode.BLEND);
+    renderDevice.renderQuad(1, 1, 1, 1, new Color(0.f, 1.f, 0.f, 1.f));
+    renderDevice.endFrame();
+
+    assertEquals(3, backend.getBatchCount());
+    assertEquals(0, renderDevice.getSavedBatchCount());
+    assertEquals(0xff8000ff, backend.getPixel(0, 0));
+    assertEquals(0xff00ff00, backend.getPixel(1, 1));
+  }
+
+  @Test
+  public void testImageLoadedInBackground() {
+    List<Runnable> tasks = new ArrayList<Runnable>();
+    renderDevice.setImageLoadExecutor(new TaskCollector(tasks));
+    BatchRenderImage image = (BatchRenderImage) renderDevice.createImage(IMAGE, false);
+    assertFalse(image.isLoaded());
+    assertEquals(1, tasks.size());
+
+    image.upload();
+    assertFalse(image.isUploaded());
+    assertTrue(renderDevice.hasPendingImageUploads());
+
+    tasks.get(0).run();
+    renderDevice.beginFrame();
+    renderDevice.endFrame();
+    assertTrue(image.isUploaded());
+    assertFalse(renderDevice.hasPendingImageUploads());
+    assertEquals(4, image.getWidth());
+  }
+
+  @Test(timeout = 10000)
+  public void testImageSizeIsKnownWhileLoadingInBackground() {
+    // the tasks are never run so the image data never becomes available
+    List<Runnable> tasks = new ArrayList<Runnable>();
+    renderDevice.setImageLoadExecutor(new TaskCollector(tasks));
+    BatchRenderImage image = (BatchRenderImage) renderDevice.createImage(IMAGE, false);
+
+    assertEquals(4, image.getWidth());
+    assertEquals(4, image.getHeight());
+    assertFalse(image.isLoaded());
+    assertEquals(1, tasks.size());
+  }
+
+  @Test
+  public void testImageUploadBudget() {
+    List<Runnable> tasks = new ArrayList<Runnable>();
+    renderDevice.setImageLoadExecutor(new TaskCollector(tasks));
+    renderDevice.setImageUploadBudget(0);
+    BatchRenderImage image1 = (BatchRenderImage) renderDevice.createImage(IMAGE, false);
+    BatchRenderImage image2 = (BatchRenderImage) renderDevice.createImage(IMAGE2, false);
+    image1.upload();
+    image2.upload();
+    for (Runnable task : tasks) {
+      task.run();
+    }
+
+    renderDevice.beginFrame();
+    renderDevice.endFrame();
+    assertTrue(image1.isUploaded());
+    assertFalse(image2.isUploaded());
+
+    renderDevice.beginFrame();
+    renderDevice.endFrame();
+    assertTrue(image2.isUploaded());
+  }
+
+  @Test
+  public void testAwaitPendingImageUploads() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      renderDevice.setImageLoadExecutor(executor);
+      renderDevice.setImageUploadBudget(0);
+      BatchRenderImage image1 = (BatchRenderImage) renderDevice.createImage(IMAGE, false);
+      BatchRenderImage image2 = (BatchRenderImage) renderDevice.createImage(IMAGE2, false);
+      image1.upload();
+      image2.upload();
+
+      assertTrue(renderDevice.awaitPendingImageUploads(10, TimeUnit.SECONDS));
+      assertTrue(image1.isUploaded());
+      assertTrue(image2.isUploaded());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testTextureAtlasIsNotDefragmentedDuringFrame() {
+    final float[] firstQuad = new float[BatchRenderBackend.QUAD_SIZE];
+    backend = new SoftwareBatchRenderBackend(32, 32, 4) {
+      private boolean recorded;
+
+      @Override
+      public void beginFrame() {
+        super.beginFrame();
+        recorded = false;
+      }
+
+      @Override
+      public void addQuads(final float[] quads, final int offset, final int count) {
+        if (!recorded) {
+          System.arraycopy(quads, offset, firstQuad, 0, firstQuad.length);
+          recorded = true;
+        }
+        super.addQuads(quads, offset, count);
+      }
+    };
+    // a single atlas page with space for four images. the images are uploaded in the reverse order of their names so
+    // that defragmenting the page moves them.
+    renderDevice = new BatchRenderDevice(backend, 13, 13, 1);
+    renderDevice.setResourceLoader(new NiftyResourceLoader());
+    BatchRenderImage rendered = uploadImage(IMAGE);
+    uploadImage(IMAGE2);
+    uploadImage(IMAGE3);
+    uploadImage(IMAGE4);
+    int x = rendered.getX();
+    int y = rendered.getY();
+
+    renderDevice.beginFrame();
+    renderDevice.renderImage(rendered, 0, 0, 4, 4, new Color(1.f, 1.f, 1.f, 1.f), 1.f);
+    BatchRenderImage notFitting = (BatchRenderImage) renderDevice.createImage(IMAGE5, false);
+    notFitting.upload();
+    assertFalse(notFitting.isUploaded());
+    renderDevice.endFrame();
+
+    assertEquals(x, rendered.getX());
+    assertEquals(y, rendered.getY());
+    assertEquals(textureCoordinate(x, 13), firstQuad[4], 0.0001f);
+    assertEquals(textureCoordinate(y, 13), firstQuad[5], 0.0001f);
+    assertTrue(renderDevice.hasPendingImageUploads());
+
+    // the next frame defragments the page and retries the upload before any quad is rendered
+    renderDevice.beginFrame();
+    renderDevice.renderImage(rendered, 0, 0, 4, 4, new Color(1.f, 1.f, 1.f, 1.f), 1.f);
+    renderDevice.endFrame();
+    assertTrue(x != rendered.getX() || y != rendered.getY());
+    assertEquals(textureCoordinate(rendered.getX(), 13), firstQuad[4], 0.0001f);
+    assertEquals(textureCoordinate(rendered.getY(), 13), firstQuad[5], 0.0001f);
+  }
+
+  @Test
+  public void testSameFileCanBeLoadedTwice() {
+    BatchRenderImage image1 = (BatchRenderImage) renderDevice.createImage(IMAGE, false);
+    BatchRenderImage image2 = (BatchRenderImage) renderDevice.createImage(IMAGE, true);
+    image1.upload();
+    image2.upload();
+    assertTrue(image1.isUploaded());
+    assertTrue(image2.isUploaded());
+    assertTrue(image1.getX() != image2.getX() || image1.getY() != image2.getY());
+
+    // unloading the first image must not free the space of the second one
+    image1.unload();
+    assertTrue(image2.isUploaded());
+    BatchRenderImage image3 = uploadImage(IMAGE2);
+    BatchRenderImage image4 = uploadImage(IMAGE3);
+    assertTrue(image3.getX() != image2.getX() || image3.getY() != image2.getY());
+    assertTrue(image4.getX() != image2.getX() || image4.getY() != image2.getY());
+  }
+
+  @Test
+  public void testTextureAtlasPackerFactory() {
+    final List<TextureAtlasPacker> packers = new ArrayList<TextureAtlasPacker>();
+    renderDevice = new BatchRenderDevice(backend, 64, 64, 2, new TextureAtlasPackerFactory() {
+      @Override
+      public TextureAtlasPacker create(final int width, final int height) {
+        TextureAtlasPacker packer = new GuillotineTextureAtlasPacker(width, height);
+        packers.add(packer);
+        return packer;
+      }
+    });
+    renderDevice.setResourceLoader(new NiftyResourceLoader());
+    uploadImage(IMAGE);
+
+    assertEquals(1, packers.size());
+    assertEquals(64, packers.get(0).getWidth());
+    assertEquals(1, packers.get(0).getNames().size());
+  }
+
+  @Test
+  public void testStatisticsAreResetEachFrame() {
+    renderDevice.beginFrame();
+    renderDevice.renderQuad(0, 0, 4, 4, new Color(1.f, 1.f, 1.f, 1.f));
+    renderDevice.endFrame();
+    renderDevice.beginFrame();
+    renderDevice.endFrame();
+
+    assertEquals(0, backend.getQuadCount());
+    assertEquals(0, backend.getBatchCount());
+    assertEquals(0, backend.getPixelCount());
+  }
+
+  private BatchRenderImage uploadImage(final String filename) {
+    BatchRenderImage image = (BatchRenderImage) renderDevice.createImage(filename, false);
+    image.upload();
+    assertTrue(image.isUploaded());
+    return image;
+  }
+
+  private static float textureCoordinate(final int value, final int atlasSize) {
+    return (value + 0.5f) / atlasSize;
+  }
+
+  private static class TaskCollector implements Executor {
+    private final List<Runnable> tasks;
+
+    public TaskCollector(final List<Runnable> tasks) {
+      this.tasks = tasks;
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+      tasks.add(task);
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package de.lessvoid.nifty.elements;
+
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.controls.FocusHandler;
+import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+
+public class ElementFindByIdTest {
+  private Nifty niftyMock;
+  private Element root;
+
+  @Before
+  public void before() {
+    niftyMock = createNiceMock(Nifty.class);
+    replay(niftyMock);
+    root = createElement("root", null);
+  }
+
+  @Test
+  public void testFindById() {
+    Element a = createElement("a", root);
+    Element b = createElement("b", a);
+    assertEquals(root, root.findElementById("root"));
+    assertEquals(b, root.findElementById("b"));
+    assertEquals(b, a.findElementById("b"));
+    assertNull(b.findElementById("a"));
+    assertNull(root.findElementById("c"));
+  }
+
+  @Test
+  public void testFindChildIdIsLimitedToSubtree() {
+    Element control1 = createElement("control1", root);
+    Element scrollbar1 = createElement("control1#scrollbar", control1);
+    Element control2 = createElement("control2", root);
+    Element scrollbar2 = createElement("control2#scrollbar", control2);
+    assertEquals(scrollbar1, control1.findElementById("#scrollbar"));
+    assertEquals(scrollbar2, control2.findElementById("#scrollbar"));
+    assertEquals(scrollbar1, root.findElementById("#scrollbar"));
+    assertNull(root.findElementById("scrollbar"));
+  }
+
+  @Test
+  public void testFindChildIdPrefersTheIdOfTheSearchRoot() {
+    Element control = createElement("control", root);
+    Element nested = createElement("control#panel#label", createElement("control#panel", control));
+    Element label = createElement("control#label", control);
+    assertEquals(label, control.findElementById("#label"));
+    assertEquals(nested, control.findElementById("#panel#label"));
+    // without an element with the id of the search root only the end of the ids is matched
+    assertEquals(nested, root.findElementById("#label"));
+  }
+
+  @Test
+  public void testDuplicateIdsAreFoundInDepthFirstOrder() {
+    Element a = createElement("a", root);
+    Element deep = createElement("x", createElement("b", a));
+    createElement("x", root);
+    assertEquals(deep, root.findElementById("x"));
+
+    Element c = newElement("c", root);
+    root.add(c, 0);
+    Element first = createElement("x", c);
+    assertEquals(first, root.findElementById("x"));
+  }
+
+  @Test
+  public void testSetIndexChangesTheDepthFirstOrder() {
+    Element a = createElement("a", root);
+    Element first = createElement("x", a);
+    Element b = createElement("b", root);
+    Element second = createElement("x", b);
+    assertEquals(first, root.findElementById("x"));
+
+    b.setIndex(0);
+    assertEquals(second, root.findElementById("x"));
+  }
+
+  @Test
+  public void testElementNotAddedToItsParentYet() {
+    Element a = newElement("a", root);
+    Element b = createElement("b", a);
+    assertEquals(b, a.findElementById("b"));
+    assertNull(root.findElementById("b"));
+
+    root.add(a);
+    assertEquals(b, root.findElementById("b"));
+  }
+
+  @Test
+  public void testSetId() {
+    Element a = createElement("a", root);
+    a.setId("b#c");
+    assertNull(root.findElementById("a"));
+    assertEquals(a, root.findElementById("b#c"));
+    assertEquals(a, root.findElementById("#c"));
+  }
+
+  @Test
+  public void testAddedTreeIsIndexed() {
+    Element a = newElement("a", root);
+    Element b = createElement("b", a);
+    root.add(a);
+    assertEquals(b, root.findElementById("b"));
+    createElement("c", b);
+    assertEquals(b.getElements().get(0), root.findElementById("c"));
+  }
+
+  @Test
+  public void testRemove() {
+    Element a = createElement("a", root);
+    createElement("b", a);
+    root.internalRemoveElement(a);
+    assertNull(root.findElementById("a"));
+    assertNull(root.findElementById("b"));
+    // the removed tree can still be searched on its own
+    assertEquals("b", a.findElementById("b").getId());
+  }
+
+  @Test
+  public void testRemoveWithChilds() {
+    Element a = createElement("a", root);
+    createElement("b", a);
+    a.internalRemoveElementWithChilds();
+    assertEquals(a, root.findElementById("a"));
+    assertNull(root.findElementById("b"));
+  }
+
+  private Element createElement(final String id, final Element parentElement) {
+    Element element = newElement(id, parentElement);
+    if (parentElement != null) {
+      parentElement.add(element);
+    }
+    return element;
+  }
+
+  private Element newElement(final String id, final Element parentElement) {
+    return new Element(niftyMock, null, id, parentElement, new FocusHandler(), false, new AccurateTimeProvider());
+  }
+}
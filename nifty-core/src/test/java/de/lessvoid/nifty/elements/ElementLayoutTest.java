@@ -0,0 +1,151 @@
+package de.lessvoid.nifty.elements;
+
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.controls.FocusHandler;
+import de.lessvoid.nifty.layout.LayoutPart;
+import de.lessvoid.nifty.layout.manager.LayoutManager;
+import de.lessvoid.nifty.layout.manager.VerticalLayout;
+import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+import de.lessvoid.nifty.tools.SizeValue;
+
+public class ElementLayoutTest {
+  private Nifty niftyMock;
+  private Set<String> layouted = new TreeSet<String>();
+  private Element root;
+
+  @Before
+  public void before() {
+    niftyMock = createNiceMock(Nifty.class);
+    replay(niftyMock);
+    root = createElement("root", null, true);
+    root.getLayoutPart().getBox().setWidth(100);
+    root.getLayoutPart().getBox().setHeight(1000);
+  }
+
+  @Test
+  public void testChangedConstraintLayoutsAncestorsAndDependentSiblings() {
+    createLeaf("other1", createElement("other", root, true), 10, 5);
+    Element column = createElement("column", root, true);
+    Element a = createLeaf("a", column, 10, 10);
+    Element b = createLeaf("b", column, 10, 10);
+    createLeaf("b1", b, 10, 5);
+    layout();
+    assertEquals(10, b.getY() - a.getY());
+
+    a.setConstraintHeight(SizeValue.px(20));
+    layout();
+    // the calculated height of column changes as well so root needs to be layouted again. b is moved down.
+    assertLayouted("a", "b", "b1", "column", "root");
+    assertEquals(20, b.getY() - a.getY());
+    assertEquals(SizeValue.px(30), column.getConstraintHeight());
+  }
+
+  @Test
+  public void testUnrelatedSubtreeIsNotLayoutedAgain() {
+    Element left = createElement("left", root, true);
+    left.setConstraintHeight(SizeValue.px(100));
+    Element a = createLeaf("a", left, 10, 10);
+    createLeaf("b", left, 10, 10);
+    Element right = createElement("right", root, true);
+    right.setConstraintHeight(SizeValue.px(100));
+    createLeaf("c", createElement("c0", right, true), 10, 10);
+    layout();
+
+    a.setConstraintHeight(SizeValue.px(20));
+    layout();
+    assertLayouted("a", "b", "left");
+  }
+
+  @Test
+  public void testNothingIsLayoutedWithoutChanges() {
+    createLeaf("a", createElement("column", root, true), 10, 10);
+    layout();
+
+    layout();
+    assertLayouted();
+  }
+
+  @Test
+  public void testChangesBelowAnElementWithoutLayoutManagerAreNoticed() {
+    Element panel = createElement("panel", root, false);
+    panel.setConstraintHeight(SizeValue.px(100));
+    Element inner = createElement("inner", panel, true);
+    Element leaf = createLeaf("leaf", inner, 10, 10);
+    layout();
+    // the children of an element without a layoutManager are not layouted at all
+    assertLayouted("root");
+    assertEquals(SizeValue.px(10), inner.getConstraintHeight());
+
+    // but the constraints calculated from their children are still kept up to date
+    leaf.setConstraintHeight(SizeValue.px(20));
+    layout();
+    assertEquals(SizeValue.px(20), inner.getConstraintHeight());
+    assertLayouted();
+  }
+
+  private void layout() {
+    layouted.clear();
+    root.layoutElements();
+  }
+
+  private void assertLayouted(final String ... ids) {
+    assertEquals(new TreeSet<String>(Arrays.asList(ids)), layouted);
+    layouted.clear();
+  }
+
+  private Element createLeaf(final String id, final Element parent, final int width, final int height) {
+    Element element = createElement(id, parent, true);
+    element.setConstraintWidth(SizeValue.px(width));
+    element.setConstraintHeight(SizeValue.px(height));
+    return element;
+  }
+
+  private Element createElement(final String id, final Element parent, final boolean withLayoutManager) {
+    Element element = new Element(
+        niftyMock, null, id, parent, new FocusHandler(), false, new AccurateTimeProvider());
+    if (withLayoutManager) {
+      element.setLayoutManager(new RecordingLayout(id));
+    }
+    if (parent != null) {
+      parent.add(element);
+    }
+    return element;
+  }
+
+  /**
+   * A VerticalLayout that records the elements it has been layouting the children of.
+   */
+  private class RecordingLayout implements LayoutManager {
+    private final String id;
+    private final VerticalLayout layout = new VerticalLayout();
+
+    private RecordingLayout(final String id) {
+      this.id = id;
+    }
+
+    public void layoutElements(final LayoutPart rootPart, final List<LayoutPart> children) {
+      layouted.add(id);
+      layout.layoutElements(rootPart, children);
+    }
+
+    public SizeValue calculateConstraintWidth(final LayoutPart rootPart, final List<LayoutPart> children) {
+      return layout.calculateConstraintWidth(rootPart, children);
+    }
+
+    public SizeValue calculateConstraintHeight(final LayoutPart rootPart, final List<LayoutPart> children) {
+      return layout.calculateConstraintHeight(rootPart, children);
+    }
+  }
+}
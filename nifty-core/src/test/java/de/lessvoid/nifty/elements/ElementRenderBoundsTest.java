@@ -0,0 +1,124 @@
+package de.lessvoid.nifty.elements;
+
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.expect;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.controls.FocusHandler;
+import de.lessvoid.nifty.elements.render.TextRenderer;
+import de.lessvoid.nifty.layout.align.HorizontalAlign;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.render.NiftyRenderEngine;
+import de.lessvoid.nifty.render.NiftyRenderEngineImpl;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+import de.lessvoid.nifty.tools.Color;
+
+public class ElementRenderBoundsTest {
+  private Nifty niftyMock;
+  private Element parent;
+
+  @Before
+  public void before() {
+    niftyMock = createNiceMock(Nifty.class);
+    replay(niftyMock);
+    parent = new Element(niftyMock, null, null, null, new FocusHandler(), false, new AccurateTimeProvider());
+  }
+
+  @Test
+  public void testTextWiderThanTheElementIsNotCulled() {
+    // the element is outside of the clipping area but its right aligned text is not
+    Element text = createTextElement("text", 110, 0, 10, 10);
+    text.getRenderer(TextRenderer.class).setTextHAlign(HorizontalAlign.right);
+    assertRenderedTextWithClip("text at 80");
+  }
+
+  @Test
+  public void testTextOutsideOfTheClipIsCulled() {
+    createTextElement("text", 110, 0, 40, 10);
+    assertRenderedTextWithClip();
+  }
+
+  private Element createTextElement(final String text, final int x, final int y, final int width, final int height) {
+    Nifty nifty = createNiceMock(Nifty.class);
+    expect(nifty.specialValuesReplace(text)).andReturn(text);
+    replay(nifty);
+    Element element = new Element(
+        niftyMock, null, text, parent, new FocusHandler(), false, new AccurateTimeProvider(),
+        new TextRenderer(nifty, new FixedWidthFont(), text));
+    parent.add(element);
+    element.getLayoutPart().getBox().setX(x);
+    element.getLayoutPart().getBox().setY(y);
+    element.getLayoutPart().getBox().setWidth(width);
+    element.getLayoutPart().getBox().setHeight(height);
+    return element;
+  }
+
+  /**
+   * Render the parent once to calculate the render bounds and a second time with the clipping area (0, 0, 100, 100).
+   */
+  private void assertRenderedTextWithClip(final String ... expected) {
+    final List<String> renderedText = new ArrayList<String>();
+    NiftyRenderEngine renderEngine = new NiftyRenderEngineImpl(new NullRenderDevice() {
+      @Override
+      public int getWidth() {
+        return 1024;
+      }
+
+      @Override
+      public int getHeight() {
+        return 768;
+      }
+
+      @Override
+      public void renderFont(
+          final RenderFont font,
+          final String text,
+          final int x,
+          final int y,
+          final Color fontColor,
+          final float sizeX,
+          final float sizeY) {
+        renderedText.add(text + " at " + x);
+      }
+    });
+    parent.render(renderEngine);
+    renderedText.clear();
+    renderEngine.enableClip(0, 0, 100, 100);
+    parent.render(renderEngine);
+    assertEquals(Arrays.asList(expected), renderedText);
+  }
+
+  /**
+   * Every character is 10 pixel wide and high.
+   */
+  private static class FixedWidthFont implements RenderFont {
+    public int getWidth(final String text) {
+      return text.length() * 10;
+    }
+
+    public int getWidth(final String text, final float size) {
+      return getWidth(text);
+    }
+
+    public int getHeight() {
+      return 10;
+    }
+
+    public int getCharacterAdvance(final char currentCharacter, final char nextCharacter, final float size) {
+      return 10;
+    }
+
+    public void dispose() {
+    }
+  }
+}
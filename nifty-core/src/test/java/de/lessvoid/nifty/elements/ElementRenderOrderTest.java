@@ -0,0 +1,134 @@
+package de.lessvoid.nifty.elements;
+
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.controls.FocusHandler;
+import de.lessvoid.nifty.elements.render.ElementRenderer;
+import de.lessvoid.nifty.render.NiftyRenderEngine;
+import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+
+public class ElementRenderOrderTest {
+  private Nifty niftyMock;
+  private NiftyRenderEngine renderEngineMock;
+  private List<String> rendered = new ArrayList<String>();
+  private ElementRenderer recordingRenderer = new ElementRenderer() {
+    public void render(final Element w, final NiftyRenderEngine r) {
+      if (w.getId() != null) {
+        rendered.add(w.getId());
+      }
+    }
+  };
+  private Element parent;
+
+  @Before
+  public void before() {
+    niftyMock = createNiceMock(Nifty.class);
+    replay(niftyMock);
+    renderEngineMock = createNiceMock(NiftyRenderEngine.class);
+    replay(renderEngineMock);
+    parent = createElement(null, null);
+  }
+
+  @Test
+  public void testIndexOrder() {
+    createElement("a", parent);
+    createElement("b", parent);
+    createElement("c", parent);
+    assertRenderOrder("a", "b", "c");
+  }
+
+  @Test
+  public void testInsertAtIndex() {
+    createElement("a", parent);
+    createElement("c", parent);
+    Element b = createElement("b", null);
+    parent.add(b, 1);
+    assertRenderOrder("a", "b", "c");
+  }
+
+  @Test
+  public void testExplicitRenderOrder() {
+    createElement("a", parent);
+    createElement("b", parent).setRenderOrder(1000);
+    createElement("c", parent);
+    createElement("d", parent).setRenderOrder(-1000);
+    assertRenderOrder("d", "a", "c", "b");
+  }
+
+  @Test
+  public void testExplicitRenderOrderBetweenIndices() {
+    createElement("a", parent);
+    createElement("b", parent);
+    createElement("c", parent);
+    createElement("d", parent).setRenderOrder(1);
+    // equal values are sorted by id
+    assertRenderOrder("a", "b", "d", "c");
+  }
+
+  @Test
+  public void testResetRenderOrder() {
+    Element a = createElement("a", parent);
+    createElement("b", parent);
+    a.setRenderOrder(1000);
+    assertRenderOrder("b", "a");
+    a.setRenderOrder(0);
+    assertRenderOrder("a", "b");
+  }
+
+  @Test
+  public void testSetIndex() {
+    createElement("a", parent);
+    createElement("b", parent);
+    Element c = createElement("c", parent);
+    assertRenderOrder("a", "b", "c");
+    c.setIndex(0);
+    assertRenderOrder("c", "a", "b");
+  }
+
+  @Test
+  public void testRemove() {
+    createElement("a", parent);
+    Element b = createElement("b", parent);
+    b.setRenderOrder(-1);
+    createElement("c", parent);
+    assertRenderOrder("b", "a", "c");
+    parent.internalRemoveElement(b);
+    assertRenderOrder("a", "c");
+  }
+
+  @Test
+  public void testAddAll() {
+    createElement("a", parent);
+    Element b = createElement("b", null);
+    Element c = createElement("c", null);
+    c.setRenderOrder(-1);
+    parent.addAll(Arrays.asList(b, c));
+    assertEquals(3, parent.getElements().size());
+    assertRenderOrder("c", "a", "b");
+  }
+
+  private Element createElement(final String id, final Element parentElement) {
+    Element element = new Element(
+        niftyMock, null, id, parentElement, new FocusHandler(), false, new AccurateTimeProvider(), recordingRenderer);
+    if (parentElement != null) {
+      parentElement.add(element);
+    }
+    return element;
+  }
+
+  private void assertRenderOrder(final String ... ids) {
+    rendered.clear();
+    parent.render(renderEngineMock);
+    assertEquals(Arrays.asList(ids), rendered);
+  }
+}
@@ -0,0 +1,124 @@
+package de.lessvoid.nifty.elements.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.lessvoid.nifty.spi.render.RenderFont;
+
+public class TextBreakCacheTest {
+  private FixedWidthFont font = new FixedWidthFont(10);
+  private TextBreakCache cache = new TextBreakCache();
+
+  @Test
+  public void testCacheReturnsSameResult() {
+    List<String> lines = cache.split("abc def", 40, font);
+    assertEquals(Arrays.asList("abc", "def"), lines);
+    assertSame(lines, cache.split("abc def", 40, font));
+    assertEquals(7, font.advanceCalls);
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testChangedWidthSplitsAgain() {
+    List<String> lines = cache.split("abc def", 40, font);
+    assertEquals(Arrays.asList("abc def"), cache.split("abc def", 100, font));
+    assertEquals(14, font.advanceCalls);
+    assertEquals(2, cache.size());
+
+    // the result for the old width is still cached
+    assertSame(lines, cache.split("abc def", 40, font));
+    assertEquals(14, font.advanceCalls);
+  }
+
+  @Test
+  public void testChangedFontSplitsAgain() {
+    FixedWidthFont widerFont = new FixedWidthFont(20);
+    List<String> lines = cache.split("abc def", 50, font);
+    List<String> widerLines = cache.split("abc def", 50, widerFont);
+    assertEquals(Arrays.asList("abc", "def"), lines);
+    assertEquals(Arrays.asList("ab", "c", "de", "f"), widerLines);
+    assertEquals(7, widerFont.advanceCalls);
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testEldestEntryIsEvicted() {
+    cache = new TextBreakCache(2);
+    List<String> first = cache.split("abc", 40, font);
+    cache.split("def", 40, font);
+    cache.split("ghi", 40, font);
+    assertEquals(2, cache.size());
+    assertEquals(9, font.advanceCalls);
+
+    assertNotSame(first, cache.split("abc", 40, font));
+    assertEquals(12, font.advanceCalls);
+  }
+
+  @Test
+  public void testRecentlyUsedEntryIsNotEvicted() {
+    cache = new TextBreakCache(2);
+    List<String> first = cache.split("abc", 40, font);
+    cache.split("def", 40, font);
+    cache.split("abc", 40, font);
+    cache.split("ghi", 40, font);
+    assertSame(first, cache.split("abc", 40, font));
+  }
+
+  @Test
+  public void testSetMaxSizeSmallerThanTheCacheClearsIt() {
+    cache.split("abc", 40, font);
+    cache.split("def", 40, font);
+    cache.setMaxSize(1);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testMaxSizeZeroDisablesTheCache() {
+    cache.setMaxSize(0);
+    assertNotSame(cache.split("abc", 40, font), cache.split("abc", 40, font));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testClear() {
+    List<String> lines = cache.split("abc", 40, font);
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertNotSame(lines, cache.split("abc", 40, font));
+  }
+
+  private static class FixedWidthFont implements RenderFont {
+    private final int characterWidth;
+    private int advanceCalls;
+
+    private FixedWidthFont(final int characterWidth) {
+      this.characterWidth = characterWidth;
+    }
+
+    public int getWidth(final String text) {
+      return text.length() * characterWidth;
+    }
+
+    public int getWidth(final String text, final float size) {
+      return getWidth(text);
+    }
+
+    public int getHeight() {
+      return 10;
+    }
+
+    public int getCharacterAdvance(final char currentCharacter, final char nextCharacter, final float size) {
+      advanceCalls++;
+      return characterWidth;
+    }
+
+    public void dispose() {
+    }
+  }
+}
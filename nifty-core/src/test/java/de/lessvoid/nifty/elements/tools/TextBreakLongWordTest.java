@@ -0,0 +1,75 @@
+package de.lessvoid.nifty.elements.tools;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.lessvoid.nifty.spi.render.RenderFont;
+
+public class TextBreakLongWordTest {
+  private FixedWidthFont font = new FixedWidthFont();
+
+  @Test
+  public void testLongWordIsBrokenBetweenCharacters() {
+    assertEquals(Arrays.asList("abcd", "efgh", "ij"), new TextBreak("abcdefghij", 50, font).split());
+  }
+
+  @Test
+  public void testLongWordAfterShortWord() {
+    assertEquals(Arrays.asList("ab", "cdefg", "hi jk"), new TextBreak("ab cdefghi jk", 60, font).split());
+  }
+
+  @Test
+  public void testCharacterWiderThanLine() {
+    assertEquals(Arrays.asList("a", "b"), new TextBreak("ab", 5, font).split());
+  }
+
+  @Test
+  public void testTrailingSpace() {
+    assertEquals(Arrays.asList("abcd", ""), new TextBreak("abcd ", 50, font).split());
+  }
+
+  @Test
+  public void testEachCharacterIsMeasuredOnce() {
+    new TextBreak("abc defghijklmnop qrs tuvwxyz", 40, font).split();
+    assertEquals(29, font.advanceCalls);
+  }
+
+  @Test
+  public void testColorMarkupHasNoWidth() {
+    assertEquals(Arrays.asList("\\#ff0000#abc"), new TextBreak("\\#ff0000#abc", 40, font).split());
+  }
+
+  @Test
+  public void testColorIsContinuedOnNextLine() {
+    assertEquals(
+        Arrays.asList("ab \\#ff0000#cd", "\\#ff0000#ef \\#00ff00#g", "\\#00ff00#hi"),
+        new TextBreak("ab \\#ff0000#cd ef \\#00ff00#g hi", 60, font).split());
+  }
+
+  private static class FixedWidthFont implements RenderFont {
+    private int advanceCalls;
+
+    public int getWidth(final String text) {
+      return text.length() * 10;
+    }
+
+    public int getWidth(final String text, final float size) {
+      return getWidth(text);
+    }
+
+    public int getHeight() {
+      return 10;
+    }
+
+    public int getCharacterAdvance(final char currentCharacter, final char nextCharacter, final float size) {
+      advanceCalls++;
+      return 10;
+    }
+
+    public void dispose() {
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package de.lessvoid.nifty.elements.tools;
 
+import static org.easymock.EasyMock.anyChar;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.classextension.EasyMock.createMock;
 import static org.easymock.classextension.EasyMock.replay;
@@ -33,7 +35,7 @@ public class TextBreakTest {
 
   @Test
   public void testNoSplit() {
-    expect(renderFontMock.getWidth("abcdef")).andReturn(12);
+    expect(renderFontMock.getCharacterAdvance(anyChar(), anyChar(), eq(1.f))).andReturn(2).times(6);
     replay(elementMock);
     replay(renderFontMock);
 
@@ -48,9 +50,7 @@ public class TextBreakTest {
   public void testSplit() {
     replay(elementMock);
 
-    expect(renderFontMock.getWidth("abc")).andReturn(95);
-    expect(renderFontMock.getWidth("def")).andReturn(95);
-    expect(renderFontMock.getWidth(" def")).andReturn(95);
+    expect(renderFontMock.getCharacterAdvance(anyChar(), anyChar(), eq(1.f))).andReturn(30).times(7);
     replay(renderFontMock);
 
     TextBreak textBreak = new TextBreak("abc def", 100, renderFontMock);
@@ -65,8 +65,7 @@ public class TextBreakTest {
   public void testNoneSplit() {
     replay(elementMock);
 
-    expect(renderFontMock.getWidth("abc")).andReturn(40);
-    expect(renderFontMock.getWidth(" def")).andReturn(40);
+    expect(renderFontMock.getCharacterAdvance(anyChar(), anyChar(), eq(1.f))).andReturn(10).times(7);
     replay(renderFontMock);
 
     TextBreak textBreak = new TextBreak("abc def", 100, renderFontMock);
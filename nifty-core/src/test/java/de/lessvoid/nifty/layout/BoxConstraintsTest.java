@@ -44,4 +44,21 @@ public class BoxConstraintsTest extends TestCase {
     assertEquals(VerticalAlign.verticalDefault, copy.getVerticalAlign());
   }
 
+
+  public void testDirtyWhenChanged() {
+    BoxConstraints box = new BoxConstraints();
+    box.resetDirty();
+    box.setWidth(new SizeValue("100px"));
+    assertTrue(box.isDirty());
+  }
+
+  public void testNotDirtyWhenSetToSameValue() {
+    BoxConstraints box = new BoxConstraints();
+    box.setWidth(new SizeValue("100px"));
+    box.resetDirty();
+    box.setWidth(new SizeValue("100px"));
+    box.setX(null);
+    box.setPadding(new SizeValue("0px"));
+    assertFalse(box.isDirty());
+  }
 }
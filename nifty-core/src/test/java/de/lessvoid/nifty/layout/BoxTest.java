@@ -28,4 +28,21 @@ public class BoxTest extends TestCase {
     assertEquals(300, copy.getWidth());
     assertEquals(400, copy.getHeight());
   }
+
+  public void testDirtyWhenChanged() {
+    Box box = new Box(100, 200, 300, 400);
+    box.resetDirty();
+    box.setWidth(301);
+    assertTrue(box.isDirty());
+  }
+
+  public void testNotDirtyWhenSetToSameValue() {
+    Box box = new Box(100, 200, 300, 400);
+    box.resetDirty();
+    box.setX(100);
+    box.setY(200);
+    box.setWidth(300);
+    box.setHeight(400);
+    assertFalse(box.isDirty());
+  }
 }
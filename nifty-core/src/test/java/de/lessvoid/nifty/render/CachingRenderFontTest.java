@@ -0,0 +1,91 @@
+package de.lessvoid.nifty.render;
+
+import junit.framework.TestCase;
+import de.lessvoid.nifty.spi.render.RenderFont;
+
+public class CachingRenderFontTest extends TestCase {
+  private CountingRenderFont font = new CountingRenderFont();
+  private CachingRenderFont cachingFont = new CachingRenderFont(font);
+
+  public void testGetWidthIsCached() {
+    assertEquals(40, cachingFont.getWidth("abcd"));
+    assertEquals(40, cachingFont.getWidth("abcd"));
+    assertEquals(1, font.widthCalls);
+    assertEquals(1, cachingFont.getHitCount());
+    assertEquals(1, cachingFont.getMissCount());
+  }
+
+  public void testGetWidthOfDifferentTexts() {
+    assertEquals(10, cachingFont.getWidth("a"));
+    assertEquals(20, cachingFont.getWidth("ab"));
+    assertEquals(10, cachingFont.getWidth("a"));
+    assertEquals(20, cachingFont.getWidth("ab"));
+    assertEquals(2, font.widthCalls);
+  }
+
+  public void testGetWidthWithSizeIsCachedPerSize() {
+    assertEquals(20, cachingFont.getWidth("ab", 1.f));
+    assertEquals(40, cachingFont.getWidth("ab", 2.f));
+    assertEquals(20, cachingFont.getWidth("ab", 1.f));
+    assertEquals(40, cachingFont.getWidth("ab", 2.f));
+    assertEquals(2, font.widthCalls);
+  }
+
+  public void testCharacterAdvanceIsCached() {
+    assertEquals(10, cachingFont.getCharacterAdvance('a', 'b', 1.f));
+    assertEquals(20, cachingFont.getCharacterAdvance('a', 'b', 2.f));
+    assertEquals(10, cachingFont.getCharacterAdvance('a', 'b', 1.f));
+    assertEquals(9, cachingFont.getCharacterAdvance('a', 'V', 1.f));
+    assertEquals(3, font.advanceCalls);
+  }
+
+  public void testClear() {
+    cachingFont.getWidth("a");
+    cachingFont.getCharacterAdvance('a', 'b', 1.f);
+    cachingFont.clear();
+    cachingFont.getWidth("a");
+    cachingFont.getCharacterAdvance('a', 'b', 1.f);
+    assertEquals(2, font.widthCalls);
+    assertEquals(2, font.advanceCalls);
+  }
+
+  public void testUnwrap() {
+    assertSame(font, CachingRenderFont.unwrap(cachingFont));
+    assertSame(font, CachingRenderFont.unwrap(font));
+    assertNull(CachingRenderFont.unwrap(null));
+  }
+
+  public void testDisposeIsDelegated() {
+    cachingFont.dispose();
+    assertTrue(font.disposed);
+  }
+
+  private static class CountingRenderFont implements RenderFont {
+    private int widthCalls;
+    private int advanceCalls;
+    private boolean disposed;
+
+    public int getWidth(final String text) {
+      return getWidth(text, 1.f);
+    }
+
+    public int getWidth(final String text, final float size) {
+      widthCalls++;
+      return (int) (text.length() * 10 * size);
+    }
+
+    public int getHeight() {
+      return 10;
+    }
+
+    public int getCharacterAdvance(final char currentCharacter, final char nextCharacter, final float size) {
+      advanceCalls++;
+      int kerning = nextCharacter == 'V' ? -1 : 0;
+      return (int) (10 * size) + kerning;
+    }
+
+    public void dispose() {
+      disposed = true;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package de.lessvoid.nifty.render;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+
+public class NiftyRenderEngineClipTest extends TestCase {
+  private List<String> calls = new ArrayList<String>();
+
+  private NullRenderDevice device = new NullRenderDevice() {
+    @Override
+    public int getWidth() {
+      return 1024;
+    }
+
+    @Override
+    public int getHeight() {
+      return 768;
+    }
+
+    @Override
+    public void enableClip(final int x0, final int y0, final int x1, final int y1) {
+      calls.add("clip " + x0 + "," + y0 + "," + x1 + "," + y1);
+    }
+
+    @Override
+    public void disableClip() {
+      calls.add("noclip");
+    }
+  };
+
+  private NiftyRenderEngineImpl engine = new NiftyRenderEngineImpl(device);
+
+  public void testNestedClipIsIntersected() {
+    engine.enableClip(0, 0, 100, 100);
+    engine.enableClip(50, 50, 200, 200);
+    assertCalls("clip 0,0,100,100", "clip 50,50,100,100");
+  }
+
+  public void testDisableClipRestoresParentClip() {
+    engine.enableClip(0, 0, 100, 100);
+    engine.enableClip(50, 50, 200, 200);
+    engine.disableClip();
+    engine.disableClip();
+    assertCalls("clip 0,0,100,100", "clip 50,50,100,100", "clip 0,0,100,100", "noclip");
+  }
+
+  public void testDisjointClipIsEmpty() {
+    engine.enableClip(0, 0, 10, 10);
+    engine.enableClip(20, 20, 30, 30);
+    assertTrue(engine.isOutsideClip(0, 0, 100, 100));
+  }
+
+  public void testIsOutsideClip() {
+    assertFalse(engine.isOutsideClip(-100, -100, -50, -50));
+    engine.enableClip(10, 10, 20, 20);
+    assertFalse(engine.isOutsideClip(0, 0, 11, 11));
+    assertFalse(engine.isOutsideClip(12, 12, 14, 14));
+    assertTrue(engine.isOutsideClip(0, 0, 10, 10));
+    assertTrue(engine.isOutsideClip(20, 0, 30, 30));
+    assertTrue(engine.isOutsideClip(0, 20, 30, 30));
+    assertEquals(3, engine.getOutsideClipCount());
+  }
+
+  public void testOutsideClipCountIsResetEachFrame() {
+    engine.enableClip(10, 10, 20, 20);
+    engine.isOutsideClip(0, 0, 10, 10);
+    engine.beginFrame();
+    assertEquals(0, engine.getOutsideClipCount());
+  }
+
+  public void testRestoreStateRestoresClip() {
+    engine.enableClip(0, 0, 100, 100);
+    engine.saveState(null);
+    engine.enableClip(50, 50, 200, 200);
+    engine.restoreState();
+    engine.disableClip();
+    assertCalls("clip 0,0,100,100", "clip 50,50,100,100", "clip 0,0,100,100", "noclip");
+  }
+
+  public void testRestoreStateWithoutClipChangeDoesNothing() {
+    engine.enableClip(0, 0, 100, 100);
+    engine.saveState(null);
+    engine.restoreState();
+    assertCalls("clip 0,0,100,100");
+  }
+
+  private void assertCalls(final String ... expected) {
+    assertEquals(Arrays.asList(expected), calls);
+  }
+}
@@ -0,0 +1,92 @@
+package de.lessvoid.nifty.render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.tools.Color;
+
+public class NiftyRenderEngineSaveStateTest extends TestCase {
+  private List<BlendMode> blendModeCalls = new ArrayList<BlendMode>();
+  private List<String> quads = new ArrayList<String>();
+
+  private NullRenderDevice device = new NullRenderDevice() {
+    @Override
+    public void setBlendMode(final BlendMode renderMode) {
+      blendModeCalls.add(renderMode);
+    }
+
+    @Override
+    public void renderQuad(final int x, final int y, final int width, final int height, final Color color) {
+      quads.add(x + "," + y + " " + color.getRed() + " " + color.getGreen() + " " + color.getBlue() + " " + color.getAlpha());
+    }
+  };
+
+  private NiftyRenderEngineImpl engine = new NiftyRenderEngineImpl(device);
+
+  public void testRestoreColor() {
+    engine.setColor(new Color(1.f, 0.f, 0.f, 1.f));
+    engine.saveState(null);
+    engine.setColor(new Color(0.f, 1.f, 0.f, 0.5f));
+    engine.restoreState();
+    assertColor(1.f, 0.f, 0.f, 1.f);
+  }
+
+  public void testNestedStatesRestoreTheValueOfTheirOwnLevel() {
+    engine.setColor(new Color(1.f, 0.f, 0.f, 1.f));
+    engine.saveState(null);
+    engine.saveState(null);
+    engine.setColor(new Color(0.f, 1.f, 0.f, 1.f));
+    engine.restoreState();
+    assertColor(1.f, 0.f, 0.f, 1.f);
+    engine.setColor(new Color(0.f, 0.f, 1.f, 1.f));
+    engine.restoreState();
+    assertColor(1.f, 0.f, 0.f, 1.f);
+  }
+
+  public void testChangeBelowStateThatDoesNotRestoreIt() {
+    engine.setColor(new Color(1.f, 0.f, 0.f, 1.f));
+    engine.saveState(null);
+    RenderStates positionOnly = new RenderStates();
+    positionOnly.addPosition();
+    engine.saveState(positionOnly);
+    engine.setColor(new Color(0.f, 1.f, 0.f, 1.f));
+    engine.restoreState();
+    assertColor(0.f, 1.f, 0.f, 1.f);
+    engine.restoreState();
+    assertColor(1.f, 0.f, 0.f, 1.f);
+  }
+
+  public void testSelectedStatesAreAllRestored() {
+    engine.setColor(new Color(1.f, 0.f, 0.f, 1.f));
+    RenderStates states = new RenderStates();
+    states.addPosition();
+    states.addColor();
+    states.addAlpha();
+    engine.saveState(states);
+    engine.moveTo(10, 20);
+    engine.setColor(new Color(0.f, 1.f, 0.f, 0.5f));
+    engine.restoreState();
+    engine.renderQuad(0, 0, 1, 1);
+    assertEquals("0,0 1.0 0.0 0.0 1.0", quads.get(0));
+  }
+
+  public void testUnchangedBlendModeIsNotRestored() {
+    engine.saveState(null);
+    engine.restoreState();
+    assertTrue(blendModeCalls.isEmpty());
+
+    engine.saveState(null);
+    engine.setBlendMode(BlendMode.MULIPLY);
+    engine.restoreState();
+    assertEquals(2, blendModeCalls.size());
+    assertEquals(BlendMode.BLEND, blendModeCalls.get(1));
+  }
+
+  private void assertColor(final float r, final float g, final float b, final float a) {
+    quads.clear();
+    engine.renderQuad(0, 0, 1, 1);
+    assertEquals("0,0 " + r + " " + g + " " + b + " " + a, quads.get(0));
+  }
+}
@@ -0,0 +1,116 @@
+package de.lessvoid.nifty.render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.tools.Color;
+
+public class RenderCommandBufferTest extends TestCase {
+  private RenderCommandBuffer buffer = new RenderCommandBuffer();
+  private List<String> calls = new ArrayList<String>();
+
+  private NullRenderDevice device = new NullRenderDevice() {
+    @Override
+    public void setBlendMode(final BlendMode renderMode) {
+      calls.add("blend " + renderMode);
+    }
+
+    @Override
+    public void renderQuad(final int x, final int y, final int width, final int height, final Color color) {
+      calls.add("quad " + x + "," + y + "," + width + "," + height + " " + describe(color));
+    }
+
+    @Override
+    public void renderFont(
+        final RenderFont font,
+        final String text,
+        final int x,
+        final int y,
+        final Color fontColor,
+        final float sizeX,
+        final float sizeY) {
+      calls.add("font " + text + " " + x + "," + y + " " + describe(fontColor) + " " + sizeX + "," + sizeY);
+    }
+
+    @Override
+    public void enableClip(final int x0, final int y0, final int x1, final int y1) {
+      calls.add("clip " + x0 + "," + y0 + "," + x1 + "," + y1);
+    }
+
+    @Override
+    public void disableClip() {
+      calls.add("noclip");
+    }
+  };
+
+  private static String describe(final Color color) {
+    if (color == null) {
+      return "null";
+    }
+    return color.getRed() + "/" + color.getGreen() + "/" + color.getBlue() + "/" + color.getAlpha();
+  }
+
+  public void testEmptyBuffer() {
+    buffer.reset();
+    buffer.replay(device);
+    assertTrue(calls.isEmpty());
+    assertTrue(buffer.isReplayable());
+  }
+
+  public void testReplayInRecordedOrder() {
+    buffer.reset();
+    buffer.setBlendMode(BlendMode.MULIPLY);
+    buffer.enableClip(1, 2, 3, 4);
+    buffer.renderQuad(10, 20, 30, 40, new Color("#f00f"));
+    buffer.renderFont(null, "hello", 5, 6, null, 1.f, 2.f);
+    buffer.disableClip();
+    assertEquals(5, buffer.size());
+
+    buffer.replay(device);
+    assertEquals(5, calls.size());
+    assertEquals("blend MULIPLY", calls.get(0));
+    assertEquals("clip 1,2,3,4", calls.get(1));
+    assertEquals("quad 10,20,30,40 1.0/0.0/0.0/1.0", calls.get(2));
+    assertEquals("font hello 5,6 null 1.0,2.0", calls.get(3));
+    assertEquals("noclip", calls.get(4));
+  }
+
+  public void testPackedColorIsReplayedAsColor() {
+    buffer.reset();
+    buffer.renderQuad(10, 20, 30, 40, 0xff0000ff);
+    buffer.replay(device);
+    assertEquals("quad 10,20,30,40 1.0/0.0/0.0/1.0", calls.get(0));
+  }
+
+  public void testColorIsCopiedWhenRecorded() {
+    Color color = new Color("#f00f");
+    buffer.reset();
+    buffer.renderQuad(0, 0, 1, 1, color);
+    color.setGreen(1.f);
+
+    buffer.replay(device);
+    assertEquals("quad 0,0,1,1 1.0/0.0/0.0/1.0", calls.get(0));
+  }
+
+  public void testResetRemovesCommands() {
+    buffer.reset();
+    buffer.disableClip();
+    buffer.setReplayable(false);
+    buffer.reset();
+    assertEquals(0, buffer.size());
+    assertTrue(buffer.isReplayable());
+  }
+
+  public void testGrowsBeyondInitialCapacity() {
+    buffer.reset();
+    for (int i=0; i<1000; i++) {
+      buffer.renderQuad(i, 0, 1, 1, Color.WHITE);
+    }
+    buffer.replay(device);
+    assertEquals(1000, calls.size());
+    assertEquals("quad 999,0,1,1 1.0/1.0/1.0/1.0", calls.get(999));
+  }
+}
@@ -1,6 +1,9 @@
 package de.lessvoid.nifty.render.image;
 
 import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.eq;
+import static org.easymock.classextension.EasyMock.expectLastCall;
+import static org.easymock.classextension.EasyMock.isA;
 import static org.easymock.classextension.EasyMock.expect;
 import static org.easymock.classextension.EasyMock.replay;
 import static org.easymock.classextension.EasyMock.verify;
@@ -12,7 +15,10 @@ import de.lessvoid.nifty.Size;
 import de.lessvoid.nifty.layout.Box;
 import de.lessvoid.nifty.render.NiftyImage;
 import de.lessvoid.nifty.render.image.areaprovider.AreaProvider;
+import de.lessvoid.nifty.render.image.renderstrategy.CacheableRenderStrategy;
+import de.lessvoid.nifty.render.image.renderstrategy.ImageQuadList;
 import de.lessvoid.nifty.render.image.renderstrategy.RenderStrategy;
+import de.lessvoid.nifty.render.image.renderstrategy.RepeatStrategy;
 import de.lessvoid.nifty.spi.render.RenderDevice;
 import de.lessvoid.nifty.spi.render.RenderImage;
 import de.lessvoid.nifty.tools.Color;
@@ -40,6 +46,55 @@ public class CompoundImageModeTest {
 		verify(areaProvider);
 	}
 
+	@Test
+	public void testQuadsOfCacheableRenderStrategyAreOnlyComputedWhenTheSizeChanges() {
+		RenderImage image = createMock(RenderImage.class);
+
+		RenderDevice renderDevice = createMock(RenderDevice.class);
+		replay(renderDevice);
+
+		AreaProvider areaProvider = createMock(AreaProvider.class);
+		expect(areaProvider.getSourceArea(image)).andReturn(new Box(1, 2, 3, 4)).anyTimes();
+		replay(areaProvider);
+
+		CacheableRenderStrategy renderStrategy = createMock(CacheableRenderStrategy.class);
+		renderStrategy.addQuads(isA(ImageQuadList.class), eq(new Box(1, 2, 3, 4)), eq(10), eq(20));
+		expectLastCall().once();
+		renderStrategy.addQuads(isA(ImageQuadList.class), eq(new Box(1, 2, 3, 4)), eq(30), eq(20));
+		expectLastCall().once();
+		replay(renderStrategy);
+
+		CompoundImageMode compoundImageMode = new CompoundImageMode(areaProvider, renderStrategy);
+		compoundImageMode.render(renderDevice, image, 0, 0, 10, 20, Color.NONE, 1);
+		compoundImageMode.render(renderDevice, image, 5, 5, 10, 20, Color.NONE, 1);
+		compoundImageMode.render(renderDevice, image, 5, 5, 30, 20, Color.NONE, 1);
+
+		verify(renderStrategy);
+	}
+
+	@Test
+	public void testCachedQuadsAreRenderedAtTheCurrentPosition() {
+		RenderImage image = createMock(RenderImage.class);
+
+		AreaProvider areaProvider = createMock(AreaProvider.class);
+		expect(areaProvider.getSourceArea(image)).andReturn(new Box(3, 5, 7, 9)).anyTimes();
+		replay(areaProvider);
+
+		RenderDevice renderDevice = createMock(RenderDevice.class);
+		renderDevice.renderImage(image, 1, 2, 7, 9, 3, 5, 7, 9, Color.NONE, 11, 4, 6);
+		renderDevice.renderImage(image, 11, 12, 7, 9, 3, 5, 7, 9, Color.NONE, 11, 14, 16);
+		replay(renderDevice);
+
+		RepeatStrategy repeatStrategy = new RepeatStrategy();
+		repeatStrategy.setParameters(null);
+
+		CompoundImageMode compoundImageMode = new CompoundImageMode(areaProvider, repeatStrategy);
+		compoundImageMode.render(renderDevice, image, 1, 2, 7, 9, Color.NONE, 11);
+		compoundImageMode.render(renderDevice, image, 11, 12, 7, 9, Color.NONE, 11);
+
+		verify(renderDevice);
+	}
+
 	@Test
 	public void testGetNativeSizeReturnsSameSizeAsAreaProvider() {
 		NiftyImage image = createMock(NiftyImage.class);
@@ -0,0 +1,295 @@
+package de.lessvoid.nifty.screen;
+
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.controls.FocusHandler;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.input.NiftyMouseInputEvent;
+import de.lessvoid.nifty.layout.Box;
+import de.lessvoid.nifty.layout.BoxConstraints;
+import de.lessvoid.nifty.layout.LayoutPart;
+import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+
+public class MouseOverIndexTest {
+  private Nifty niftyMock;
+  private FocusHandler focusHandler = new FocusHandler();
+  private MouseOverIndex index = new MouseOverIndex();
+  private MouseOverHandler mouseOverHandler = new MouseOverHandler();
+  private Element layer;
+
+  @Before
+  public void before() {
+    niftyMock = createNiceMock(Nifty.class);
+    replay(niftyMock);
+    layer = createElement("layer", null, 0, 0, 1024, 768, false);
+  }
+
+  @Test
+  public void testQueryReturnsTheElementsBelowTheMouse() {
+    createElement("a", layer, 10, 10, 20, 20);
+    createElement("b", layer, 200, 10, 20, 20);
+    createElement("c", layer, 15, 15, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+
+    assertEquals(3, index.size());
+    assertHits(20, 20, "a", "c");
+    assertHits(210, 20, "b");
+    assertHits(500, 500);
+  }
+
+  @Test
+  public void testElementsAreKeptInTreeOrder() {
+    Element a = createElement("a", layer, 10, 10, 100, 100);
+    createElement("b", layer, 10, 10, 100, 100);
+    createElement("a1", a, 20, 20, 10, 10);
+    index.rebuild(Arrays.asList(layer));
+
+    assertHits(25, 25, "a", "a1", "b");
+  }
+
+  @Test
+  public void testLargeElementsAreReturnedForEveryQuery() {
+    createElement("background", layer, 0, 0, 1024, 768);
+    createElement("a", layer, 10, 10, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+
+    assertHits(20, 20, "background", "a");
+    assertHits(900, 700, "background");
+    assertHits(-10, -10, "background");
+  }
+
+  @Test
+  public void testRebuildAfterInvalidate() {
+    Element a = createElement("a", layer, 10, 10, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+    assertTrue(index.isValid());
+
+    a.getLayoutPart().getBox().setX(300);
+    assertHits(20, 20, "a");
+
+    index.invalidate();
+    assertFalse(index.isValid());
+    createElement("b", layer, 10, 10, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+    assertTrue(index.isValid());
+    assertHits(20, 20, "b");
+    assertHits(310, 20, "a");
+  }
+
+  @Test
+  public void testMovedElementIsUpdatedWithoutRebuild() {
+    Element a = createElement("a", layer, 10, 10, 20, 20);
+    createElement("b", layer, 300, 300, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+
+    // c is not indexed when the index is only updated
+    createElement("c", layer, 310, 10, 20, 20);
+    a.getLayoutPart().getBox().setX(300);
+    index.elementMoved(a);
+    index.update(Arrays.asList(layer));
+    assertTrue(index.isValid());
+    assertHits(20, 20);
+    assertHits(310, 20, "a");
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  public void testMovedElementsKeepTheTreeOrder() {
+    Element a = createElement("a", layer, 10, 10, 20, 20);
+    Element b = createElement("b", layer, 200, 10, 20, 20);
+    createElement("c", layer, 200, 10, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+
+    a.getLayoutPart().getBox().setX(200);
+    b.getLayoutPart().getBox().setX(10);
+    index.elementMoved(b);
+    index.elementMoved(a);
+    index.update(Arrays.asList(layer));
+    assertHits(210, 20, "a", "c");
+    assertHits(20, 20, "b");
+  }
+
+  @Test
+  public void testElementMovedToALargeBoxIsReturnedForEveryQuery() {
+    Element a = createElement("a", layer, 10, 10, 20, 20);
+    createElement("b", layer, 300, 300, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+
+    a.getLayoutPart().getBox().setWidth(1000);
+    a.getLayoutPart().getBox().setHeight(700);
+    index.elementMoved(a);
+    index.update(Arrays.asList(layer));
+    assertHits(310, 310, "a", "b");
+
+    a.getLayoutPart().getBox().setWidth(20);
+    a.getLayoutPart().getBox().setHeight(20);
+    index.elementMoved(a);
+    index.update(Arrays.asList(layer));
+    assertHits(310, 310, "b");
+    assertHits(20, 20, "a");
+  }
+
+  @Test
+  public void testElementMovedOutOfTheGridRebuildsTheIndex() {
+    Element a = createElement("a", layer, 10, 10, 20, 20);
+    createElement("b", layer, 100, 100, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+
+    a.getLayoutPart().getBox().setX(900);
+    index.elementMoved(a);
+    index.update(Arrays.asList(layer));
+    assertTrue(index.isValid());
+    assertHits(910, 20, "a");
+  }
+
+  @Test
+  public void testElementsNotVisibleToMouseEventsAreNotIndexed() {
+    Element panel = createElement("panel", layer, 10, 10, 100, 100, false);
+    createElement("a", panel, 20, 20, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+
+    assertEquals(1, index.size());
+    assertEquals(-1, index.indexOf(panel));
+    assertHits(30, 30, "a");
+  }
+
+  @Test
+  public void testPopupIndexOnlyContainsThePopupElements() {
+    createElement("a", layer, 10, 10, 20, 20);
+    Element popup = createElement("popup", null, 0, 0, 1024, 768, false);
+    createElement("p", popup, 10, 10, 20, 20);
+    MouseOverIndex popupIndex = new MouseOverIndex();
+
+    index.rebuild(Arrays.asList(layer));
+    popupIndex.rebuild(Arrays.asList(popup));
+
+    assertEquals(1, popupIndex.size());
+    assertEquals("p", popupIndex.getElement(popupIndex.query(20, 20) - 1).getId());
+    assertHits(20, 20, "a");
+  }
+
+  @Test
+  public void testOnlyElementsBelowTheMouseAreAdded() {
+    createElement("a", layer, 10, 10, 20, 20);
+    createElement("b", layer, 200, 10, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+
+    mouseEvent(20, 20);
+    assertEquals("mouse over elements: [a] mouse elements: ---", mouseOverHandler.getInfoString());
+  }
+
+  @Test
+  public void testElementLeftByTheMouseIsAddedOnceMore() {
+    createElement("a", layer, 10, 10, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+
+    mouseEvent(20, 20);
+    mouseEvent(500, 500);
+    assertEquals("mouse over elements: --- mouse elements: [a]", mouseOverHandler.getInfoString());
+    mouseEvent(500, 500);
+    assertEquals("mouse over elements: --- mouse elements: ---", mouseOverHandler.getInfoString());
+  }
+
+  @Test
+  public void testPressedElementIsAddedUntilTheButtonIsReleased() {
+    Element a = createElement("a", layer, 10, 10, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+
+    mouseEvent(20, 20);
+    buttonEvent(a, 20, 20, true);
+    mouseEvent(500, 500);
+    mouseEvent(600, 500);
+    assertEquals("mouse over elements: --- mouse elements: [a]", mouseOverHandler.getInfoString());
+
+    // the event that releases the button still reaches the element
+    mouseEvent(600, 500);
+    assertEquals("mouse over elements: --- mouse elements: [a]", mouseOverHandler.getInfoString());
+    buttonEvent(a, 600, 500, false);
+    mouseEvent(600, 500);
+    assertEquals("mouse over elements: --- mouse elements: ---", mouseOverHandler.getInfoString());
+  }
+
+  @Test
+  public void testTrackedElementsThatAreNotIndexedAnymoreAreIgnored() {
+    Element a = createElement("a", layer, 10, 10, 20, 20);
+    index.rebuild(Arrays.asList(layer));
+    mouseEvent(20, 20);
+
+    a.setVisibleToMouseEvents(false);
+    index.rebuild(Arrays.asList(layer));
+    mouseEvent(500, 500);
+    assertEquals("mouse over elements: --- mouse elements: ---", mouseOverHandler.getInfoString());
+  }
+
+  private Element createElement(
+      final String id,
+      final Element parent,
+      final int x,
+      final int y,
+      final int width,
+      final int height) {
+    return createElement(id, parent, x, y, width, height, true);
+  }
+
+  private Element createElement(
+      final String id,
+      final Element parent,
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final boolean visibleToMouseEvents) {
+    Element element = new Element(
+        niftyMock,
+        null,
+        id,
+        parent,
+        new LayoutPart(new Box(x, y, width, height), new BoxConstraints()),
+        focusHandler,
+        visibleToMouseEvents,
+        new AccurateTimeProvider());
+    if (parent != null) {
+      parent.add(element);
+    }
+    return element;
+  }
+
+  private void assertHits(final int x, final int y, final String ... ids) {
+    List<String> result = new ArrayList<String>();
+    int hitCount = index.query(x, y);
+    for (int i=0; i<hitCount; i++) {
+      result.add(index.getElement(index.getHit(i)).getId());
+    }
+    assertEquals(Arrays.asList(ids), result);
+  }
+
+  private void mouseEvent(final int x, final int y) {
+    NiftyMouseInputEvent event = new NiftyMouseInputEvent();
+    event.initialize(x, y, 0, false, false, false);
+    mouseOverHandler.reset();
+    mouseOverHandler.addElements(index, event);
+  }
+
+  /**
+   * Press or release the primary mouse button on the given element.
+   */
+  private void buttonEvent(final Element element, final int x, final int y, final boolean down) {
+    NiftyMouseInputEvent event = new NiftyMouseInputEvent();
+    event.initialize(x, y, 0, down, false, false);
+    event.setButton0InitialDown(down);
+    event.setButton0Release(!down);
+    element.getElementInteraction().process(event, 0, element.isMouseInsideElement(x, y), true, false);
+  }
+}
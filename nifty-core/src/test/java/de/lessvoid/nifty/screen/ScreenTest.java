@@ -1,19 +1,41 @@
 package de.lessvoid.nifty.screen;
 
 import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.expect;
 import static org.easymock.classextension.EasyMock.replay;
 import static org.easymock.classextension.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Properties;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import de.lessvoid.nifty.EndNotify;
 import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.controls.FocusHandler;
+import de.lessvoid.nifty.effects.Effect;
+import de.lessvoid.nifty.effects.EffectEventId;
+import de.lessvoid.nifty.effects.EffectImpl;
+import de.lessvoid.nifty.effects.EffectProperties;
+import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.effects.RetainableEffectImpl;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.elements.render.RetainableElementRenderer;
+import de.lessvoid.nifty.elements.render.TextRenderer;
+import de.lessvoid.nifty.elements.tools.TextBreakCache;
+import de.lessvoid.nifty.layout.manager.VerticalLayout;
+import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.screen.Screen.StartScreenEndNotify;
+import de.lessvoid.nifty.spi.render.RenderFont;
 import de.lessvoid.nifty.spi.time.TimeProvider;
+import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+import de.lessvoid.nifty.tools.SizeValue;
 
 public class ScreenTest {
   private Nifty niftyMock;
@@ -70,4 +92,236 @@ public class ScreenTest {
     startScreenEndNotify = screen.createScreenStartEndNotify(null);
     startScreenEndNotify.perform();
   }
+
+  @Test
+  public void testNeedsRenderInitially() {
+    screen.onStartScreenHasEnded();
+    assertTrue(screen.needsRender());
+  }
+
+  @Test
+  public void testNeedsRenderAfterRenderLayers() {
+    screen.onStartScreenHasEnded();
+    renderLayers();
+    assertFalse(screen.needsRender());
+  }
+
+  @Test
+  public void testNeedsRenderAfterInvalidateRender() {
+    screen.onStartScreenHasEnded();
+    renderLayers();
+    screen.invalidateRender();
+    assertTrue(screen.needsRender());
+  }
+
+  @Test
+  public void testNeedsRenderAfterScheduleLayout() {
+    screen.onStartScreenHasEnded();
+    renderLayers();
+    screen.scheduleLayout();
+    assertTrue(screen.needsRender());
+  }
+
+  @Test
+  public void testSeveralInvalidationsAreLayoutedOnce() {
+    Element layer = createLayer(createElementNiftyMock());
+    Element a = createElement("a", layer);
+    Element b = createElement("b", layer);
+    screen.layoutLayers();
+    int layoutCount = screen.layoutLayersCallCount;
+
+    a.setConstraintHeight(SizeValue.px(20));
+    b.setConstraintHeight(SizeValue.px(30));
+    a.setConstraintHeight(SizeValue.px(40));
+    assertTrue(screen.isLayoutScheduled());
+    assertEquals(layoutCount, screen.layoutLayersCallCount);
+
+    screen.processScheduledLayout();
+    screen.processScheduledLayout();
+    assertEquals(layoutCount + 1, screen.layoutLayersCallCount);
+    assertFalse(screen.isLayoutScheduled());
+    assertEquals(40, a.getHeight());
+    assertEquals(30, b.getHeight());
+  }
+
+  @Test
+  public void testElementNotBoundToTheScreenIsLayouted() {
+    Element layer = createLayer(createElementNiftyMock());
+    screen.layoutLayers();
+
+    // the elements are created after the layer has been bound to the screen
+    Element panel = createElement("panel", layer);
+    panel.setLayoutManager(new VerticalLayout());
+    Element a = createElement("a", panel);
+    screen.processScheduledLayout();
+
+    a.setConstraintHeight(SizeValue.px(20));
+    assertTrue(screen.isLayoutScheduled());
+    screen.processScheduledLayout();
+    assertEquals(20, a.getHeight());
+  }
+
+  @Test
+  public void testSetTextChangesTheSizeOfWrappedTextWithTheNextLayout() {
+    Nifty elementNiftyMock = createNiceMock(Nifty.class);
+    NiftyRenderEngine renderEngineMock = createNiceMock(NiftyRenderEngine.class);
+    replay(renderEngineMock);
+    expect(elementNiftyMock.getRenderEngine()).andStubReturn(renderEngineMock);
+    expect(elementNiftyMock.getTextBreakCache()).andStubReturn(new TextBreakCache());
+    expect(elementNiftyMock.specialValuesReplace("aaa")).andStubReturn("aaa");
+    expect(elementNiftyMock.specialValuesReplace("aaa bbb")).andStubReturn("aaa bbb");
+    replay(elementNiftyMock);
+
+    Element layer = createLayer(elementNiftyMock);
+    TextRenderer textRenderer = new TextRenderer(elementNiftyMock, new FixedWidthFont(), "aaa");
+    textRenderer.setLineWrapping(true);
+    Element text = new Element(
+        elementNiftyMock, null, "text", layer, new FocusHandler(), false, new AccurateTimeProvider(), textRenderer);
+    text.setConstraintWidth(SizeValue.px(40));
+    text.setConstraintHeight(SizeValue.px(10));
+    layer.add(text);
+    screen.layoutLayers();
+    assertEquals(10, text.getHeight());
+
+    textRenderer.setText("aaa bbb");
+    assertTrue(screen.isLayoutScheduled());
+    screen.processScheduledLayout();
+    assertEquals(20, text.getHeight());
+  }
+
+  @Test
+  public void testStaticOnActiveEffectLetsTheScreenGoIdle() {
+    Element layer = createLayer(createElementNiftyMock());
+    Element element = createElement("a", layer);
+    startOnActiveEffect(element, new StaticEffect());
+
+    // the first frame updates the effect time
+    renderLayersWithEffects();
+    assertTrue(screen.needsRender());
+    renderLayersWithEffects();
+    assertFalse(screen.needsRender());
+  }
+
+  @Test
+  public void testAnimatedOnActiveEffectKeepsTheScreenRendering() {
+    Element layer = createLayer(createElementNiftyMock());
+    Element element = createElement("a", layer);
+    startOnActiveEffect(element, new AnimatedEffect());
+
+    renderLayersWithEffects();
+    renderLayersWithEffects();
+    assertTrue(screen.needsRender());
+  }
+
+  @Test
+  public void testRetainableElementRendererLetsTheScreenGoIdle() {
+    Nifty elementNiftyMock = createElementNiftyMock();
+    Element layer = createLayer(elementNiftyMock);
+    layer.add(new Element(
+        elementNiftyMock, null, "custom", layer, new FocusHandler(), false, new AccurateTimeProvider(),
+        new RetainableElementRenderer() {
+          public void render(final Element w, final NiftyRenderEngine r) {
+          }
+        }));
+
+    renderLayersWithEffects();
+    assertFalse(screen.needsRender());
+  }
+
+  private Nifty createElementNiftyMock() {
+    Nifty elementNiftyMock = createNiceMock(Nifty.class);
+    replay(elementNiftyMock);
+    return elementNiftyMock;
+  }
+
+  private Element createLayer(final Nifty elementNiftyMock) {
+    screen.onStartScreenHasEnded();
+    Element layer = new Element(
+        elementNiftyMock, null, "layer", null, new FocusHandler(), false, new AccurateTimeProvider());
+    layer.setLayoutManager(new VerticalLayout());
+    layer.getLayoutPart().getBox().setWidth(100);
+    layer.getLayoutPart().getBox().setHeight(100);
+    layer.bindControls(screen);
+    screen.addLayerElement(layer);
+    screen.processAddAndRemoveLayerElements();
+    return layer;
+  }
+
+  private Element createElement(final String id, final Element parent) {
+    Element element = new Element(
+        parent.getNifty(), null, id, parent, new FocusHandler(), false, new AccurateTimeProvider());
+    element.setConstraintHeight(SizeValue.px(10));
+    parent.add(element);
+    return element;
+  }
+
+  private void startOnActiveEffect(final Element element, final EffectImpl effectImpl) {
+    Effect effect = new Effect(
+        element.getNifty(), false, false, false, null, null, null, false, EffectEventId.onActive);
+    effect.enableInfinite();
+    effect.init(element, effectImpl, new EffectProperties(new Properties()), new AccurateTimeProvider(),
+        new ArrayList<Object>());
+    element.registerEffect(EffectEventId.onActive, effect);
+    element.startEffect(EffectEventId.onActive);
+  }
+
+  private void renderLayersWithEffects() {
+    screen.processScheduledLayout();
+    NiftyRenderEngine renderEngineMock = createNiceMock(NiftyRenderEngine.class);
+    replay(renderEngineMock);
+    screen.renderLayers(renderEngineMock);
+  }
+
+  private void renderLayers() {
+    NiftyRenderEngine renderEngineMock = createMock(NiftyRenderEngine.class);
+    replay(renderEngineMock);
+    screen.renderLayers(renderEngineMock);
+    verify(renderEngineMock);
+  }
+
+  private static class StaticEffect implements RetainableEffectImpl {
+    public void activate(final Nifty nifty, final Element element, final EffectProperties parameter) {
+    }
+
+    public void execute(final Element element, final float effectTime, final Falloff falloff, final NiftyRenderEngine r) {
+    }
+
+    public void deactivate() {
+    }
+  }
+
+  private static class AnimatedEffect implements EffectImpl {
+    public void activate(final Nifty nifty, final Element element, final EffectProperties parameter) {
+    }
+
+    public void execute(final Element element, final float effectTime, final Falloff falloff, final NiftyRenderEngine r) {
+    }
+
+    public void deactivate() {
+    }
+  }
+
+  /**
+   * Every character is 10 pixel wide and high.
+   */
+  private static class FixedWidthFont implements RenderFont {
+    public int getWidth(final String text) {
+      return text.length() * 10;
+    }
+
+    public int getWidth(final String text, final float size) {
+      return getWidth(text);
+    }
+
+    public int getHeight() {
+      return 10;
+    }
+
+    public int getCharacterAdvance(final char currentCharacter, final char nextCharacter, final float size) {
+      return 10;
+    }
+
+    public void dispose() {
+    }
+  }
 }
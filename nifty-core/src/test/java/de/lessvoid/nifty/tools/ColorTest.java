@@ -62,6 +62,32 @@ public class ColorTest {
     assertEquals("#0f7f", c.getColorString());
   }
 
+  @Test
+  public void testRGBA8888() {
+    assertEquals(0xff008040, Color.rgba8888(1.0f, 0.0f, 0.5f, 0.25f));
+    assertEquals(0xff0000ff, new Color("#f00f").toRGBA8888());
+    assertEquals(0x000000ff, Color.rgba8888(-1.0f, 0.0f, 0.0f, 2.0f));
+  }
+
+  @Test
+  public void testFromRGBA8888() {
+    Color c = new Color("#000f");
+    c.fromRGBA8888(0xff008040);
+    checkColor(c, 1.0f, 0.0f, 0.5f, 0.25f);
+  }
+
+  @Test
+  public void testWithAlpha() {
+    assertEquals(0x11223380, Color.withAlpha(0x112233ff, 0x80));
+  }
+
+  @Test
+  public void testLinearRGBA8888() {
+    assertEquals(0x000000ff, Color.linear(0x000000ff, 0xffffff00, 0.0f));
+    assertEquals(0xffffff00, Color.linear(0x000000ff, 0xffffff00, 1.0f));
+    assertEquals(0x80808080, Color.linear(0x00000000, 0xffffffff, 0.5f));
+  }
+
   private void checkColor(Color m, float red, float green, float blue, float alpha) {
     assertEquals(red, m.getRed(), EPSILON);
     assertEquals(green, m.getGreen(), EPSILON);
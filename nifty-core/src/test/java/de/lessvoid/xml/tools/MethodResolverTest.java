@@ -0,0 +1,54 @@
+package de.lessvoid.xml.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.lessvoid.xml.tools.MethodResolver.ResolvedMethod;
+
+public class MethodResolverTest {
+
+  @Test
+  public void testResolveMethodWithParameters() {
+    ResolvedMethod resolved = MethodResolver.resolveMethod(Target.class, "concat(a, b)");
+    assertEquals("concat", resolved.getMethod().getName());
+    assertEquals(Arrays.asList("a", "b"), Arrays.asList(resolved.getParameters()));
+    assertEquals(2, resolved.getMethodParameterCount());
+  }
+
+  @Test
+  public void testResolveMethodIsCached() {
+    assertSame(
+        MethodResolver.resolveMethod(Target.class, "value()"),
+        MethodResolver.resolveMethod(Target.class, "value()"));
+  }
+
+  @Test
+  public void testResolveMissingMethod() {
+    assertNull(MethodResolver.resolveMethod(Target.class, "missing()"));
+    assertNull(MethodResolver.resolveMethod(Target.class, "missing()"));
+    assertNull(MethodResolver.resolveMethod(Target.class, "value"));
+    assertNull(MethodResolver.resolveMethod(null, "value()"));
+  }
+
+  @Test
+  public void testInvokeNonPublicClass() {
+    assertEquals("ab", new MethodInvoker("concat(a, b)", new Target()).invoke());
+    assertEquals("xy", new MethodInvoker("concat()", new Target()).invoke("x", "y"));
+    assertEquals("value", new MethodInvoker("value()", new Target()).invoke("ignored"));
+  }
+
+  private static class Target {
+    public String concat(final String a, final String b) {
+      return a + b;
+    }
+
+    public String value() {
+      return "value";
+    }
+  }
+}
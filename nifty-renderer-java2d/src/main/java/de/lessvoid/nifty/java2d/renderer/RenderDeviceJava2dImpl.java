@@ -18,13 +18,13 @@ import de.lessvoid.nifty.java2d.renderer.fonts.AngelCodeFont;
 import de.lessvoid.nifty.java2d.renderer.fonts.CharacterInfo;
 import de.lessvoid.nifty.render.BlendMode;
 import de.lessvoid.nifty.spi.render.MouseCursor;
-import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.render.PackedColorRenderDevice;
 import de.lessvoid.nifty.spi.render.RenderFont;
 import de.lessvoid.nifty.spi.render.RenderImage;
 import de.lessvoid.nifty.tools.Color;
 import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
 
-public class RenderDeviceJava2dImpl implements RenderDevice {
+public class RenderDeviceJava2dImpl implements PackedColorRenderDevice {
 
 	protected static final Logger logger = Logger.getLogger(RenderDeviceJava2dImpl.class.getName());
 
@@ -43,11 +43,35 @@ public class RenderDeviceJava2dImpl implements RenderDevice {
 		return graphics;
 	}
 
+	// the last packed color converted and the java.awt.Color we've created for it
+	private int lastPackedColor;
+	private java.awt.Color lastPackedAwtColor;
+
+	// packed colors are unpacked into these instances for the methods that need a nifty Color
+	private final Color unpacked0 = new Color(0.f, 0.f, 0.f, 0.f);
+	private final Color unpacked1 = new Color(0.f, 0.f, 0.f, 0.f);
+	private final Color unpacked2 = new Color(0.f, 0.f, 0.f, 0.f);
+	private final Color unpacked3 = new Color(0.f, 0.f, 0.f, 0.f);
+
 	private java.awt.Color convertNiftyColor(Color color) {
 		return new java.awt.Color(color.getRed(), color.getGreen(), color
 				.getBlue(), color.getAlpha());
 	}
 
+	private java.awt.Color convertPackedColor(int rgba) {
+		if (lastPackedAwtColor == null || lastPackedColor != rgba) {
+			lastPackedAwtColor = new java.awt.Color(rgba >>> 24,
+					(rgba >>> 16) & 0xFF, (rgba >>> 8) & 0xFF, rgba & 0xFF);
+			lastPackedColor = rgba;
+		}
+		return lastPackedAwtColor;
+	}
+
+	private Color unpack(Color target, int rgba) {
+		target.fromRGBA8888(rgba);
+		return target;
+	}
+
   @Override
   public void setResourceLoader(final NiftyResourceLoader resourceLoader) {
     this.resourceLoader = resourceLoader;
@@ -212,6 +236,43 @@ public class RenderDeviceJava2dImpl implements RenderDevice {
 		graphics.fillRect(x, y, width, height);
 	}
 
+	@Override
+	public void renderQuad(int x, int y, int width, int height, int color) {
+		graphics.setClip(clipRectangle);
+		graphics.setColor(convertPackedColor(color));
+		graphics.fillRect(x, y, width, height);
+	}
+
+	@Override
+	public void renderQuad(int x, int y, int width, int height, int topLeft,
+			int topRight, int bottomRight, int bottomLeft) {
+		renderQuad(x, y, width, height, unpack(unpacked0, topLeft),
+				unpack(unpacked1, topRight), unpack(unpacked2, bottomRight),
+				unpack(unpacked3, bottomLeft));
+	}
+
+	@Override
+	public void renderImage(RenderImage image, int x, int y, int width,
+			int height, int color, float imageScale) {
+		renderImage(image, x, y, width, height, unpack(unpacked0, color),
+				imageScale);
+	}
+
+	@Override
+	public void renderImage(RenderImage image, int x, int y, int w, int h,
+			int srcX, int srcY, int srcW, int srcH, int color, float scale,
+			int centerX, int centerY) {
+		renderImage(image, x, y, w, h, srcX, srcY, srcW, srcH,
+				unpack(unpacked0, color), scale, centerX, centerY);
+	}
+
+	@Override
+	public void renderFont(RenderFont font, String text, int x, int y,
+			int fontColor, float sizeX, float sizeY) {
+		renderFont(font, text, x, y, unpack(unpacked0, fontColor), sizeX,
+				sizeY);
+	}
+
 	public static boolean sameColor(Color color1, Color color2) {
 		if (color1.getRed() == color2.getRed()
 				&& color1.getGreen() == color2.getGreen()
@@ -25,7 +25,6 @@ import de.lessvoid.nifty.renderer.lwjgl.render.io.ImageData;
 import de.lessvoid.nifty.renderer.lwjgl.render.io.ImageIOImageData;
 import de.lessvoid.nifty.renderer.lwjgl.render.io.TGAImageData;
 import de.lessvoid.nifty.spi.render.MouseCursor;
-import de.lessvoid.nifty.tools.Color;
 import de.lessvoid.nifty.tools.ObjectPool;
 import de.lessvoid.nifty.tools.ObjectPool.Factory;
 import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
@@ -40,7 +39,7 @@ public class LwjglBatchRenderBackend implements BatchRenderBackend {
   private NiftyResourceLoader resourceLoader;
   private int viewportWidth = -1;
   private int viewportHeight = -1;
-  private int textureId;
+  private final List<Integer> atlasTextures = new ArrayList<Integer>();
   private final ObjectPool<Batch> batchPool;
   private Batch currentBatch;
   private final List<Batch> batches = new ArrayList<Batch>();
@@ -133,24 +132,28 @@ public class LwjglBatchRenderBackend implements BatchRenderBackend {
   }
 
   @Override
-  public void createAtlasTexture(final int width, final int height) {
+  public int createAtlasTexture(final int width, final int height) {
     try {
-      createAtlasTexture(width, height, false, GL11.GL_RGBA);
-
-      initialData = BufferUtils.createByteBuffer(width*height*4);
-      for (int i=0; i<width*height; i++) {
-        initialData.put((byte) 0x00);
-        initialData.put((byte) 0xff);
-        initialData.put((byte) 0x00);
-        initialData.put((byte) 0xff);
+      atlasTextures.add(createAtlasTexture(width, height, false, GL11.GL_RGBA));
+
+      if (initialData == null || initialData.capacity() != width*height*4) {
+        initialData = BufferUtils.createByteBuffer(width*height*4);
+        for (int i=0; i<width*height; i++) {
+          initialData.put((byte) 0x00);
+          initialData.put((byte) 0xff);
+          initialData.put((byte) 0x00);
+          initialData.put((byte) 0xff);
+        }
       }
     } catch (Exception e) {
       log.log(Level.WARNING, e.getMessage(), e);
     }
+    return atlasTextures.size() - 1;
   }
 
   @Override
-  public void clearAtlasTexture(final int width, final int height) {
+  public void clearAtlasTexture(final int atlasTextureId, final int width, final int height) {
+    bind(atlasTextureId);
     initialData.rewind();
     GL11.glTexImage2D(
           GL11.GL_TEXTURE_2D,
@@ -181,12 +184,13 @@ public class LwjglBatchRenderBackend implements BatchRenderBackend {
   }
 
   @Override
-  public void addImageToTexture(final Image image, final int x, final int y) {
+  public void addImageToTexture(final int atlasTextureId, final Image image, final int x, final int y) {
     ImageImpl imageImpl = (ImageImpl) image;
     if (imageImpl.getWidth() == 0 ||
         imageImpl.getHeight() == 0) {
       return;
     }
+    bind(atlasTextureId);
     GL11.glTexSubImage2D(
         GL11.GL_TEXTURE_2D,
         0,
@@ -200,43 +204,37 @@ public class LwjglBatchRenderBackend implements BatchRenderBackend {
   }
 
   @Override
-  public void beginBatch(final BlendMode blendMode) {
+  public void beginBatch(final BlendMode blendMode, final int atlasTextureId) {
     batches.add(batchPool.allocate());
     currentBatch = batches.get(batches.size() - 1);
-    currentBatch.begin(blendMode);
+    currentBatch.begin(blendMode, atlasTextureId);
   }
 
   @Override
-  public void addQuad(
-      final float x,
-      final float y,
-      final float width,
-      final float height,
-      final Color color1,
-      final Color color2,
-      final Color color3,
-      final Color color4,
-      final float textureX,
-      final float textureY,
-      final float textureWidth,
-      final float textureHeight) {
-    if (!currentBatch.canAddQuad()) {
-      beginBatch(currentBatch.getBlendMode());
-    }
-    currentBatch.addQuadInternal(x, y, width, height, color1, color2, color3, color4, textureX, textureY, textureWidth, textureHeight);
+  public void addQuads(final float[] quads, final int offset, final int count) {
+    for (int i=0; i<count; i++) {
+      if (!currentBatch.canAddQuad()) {
+        beginBatch(currentBatch.getBlendMode(), currentBatch.getAtlasTextureId());
+      }
+      currentBatch.addQuadInternal(quads, offset + i * QUAD_SIZE);
+    }
   }
 
   @Override
   public int render() {
-    bind();
     GL11.glEnable(GL11.GL_TEXTURE_2D);
     GL11.glEnable(GL11.GL_BLEND);
     GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
     GL11.glEnableClientState(GL11.GL_COLOR_ARRAY);
     GL11.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
 
+    int boundAtlasTextureId = -1;
     for (int i=0; i<batches.size(); i++) {
       Batch batch = batches.get(i);
+      if (batch.getAtlasTextureId() != boundAtlasTextureId) {
+        boundAtlasTextureId = batch.getAtlasTextureId();
+        bind(boundAtlasTextureId);
+      }
       batch.render();
     }
 
@@ -250,7 +248,7 @@ public class LwjglBatchRenderBackend implements BatchRenderBackend {
   }
 
   @Override
-  public void removeFromTexture(final Image image, final int x, final int y, final int w, final int h) {
+  public void removeFromTexture(final int atlasTextureId, final Image image, final int x, final int y, final int w, final int h) {
     // Since we clear the whole texture when we switch screens it's not really necessary to remove data from the
     // texture atlas when individual textures are removed. If necessary this can be enabled with a system property.
     if (!fillRemovedTexture) {
@@ -265,6 +263,7 @@ public class LwjglBatchRenderBackend implements BatchRenderBackend {
     }
     initialData.rewind();
 
+    bind(atlasTextureId);
     GL11.glTexSubImage2D(
         GL11.GL_TEXTURE_2D,
         0,
@@ -328,15 +327,16 @@ public class LwjglBatchRenderBackend implements BatchRenderBackend {
     return new ImageIOImageData();
   }
 
-  private void createAtlasTexture(final int width, final int height, final boolean filter, final int srcPixelFormat) throws Exception {
-    textureId = createTextureId();
+  private int createAtlasTexture(final int width, final int height, final boolean filter, final int srcPixelFormat) throws Exception {
+    int textureId = createTextureId();
     int minFilter = GL11.GL_NEAREST;
     int magFilter = GL11.GL_NEAREST;
     if (filter) {
       minFilter = GL11.GL_LINEAR_MIPMAP_LINEAR;
       magFilter = GL11.GL_NEAREST;
     }
-    bind();
+    GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureId);
+    checkGLError();
 
     IntBuffer temp = BufferUtils.createIntBuffer(16);
     GL11.glGetInteger(GL11.GL_MAX_TEXTURE_SIZE, temp);
@@ -348,11 +348,11 @@ public class LwjglBatchRenderBackend implements BatchRenderBackend {
     }
     if (width < 0) {
       log.warning("Attempt to allocate a texture with negative width");
-      return;
+      return textureId;
     }
     if (height < 0) {
       log.warning("Attempt to allocate a texture with negative height");
-      return;
+      return textureId;
     }
 
     GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, minFilter); 
@@ -375,10 +375,11 @@ public class LwjglBatchRenderBackend implements BatchRenderBackend {
           GL11.GL_UNSIGNED_BYTE, 
           initialData);
     checkGLError();
+    return textureId;
   }
 
-  private void bind() {
-    GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureId);
+  private void bind(final int atlasTextureId) {
+    GL11.glBindTexture(GL11.GL_TEXTURE_2D, atlasTextures.get(atlasTextureId));
     checkGLError();
   }
 
@@ -442,13 +443,15 @@ public class LwjglBatchRenderBackend implements BatchRenderBackend {
     private int primitiveCount;
     private float[] primitiveBuffer = new float[PRIMITIVE_SIZE];
     private BlendMode blendMode = BlendMode.BLEND;
+    private int atlasTextureId;
 
     private Batch() {
       vertexBuffer = BufferUtils.createFloatBuffer(SIZE);
     }
 
-    public void begin(final BlendMode blendMode) {
+    public void begin(final BlendMode blendMode, final int atlasTextureId) {
       this.blendMode = blendMode;
+      this.atlasTextureId = atlasTextureId;
       primitiveCount = 0;
       vertexBuffer.clear();
     }
@@ -457,6 +460,10 @@ public class LwjglBatchRenderBackend implements BatchRenderBackend {
       return blendMode;
     }
 
+    public int getAtlasTextureId() {
+      return atlasTextureId;
+    }
+
     public void render() {
       if (blendMode.equals(BlendMode.BLEND)) {
         GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
@@ -481,54 +488,54 @@ public class LwjglBatchRenderBackend implements BatchRenderBackend {
       return ((primitiveCount + 1) * PRIMITIVE_SIZE) < SIZE;
     }
 
-    private void addQuadInternal(
-        final float x,
-        final float y,
-        final float width,
-        final float height,
-        final Color color1,
-        final Color color2,
-        final Color color3,
-        final Color color4,
-        final float textureX,
-        final float textureY,
-        final float textureWidth,
-        final float textureHeight) {
+    private void addQuadInternal(final float[] quads, final int quadIndex) {
+      float x = quads[quadIndex];
+      float y = quads[quadIndex + 1];
+      float width = quads[quadIndex + 2];
+      float height = quads[quadIndex + 3];
+      float textureX = quads[quadIndex + 4];
+      float textureY = quads[quadIndex + 5];
+      float textureWidth = quads[quadIndex + 6];
+      float textureHeight = quads[quadIndex + 7];
+      int color1 = quadIndex + 8;
+      int color2 = quadIndex + 12;
+      int color3 = quadIndex + 16;
+      int color4 = quadIndex + 20;
       int bufferIndex = 0;
 
       primitiveBuffer[bufferIndex++] = x;
       primitiveBuffer[bufferIndex++] = y;
-      primitiveBuffer[bufferIndex++] = color1.getRed();
-      primitiveBuffer[bufferIndex++] = color1.getGreen();
-      primitiveBuffer[bufferIndex++] = color1.getBlue();
-      primitiveBuffer[bufferIndex++] = color1.getAlpha();
+      primitiveBuffer[bufferIndex++] = quads[color1];
+      primitiveBuffer[bufferIndex++] = quads[color1 + 1];
+      primitiveBuffer[bufferIndex++] = quads[color1 + 2];
+      primitiveBuffer[bufferIndex++] = quads[color1 + 3];
       primitiveBuffer[bufferIndex++] = textureX;
       primitiveBuffer[bufferIndex++] = textureY;
 
       primitiveBuffer[bufferIndex++] = x + width;
       primitiveBuffer[bufferIndex++] = y;
-      primitiveBuffer[bufferIndex++] = color2.getRed();
-      primitiveBuffer[bufferIndex++] = color2.getGreen();
-      primitiveBuffer[bufferIndex++] = color2.getBlue();
-      primitiveBuffer[bufferIndex++] = color2.getAlpha();
+      primitiveBuffer[bufferIndex++] = quads[color2];
+      primitiveBuffer[bufferIndex++] = quads[color2 + 1];
+      primitiveBuffer[bufferIndex++] = quads[color2 + 2];
+      primitiveBuffer[bufferIndex++] = quads[color2 + 3];
       primitiveBuffer[bufferIndex++] = textureX + textureWidth;
       primitiveBuffer[bufferIndex++] = textureY;
 
       primitiveBuffer[bufferIndex++] = x + width;
       primitiveBuffer[bufferIndex++] = y + height;
-      primitiveBuffer[bufferIndex++] = color4.getRed();
-      primitiveBuffer[bufferIndex++] = color4.getGreen();
-      primitiveBuffer[bufferIndex++] = color4.getBlue();
-      primitiveBuffer[bufferIndex++] = color4.getAlpha();
+      primitiveBuffer[bufferIndex++] = quads[color4];
+      primitiveBuffer[bufferIndex++] = quads[color4 + 1];
+      primitiveBuffer[bufferIndex++] = quads[color4 + 2];
+      primitiveBuffer[bufferIndex++] = quads[color4 + 3];
       primitiveBuffer[bufferIndex++] = textureX + textureWidth;
       primitiveBuffer[bufferIndex++] = textureY + textureHeight;
 
       primitiveBuffer[bufferIndex++] = x;
       primitiveBuffer[bufferIndex++] = y + height;
-      primitiveBuffer[bufferIndex++] = color3.getRed();
-      primitiveBuffer[bufferIndex++] = color3.getGreen();
-      primitiveBuffer[bufferIndex++] = color3.getBlue();
-      primitiveBuffer[bufferIndex++] = color3.getAlpha();
+      primitiveBuffer[bufferIndex++] = quads[color3];
+      primitiveBuffer[bufferIndex++] = quads[color3 + 1];
+      primitiveBuffer[bufferIndex++] = quads[color3 + 2];
+      primitiveBuffer[bufferIndex++] = quads[color3 + 3];
       primitiveBuffer[bufferIndex++] = textureX;
       primitiveBuffer[bufferIndex++] = textureY + textureHeight;
 
@@ -38,7 +38,6 @@ import de.lessvoid.nifty.renderer.lwjgl.render.io.ImageData;
 import de.lessvoid.nifty.renderer.lwjgl.render.io.ImageIOImageData;
 import de.lessvoid.nifty.renderer.lwjgl.render.io.TGAImageData;
 import de.lessvoid.nifty.spi.render.MouseCursor;
-import de.lessvoid.nifty.tools.Color;
 import de.lessvoid.nifty.tools.ObjectPool;
 import de.lessvoid.nifty.tools.ObjectPool.Factory;
 import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
@@ -53,7 +52,7 @@ public class LwjglBatchRenderBackendCoreProfile implements BatchRenderBackend {
   private NiftyResourceLoader resourceLoader;
   private int viewportWidth = -1;
   private int viewportHeight = -1;
-  private CoreTexture2D texture;
+  private final List<CoreTexture2D> atlasTextures = new ArrayList<CoreTexture2D>();
   private final CoreShader niftyShader;
   private final Matrix4f modelViewProjection;
   private final ObjectPool<Batch> batchPool;
@@ -164,26 +163,29 @@ public class LwjglBatchRenderBackendCoreProfile implements BatchRenderBackend {
   }
 
   @Override
-  public void createAtlasTexture(final int width, final int height) {
+  public int createAtlasTexture(final int width, final int height) {
     try {
-      createAtlasTexture(width, height, GL11.GL_RGBA);
-
-      initialData = BufferUtils.createByteBuffer(width*height*4);
-      for (int i=0; i<width*height; i++) {
-        initialData.put((byte) 0x00);
-        initialData.put((byte) 0xff);
-        initialData.put((byte) 0x00);
-        initialData.put((byte) 0xff);
+      atlasTextures.add(createAtlasTexture(width, height, GL11.GL_RGBA));
+
+      if (initialData == null || initialData.capacity() != width*height*4) {
+        initialData = BufferUtils.createByteBuffer(width*height*4);
+        for (int i=0; i<width*height; i++) {
+          initialData.put((byte) 0x00);
+          initialData.put((byte) 0xff);
+          initialData.put((byte) 0x00);
+          initialData.put((byte) 0xff);
+        }
       }
     } catch (Exception e) {
       log.log(Level.WARNING, e.getMessage(), e);
     }
+    return atlasTextures.size() - 1;
   }
 
   @Override
-  public void clearAtlasTexture(final int width, final int height) {
+  public void clearAtlasTexture(final int atlasTextureId, final int width, final int height) {
     initialData.rewind();
-    texture.updateTextureData(initialData);
+    atlasTextures.get(atlasTextureId).updateTextureData(initialData);
   }
 
   @Override
@@ -202,12 +204,13 @@ public class LwjglBatchRenderBackendCoreProfile implements BatchRenderBackend {
   }
 
   @Override
-  public void addImageToTexture(final Image image, final int x, final int y) {
+  public void addImageToTexture(final int atlasTextureId, final Image image, final int x, final int y) {
     ImageImpl imageImpl = (ImageImpl) image;
     if (imageImpl.getWidth() == 0 ||
         imageImpl.getHeight() == 0) {
       return;
     }
+    bind(atlasTextureId);
     GL11.glTexSubImage2D(
         GL11.GL_TEXTURE_2D,
         0,
@@ -221,41 +224,35 @@ public class LwjglBatchRenderBackendCoreProfile implements BatchRenderBackend {
   }
 
   @Override
-  public void beginBatch(final BlendMode blendMode) {
+  public void beginBatch(final BlendMode blendMode, final int atlasTextureId) {
     batches.add(batchPool.allocate());
     currentBatch = batches.get(batches.size() - 1);
-    currentBatch.begin(blendMode);
+    currentBatch.begin(blendMode, atlasTextureId);
   }
 
   @Override
-  public void addQuad(
-      final float x,
-      final float y,
-      final float width,
-      final float height,
-      final Color color1,
-      final Color color2,
-      final Color color3,
-      final Color color4,
-      final float textureX,
-      final float textureY,
-      final float textureWidth,
-      final float textureHeight) {
-    if (!currentBatch.canAddQuad()) {
-      beginBatch(currentBatch.getBlendMode());
+  public void addQuads(final float[] quads, final int offset, final int count) {
+    for (int i=0; i<count; i++) {
+      if (!currentBatch.canAddQuad()) {
+        beginBatch(currentBatch.getBlendMode(), currentBatch.getAtlasTextureId());
+      }
+      currentBatch.addQuadInternal(quads, offset + i * QUAD_SIZE);
     }
-    currentBatch.addQuadInternal(x, y, width, height, color1, color2, color3, color4, textureX, textureY, textureWidth, textureHeight);
   }
 
   @Override
   public int render() {
     niftyShader.activate();
-    bind();
     glEnable(GL_PRIMITIVE_RESTART);
     glPrimitiveRestartIndex(PRIMITIVE_RESTART_INDEX);
 
+    int boundAtlasTextureId = -1;
     for (int i=0; i<batches.size(); i++) {
       Batch batch = batches.get(i);
+      if (batch.getAtlasTextureId() != boundAtlasTextureId) {
+        boundAtlasTextureId = batch.getAtlasTextureId();
+        bind(boundAtlasTextureId);
+      }
       batch.render();
     }
 
@@ -265,7 +262,7 @@ public class LwjglBatchRenderBackendCoreProfile implements BatchRenderBackend {
   }
 
   @Override
-  public void removeFromTexture(final Image image, final int x, final int y, final int w, final int h) {
+  public void removeFromTexture(final int atlasTextureId, final Image image, final int x, final int y, final int w, final int h) {
     // Since we clear the whole texture when we switch screens it's not really necessary to remove data from the
     // texture atlas when individual textures are removed. If necessary this can be enabled with a system property.
     if (!fillRemovedTexture) {
@@ -280,6 +277,7 @@ public class LwjglBatchRenderBackendCoreProfile implements BatchRenderBackend {
     }
     initialData.rewind();
 
+    bind(atlasTextureId);
     GL11.glTexSubImage2D(
         GL11.GL_TEXTURE_2D,
         0,
@@ -343,17 +341,17 @@ public class LwjglBatchRenderBackendCoreProfile implements BatchRenderBackend {
     return new ImageIOImageData();
   }
 
-  private void createAtlasTexture(final int width, final int height, final int srcPixelFormat) throws Exception {
+  private CoreTexture2D createAtlasTexture(final int width, final int height, final int srcPixelFormat) throws Exception {
     ByteBuffer initialData = BufferUtils.createByteBuffer(width*height*4);
     for (int i=0; i<width*height*4; i++) {
       initialData.put((byte) 0x80);
     }
     initialData.rewind();
-    texture = new CoreTexture2D(ColorFormat.RGBA, width, height, initialData, ResizeFilter.Nearest);
+    return new CoreTexture2D(ColorFormat.RGBA, width, height, initialData, ResizeFilter.Nearest);
   }
 
-  private void bind() {
-    texture.bind();
+  private void bind(final int atlasTextureId) {
+    atlasTextures.get(atlasTextureId).bind();
   }
 
   /**
@@ -400,6 +398,7 @@ public class LwjglBatchRenderBackendCoreProfile implements BatchRenderBackend {
     private final int SIZE = 64*1024; // 64k
 
     private BlendMode blendMode = BlendMode.BLEND;
+    private int atlasTextureId;
 
     private int primitiveCount;
     private final CoreVAO vao;
@@ -428,7 +427,8 @@ public class LwjglBatchRenderBackendCoreProfile implements BatchRenderBackend {
       vao.unbind();
     }
 
-    public void begin(final BlendMode blendMode) {
+    public void begin(final BlendMode blendMode, final int atlasTextureId) {
+      this.atlasTextureId = atlasTextureId;
       vao.bind();
       vbo.bind();
       vbo.getBuffer().clear();
@@ -444,6 +444,10 @@ public class LwjglBatchRenderBackendCoreProfile implements BatchRenderBackend {
       return blendMode;
     }
 
+    public int getAtlasTextureId() {
+      return atlasTextureId;
+    }
+
     public void render() {
       if (blendMode.equals(BlendMode.BLEND)) {
         GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
@@ -465,58 +469,58 @@ public class LwjglBatchRenderBackendCoreProfile implements BatchRenderBackend {
       return ((primitiveCount + 1) * PRIMITIVE_SIZE) < SIZE;
     }
 
-    private void addQuadInternal(
-        final float x,
-        final float y,
-        final float width,
-        final float height,
-        final Color color1,
-        final Color color2,
-        final Color color3,
-        final Color color4,
-        final float textureX,
-        final float textureY,
-        final float textureWidth,
-        final float textureHeight) {
+    private void addQuadInternal(final float[] quads, final int quadIndex) {
+      float x = quads[quadIndex];
+      float y = quads[quadIndex + 1];
+      float width = quads[quadIndex + 2];
+      float height = quads[quadIndex + 3];
+      float textureX = quads[quadIndex + 4];
+      float textureY = quads[quadIndex + 5];
+      float textureWidth = quads[quadIndex + 6];
+      float textureHeight = quads[quadIndex + 7];
+      int color1 = quadIndex + 8;
+      int color2 = quadIndex + 12;
+      int color3 = quadIndex + 16;
+      int color4 = quadIndex + 20;
       int bufferIndex = 0;
       int elementIndexBufferIndex = 0;
 
       primitiveBuffer[bufferIndex++] = x;
       primitiveBuffer[bufferIndex++] = y + height;
-      primitiveBuffer[bufferIndex++] = color3.getRed();
-      primitiveBuffer[bufferIndex++] = color3.getGreen();
-      primitiveBuffer[bufferIndex++] = color3.getBlue();
-      primitiveBuffer[bufferIndex++] = color3.getAlpha();
+      primitiveBuffer[bufferIndex++] = quads[color3];
+      primitiveBuffer[bufferIndex++] = quads[color3 + 1];
+      primitiveBuffer[bufferIndex++] = quads[color3 + 2];
+      primitiveBuffer[bufferIndex++] = quads[color3 + 3];
       primitiveBuffer[bufferIndex++] = textureX;
       primitiveBuffer[bufferIndex++] = textureY + textureHeight;
       elementIndexBuffer[elementIndexBufferIndex++] = globalIndex++;
 
       primitiveBuffer[bufferIndex++] = x + width;
       primitiveBuffer[bufferIndex++] = y + height;
-      primitiveBuffer[bufferIndex++] = color4.getRed();
-      primitiveBuffer[bufferIndex++] = color4.getGreen();
-      primitiveBuffer[bufferIndex++] = color4.getBlue();
-      primitiveBuffer[bufferIndex++] = color4.getAlpha();
+      primitiveBuffer[bufferIndex++] = quads[color4];
+      primitiveBuffer[bufferIndex++] = quads[color4 + 1];
+      primitiveBuffer[bufferIndex++] = quads[color4 + 2];
+      primitiveBuffer[bufferIndex++] = quads[color4 + 3];
       primitiveBuffer[bufferIndex++] = textureX + textureWidth;
       primitiveBuffer[bufferIndex++] = textureY + textureHeight;
       elementIndexBuffer[elementIndexBufferIndex++] = globalIndex++;
 
       primitiveBuffer[bufferIndex++] = x;
       primitiveBuffer[bufferIndex++] = y;
-      primitiveBuffer[bufferIndex++] = color1.getRed();
-      primitiveBuffer[bufferIndex++] = color1.getGreen();
-      primitiveBuffer[bufferIndex++] = color1.getBlue();
-      primitiveBuffer[bufferIndex++] = color1.getAlpha();
+      primitiveBuffer[bufferIndex++] = quads[color1];
+      primitiveBuffer[bufferIndex++] = quads[color1 + 1];
+      primitiveBuffer[bufferIndex++] = quads[color1 + 2];
+      primitiveBuffer[bufferIndex++] = quads[color1 + 3];
       primitiveBuffer[bufferIndex++] = textureX;
       primitiveBuffer[bufferIndex++] = textureY;
       elementIndexBuffer[elementIndexBufferIndex++] = globalIndex++;
 
       primitiveBuffer[bufferIndex++] = x + width;
       primitiveBuffer[bufferIndex++] = y;
-      primitiveBuffer[bufferIndex++] = color2.getRed();
-      primitiveBuffer[bufferIndex++] = color2.getGreen();
-      primitiveBuffer[bufferIndex++] = color2.getBlue();
-      primitiveBuffer[bufferIndex++] = color2.getAlpha();
+      primitiveBuffer[bufferIndex++] = quads[color2];
+      primitiveBuffer[bufferIndex++] = quads[color2 + 1];
+      primitiveBuffer[bufferIndex++] = quads[color2 + 2];
+      primitiveBuffer[bufferIndex++] = quads[color2 + 3];
       primitiveBuffer[bufferIndex++] = textureX + textureWidth;
       primitiveBuffer[bufferIndex++] = textureY;
       elementIndexBuffer[elementIndexBufferIndex++] = globalIndex++;